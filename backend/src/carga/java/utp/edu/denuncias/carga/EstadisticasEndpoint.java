@@ -0,0 +1,46 @@
+package utp.edu.denuncias.carga;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Resultados acumulados de una operación: latencias de todas las solicitudes y errores por estado HTTP.
+ * Se considera error toda respuesta fuera de 2xx y 304, y toda excepción del cliente (estado 0).
+ */
+final class EstadisticasEndpoint {
+
+    private final Histograma latencias = new Histograma();
+    private final LongAdder errores = new LongAdder();
+    private final Map<Integer, LongAdder> erroresPorEstado = new ConcurrentHashMap<>();
+
+    void registrar(int estado, long micros) {
+        latencias.registrar(micros);
+        if (estado != 304 && (estado < 200 || estado >= 300)) {
+            errores.increment();
+            erroresPorEstado.computeIfAbsent(estado, _ -> new LongAdder()).increment();
+        }
+    }
+
+    Histograma latencias() {
+        return latencias;
+    }
+
+    long solicitudes() {
+        return latencias.total();
+    }
+
+    long errores() {
+        return errores.sum();
+    }
+
+    /**
+     * @return errores agrupados por estado HTTP, ordenados por estado
+     */
+    Map<Integer, Long> erroresPorEstado() {
+        Map<Integer, Long> resultado = new TreeMap<>();
+        erroresPorEstado.forEach((estado, cuenta) -> resultado.put(estado, cuenta.sum()));
+        return resultado;
+    }
+}
@@ -0,0 +1,333 @@
+package utp.edu.denuncias.carga;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import utp.edu.denuncias.DenunciasApplication;
+import utp.edu.denuncias.dto.DenunciaRequest;
+import utp.edu.denuncias.dto.SolicitudRequest;
+import utp.edu.denuncias.enums.Categoria;
+import utp.edu.denuncias.enums.Estado;
+import utp.edu.denuncias.enums.Rol;
+import utp.edu.denuncias.enums.TipoSolicitud;
+import utp.edu.denuncias.model.Denuncia;
+import utp.edu.denuncias.model.Usuario;
+import utp.edu.denuncias.repository.DenunciaRepository;
+import utp.edu.denuncias.repository.UserRepository;
+import utp.edu.denuncias.search.DenunciaSearchIndex;
+import utp.edu.denuncias.service.DenunciaStatsService;
+import utp.edu.denuncias.service.ModeratorAssignmentEngine;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Prueba de carga de extremo a extremo, sin servicios externos: levanta la aplicación completa en un puerto
+ * libre de localhost con el perfil {@code test} (H2 en memoria, esquema creado por Flyway), crea usuarios de cada
+ * rol y denuncias iniciales, y lanza clientes simultáneos que recorren la mezcla de {@link Operacion} a través
+ * de HTTP, con autenticación JWT real. Tras un calentamiento cuyas mediciones se descartan, informa por endpoint
+ * el rendimiento, la tasa de errores, los percentiles y el histograma de latencias.
+ * <p>
+ * Se ejecuta con {@code mvn -Pcarga -DskipTests verify}; la configuración se toma de las propiedades del sistema
+ * {@code carga.clientes}, {@code carga.duracion}, {@code carga.calentamiento} y {@code carga.perfiles}.
+ * Cada cliente usa un generador aleatorio con semilla fija, así que la secuencia de operaciones se repite
+ * entre ejecuciones.
+ */
+public final class GeneradorCarga {
+
+    private static final String PASSWORD = "Carga-2025";
+    private static final Map<Rol, Integer> USUARIOS_POR_ROL = Map.of(Rol.USER, 200, Rol.MOD, 20, Rol.ADMIN, 5);
+    private static final int DENUNCIAS_INICIALES = 500;
+    private static final Estado[] ESTADOS = {Estado.EN_PROCESO, Estado.EN_REVISION, Estado.RESUELTO, Estado.RECHAZADO};
+    private static final long[][] RANGOS_HISTOGRAMA_MS = {
+            {0, 1}, {1, 2}, {2, 5}, {5, 10}, {10, 20}, {20, 50}, {50, 100}, {100, 200}, {200, 500}, {500, 1000},
+            {1000, Long.MAX_VALUE / 1000}};
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final String base;
+    private final long[] denuncias;
+
+    /**
+     * Resultados de la fase en curso; se reemplaza al terminar el calentamiento.
+     */
+    private volatile Map<Operacion, EstadisticasEndpoint> estadisticas = nuevasEstadisticas();
+
+    private GeneradorCarga(int puerto, long[] denuncias) {
+        this.base = "http://localhost:" + puerto;
+        this.denuncias = denuncias;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int clientes = Integer.getInteger("carga.clientes", 100);
+        Duration duracion = DurationStyle.detectAndParse(System.getProperty("carga.duracion", "60s"));
+        Duration calentamiento = DurationStyle.detectAndParse(System.getProperty("carga.calentamiento", "15s"));
+        String perfiles = System.getProperty("carga.perfiles", "test");
+
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(DenunciasApplication.class).run(
+                "--spring.profiles.active=" + perfiles,
+                "--server.port=0",
+                "--logging.level.root=WARN")) {
+            long[] denuncias = sembrar(contexto);
+            int puerto = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+            var generador = new GeneradorCarga(puerto, denuncias);
+
+            System.out.printf("Carga: %d clientes, calentamiento %s, medición %s, perfiles %s%n",
+                    clientes, calentamiento, duracion, perfiles);
+            long fin = System.nanoTime() + calentamiento.toNanos() + duracion.toNanos();
+            try (ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < clientes; i++) {
+                    int indice = i;
+                    hilos.execute(() -> generador.ejecutarCliente(indice, fin));
+                }
+                Thread.sleep(calentamiento);
+                generador.estadisticas = nuevasEstadisticas();
+            }
+            generador.reportar(duracion);
+        }
+    }
+
+    /**
+     * Crea los usuarios de cada rol, todos con la misma contraseña, y denuncias iniciales repartidas entre los
+     * usuarios; un tercio queda asignado a un moderador, en proceso como las que asigna la aplicación.
+     * <p>
+     * Los datos se guardan directamente en los repositorios, después de que la aplicación construyó al iniciar
+     * el reparto de moderadores, las estadísticas y el índice de búsqueda; por eso se reconstruyen al terminar,
+     * para que la prueba no empiece sin moderadores en el reparto ni con estadísticas y búsquedas desactualizadas.
+     *
+     * @return identificadores de las denuncias creadas
+     */
+    private static long[] sembrar(ConfigurableApplicationContext contexto) {
+        var userRepository = contexto.getBean(UserRepository.class);
+        String hash = contexto.getBean(PasswordEncoder.class).encode(PASSWORD);
+        Map<Rol, List<Usuario>> usuarios = new EnumMap<>(Rol.class);
+        USUARIOS_POR_ROL.forEach((rol, cantidad) -> {
+            List<Usuario> lista = new ArrayList<>(cantidad);
+            for (int i = 0; i < cantidad; i++) {
+                lista.add(Usuario.builder()
+                        .nombres("Nombre" + i)
+                        .apellidos(rol.getTitulo())
+                        .username(username(rol, i))
+                        .password(hash)
+                        .dni(rol.ordinal() + String.format("%07d", i))
+                        .email(username(rol, i) + "@carga.local")
+                        .rol(rol)
+                        .build());
+            }
+            usuarios.put(rol, userRepository.saveAll(lista));
+        });
+
+        var categorias = Categoria.values();
+        var autores = usuarios.get(Rol.USER);
+        var moderadores = usuarios.get(Rol.MOD);
+        List<Denuncia> lista = new ArrayList<>(DENUNCIAS_INICIALES);
+        for (int i = 0; i < DENUNCIAS_INICIALES; i++) {
+            lista.add(Denuncia.builder()
+                    .titulo("Denuncia inicial " + i)
+                    .description("Denuncia creada antes de la prueba de carga.")
+                    .lugar("Av. Principal " + i)
+                    .categoria(categorias[i % categorias.length])
+                    .usuario(autores.get(i % autores.size()))
+                    .modAsignado(i % 3 == 0 ? moderadores.get(i % moderadores.size()) : null)
+                    .estado(i % 3 == 0 ? Estado.EN_PROCESO : Estado.PENDIENTE)
+                    .build());
+        }
+        long[] ids = contexto.getBean(DenunciaRepository.class).saveAll(lista).stream().mapToLong(Denuncia::getId).toArray();
+
+        contexto.getBean(ModeratorAssignmentEngine.class).reconstruir();
+        contexto.getBean(DenunciaStatsService.class).reconciliar();
+        contexto.getBean(DenunciaSearchIndex.class).reconstruir();
+        return ids;
+    }
+
+    private static String username(Rol rol, int indice) {
+        return rol.name().toLowerCase() + indice;
+    }
+
+    private static Map<Operacion, EstadisticasEndpoint> nuevasEstadisticas() {
+        Map<Operacion, EstadisticasEndpoint> mapa = new EnumMap<>(Operacion.class);
+        for (Operacion operacion : Operacion.values()) {
+            mapa.put(operacion, new EstadisticasEndpoint());
+        }
+        return mapa;
+    }
+
+    /**
+     * Ciclo de un cliente: siete de cada diez son usuarios, dos moderadores y uno administrador. Inicia sesión y
+     * ejecuta operaciones de su rol, elegidas según su peso, hasta el instante de fin.
+     *
+     * @param indice número del cliente, usado como semilla y para elegir su usuario
+     * @param fin    instante de fin, según {@link System#nanoTime()}
+     */
+    private void ejecutarCliente(int indice, long fin) {
+        Rol rol = indice % 10 < 7 ? Rol.USER : indice % 10 < 9 ? Rol.MOD : Rol.ADMIN;
+        var sesion = new Sesion(username(rol, indice % USUARIOS_POR_ROL.get(rol)), indice % 2 == 0, new SplittableRandom(indice));
+        List<Operacion> operaciones = Operacion.de(rol);
+        int pesoTotal = operaciones.stream().mapToInt(Operacion::getPeso).sum();
+
+        ejecutar(Operacion.LOGIN, sesion);
+        while (System.nanoTime() < fin) {
+            int sorteo = sesion.azar.nextInt(pesoTotal);
+            for (Operacion operacion : operaciones) {
+                sorteo -= operacion.getPeso();
+                if (sorteo < 0) {
+                    ejecutar(operacion, sesion);
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Envía la solicitud de la operación y registra su estado y latencia; un error del cliente HTTP
+     * se registra con estado 0.
+     */
+    private void ejecutar(Operacion operacion, Sesion sesion) {
+        long inicio = System.nanoTime();
+        int estado;
+        try {
+            estado = enviar(operacion, sesion);
+        } catch (IOException e) {
+            estado = 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        estadisticas.get(operacion).registrar(estado, (System.nanoTime() - inicio) / 1_000);
+    }
+
+    private int enviar(Operacion operacion, Sesion sesion) throws IOException, InterruptedException {
+        var azar = sesion.azar;
+        return switch (operacion) {
+            case LOGIN -> {
+                var respuesta = cliente.send(post("/auth/login", Map.of("username", sesion.username, "password", PASSWORD), null),
+                        HttpResponse.BodyHandlers.ofString());
+                if (respuesta.statusCode() == 200) {
+                    sesion.token = objectMapper.readTree(respuesta.body()).get("token").asText();
+                }
+                yield respuesta.statusCode();
+            }
+            case NUEVA_DENUNCIA -> {
+                var categorias = Categoria.values();
+                var cuerpo = new DenunciaRequest("Denuncia de " + sesion.username, "Registrada durante la prueba de carga.",
+                        "Jr. Secundario " + azar.nextInt(1000), categorias[azar.nextInt(categorias.length)]);
+                yield descartar(post("/api/denuncia/usuario", cuerpo, sesion.token));
+            }
+            case NOTIFICACIONES -> descartar(get("/api/usuario/notificaciones?size=20", sesion.token, null));
+            case COLA_MODERADOR -> {
+                // Cada moderador consulta siempre la misma cola y la revalida con el ETag de la consulta anterior
+                var respuesta = cliente.send(get("/api/denuncia/mod/" + sesion.sinAsignar + "?size=20", sesion.token, sesion.etag),
+                        HttpResponse.BodyHandlers.discarding());
+                sesion.etag = respuesta.headers().firstValue("ETag").orElse(null);
+                yield respuesta.statusCode();
+            }
+            case REALIZAR_SOLICITUD -> {
+                var cuerpo = new SolicitudRequest("Solicitud de " + sesion.username, "Solicito revisar el estado de la denuncia.",
+                        denuncias[azar.nextInt(denuncias.length)], null, TipoSolicitud.CAMBIO_ESTADO);
+                yield descartar(post("/api/solicitud", cuerpo, sesion.token));
+            }
+            case CAMBIAR_ESTADO -> descartar(HttpRequest.newBuilder(URI.create(base + "/api/denuncia/admin/estado/"
+                            + denuncias[azar.nextInt(denuncias.length)] + "/" + ESTADOS[azar.nextInt(ESTADOS.length)]))
+                    .header("Authorization", "Bearer " + sesion.token)
+                    .PUT(HttpRequest.BodyPublishers.noBody())
+                    .build());
+        };
+    }
+
+    private int descartar(HttpRequest solicitud) throws IOException, InterruptedException {
+        return cliente.send(solicitud, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private HttpRequest get(String ruta, String token, String etag) {
+        var builder = HttpRequest.newBuilder(URI.create(base + ruta)).header("Authorization", "Bearer " + token).GET();
+        if (etag != null) {
+            builder.header("If-None-Match", etag);
+        }
+        return builder.build();
+    }
+
+    private HttpRequest post(String ruta, Object cuerpo, String token) throws JsonProcessingException {
+        var builder = HttpRequest.newBuilder(URI.create(base + ruta))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(cuerpo)));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Imprime por endpoint las solicitudes, el rendimiento, la tasa de errores y los percentiles de latencia,
+     * y a continuación el histograma de latencias de cada uno.
+     *
+     * @param duracion duración de la fase medida
+     */
+    private void reportar(Duration duracion) {
+        double segundos = duracion.toNanos() / 1e9;
+        System.out.printf("%n%-46s %11s %9s %8s %9s %9s %9s %9s%n",
+                "Endpoint", "solicitudes", "sol/s", "errores", "p50 ms", "p90 ms", "p99 ms", "máx ms");
+        long total = 0;
+        for (var entrada : estadisticas.entrySet()) {
+            var e = entrada.getValue();
+            var h = e.latencias();
+            long solicitudes = e.solicitudes();
+            total += solicitudes;
+            System.out.printf("%-46s %11d %9.1f %7.2f%% %9.2f %9.2f %9.2f %9.2f%s%n",
+                    entrada.getKey().getEndpoint(), solicitudes, solicitudes / segundos,
+                    solicitudes == 0 ? 0 : 100.0 * e.errores() / solicitudes,
+                    h.percentil(50) / 1e3, h.percentil(90) / 1e3, h.percentil(99) / 1e3, h.percentil(100) / 1e3,
+                    e.errores() == 0 ? "" : "  " + e.erroresPorEstado());
+        }
+        System.out.printf("%-46s %11d %9.1f%n", "Total", total, total / segundos);
+
+        for (var entrada : estadisticas.entrySet()) {
+            var h = entrada.getValue().latencias();
+            long solicitudes = h.total();
+            if (solicitudes == 0) {
+                continue;
+            }
+            System.out.printf("%n%s%n", entrada.getKey().getEndpoint());
+            for (long[] rango : RANGOS_HISTOGRAMA_MS) {
+                long cuenta = h.contar(rango[0] * 1_000, rango[1] * 1_000);
+                String etiqueta = rango[1] == Long.MAX_VALUE / 1000
+                        ? String.format(">= %d ms", rango[0]) : String.format("%d-%d ms", rango[0], rango[1]);
+                System.out.printf("  %12s %9d %6.2f%% %s%n", etiqueta, cuenta, 100.0 * cuenta / solicitudes,
+                        "#".repeat((int) Math.round(50.0 * cuenta / solicitudes)));
+            }
+        }
+    }
+
+    /**
+     * Estado de un cliente: su usuario, la cola que consulta si es moderador (las denuncias sin asignar o las
+     * propias), su token vigente, el último ETag de esa cola y su generador aleatorio.
+     */
+    private static final class Sesion {
+
+        private final String username;
+        private final boolean sinAsignar;
+        private final SplittableRandom azar;
+        private String token;
+        private String etag;
+
+        private Sesion(String username, boolean sinAsignar, SplittableRandom azar) {
+            this.username = username;
+            this.sinAsignar = sinAsignar;
+            this.azar = azar;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package utp.edu.denuncias.carga;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma de latencias en microsegundos, seguro para varios hilos sin bloqueos. Cada potencia de dos se
+ * divide en 16 intervalos iguales, así que un percentil se informa con un error relativo menor al 7 % y la
+ * memoria es fija, sin importar la cantidad de mediciones.
+ */
+final class Histograma {
+
+    private static final int SUBINTERVALOS = 16;
+    private static final int BITS_SUBINTERVALO = 4;
+
+    private final AtomicLongArray cuentas = new AtomicLongArray(64 * SUBINTERVALOS);
+
+    void registrar(long micros) {
+        cuentas.incrementAndGet(indice(Math.max(micros, 0)));
+    }
+
+    long total() {
+        long total = 0;
+        for (int i = 0; i < cuentas.length(); i++) {
+            total += cuentas.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * @param percentil percentil buscado, entre 0 y 100
+     * @return límite superior del intervalo que contiene el percentil, en microsegundos; 0 si no hay mediciones
+     */
+    long percentil(double percentil) {
+        long total = total();
+        if (total == 0) {
+            return 0;
+        }
+        long objetivo = Math.max(1, (long) Math.ceil(percentil / 100 * total));
+        long acumulado = 0;
+        for (int i = 0; i < cuentas.length(); i++) {
+            acumulado += cuentas.get(i);
+            if (acumulado >= objetivo) {
+                return limiteSuperior(i);
+            }
+        }
+        return limiteSuperior(cuentas.length() - 1);
+    }
+
+    /**
+     * @param desde límite inferior en microsegundos (inclusive)
+     * @param hasta límite superior en microsegundos (exclusive)
+     * @return mediciones cuyo intervalo comienza en el rango indicado
+     */
+    long contar(long desde, long hasta) {
+        long cuenta = 0;
+        for (int i = 0; i < cuentas.length(); i++) {
+            long inferior = limiteInferior(i);
+            if (inferior >= desde && inferior < hasta) {
+                cuenta += cuentas.get(i);
+            }
+        }
+        return cuenta;
+    }
+
+    private static int indice(long micros) {
+        if (micros < SUBINTERVALOS) {
+            return (int) micros;
+        }
+        int exponente = 63 - Long.numberOfLeadingZeros(micros);
+        int subintervalo = (int) (micros >>> (exponente - BITS_SUBINTERVALO)) & (SUBINTERVALOS - 1);
+        return (exponente - BITS_SUBINTERVALO + 1) * SUBINTERVALOS + subintervalo;
+    }
+
+    private static long limiteInferior(int indice) {
+        if (indice < SUBINTERVALOS) {
+            return indice;
+        }
+        int exponente = indice / SUBINTERVALOS + BITS_SUBINTERVALO - 1;
+        return (long) (SUBINTERVALOS + indice % SUBINTERVALOS) << (exponente - BITS_SUBINTERVALO);
+    }
+
+    private static long limiteSuperior(int indice) {
+        if (indice < SUBINTERVALOS) {
+            return indice;
+        }
+        int exponente = indice / SUBINTERVALOS + BITS_SUBINTERVALO - 1;
+        return limiteInferior(indice) + (1L << (exponente - BITS_SUBINTERVALO)) - 1;
+    }
+}
@@ -0,0 +1,47 @@
+package utp.edu.denuncias.carga;
+
+import lombok.Getter;
+import utp.edu.denuncias.enums.Rol;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Operaciones de la mezcla de tráfico, con el rol que las realiza y su peso relativo dentro de ese rol.
+ * La mezcla imita el uso real: los usuarios sobre todo consultan sus notificaciones y registran denuncias,
+ * los moderadores revisan su cola y envían solicitudes, y los administradores cambian estados.
+ */
+@Getter
+enum Operacion {
+
+    LOGIN("POST /auth/login", null, 5),
+    NUEVA_DENUNCIA("POST /api/denuncia/usuario", Rol.USER, 30),
+    NOTIFICACIONES("GET /api/usuario/notificaciones", Rol.USER, 65),
+    COLA_MODERADOR("GET /api/denuncia/mod/{all}", Rol.MOD, 70),
+    REALIZAR_SOLICITUD("POST /api/solicitud", Rol.MOD, 25),
+    CAMBIAR_ESTADO("PUT /api/denuncia/admin/estado/{id}/{estado}", Rol.ADMIN, 95);
+
+    /**
+     * Método y ruta, para el reporte.
+     */
+    private final String endpoint;
+    /**
+     * Rol que realiza la operación; null si la realizan todos.
+     */
+    private final Rol rol;
+    private final int peso;
+
+    Operacion(String endpoint, Rol rol, int peso) {
+        this.endpoint = endpoint;
+        this.rol = rol;
+        this.peso = peso;
+    }
+
+    /**
+     * @param rol rol del cliente
+     * @return las operaciones que realiza un cliente con ese rol
+     */
+    static List<Operacion> de(Rol rol) {
+        return Arrays.stream(values()).filter(o -> o.rol == null || o.rol == rol).toList();
+    }
+}
@@ -0,0 +1,114 @@
+package utp.edu.denuncias;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compara los resultados de JMH ({@code -rf json}) con la línea base guardada en el repositorio.
+ * Para cada benchmark muestra el valor de la línea base, el actual y la variación, y marca como regresión o
+ * mejora solo las diferencias mayores que la suma de los márgenes de error de ambas mediciones.
+ * Termina con código 1 si hay alguna regresión o si faltan los resultados, para que {@code mvn -Pjmh verify}
+ * falle; los benchmarks que no están en la línea base se muestran como nuevos. Mientras no haya línea base
+ * solo se muestra un aviso y la compilación no falla: la comparación solo tiene sentido con resultados medidos
+ * en la máquina de referencia.
+ * <p>
+ * Para registrar una nueva línea base, después de una ejecución completa en la máquina de referencia:
+ * {@code cp target/jmh-result.json src/jmh/baseline.json}.
+ */
+public final class ComparadorJmh {
+
+    private ComparadorJmh() {
+    }
+
+    /**
+     * @param args ruta de la línea base y ruta de los resultados actuales
+     * @throws IOException si no se pueden leer los archivos
+     */
+    public static void main(String[] args) throws IOException {
+        System.exit(comparar(Path.of(args[0]), Path.of(args[1])));
+    }
+
+    /**
+     * Compara los resultados con la línea base y muestra la tabla de variaciones.
+     *
+     * @param lineaBase resultados de referencia guardados en el repositorio
+     * @param actual    resultados de la ejecución actual
+     * @return 0 si no hay regresiones o aún no hay línea base; 1 si hay regresiones o faltan los resultados
+     * @throws IOException si no se pueden leer los archivos
+     */
+    static int comparar(Path lineaBase, Path actual) throws IOException {
+        if (!Files.exists(actual)) {
+            System.err.printf("No se encontraron resultados en %s%n", actual);
+            return 1;
+        }
+        if (!Files.exists(lineaBase)) {
+            System.out.printf("Aviso: no hay línea base en %s, no se comparan los resultados; para registrarla en la "
+                    + "máquina de referencia: cp %s %s%n", lineaBase, actual, lineaBase);
+            return 0;
+        }
+
+        var mapper = new ObjectMapper();
+        Map<String, JsonNode> base = indexar(mapper.readTree(lineaBase.toFile()));
+        Map<String, JsonNode> resultados = indexar(mapper.readTree(actual.toFile()));
+
+        int regresiones = 0;
+        System.out.printf("%-70s %14s %14s %9s%n", "Benchmark", "Línea base", "Actual", "Cambio");
+        for (var entrada : resultados.entrySet()) {
+            JsonNode anterior = base.get(entrada.getKey());
+            JsonNode metrica = entrada.getValue().get("primaryMetric");
+            String unidad = metrica.get("scoreUnit").asText();
+            if (anterior == null) {
+                System.out.printf("%-70s %14s %14.3f %9s  %s (nuevo)%n", entrada.getKey(), "-",
+                        metrica.get("score").asDouble(), "-", unidad);
+                continue;
+            }
+            JsonNode metricaAnterior = anterior.get("primaryMetric");
+            double valorAnterior = metricaAnterior.get("score").asDouble();
+            double valor = metrica.get("score").asDouble();
+            double margen = error(metricaAnterior) + error(metrica);
+            // En modo de rendimiento (thrpt) un valor mayor es mejor; en los demás modos (tiempo) es peor
+            boolean mayorEsMejor = "thrpt".equals(entrada.getValue().get("mode").asText());
+            String veredicto = "";
+            if (Math.abs(valor - valorAnterior) > margen) {
+                boolean empeoro = mayorEsMejor ? valor < valorAnterior : valor > valorAnterior;
+                veredicto = empeoro ? "  REGRESIÓN" : "  mejora";
+                regresiones += empeoro ? 1 : 0;
+            }
+            System.out.printf("%-70s %14.3f %14.3f %+8.1f%%  %s%s%n", entrada.getKey(), valorAnterior, valor,
+                    (valor - valorAnterior) / valorAnterior * 100, unidad, veredicto);
+        }
+        System.out.printf("%d regresiones respecto de %s%n", regresiones, lineaBase);
+        return regresiones > 0 ? 1 : 0;
+    }
+
+    /**
+     * Indexa los resultados por nombre del benchmark y sus parámetros ({@code @Param}).
+     */
+    private static Map<String, JsonNode> indexar(JsonNode resultados) {
+        Map<String, JsonNode> indice = new LinkedHashMap<>();
+        for (JsonNode resultado : resultados) {
+            var clave = new StringBuilder(resultado.get("benchmark").asText());
+            JsonNode parametros = resultado.get("params");
+            if (parametros != null) {
+                parametros.properties().forEach(p -> clave.append(' ').append(p.getKey()).append('=').append(p.getValue().asText()));
+            }
+            indice.put(clave.toString(), resultado);
+        }
+        return indice;
+    }
+
+    /**
+     * Margen de error de la medición (intervalo de confianza del 99,9 %); JMH lo informa como NaN cuando hay
+     * una sola iteración.
+     */
+    private static double error(JsonNode metrica) {
+        double error = metrica.path("scoreError").asDouble(0);
+        return Double.isNaN(error) ? 0 : error;
+    }
+}
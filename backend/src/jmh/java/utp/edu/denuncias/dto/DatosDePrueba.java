@@ -0,0 +1,110 @@
+package utp.edu.denuncias.dto;
+
+import utp.edu.denuncias.enums.Categoria;
+import utp.edu.denuncias.enums.Estado;
+import utp.edu.denuncias.enums.Rol;
+import utp.edu.denuncias.enums.TipoSolicitud;
+import utp.edu.denuncias.model.Denuncia;
+import utp.edu.denuncias.model.Notification;
+import utp.edu.denuncias.model.Solicitud;
+import utp.edu.denuncias.model.Usuario;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Datos de los benchmarks de mapeo y serialización. Se generan de forma determinista (sin azar ni fecha actual),
+ * para que cada ejecución mida exactamente el mismo contenido y los resultados sean comparables.
+ */
+final class DatosDePrueba {
+
+    private static final LocalDateTime FECHA = LocalDateTime.of(2025, 5, 1, 9, 30);
+    private static final int USUARIOS = 50;
+    private static final int MODERADORES = 5;
+
+    private DatosDePrueba() {
+    }
+
+    static List<Denuncia> denuncias(int cantidad) {
+        var usuarios = usuarios(USUARIOS, Rol.USER, 1);
+        var moderadores = usuarios(MODERADORES, Rol.MOD, 100);
+        var categorias = Categoria.values();
+        var estados = Estado.values();
+        List<Denuncia> lista = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            lista.add(Denuncia.builder()
+                    .id((long) i + 1)
+                    .titulo("Denuncia número " + i + " en el distrito")
+                    .description("Se reporta un incidente ocurrido cerca del paradero principal; los vecinos indican "
+                            + "que se repite con frecuencia durante la noche. Caso " + i + ".")
+                    .lugar("Av. Principal " + (100 + i % 900) + ", Lima")
+                    .categoria(categorias[i % categorias.length])
+                    .estado(estados[i % estados.length])
+                    .createdDate(FECHA.plusMinutes(i))
+                    .usuario(usuarios.get(i % USUARIOS))
+                    .modAsignado(i % 3 == 0 ? null : moderadores.get(i % MODERADORES))
+                    .build());
+        }
+        return lista;
+    }
+
+    static List<Solicitud> solicitudes(int cantidad) {
+        var moderadores = usuarios(MODERADORES, Rol.MOD, 100);
+        var administrador = usuarios(1, Rol.ADMIN, 1000).getFirst();
+        var denuncias = denuncias(Math.min(cantidad, 300));
+        var tipos = TipoSolicitud.values();
+        List<Solicitud> lista = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            boolean revisada = i % 2 == 0;
+            lista.add(Solicitud.builder()
+                    .id((long) i + 1)
+                    .titulo("Solicitud de revisión " + i)
+                    .msg("Se solicita revisar la denuncia por información incompleta en la descripción del hecho.")
+                    .respuesta(revisada ? "Revisada y aprobada por el administrador." : null)
+                    .estado(revisada ? Estado.RESUELTO : Estado.PENDIENTE)
+                    .tipoSolicitud(tipos[i % tipos.length])
+                    .createdDate(FECHA.plusMinutes(i))
+                    .endDate(FECHA.plusMinutes(i + 60))
+                    .denuncia(denuncias.get(i % denuncias.size()))
+                    .autor(moderadores.get(i % MODERADORES))
+                    .revisor(revisada ? administrador : null)
+                    .build());
+        }
+        return lista;
+    }
+
+    static List<Notification> notificaciones(int cantidad) {
+        var denuncias = denuncias(Math.min(cantidad, 300));
+        var destinatario = usuarios(1, Rol.USER, 1).getFirst();
+        List<Notification> lista = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            lista.add(Notification.builder()
+                    .id((long) i + 1)
+                    .titulo("Cambio de estado")
+                    .message("La denuncia " + i + " cambió de estado.")
+                    .visto(i % 4 == 0)
+                    .createdDate(FECHA.plusMinutes(i))
+                    .denuncia(denuncias.get(i % denuncias.size()))
+                    .destinatario(destinatario)
+                    .build());
+        }
+        return lista;
+    }
+
+    private static List<Usuario> usuarios(int cantidad, Rol rol, long primerId) {
+        List<Usuario> lista = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            lista.add(Usuario.builder()
+                    .id(primerId + i)
+                    .nombres("Nombre" + i)
+                    .apellidos("Apellido" + i)
+                    .username(rol.name().toLowerCase() + i)
+                    .dni(String.format("%08d", primerId + i))
+                    .email(rol.name().toLowerCase() + i + "@denuncias.local")
+                    .rol(rol)
+                    .build());
+        }
+        return lista;
+    }
+}
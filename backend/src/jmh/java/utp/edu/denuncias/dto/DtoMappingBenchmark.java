@@ -0,0 +1,61 @@
+package utp.edu.denuncias.dto;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utp.edu.denuncias.model.Denuncia;
+import utp.edu.denuncias.model.Notification;
+import utp.edu.denuncias.model.Solicitud;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de convertir listados de entidades en DTOs de respuesta con los métodos {@code from}
+ * de {@link DenunciaResponse}, {@link SolicitudResponse} y {@link NotificationResponse}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class DtoMappingBenchmark {
+
+    @Param({"100", "10000"})
+    private int elementos;
+
+    private List<Denuncia> denuncias;
+    private List<Solicitud> solicitudes;
+    private List<Notification> notificaciones;
+
+    @Setup
+    public void setUp() {
+        denuncias = DatosDePrueba.denuncias(elementos);
+        solicitudes = DatosDePrueba.solicitudes(elementos);
+        notificaciones = DatosDePrueba.notificaciones(elementos);
+    }
+
+    @Benchmark
+    public List<DenunciaResponse> denuncias() {
+        return DenunciaResponse.from(denuncias);
+    }
+
+    @Benchmark
+    public List<SolicitudResponse> solicitudes() {
+        return SolicitudResponse.from(solicitudes);
+    }
+
+    @Benchmark
+    public List<NotificationResponse> notificaciones() {
+        return NotificationResponse.from(notificaciones);
+    }
+}
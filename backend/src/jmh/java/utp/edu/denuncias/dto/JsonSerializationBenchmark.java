@@ -0,0 +1,63 @@
+package utp.edu.denuncias.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de serializar a JSON los listados de respuesta, con un {@link ObjectMapper} construido igual que el de
+ * Spring MVC ({@link Jackson2ObjectMapperBuilder}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    @Param({"100", "10000"})
+    private int elementos;
+
+    private ObjectMapper objectMapper;
+    private List<DenunciaResponse> denuncias;
+    private List<SolicitudResponse> solicitudes;
+    private List<NotificationResponse> notificaciones;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        denuncias = DenunciaResponse.from(DatosDePrueba.denuncias(elementos));
+        solicitudes = SolicitudResponse.from(DatosDePrueba.solicitudes(elementos));
+        notificaciones = NotificationResponse.from(DatosDePrueba.notificaciones(elementos));
+    }
+
+    @Benchmark
+    public byte[] denuncias() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(denuncias);
+    }
+
+    @Benchmark
+    public byte[] solicitudes() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(solicitudes);
+    }
+
+    @Benchmark
+    public byte[] notificaciones() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(notificaciones);
+    }
+}
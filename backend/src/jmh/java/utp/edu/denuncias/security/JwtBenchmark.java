@@ -0,0 +1,76 @@
+package utp.edu.denuncias.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+import utp.edu.denuncias.enums.Rol;
+import utp.edu.denuncias.model.Usuario;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de emitir y verificar tokens con {@link JwtUtil}. La validación y la extracción del usuario se hacen
+ * en una sola pasada con {@link JwtUtil#verify(String)}; se mide sin caché (verificación de la firma en cada
+ * llamada) y con el token ya en caché, que es el caso de las solicitudes sucesivas de un mismo cliente.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private static final String SECRET = "clave-de-prueba-para-el-benchmark-de-jwt-con-longitud-suficiente-para-hs512-0123456789";
+
+    private JwtUtil jwtUtil;
+    private JwtUtil jwtUtilSinCache;
+    private Usuario usuario;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = crearJwtUtil(Duration.ofMinutes(10));
+        jwtUtilSinCache = crearJwtUtil(Duration.ZERO);
+        usuario = Usuario.builder().id(1L).username("benchmark").rol(Rol.USER).build();
+        token = jwtUtil.generateToken(usuario);
+    }
+
+    @Benchmark
+    public String generarToken() {
+        return jwtUtil.generateToken(usuario);
+    }
+
+    @Benchmark
+    public Optional<VerifiedToken> verificarSinCache() {
+        return jwtUtilSinCache.verify(token);
+    }
+
+    @Benchmark
+    public Optional<VerifiedToken> verificarConCache() {
+        return jwtUtil.verify(token);
+    }
+
+    /**
+     * Crea una instancia de JwtUtil con la configuración indicada; un tiempo de vida cero desactiva la caché.
+     */
+    private static JwtUtil crearJwtUtil(Duration cacheTtl) {
+        JwtUtil util = new JwtUtil();
+        ReflectionTestUtils.setField(util, "secret", SECRET);
+        ReflectionTestUtils.setField(util, "expiration", 86_400_000L);
+        ReflectionTestUtils.setField(util, "cacheMaxSize", 10_000);
+        ReflectionTestUtils.setField(util, "cacheTtl", cacheTtl);
+        util.init();
+        return util;
+    }
+}
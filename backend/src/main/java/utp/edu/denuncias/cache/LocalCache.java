@@ -0,0 +1,186 @@
+package utp.edu.denuncias.cache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Caché local en memoria, acotada por cantidad de entradas y por tiempo de vida.
+ * Está pensada para valores pequeños consultados en cada solicitud (tokens verificados, detalles de usuario),
+ * donde evitar el trabajo repetido importa más que mantener un orden de desalojo estricto:
+ * al superar el tamaño máximo se descartan primero las entradas vencidas y luego entradas arbitrarias.
+ * Lleva la cuenta de aciertos, fallos y desalojos para poder exponerlos como métricas.
+ *
+ * @param <K> tipo de la clave
+ * @param <V> tipo del valor
+ */
+public class LocalCache<K, V> {
+
+    /**
+     * Entrada almacenada junto con el instante (en {@link System#nanoTime()}) en que vence.
+     */
+    private record Entry<V>(V value, long expiresAt) {
+        boolean expired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final long ttlNanos;
+
+    /**
+     * Se incrementa en cada invalidación; permite descartar valores cargados antes de una invalidación concurrente.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Crea una caché con los límites indicados.
+     *
+     * @param maxSize cantidad máxima de entradas
+     * @param ttl     tiempo de vida máximo de cada entrada
+     */
+    public LocalCache(int maxSize, Duration ttl) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * Obtiene el valor asociado a la clave si existe y no ha vencido.
+     *
+     * @param key clave a buscar
+     * @return el valor almacenado, o null si no existe o venció
+     */
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null) {
+            if (!entry.expired(System.nanoTime())) {
+                hits.increment();
+                return entry.value();
+            }
+            entries.remove(key, entry);
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Obtiene el valor asociado a la clave o lo carga con la función indicada y lo almacena.
+     * Si la clave se invalida mientras se carga el valor, este se devuelve pero no se almacena.
+     *
+     * @param key    clave a buscar
+     * @param loader función que carga el valor en caso de fallo; si devuelve null no se almacena nada
+     * @return el valor almacenado o cargado
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V value = get(key);
+        if (value != null) {
+            return value;
+        }
+        long gen = generation.get();
+        value = loader.apply(key);
+        if (value != null && generation.get() == gen) {
+            put(key, value, ttlNanos);
+        }
+        return value;
+    }
+
+    /**
+     * Almacena un valor con el tiempo de vida por defecto.
+     *
+     * @param key   clave
+     * @param value valor
+     */
+    public void put(K key, V value) {
+        put(key, value, ttlNanos);
+    }
+
+    /**
+     * Almacena un valor que vence antes que el tiempo de vida por defecto si así se indica.
+     *
+     * @param key   clave
+     * @param value valor
+     * @param ttl   tiempo de vida de la entrada; se usa el menor entre este y el de la caché
+     */
+    public void put(K key, V value, Duration ttl) {
+        put(key, value, Math.min(ttl.toNanos(), ttlNanos));
+    }
+
+    private void put(K key, V value, long ttl) {
+        if (ttl <= 0) {
+            return;
+        }
+        entries.put(key, new Entry<>(value, System.nanoTime() + ttl));
+        if (entries.size() > maxSize) {
+            evict();
+        }
+    }
+
+    /**
+     * Elimina la entrada asociada a la clave.
+     *
+     * @param key clave a invalidar
+     */
+    public void invalidate(K key) {
+        generation.incrementAndGet();
+        entries.remove(key);
+    }
+
+    /**
+     * Elimina todas las entradas.
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    /**
+     * Reduce la caché por debajo del tamaño máximo: primero descarta las entradas vencidas y,
+     * si no es suficiente, entradas arbitrarias hasta dejar un margen del 10%.
+     */
+    private void evict() {
+        long now = System.nanoTime();
+        entries.entrySet().removeIf(e -> {
+            boolean expired = e.getValue().expired(now);
+            if (expired) {
+                evictions.increment();
+            }
+            return expired;
+        });
+        int target = maxSize - Math.max(1, maxSize / 10);
+        Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator();
+        while (entries.size() > target && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions.increment();
+        }
+    }
+
+    /** @return cantidad de entradas almacenadas */
+    public int size() {
+        return entries.size();
+    }
+
+    /** @return cantidad de consultas resueltas desde la caché */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /** @return cantidad de consultas que no encontraron un valor vigente */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /** @return cantidad de entradas descartadas por tamaño o vencimiento */
+    public long evictions() {
+        return evictions.sum();
+    }
+}
@@ -0,0 +1,46 @@
+package utp.edu.denuncias.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Publica las estadísticas de una {@link LocalCache} en Micrometer, con los mismos nombres que usan
+ * las cachés instrumentadas por Spring Boot: {@code cache.gets} (etiquetado con {@code result=hit|miss}),
+ * {@code cache.evictions} y {@code cache.size}, todos etiquetados con {@code cache=<nombre>}.
+ */
+public class LocalCacheMetrics implements MeterBinder {
+
+    private final String name;
+    private final LocalCache<?, ?> cache;
+
+    /**
+     * @param name  nombre con el que se etiquetan las métricas de la caché
+     * @param cache caché a instrumentar
+     */
+    public LocalCacheMetrics(String name, LocalCache<?, ?> cache) {
+        this.name = name;
+        this.cache = cache;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", cache, LocalCache::hits)
+                .tag("cache", name).tag("result", "hit")
+                .description("Consultas resueltas desde la caché")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", cache, LocalCache::misses)
+                .tag("cache", name).tag("result", "miss")
+                .description("Consultas que no encontraron un valor vigente en la caché")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", cache, LocalCache::evictions)
+                .tag("cache", name)
+                .description("Entradas descartadas por tamaño o vencimiento")
+                .register(registry);
+        Gauge.builder("cache.size", cache, LocalCache::size)
+                .tag("cache", name)
+                .description("Cantidad de entradas en la caché")
+                .register(registry);
+    }
+}
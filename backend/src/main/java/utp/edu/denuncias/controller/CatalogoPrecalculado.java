@@ -0,0 +1,156 @@
+package utp.edu.denuncias.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Respuesta de un catálogo que no cambia mientras la aplicación está en ejecución (roles, categorías, estados,
+ * tipos de solicitud). Se serializa una sola vez al iniciar, junto con su variante comprimida en gzip, y se
+ * construyen de antemano las cuatro respuestas posibles (200 o 304, con o sin gzip): atender una solicitud
+ * solo compara encabezados y devuelve una de ellas, sin serializar ni copiar el cuerpo.
+ * <p>
+ * El ETag es un hash del contenido, así que solo cambia si cambia el catálogo (en un nuevo despliegue).
+ * La variante gzip tiene su propio ETag, porque es otra representación del recurso.
+ */
+final class CatalogoPrecalculado {
+
+    private final String etag;
+    private final String etagGzip;
+    private final ResponseEntity<byte[]> completo;
+    private final ResponseEntity<byte[]> completoGzip;
+    private final ResponseEntity<byte[]> noModificado;
+    private final ResponseEntity<byte[]> noModificadoGzip;
+
+    /**
+     * Serializa el catálogo y prepara sus respuestas.
+     *
+     * @param objectMapper serializador JSON de la aplicación
+     * @param contenido    catálogo a serializar
+     * @param cacheControl política de caché de las respuestas
+     */
+    CatalogoPrecalculado(ObjectMapper objectMapper, Object contenido, CacheControl cacheControl) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(contenido);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el catálogo", e);
+        }
+        byte[] gzip = comprimir(json);
+        String hash = hash(json);
+        this.etag = "\"" + hash + "\"";
+        this.etagGzip = "\"" + hash + "-gz\"";
+        this.completo = respuesta(HttpStatus.OK, etag, cacheControl, false, json);
+        this.completoGzip = respuesta(HttpStatus.OK, etagGzip, cacheControl, true, gzip);
+        this.noModificado = respuesta(HttpStatus.NOT_MODIFIED, etag, cacheControl, false, null);
+        this.noModificadoGzip = respuesta(HttpStatus.NOT_MODIFIED, etagGzip, cacheControl, true, null);
+    }
+
+    /**
+     * Elige la respuesta según los encabezados de la solicitud.
+     *
+     * @param ifNoneMatch    encabezado {@code If-None-Match}, puede ser null
+     * @param acceptEncoding encabezado {@code Accept-Encoding}, puede ser null
+     * @return 304 si el cliente ya tiene la representación vigente; si no, 200 con el cuerpo en gzip
+     *         cuando el cliente lo acepta, o sin comprimir
+     */
+    ResponseEntity<byte[]> responder(String ifNoneMatch, String acceptEncoding) {
+        boolean gzip = aceptaGzip(acceptEncoding);
+        if (ifNoneMatch != null && (ifNoneMatch.contains(gzip ? etagGzip : etag) || ifNoneMatch.trim().equals("*"))) {
+            return gzip ? noModificadoGzip : noModificado;
+        }
+        return gzip ? completoGzip : completo;
+    }
+
+    /**
+     * Indica si el encabezado {@code Accept-Encoding} acepta gzip, es decir, si lo menciona
+     * sin un valor de calidad cero ({@code gzip;q=0}). Recorre el texto sin crear objetos.
+     *
+     * @param acceptEncoding valor del encabezado, puede ser null
+     * @return true si se puede responder en gzip
+     */
+    static boolean aceptaGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        int i = acceptEncoding.indexOf("gzip");
+        if (i < 0) {
+            return false;
+        }
+        int n = acceptEncoding.length();
+        i = saltarEspacios(acceptEncoding, i + 4);
+        if (i >= n || acceptEncoding.charAt(i) != ';') {
+            return true;
+        }
+        i = saltarEspacios(acceptEncoding, i + 1);
+        if (!acceptEncoding.regionMatches(true, i, "q=", 0, 2)) {
+            return true;
+        }
+        // La calidad es cero si solo tiene ceros y, a lo sumo, un punto decimal
+        for (i += 2; i < n && acceptEncoding.charAt(i) != ','; i++) {
+            char c = acceptEncoding.charAt(i);
+            if (c != '0' && c != '.' && c != ' ') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int saltarEspacios(String texto, int i) {
+        while (i < texto.length() && texto.charAt(i) == ' ') {
+            i++;
+        }
+        return i;
+    }
+
+    private static ResponseEntity<byte[]> respuesta(HttpStatus status, String etag, CacheControl cacheControl,
+                                                    boolean gzip, byte[] cuerpo) {
+        var builder = ResponseEntity.status(status)
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (cuerpo == null) {
+            return builder.build();
+        }
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return builder.contentType(MediaType.APPLICATION_JSON).contentLength(cuerpo.length).body(cuerpo);
+    }
+
+    private static byte[] comprimir(byte[] datos) {
+        var salida = new ByteArrayOutputStream();
+        try (var gzip = new GZIPOutputStream(salida) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(datos);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return salida.toByteArray();
+    }
+
+    private static String hash(byte[] datos) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(datos);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash).substring(0, 22);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no está disponible", e);
+        }
+    }
+}
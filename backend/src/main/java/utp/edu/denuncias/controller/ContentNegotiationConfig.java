@@ -0,0 +1,43 @@
+package utp.edu.denuncias.controller;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Registra los formatos binarios de Jackson para todos los controladores: el cliente que envía
+ * {@code Accept: application/x-jackson-smile} o {@code Accept: application/cbor} recibe la respuesta en ese
+ * formato, más compacta y rápida de codificar que el texto JSON en los listados grandes.
+ * JSON sigue siendo el formato por defecto: Spring Boot coloca estos convertidores después del de JSON,
+ * así que solo se usan cuando el cliente los pide. Los cuerpos de las solicitudes también se aceptan en
+ * estos formatos según su {@code Content-Type}.
+ * <p>
+ * Los mapeadores se construyen con el {@link Jackson2ObjectMapperBuilder} de Spring Boot, con la misma
+ * configuración ({@code spring.jackson.*}, módulos) que el de JSON, para que los tres formatos
+ * representen los datos igual.
+ */
+@Configuration
+public class ContentNegotiationConfig {
+
+    /**
+     * @param builder constructor de mapeadores configurado por Spring Boot (uno nuevo en cada inyección)
+     * @return convertidor para {@code application/x-jackson-smile}
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    /**
+     * @param builder constructor de mapeadores configurado por Spring Boot (uno nuevo en cada inyección)
+     * @return convertidor para {@code application/cbor}
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+}
@@ -1,13 +1,26 @@
 package utp.edu.denuncias.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import utp.edu.denuncias.dto.CursorPage;
+import utp.edu.denuncias.dto.CursorPageRequest;
 import utp.edu.denuncias.dto.DenunciaRequest;
 import utp.edu.denuncias.dto.DenunciaResponse;
+import utp.edu.denuncias.dto.EstadisticasDenunciasResponse;
+import utp.edu.denuncias.enums.Categoria;
+import utp.edu.denuncias.enums.Estado;
+import utp.edu.denuncias.enums.FormatoExportacion;
+import utp.edu.denuncias.service.DenunciaExportService;
 import utp.edu.denuncias.service.DenunciaService;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @EnableMethodSecurity
@@ -19,75 +32,155 @@ public class DenunciaController {
     /** Servicio que contiene la lógica de negocio para la gestión de denuncias */
     private final DenunciaService denunciaService;
 
+    /** Servicio encargado de la exportación masiva de denuncias */
+    private final DenunciaExportService denunciaExportService;
+
     /**
-     * Recupera una lista de denuncias asociadas al usuario actualmente autenticado.
+     * Recupera una página de denuncias asociadas al usuario actualmente autenticado.
+     * Responde 304 sin consultar el listado si el cliente envía en {@code If-None-Match} el ETag vigente.
      *
-     * @return una {@code ResponseEntity} que contiene una lista de objetos {@code DenunciaResponse},
+     * @param page parámetros de paginación ({@code cursor}, {@code size} y {@code total})
+     * @param request solicitud HTTP, para evaluar el encabezado {@code If-None-Match}
+     * @return una {@code ResponseEntity} que contiene una página de objetos {@code DenunciaResponse},
      *         representando las denuncias del usuario autenticado.
      */
     @GetMapping("/usuario")
-    public ResponseEntity<List<DenunciaResponse>> getDenuncias() {
-        return ResponseEntity.ok(denunciaService.listarDenunciasUsuario());
+    public ResponseEntity<CursorPage<DenunciaResponse>> getDenuncias(CursorPageRequest page, WebRequest request) {
+        return RespuestaCondicional.responder(request, denunciaService.etagDenunciasUsuario(page),
+                () -> denunciaService.listarDenunciasUsuario(page));
     }
 
     /**
      * Recupera una denuncia específica mediante su ID.
+     * Responde 304 sin cargar la denuncia si el cliente envía en {@code If-None-Match} el ETag vigente.
      *
      * @param id Identificador único de la denuncia que se desea obtener.
+     * @param request solicitud HTTP, para evaluar el encabezado {@code If-None-Match}
      * @return Una respuesta HTTP que contiene un objeto {@code DenunciaResponse}
      *         con los datos de la denuncia encontrada.
      */
     @GetMapping("/usuario/{id}")
-    public ResponseEntity<DenunciaResponse> getDenuncia(@PathVariable Long id) {
-        return ResponseEntity.ok(denunciaService.listarDenuncia(id));
+    public ResponseEntity<DenunciaResponse> getDenuncia(@PathVariable Long id, WebRequest request) {
+        return RespuestaCondicional.responder(request, denunciaService.etagDenuncia(id),
+                () -> denunciaService.listarDenuncia(id));
     }
 
     /**
-     * Recupera una lista de denuncias asignadas a moderadores, basada en el estado del parámetro ingresado.
+     * Recupera una página de denuncias asignadas a moderadores, basada en el estado del parámetro ingresado.
+     * Responde 304 sin consultar el listado si el cliente envía en {@code If-None-Match} el ETag vigente.
      *
      * @param all Indica si se deben obtener todas las denuncias sin moderador asignado
      *            o solo las asignadas al moderador actualmente autenticado.
-     * @return Una entidad de respuesta que contiene una lista de objetos {@code DenunciaResponse},
+     * @param page parámetros de paginación ({@code cursor}, {@code size} y {@code total})
+     * @param request solicitud HTTP, para evaluar el encabezado {@code If-None-Match}
+     * @return Una entidad de respuesta que contiene una página de objetos {@code DenunciaResponse},
      *         representando las denuncias obtenidas según los criterios especificados.
      */
     @GetMapping("/mod/{all}")
-    public ResponseEntity<List<DenunciaResponse>> getAllDenunciasMod(@PathVariable Boolean all) {
-        return ResponseEntity.ok(denunciaService.listarDenunciasMod(all));
+    public ResponseEntity<CursorPage<DenunciaResponse>> getAllDenunciasMod(@PathVariable Boolean all, CursorPageRequest page,
+                                                                           WebRequest request) {
+        return RespuestaCondicional.responder(request, denunciaService.etagDenunciasMod(all, page),
+                () -> denunciaService.listarDenunciasMod(all, page));
+    }
+
+    /**
+     * Asigna al moderador autenticado las siguientes denuncias sin asignar, de la más antigua a la más reciente.
+     * Varios moderadores pueden reclamar a la vez: cada denuncia se entrega a uno solo.
+     *
+     * @param size cantidad máxima de denuncias a reclamar
+     * @return una respuesta HTTP con la lista de denuncias asignadas, vacía si no quedan denuncias sin asignar
+     */
+    @PostMapping("/mod/claim")
+    public ResponseEntity<List<DenunciaResponse>> reclamarDenuncias(@RequestParam(defaultValue = "1") int size) {
+        return ResponseEntity.ok(denunciaService.reclamarDenuncias(size));
+    }
+
+    /**
+     * Busca denuncias por texto en su título, descripción y lugar, ordenadas por relevancia.
+     * No distingue mayúsculas ni tildes; la última palabra y las terminadas en {@code *} se buscan como prefijo.
+     *
+     * @param q texto a buscar
+     * @param size cantidad máxima de resultados
+     * @return una respuesta HTTP con la lista de denuncias encontradas
+     */
+    @GetMapping("/mod/buscar")
+    public ResponseEntity<List<DenunciaResponse>> buscarDenuncias(@RequestParam String q,
+                                                                  @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(denunciaService.buscarDenuncias(q, size));
     }
 
     /**
-     * Recupera una lista con todas las denuncias registradas en el sistema.
+     * Recupera una página con las denuncias registradas en el sistema.
      *
-     * @return una respuesta HTTP que contiene una lista de objetos {@code DenunciaResponse}
-     *         que representan todas las denuncias disponibles.
+     * @param page parámetros de paginación ({@code cursor}, {@code size} y {@code total})
+     * @return una respuesta HTTP que contiene una página de objetos {@code DenunciaResponse}
+     *         que representan las denuncias disponibles.
      */
     @GetMapping("/admin")
-    public ResponseEntity<List<DenunciaResponse>> getAllDenuncias() {
-        return ResponseEntity.ok(denunciaService.listarAllDenuncias());
+    public ResponseEntity<CursorPage<DenunciaResponse>> getAllDenuncias(CursorPageRequest page) {
+        return ResponseEntity.ok(denunciaService.listarAllDenuncias(page));
+    }
+
+    /**
+     * Obtiene la cantidad de denuncias por estado, categoría y moderador asignado.
+     * Se responde desde contadores en memoria que se reconcilian periódicamente con la base de datos.
+     *
+     * @return una respuesta HTTP con las estadísticas de las denuncias
+     */
+    @GetMapping("/admin/stats")
+    public ResponseEntity<EstadisticasDenunciasResponse> getEstadisticas() {
+        return ResponseEntity.ok(denunciaService.obtenerEstadisticas());
+    }
+
+    /**
+     * Exporta todas las denuncias que cumplen los filtros indicados, escribiéndolas directamente en la respuesta
+     * a medida que se leen de la base de datos (NDJSON o CSV), sin construir la lista completa en memoria.
+     *
+     * @param formato formato de salida, NDJSON por defecto
+     * @param estado estado por el cual filtrar (opcional)
+     * @param categoria categoría por la cual filtrar (opcional)
+     * @param desde fecha de creación mínima, inclusive (opcional, formato ISO {@code yyyy-MM-dd})
+     * @param hasta fecha de creación máxima, inclusive (opcional, formato ISO {@code yyyy-MM-dd})
+     * @return una respuesta HTTP cuyo cuerpo se genera de forma incremental como archivo adjunto
+     */
+    @GetMapping("/admin/export")
+    public ResponseEntity<StreamingResponseBody> exportarDenuncias(
+            @RequestParam(defaultValue = "NDJSON") FormatoExportacion formato,
+            @RequestParam(required = false) Estado estado,
+            @RequestParam(required = false) Categoria categoria,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        StreamingResponseBody body = out -> denunciaExportService.exportar(estado, categoria, desde, hasta, formato, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(formato.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"denuncias." + formato.getExtension() + "\"")
+                .body(body);
     }
 
     /**
-     * Obtiene una lista de todas las denuncias asociadas a un usuario específico,
+     * Obtiene una página de las denuncias asociadas a un usuario específico,
      * identificado por su ID.
      *
      * @param id ID del usuario cuyas denuncias se desean recuperar
-     * @return Respuesta que contiene una lista de las denuncias del usuario en formato {@link DenunciaResponse}
+     * @param page parámetros de paginación ({@code cursor}, {@code size} y {@code total})
+     * @return Respuesta que contiene una página de las denuncias del usuario en formato {@link DenunciaResponse}
      */
     @GetMapping("/admin/usuario/{id}")
-    public ResponseEntity<List<DenunciaResponse>> getAllDenunciasUsuario(@PathVariable Long id) {
-        return ResponseEntity.ok(denunciaService.listarAllDenunciasUsuario(id));
+    public ResponseEntity<CursorPage<DenunciaResponse>> getAllDenunciasUsuario(@PathVariable Long id, CursorPageRequest page) {
+        return ResponseEntity.ok(denunciaService.listarAllDenunciasUsuario(id, page));
     }
 
     /**
-     * Obtiene todas las denuncias asignadas a un moderador específico identificado por su ID.
+     * Obtiene una página de las denuncias asignadas a un moderador específico identificado por su ID.
      *
      * @param id ID del moderador cuyas denuncias se desean obtener
-     * @return una respuesta HTTP que contiene una lista de objetos {@code DenunciaResponse}
+     * @param page parámetros de paginación ({@code cursor}, {@code size} y {@code total})
+     * @return una respuesta HTTP que contiene una página de objetos {@code DenunciaResponse}
      *         representando las denuncias asignadas al moderador
      */
     @GetMapping("/admin/mod/{id}")
-    public ResponseEntity<List<DenunciaResponse>> getAllDenunciasMod(@PathVariable Long id) {
-        return ResponseEntity.ok(denunciaService.listarAllDenunciasMod(id));
+    public ResponseEntity<CursorPage<DenunciaResponse>> getAllDenunciasMod(@PathVariable Long id, CursorPageRequest page) {
+        return ResponseEntity.ok(denunciaService.listarAllDenunciasMod(id, page));
     }
 
     /**
@@ -1,65 +1,121 @@
 package utp.edu.denuncias.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import utp.edu.denuncias.dto.CatalogosResponse;
 import utp.edu.denuncias.dto.CategoriaDTO;
 import utp.edu.denuncias.dto.EstadoDTO;
 import utp.edu.denuncias.dto.RolDTO;
 import utp.edu.denuncias.dto.TipoSolicitudDAO;
 
-import java.util.List;
+import java.time.Duration;
 
 /**
  * Controlador REST para la gestión y recuperación de listas de enumeraciones
  * como roles, categorías, estados y tipos de solicitud disponibles en el sistema.
+ * <p>
+ * Los catálogos se fijan al compilar, así que se serializan una sola vez al iniciar
+ * ({@link CatalogoPrecalculado}) y se responden con {@code Cache-Control} de larga duración
+ * ({@code catalogos.cache.max-age}), un ETag calculado a partir del contenido y una variante comprimida en gzip.
  */
 @RestController
 @RequestMapping("/api/enum")
 public class EnumController {
 
+    private final CatalogoPrecalculado roles;
+    private final CatalogoPrecalculado categorias;
+    private final CatalogoPrecalculado estados;
+    private final CatalogoPrecalculado tiposSolicitud;
+    private final CatalogoPrecalculado todos;
+
+    public EnumController(ObjectMapper objectMapper,
+                          @Value("${catalogos.cache.max-age:1d}") Duration maxAge) {
+        var cacheControl = CacheControl.maxAge(maxAge).cachePublic();
+        this.roles = new CatalogoPrecalculado(objectMapper, RolDTO.all(), cacheControl);
+        this.categorias = new CatalogoPrecalculado(objectMapper, CategoriaDTO.all(), cacheControl);
+        this.estados = new CatalogoPrecalculado(objectMapper, EstadoDTO.all(), cacheControl);
+        this.tiposSolicitud = new CatalogoPrecalculado(objectMapper, TipoSolicitudDAO.all(), cacheControl);
+        this.todos = new CatalogoPrecalculado(objectMapper, CatalogosResponse.all(), cacheControl);
+    }
+
     /**
      * Obtiene todos los roles disponibles en el sistema.
      *
+     * @param ifNoneMatch ETag de la copia que tiene el cliente, si tiene una
+     * @param acceptEncoding codificaciones aceptadas por el cliente
      * @return una respuesta HTTP que contiene una lista de objetos {@code RolDTO} representando los roles disponibles
      */
     @GetMapping("/roles")
-    public ResponseEntity<List<RolDTO>> getAllRoles() {
-        return ResponseEntity.ok(RolDTO.all());
+    public ResponseEntity<byte[]> getAllRoles(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return roles.responder(ifNoneMatch, acceptEncoding);
     }
 
     /**
      * Endpoint para obtener todas las categorías disponibles en el sistema.
      * Devuelve una lista con las categorías representadas como objetos {@code CategoriaDTO}.
      *
+     * @param ifNoneMatch ETag de la copia que tiene el cliente, si tiene una
+     * @param acceptEncoding codificaciones aceptadas por el cliente
      * @return una {@code ResponseEntity} que contiene una lista de {@code CategoriaDTO}
      *         con la información de todas las categorías del sistema
      */
     @GetMapping("/categorias")
-    public ResponseEntity<List<CategoriaDTO>> geAllCategorias() {
-        return ResponseEntity.ok(CategoriaDTO.all());
+    public ResponseEntity<byte[]> geAllCategorias(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return categorias.responder(ifNoneMatch, acceptEncoding);
     }
 
     /**
      * Recupera una lista de todos los estados disponibles en el sistema.
      *
+     * @param ifNoneMatch ETag de la copia que tiene el cliente, si tiene una
+     * @param acceptEncoding codificaciones aceptadas por el cliente
      * @return una respuesta HTTP que contiene una lista de objetos {@code EstadoDTO} con
      *         la información de todos los estados existentes en el sistema
      */
     @GetMapping("/estados")
-    public ResponseEntity<List<EstadoDTO>> getAllEstados() {
-        return ResponseEntity.ok(EstadoDTO.all());
+    public ResponseEntity<byte[]> getAllEstados(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return estados.responder(ifNoneMatch, acceptEncoding);
     }
 
     /**
      * Obtiene una lista con todos los tipos de solicitud disponibles en el sistema.
      *
+     * @param ifNoneMatch ETag de la copia que tiene el cliente, si tiene una
+     * @param acceptEncoding codificaciones aceptadas por el cliente
      * @return un {@code ResponseEntity} que contiene una lista de objetos {@code TipoSolicitudDAO},
      *         representando los tipos de solicitud disponibles.
      */
     @GetMapping("/tiposSolicitud")
-    public ResponseEntity<List<TipoSolicitudDAO>> getAllTiposSolicitud() {
-        return ResponseEntity.ok(TipoSolicitudDAO.all());
+    public ResponseEntity<byte[]> getAllTiposSolicitud(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return tiposSolicitud.responder(ifNoneMatch, acceptEncoding);
+    }
+
+    /**
+     * Obtiene los cuatro catálogos (roles, categorías, estados y tipos de solicitud) en una sola respuesta.
+     *
+     * @param ifNoneMatch ETag de la copia que tiene el cliente, si tiene una
+     * @param acceptEncoding codificaciones aceptadas por el cliente
+     * @return una respuesta HTTP que contiene un {@code CatalogosResponse} con todos los catálogos
+     */
+    @GetMapping("/all")
+    public ResponseEntity<byte[]> getAll(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return todos.responder(ifNoneMatch, acceptEncoding);
     }
 }
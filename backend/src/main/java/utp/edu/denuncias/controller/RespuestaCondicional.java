@@ -0,0 +1,66 @@
+package utp.edu.denuncias.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+/**
+ * Respuestas condicionales ({@code GET} con {@code If-None-Match}) para los listados y detalles.
+ * El ETag se calcula antes de cargar los datos, a partir de la huella de la consulta
+ * ({@link utp.edu.denuncias.dto.VersionContenido}); si coincide con el que envía el cliente se responde 304
+ * sin ejecutar la consulta del listado ni serializar el cuerpo.
+ * <p>
+ * {@code Cache-Control: private, no-cache} permite que el navegador guarde la respuesta pero lo obliga a
+ * revalidarla en cada uso, y reemplaza el {@code no-store} que Spring Security agrega por defecto.
+ * <p>
+ * Los mismos datos pueden responderse en JSON, Smile o CBOR según el encabezado {@code Accept}
+ * ({@link ContentNegotiationConfig}), y cada formato es una representación distinta con su propio ETag:
+ * al ETag de los datos se le agrega un hash del {@code Accept} y se responde con {@code Vary: Accept}.
+ */
+final class RespuestaCondicional {
+
+    private static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
+    private RespuestaCondicional() {
+    }
+
+    /**
+     * Responde 304 si el ETag coincide con el enviado por el cliente; de lo contrario obtiene el cuerpo
+     * y lo responde con el ETag. Si los datos cambian entre el cálculo del ETag y la carga del cuerpo, el
+     * cliente recibe un ETag anterior a su contenido y la siguiente consulta vuelve a responder 200, nunca 304.
+     *
+     * @param request solicitud HTTP actual
+     * @param etag    ETag de los datos actuales
+     * @param cuerpo  función que carga el cuerpo de la respuesta, solo se invoca si no coincide el ETag
+     * @param <T>     tipo del cuerpo
+     * @return la respuesta 304 sin cuerpo, o 200 con el cuerpo
+     */
+    static <T> ResponseEntity<T> responder(WebRequest request, String etag, Supplier<T> cuerpo) {
+        String etagRepresentacion = porFormato(etag, request.getHeader(HttpHeaders.ACCEPT));
+        if (request.checkNotModified(etagRepresentacion)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etagRepresentacion).cacheControl(CACHE_CONTROL).varyBy(HttpHeaders.ACCEPT).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etagRepresentacion).cacheControl(CACHE_CONTROL).varyBy(HttpHeaders.ACCEPT).body(cuerpo.get());
+    }
+
+    /**
+     * Distingue el ETag según el encabezado {@code Accept}, que determina el formato de la respuesta.
+     * Sin encabezado se responde JSON y el ETag queda igual.
+     *
+     * @param etag   ETag de los datos, entre comillas y con o sin el prefijo {@code W/}
+     * @param accept encabezado {@code Accept} de la solicitud, puede ser null
+     * @return el ETag de la representación
+     */
+    private static String porFormato(String etag, String accept) {
+        if (accept == null) {
+            return etag;
+        }
+        return etag.substring(0, etag.length() - 1) + "-" + Integer.toHexString(accept.hashCode()) + "\"";
+    }
+}
@@ -5,6 +5,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import utp.edu.denuncias.dto.SolicitudRequest;
 import utp.edu.denuncias.dto.SolicitudResponse;
 import utp.edu.denuncias.dto.SolicitudRevisionRequest;
@@ -32,25 +33,31 @@ public class SolicitudController {
 
     /**
      * Recupera una solicitud específica a partir de su identificador único.
+     * Responde 304 sin cargar la solicitud si el cliente envía en {@code If-None-Match} el ETag vigente.
      *
      * @param id Identificador único de la solicitud a recuperar.
+     * @param request solicitud HTTP, para evaluar el encabezado {@code If-None-Match}.
      * @return una instancia de {@link ResponseEntity} que contiene un {@link SolicitudResponse}
      *         con los datos de la solicitud encontrada.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<SolicitudResponse> getSolicitud(@PathVariable Long id) {
-        return ResponseEntity.ok(solicitudService.listarSolicitud(id));
+    public ResponseEntity<SolicitudResponse> getSolicitud(@PathVariable Long id, WebRequest request) {
+        return RespuestaCondicional.responder(request, solicitudService.etagSolicitud(id),
+                () -> solicitudService.listarSolicitud(id));
     }
 
     /**
      * Obtiene una lista de todas las solicitudes disponibles en el sistema.
+     * Responde 304 sin consultar el listado si el cliente envía en {@code If-None-Match} el ETag vigente.
      *
+     * @param request solicitud HTTP, para evaluar el encabezado {@code If-None-Match}.
      * @return un {@link ResponseEntity} que contiene una lista de objetos {@link SolicitudResponse}
      *         con los detalles de todas las solicitudes existentes.
      */
     @GetMapping("/listar")
-    public ResponseEntity<List<SolicitudResponse>> listarSolicitudes() {
-        return ResponseEntity.ok(solicitudService.listarSolicitudes());
+    public ResponseEntity<List<SolicitudResponse>> listarSolicitudes(WebRequest request) {
+        return RespuestaCondicional.responder(request, solicitudService.etagSolicitudes(),
+                solicitudService::listarSolicitudes);
     }
 
     /**
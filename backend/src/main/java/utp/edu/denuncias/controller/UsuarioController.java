@@ -1,8 +1,13 @@
 package utp.edu.denuncias.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import utp.edu.denuncias.dto.CursorPage;
+import utp.edu.denuncias.dto.CursorPageRequest;
 import utp.edu.denuncias.dto.NotificationResponse;
 import utp.edu.denuncias.dto.UsuarioResponse;
 import utp.edu.denuncias.dto.UsuarioUpdateRequest;
@@ -20,24 +25,29 @@ public class UsuarioController {
 
     /**
      * Recupera una lista de todos los usuarios registrados en el sistema en forma de objetos {@code UsuarioResponse}.
+     * Responde 304 sin consultar el listado si el cliente envía en {@code If-None-Match} el ETag vigente.
      *
+     * @param request solicitud HTTP, para evaluar el encabezado {@code If-None-Match}
      * @return un {@link ResponseEntity} que contiene una lista de objetos {@link UsuarioResponse},
      *         cada uno representando la información de un usuario registrado.
      */
     @GetMapping("/mod")
-    public ResponseEntity<List<UsuarioResponse>> listarUsuariosActivos() {
-        return ResponseEntity.ok(usuarioService.listarUsuariosActivos());
+    public ResponseEntity<List<UsuarioResponse>> listarUsuariosActivos(WebRequest request) {
+        return RespuestaCondicional.responder(request, usuarioService.etagUsuariosActivos(),
+                usuarioService::listarUsuariosActivos);
     }
 
     /**
      * Recupera una lista de todos los usuarios registrados en el sistema.
+     * Responde 304 sin consultar el listado si el cliente envía en {@code If-None-Match} el ETag vigente.
      *
+     * @param request solicitud HTTP, para evaluar el encabezado {@code If-None-Match}
      * @return un {@link ResponseEntity} que contiene una lista de objetos {@link UsuarioResponse},
      *         cada uno representando la información de un usuario registrado.
      */
     @GetMapping("/admin")
-    public ResponseEntity<List<UsuarioResponse>> listarUsuarios() {
-        return ResponseEntity.ok(usuarioService.listarUsuarios());
+    public ResponseEntity<List<UsuarioResponse>> listarUsuarios(WebRequest request) {
+        return RespuestaCondicional.responder(request, usuarioService.etagUsuarios(), usuarioService::listarUsuarios);
     }
 
     /**
@@ -53,13 +63,16 @@ public class UsuarioController {
 
     /**
      * Obtiene los datos del usuario actualmente autenticado.
+     * Responde 304 sin cargar el usuario si el cliente envía en {@code If-None-Match} el ETag vigente.
      *
+     * @param request solicitud HTTP, para evaluar el encabezado {@code If-None-Match}
      * @return un {@link ResponseEntity} que contiene un {@link UsuarioResponse}
      *         con la información del usuario autenticado
      */
     @GetMapping
-    public ResponseEntity<UsuarioResponse> getUsuario() {
-        return ResponseEntity.ok(usuarioService.findByCurrentUser());
+    public ResponseEntity<UsuarioResponse> getUsuario(WebRequest request) {
+        return RespuestaCondicional.responder(request, usuarioService.etagUsuarioActual(),
+                usuarioService::findByCurrentUser);
     }
 
     /**
@@ -114,14 +127,42 @@ public class UsuarioController {
     }
 
     /**
-     * Recupera una lista de notificaciones asociadas al usuario actualmente autenticado.
+     * Recupera una página de notificaciones asociadas al usuario actualmente autenticado.
      *
-     * @return un {@link ResponseEntity} que contiene una lista de objetos {@link NotificationResponse},
+     * @param unread si es true solo se devuelven las notificaciones no leídas
+     * @param page parámetros de paginación ({@code cursor}, {@code size} y {@code total})
+     * @return un {@link ResponseEntity} que contiene una página de objetos {@link NotificationResponse},
      *         cada uno representando una notificación del usuario autenticado.
      */
     @GetMapping("/notificaciones")
-    public ResponseEntity<List<NotificationResponse>> obtenerMisNotificaciones() {
-        return ResponseEntity.ok(usuarioService.obtenerNotificaciones());
+    public ResponseEntity<CursorPage<NotificationResponse>> obtenerMisNotificaciones(
+            @RequestParam(defaultValue = "false") boolean unread, CursorPageRequest page) {
+        return ResponseEntity.ok(usuarioService.obtenerNotificaciones(unread, page));
+    }
+
+    /**
+     * Obtiene la cantidad de notificaciones no leídas del usuario autenticado, para el indicador de la interfaz.
+     * Se responde desde un contador en memoria, sin recorrer las notificaciones.
+     *
+     * @return un {@link ResponseEntity} con la cantidad de notificaciones no leídas
+     */
+    @GetMapping("/notificaciones/unread-count")
+    public ResponseEntity<Long> contarNotificacionesNoLeidas() {
+        return ResponseEntity.ok(usuarioService.contarNotificacionesNoLeidas());
+    }
+
+    /**
+     * Abre un canal de Server-Sent Events por el que se envían las notificaciones nuevas del usuario
+     * autenticado a medida que se crean, en lugar de volver a consultar el listado.
+     * Al reconectarse, el cliente envía el encabezado {@code Last-Event-ID} con el id de la última
+     * notificación recibida y recibe primero las que se perdió.
+     *
+     * @param ultimoId identificador de la última notificación recibida, o null en la primera conexión
+     * @return el emisor de eventos de la conexión
+     */
+    @GetMapping(value = "/notificaciones/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamNotificaciones(@RequestHeader(value = "Last-Event-ID", required = false) Long ultimoId) {
+        return usuarioService.suscribirNotificaciones(ultimoId);
     }
 
     /**
@@ -133,4 +174,12 @@ public class UsuarioController {
     public void marcarNotificationLeida(@PathVariable Long id) {
         usuarioService.marcarNotificationLeida(id);
     }
-}
\ No newline at end of file
+
+    /**
+     * Marca como leídas todas las notificaciones del usuario actualmente autenticado.
+     */
+    @PutMapping("/notificaciones")
+    public void marcarNotificacionesLeidas() {
+        usuarioService.marcarNotificacionesLeidas();
+    }
+}
@@ -0,0 +1,28 @@
+package utp.edu.denuncias.dto;
+
+import java.util.List;
+
+/**
+ * Registro (record) que agrupa todos los catálogos del sistema en una sola respuesta,
+ * para que el cliente los obtenga con una única solicitud al cargar la aplicación.
+ *
+ * @param roles          roles disponibles
+ * @param categorias     categorías de denuncia disponibles
+ * @param estados        estados disponibles
+ * @param tiposSolicitud tipos de solicitud disponibles
+ */
+public record CatalogosResponse(
+        List<RolDTO> roles,
+        List<CategoriaDTO> categorias,
+        List<EstadoDTO> estados,
+        List<TipoSolicitudDAO> tiposSolicitud
+) {
+    /**
+     * Obtiene todos los catálogos del sistema.
+     *
+     * @return los cuatro catálogos agrupados
+     */
+    public static CatalogosResponse all() {
+        return new CatalogosResponse(RolDTO.all(), CategoriaDTO.all(), EstadoDTO.all(), TipoSolicitudDAO.all());
+    }
+}
@@ -0,0 +1,42 @@
+package utp.edu.denuncias.dto;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Registro (record) que representa una página de resultados paginada por cursor.
+ *
+ * @param items elementos de la página actual
+ * @param next  cursor opaco para solicitar la página siguiente, null si no hay más elementos
+ * @param total cantidad total aproximada de elementos del listado, solo presente si fue solicitada
+ * @param <T>   tipo de los elementos de la página
+ */
+public record CursorPage<T>(List<T> items, String next, Long total) {
+
+    /**
+     * Construye una página a partir de las filas recuperadas con {@link CursorPageRequest#limiteConsulta()}.
+     * Si se recuperó la fila adicional, esta se descarta y se genera el cursor de la página siguiente
+     * a partir del último elemento entregado.
+     *
+     * @param rows     filas recuperadas, ordenadas de forma descendente por {@code (createdDate, id)}
+     * @param page     parámetros de paginación de la solicitud
+     * @param mapper   función para convertir cada fila en el elemento de respuesta
+     * @param cursorOf función que obtiene la posición de una fila
+     * @param total    función que calcula el total, solo se invoca si fue solicitado
+     * @param <E>      tipo de las filas recuperadas
+     * @param <T>      tipo de los elementos de respuesta
+     * @return la página construida
+     */
+    public static <E, T> CursorPage<T> of(List<E> rows, CursorPageRequest page, Function<E, T> mapper,
+                                          Function<E, PageCursor> cursorOf, LongSupplier total) {
+        int limite = page.limite();
+        boolean hayMas = rows.size() > limite;
+        List<E> visibles = hayMas ? rows.subList(0, limite) : rows;
+        return new CursorPage<>(
+                visibles.stream().map(mapper).toList(),
+                hayMas ? cursorOf.apply(visibles.getLast()).encode() : null,
+                page.conTotal() ? total.getAsLong() : null
+        );
+    }
+}
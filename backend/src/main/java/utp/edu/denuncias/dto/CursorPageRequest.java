@@ -0,0 +1,60 @@
+package utp.edu.denuncias.dto;
+
+import org.springframework.data.domain.Limit;
+
+/**
+ * Registro (record) con los parámetros de paginación por cursor recibidos en la consulta HTTP.
+ * Spring lo construye directamente a partir de los parámetros {@code cursor}, {@code size} y {@code total}.
+ *
+ * @param cursor cursor opaco devuelto en la página anterior, null para la primera página
+ * @param size   cantidad de elementos solicitados, se limita entre 1 y {@link #MAX_SIZE}
+ * @param total  indica si se debe incluir el total aproximado de elementos del listado
+ */
+public record CursorPageRequest(String cursor, Integer size, Boolean total) {
+
+    /** Tamaño de página usado cuando el cliente no indica uno. */
+    public static final int DEFAULT_SIZE = 20;
+
+    /** Tamaño máximo de página permitido. */
+    public static final int MAX_SIZE = 100;
+
+    /**
+     * Obtiene la posición desde la cual continuar el listado.
+     *
+     * @return la posición decodificada del cursor o {@link PageCursor#INICIO}
+     */
+    public PageCursor posicion() {
+        return PageCursor.decode(cursor);
+    }
+
+    /**
+     * Obtiene el tamaño de página acotado.
+     *
+     * @return un valor entre 1 y {@link #MAX_SIZE}
+     */
+    public int limite() {
+        if (size == null) {
+            return DEFAULT_SIZE;
+        }
+        return Math.clamp(size, 1, MAX_SIZE);
+    }
+
+    /**
+     * Límite a aplicar en la consulta: se pide un elemento adicional para saber si existe una página siguiente.
+     *
+     * @return el límite de filas a recuperar
+     */
+    public Limit limiteConsulta() {
+        return Limit.of(limite() + 1);
+    }
+
+    /**
+     * Indica si el cliente solicitó el total de elementos. Es opcional porque, salvo en los listados de un
+     * usuario (un rango del índice), se toma de las estadísticas en memoria y puede diferir levemente del real.
+     *
+     * @return true si se debe incluir el total
+     */
+    public boolean conTotal() {
+        return Boolean.TRUE.equals(total);
+    }
+}
@@ -1,7 +1,10 @@
 package utp.edu.denuncias.dto;
 import lombok.Builder;
+import utp.edu.denuncias.enums.Categoria;
+import utp.edu.denuncias.enums.Estado;
 import utp.edu.denuncias.model.Denuncia;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -24,6 +27,34 @@ public record DenunciaResponse(
         String mod,
         Long idMod
 ) {
+    /**
+     * Construye la respuesta a partir de las columnas de una consulta de proyección
+     * ({@code SELECT new ...}), sin cargar las entidades Denuncia ni Usuario.
+     * Produce el mismo resultado que {@link #from(Denuncia)}.
+     *
+     * @param id identificador de la denuncia
+     * @param titulo título de la denuncia
+     * @param description descripción de la denuncia
+     * @param lugar lugar de la denuncia
+     * @param categoria categoría de la denuncia
+     * @param estado estado de la denuncia
+     * @param fecha fecha de creación de la denuncia
+     * @param nombres nombres del usuario que registró la denuncia
+     * @param apellidos apellidos del usuario que registró la denuncia
+     * @param username nombre de usuario del usuario que registró la denuncia
+     * @param idUsuario identificador del usuario que registró la denuncia
+     * @param nombresMod nombres del moderador asignado, o null si no tiene
+     * @param apellidosMod apellidos del moderador asignado, o null si no tiene
+     * @param idMod identificador del moderador asignado, o null si no tiene
+     */
+    public DenunciaResponse(Long id, String titulo, String description, String lugar, Categoria categoria,
+                            Estado estado, LocalDateTime fecha, String nombres, String apellidos, String username,
+                            Long idUsuario, String nombresMod, String apellidosMod, Long idMod) {
+        this(id, titulo, description, lugar, categoria.name(), estado.name(), fecha.toString(),
+                nombres + " " + apellidos, username, idUsuario,
+                idMod == null ? null : nombresMod + " " + apellidosMod, idMod);
+    }
+
     /**
      * Convierte una instancia de la entidad Denuncia en un objeto DenunciaResponse.
      *
@@ -0,0 +1,22 @@
+package utp.edu.denuncias.dto;
+
+import utp.edu.denuncias.enums.Categoria;
+import utp.edu.denuncias.enums.Estado;
+
+import java.util.Map;
+
+/**
+ * DTO con la cantidad de denuncias por estado, categoría y moderador asignado.
+ *
+ * @param total               cantidad total de denuncias, incluidas las eliminadas
+ * @param porEstado           cantidad de denuncias por estado
+ * @param porCategoria        cantidad de denuncias por categoría
+ * @param porEstadoYCategoria cantidad de denuncias por estado y, dentro de cada uno, por categoría
+ * @param porModerador        cantidad de denuncias asignadas a cada moderador, por estado
+ */
+public record EstadisticasDenunciasResponse(long total,
+                                            Map<Estado, Long> porEstado,
+                                            Map<Categoria, Long> porCategoria,
+                                            Map<Estado, Map<Categoria, Long>> porEstadoYCategoria,
+                                            Map<Long, Map<Estado, Long>> porModerador) {
+}
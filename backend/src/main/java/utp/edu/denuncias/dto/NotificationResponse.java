@@ -3,6 +3,7 @@ package utp.edu.denuncias.dto;
 import lombok.Builder;
 import utp.edu.denuncias.model.Notification;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -12,7 +13,7 @@ import java.util.List;
  * mensaje, estado de lectura, fecha de creación, y títulos asociados a posibles denuncias
  * o solicitudes relacionadas.
  */
-@Builder
+@Builder(toBuilder = true)
 public record NotificationResponse(
         Long id,
         String titulo,
@@ -24,6 +25,26 @@ public record NotificationResponse(
         String solicitudTitulo,
         Long idSolicitud
 ) {
+    /**
+     * Construye la respuesta a partir de las columnas de una consulta de proyección
+     * ({@code SELECT new ...}), sin cargar las entidades Notification, Denuncia ni Solicitud.
+     * Produce el mismo resultado que {@link #from(Notification)}.
+     *
+     * @param id identificador de la notificación
+     * @param titulo título de la notificación
+     * @param message mensaje de la notificación
+     * @param read indica si la notificación fue leída
+     * @param fecha fecha de creación de la notificación
+     * @param denunciaTitulo título de la denuncia asociada, o null si no tiene
+     * @param idDenuncia identificador de la denuncia asociada, o null si no tiene
+     * @param solicitudTitulo título de la solicitud asociada, o null si no tiene
+     * @param idSolicitud identificador de la solicitud asociada, o null si no tiene
+     */
+    public NotificationResponse(Long id, String titulo, String message, boolean read, LocalDateTime fecha,
+                                String denunciaTitulo, Long idDenuncia, String solicitudTitulo, Long idSolicitud) {
+        this(id, titulo, message, read, fecha.toString(), denunciaTitulo, idDenuncia, solicitudTitulo, idSolicitud);
+    }
+
     /**
      * Crea una instancia de NotificationResponse a partir de un objeto Notification.
      *
@@ -31,15 +52,31 @@ public record NotificationResponse(
      * @return una instancia de NotificationResponse que contiene los datos mapeados de la notificación proporcionada
      */
     public static NotificationResponse from(Notification notification) {
+        return from(notification,
+                notification.getDenuncia() != null ? notification.getDenuncia().getTitulo() : null,
+                notification.getSolicitud() != null ? notification.getSolicitud().getTitulo() : null);
+    }
+
+    /**
+     * Crea una instancia de NotificationResponse a partir de una notificación cuya denuncia y solicitud están
+     * asociadas por referencia, con los títulos ya conocidos. Solo se leen los identificadores de las
+     * referencias, por lo que no se consultan la denuncia ni la solicitud.
+     *
+     * @param notification    la notificación fuente
+     * @param denunciaTitulo  título de la denuncia asociada, o null si no tiene
+     * @param solicitudTitulo título de la solicitud asociada, o null si no tiene
+     * @return una instancia de NotificationResponse con los datos de la notificación y los títulos indicados
+     */
+    public static NotificationResponse from(Notification notification, String denunciaTitulo, String solicitudTitulo) {
         return NotificationResponse.builder()
                 .id(notification.getId())
                 .titulo(notification.getTitulo())
                 .message(notification.getMessage())
                 .read(notification.isVisto())
                 .fecha(notification.getCreatedDate().toString())
-                .denunciaTitulo(notification.getDenuncia() != null ? notification.getDenuncia().getTitulo() : null)
+                .denunciaTitulo(denunciaTitulo)
                 .idDenuncia(notification.getDenuncia() != null ? notification.getDenuncia().getId() : null)
-                .solicitudTitulo(notification.getSolicitud() != null ? notification.getSolicitud().getTitulo() : null)
+                .solicitudTitulo(solicitudTitulo)
                 .idSolicitud(notification.getSolicitud() != null ? notification.getSolicitud().getId() : null)
                 .build();
     }
@@ -0,0 +1,53 @@
+package utp.edu.denuncias.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Registro (record) que representa la posición de una página dentro de un listado ordenado
+ * de forma descendente por {@code (createdDate, id)}.
+ * Se expone al cliente como un texto opaco (Base64 URL-safe) para que no dependa de su formato interno.
+ *
+ * @param createdDate fecha de creación del último elemento entregado
+ * @param id          identificador del último elemento entregado, usado como desempate
+ */
+public record PageCursor(LocalDateTime createdDate, Long id) {
+
+    /**
+     * Posición inicial del listado: cualquier elemento es anterior a ella.
+     * Se usa una fecha máxima representable tanto en MySQL como en H2.
+     */
+    public static final PageCursor INICIO = new PageCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+    /**
+     * Decodifica un cursor recibido del cliente.
+     *
+     * @param cursor texto opaco devuelto previamente en el campo {@code next} de una página, puede ser null
+     * @return la posición representada por el cursor, o {@link #INICIO} si no se proporcionó
+     * @throws IllegalArgumentException si el cursor no tiene un formato válido
+     */
+    public static PageCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return INICIO;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf('|');
+            return new PageCursor(LocalDateTime.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("El cursor de paginación no es válido");
+        }
+    }
+
+    /**
+     * Codifica la posición como texto opaco para enviarlo al cliente.
+     *
+     * @return el cursor codificado en Base64 URL-safe y sin relleno
+     */
+    public String encode() {
+        String raw = createdDate + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,46 @@
+package utp.edu.denuncias.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Registro (record) con la huella de un listado o detalle, calculada con una consulta de agregación
+ * ({@code SELECT new ...}) sin cargar las filas: cuántas hay, la suma de sus identificadores y la suma de
+ * las versiones de cada fila y de los usuarios que se muestran en ella.
+ * <p>
+ * Los cambios habituales modifican la huella: editar una fila o el nombre de un usuario incrementa una
+ * versión, crear una fila cambia la cantidad y una fila que sale del listado cambia la cantidad o la suma de
+ * identificadores. Pero las sumas pueden coincidir por casualidad: si en el mismo intervalo una fila sale del
+ * listado y entra otra cuyo identificador y versiones suman lo mismo, la huella no cambia. Como no garantiza
+ * que a igual huella la respuesta sea idéntica byte a byte, se publica como ETag débil ({@code W/}), que solo
+ * se usa para la revalidación con {@code If-None-Match}.
+ *
+ * @param cantidad      cantidad de filas
+ * @param sumaIds       suma de los identificadores de las filas
+ * @param sumaVersiones suma de las versiones de las filas y de los usuarios incluidos en ellas
+ */
+public record VersionContenido(long cantidad, long sumaIds, long sumaVersiones) {
+
+    /**
+     * Genera el ETag de la respuesta combinando la huella con los datos que distinguen la consulta
+     * (recurso, usuario, parámetros de paginación), para que dos consultas distintas nunca compartan ETag.
+     *
+     * @param clave datos que identifican la consulta
+     * @return el ETag débil ({@code W/"..."}), listo para el encabezado
+     */
+    public String etag(Object... clave) {
+        var texto = new StringBuilder();
+        for (Object parte : clave) {
+            texto.append(parte).append('|');
+        }
+        texto.append(cantidad).append('|').append(sumaIds).append('|').append(sumaVersiones);
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(texto.toString().getBytes(StandardCharsets.UTF_8));
+            return "W/\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash).substring(0, 22) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no está disponible", e);
+        }
+    }
+}
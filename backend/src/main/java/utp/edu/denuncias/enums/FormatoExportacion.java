@@ -0,0 +1,39 @@
+package utp.edu.denuncias.enums;
+
+import lombok.Getter;
+
+/**
+ * Enumeración que define los formatos disponibles para la exportación masiva de denuncias.
+ * Cada formato indica el tipo de contenido y la extensión del archivo generado.
+ */
+@Getter
+public enum FormatoExportacion {
+    /**
+     * JSON delimitado por saltos de línea: un objeto {@code DenunciaResponse} por línea.
+     */
+    NDJSON("application/x-ndjson", "ndjson"),
+    /**
+     * Valores separados por comas, con una fila de encabezados.
+     */
+    CSV("text/csv", "csv");
+
+    /**
+     * Tipo de contenido (MIME) de la respuesta.
+     */
+    private final String mediaType;
+    /**
+     * Extensión sugerida para el archivo descargado.
+     */
+    private final String extension;
+
+    /**
+     * Constructor del enum FormatoExportacion.
+     *
+     * @param mediaType tipo de contenido de la respuesta
+     * @param extension extensión del archivo
+     */
+    FormatoExportacion(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+}
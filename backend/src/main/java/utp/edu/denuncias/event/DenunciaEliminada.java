@@ -0,0 +1,9 @@
+package utp.edu.denuncias.event;
+
+/**
+ * Se publica cuando el usuario elimina una de sus denuncias.
+ *
+ * @param denunciaId identificador de la denuncia
+ */
+public record DenunciaEliminada(Long denunciaId) implements DomainEvent {
+}
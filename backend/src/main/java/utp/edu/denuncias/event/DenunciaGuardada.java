@@ -0,0 +1,12 @@
+package utp.edu.denuncias.event;
+
+/**
+ * Se publica cuando se registra una denuncia o se editan sus campos de texto.
+ *
+ * @param denunciaId  identificador de la denuncia
+ * @param titulo      título de la denuncia
+ * @param description descripción de la denuncia
+ * @param lugar       lugar de la denuncia
+ */
+public record DenunciaGuardada(Long denunciaId, String titulo, String description, String lugar) implements DomainEvent {
+}
@@ -0,0 +1,11 @@
+package utp.edu.denuncias.event;
+
+/**
+ * Evento de dominio publicado por los servicios cuando cambia el estado del sistema.
+ * Los eventos se entregan a {@link DomainEventDispatcher} una vez confirmada la transacción que los originó,
+ * y este los procesa en segundo plano. Solo contienen identificadores y valores simples, nunca entidades,
+ * ya que se consumen fuera de la transacción y del hilo de la solicitud.
+ */
+public sealed interface DomainEvent permits DenunciaEliminada, DenunciaGuardada, EstadoDenunciaCambiado, SolicitudCreada,
+        SolicitudRevisada {
+}
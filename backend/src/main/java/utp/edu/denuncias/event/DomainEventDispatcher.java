@@ -0,0 +1,210 @@
+package utp.edu.denuncias.event;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Bus de eventos de dominio en proceso.
+ * Recibe los eventos publicados con {@code ApplicationEventPublisher} una vez confirmada la transacción
+ * que los originó (o de inmediato si no había transacción), los encola en una cola acotada y los procesa
+ * en hilos propios, fuera del hilo de la solicitud. Cada vez que un hilo toma trabajo de la cola, retira
+ * hasta {@code eventos.lote.tamano} eventos, los agrupa por tipo y entrega cada grupo completo a sus manejadores.
+ * <p>
+ * Si la cola está llena, quien publica espera hasta {@code eventos.cola.espera-maxima}; si aun así no hay lugar,
+ * procesa el evento en su propio hilo (cada manejador en una transacción nueva). De esta forma la memoria queda
+ * acotada y, ante una sobrecarga, las solicitudes se frenan en lugar de perder eventos.
+ * <p>
+ * El fallo de un manejador no afecta a los demás manejadores ni a los demás eventos. Las métricas
+ * {@code eventos.procesados} y {@code eventos.fallidos} son disjuntas: un evento cuenta como fallido si
+ * alguno de sus manejadores falló, y como procesado solo si todos terminaron sin error.
+ * <p>
+ * Con {@code spring.threads.virtual.enabled=true} (perfil {@code virtual}) los hilos trabajadores son virtuales:
+ * pasan casi todo el tiempo esperando la cola o la base de datos. Los manejadores no dependen del contexto de
+ * seguridad, porque cada evento lleva los identificadores que necesita.
+ */
+@Slf4j
+@Component
+public class DomainEventDispatcher implements MeterBinder {
+
+    private final Map<Class<?>, List<DomainEventHandler<?>>> handlers;
+    private final BlockingQueue<DomainEvent> cola;
+    private final TransactionTemplate transaccionNueva;
+    private final int tamanoLote;
+    private final Duration esperaMaxima;
+    private final int hilos;
+    private final boolean hilosVirtuales;
+
+    private final List<Thread> trabajadores = new ArrayList<>();
+    private volatile boolean activo = true;
+
+    private final LongAdder procesados = new LongAdder();
+    private final LongAdder fallidos = new LongAdder();
+    private final LongAdder procesadosEnLlamador = new LongAdder();
+
+    public DomainEventDispatcher(List<DomainEventHandler<?>> handlers,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${eventos.cola.capacidad:10000}") int capacidad,
+                                 @Value("${eventos.cola.espera-maxima:200ms}") Duration esperaMaxima,
+                                 @Value("${eventos.lote.tamano:100}") int tamanoLote,
+                                 @Value("${eventos.hilos:1}") int hilos,
+                                 @Value("${spring.threads.virtual.enabled:false}") boolean hilosVirtuales) {
+        this.handlers = handlers.stream().collect(Collectors.groupingBy(DomainEventHandler::tipo));
+        this.cola = new ArrayBlockingQueue<>(capacidad);
+        this.transaccionNueva = new TransactionTemplate(transactionManager);
+        this.transaccionNueva.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.tamanoLote = tamanoLote;
+        this.esperaMaxima = esperaMaxima;
+        this.hilos = hilos;
+        this.hilosVirtuales = hilosVirtuales;
+    }
+
+    /**
+     * Inicia los hilos que procesan la cola de eventos.
+     */
+    @PostConstruct
+    public void iniciar() {
+        Thread.Builder builder = hilosVirtuales ? Thread.ofVirtual() : Thread.ofPlatform();
+        for (int i = 0; i < hilos; i++) {
+            trabajadores.add(builder.name("eventos-dominio-" + i).start(this::procesarCola));
+        }
+    }
+
+    /**
+     * Detiene la recepción de eventos y espera a que se procesen los que quedan en la cola.
+     *
+     * @throws InterruptedException si se interrumpe la espera
+     */
+    @PreDestroy
+    public void detener() throws InterruptedException {
+        activo = false;
+        for (Thread trabajador : trabajadores) {
+            trabajador.join();
+        }
+    }
+
+    /**
+     * Recibe los eventos de dominio publicados por los servicios después de confirmar su transacción.
+     *
+     * @param evento evento publicado
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDomainEvent(DomainEvent evento) {
+        publicar(evento);
+    }
+
+    /**
+     * Encola un evento para procesarlo en segundo plano. Si la cola sigue llena tras la espera máxima,
+     * el evento se procesa en el hilo actual.
+     *
+     * @param evento evento a procesar
+     */
+    public void publicar(DomainEvent evento) {
+        boolean encolado;
+        try {
+            encolado = activo && cola.offer(evento, esperaMaxima.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            encolado = false;
+        }
+        if (!encolado) {
+            procesadosEnLlamador.increment();
+            despachar(List.of(evento), true);
+        }
+    }
+
+    /**
+     * Ciclo de los hilos trabajadores: toma un lote de la cola y lo despacha, hasta que el bus se detiene
+     * y la cola queda vacía.
+     */
+    private void procesarCola() {
+        List<DomainEvent> lote = new ArrayList<>(tamanoLote);
+        while (activo || !cola.isEmpty()) {
+            try {
+                DomainEvent primero = cola.poll(100, TimeUnit.MILLISECONDS);
+                if (primero == null) {
+                    continue;
+                }
+                lote.add(primero);
+                cola.drainTo(lote, tamanoLote - 1);
+                despachar(lote, false);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lote.clear();
+            }
+        }
+    }
+
+    /**
+     * Agrupa los eventos por tipo, conservando el orden de publicación, y entrega cada grupo a sus manejadores.
+     * El fallo de un manejador se registra y no impide procesar el resto.
+     *
+     * @param eventos    eventos a despachar
+     * @param enLlamador true si se procesan en el hilo que los publicó, ya fuera de su transacción confirmada;
+     *                   en ese caso cada manejador se ejecuta en una transacción nueva, para que el fallo de uno
+     *                   no revierta el trabajo de los demás
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void despachar(List<DomainEvent> eventos, boolean enLlamador) {
+        Map<Class<?>, List<DomainEvent>> porTipo = eventos.stream()
+                .collect(Collectors.groupingBy(Object::getClass, LinkedHashMap::new, Collectors.toList()));
+        porTipo.forEach((tipo, grupo) -> {
+            boolean fallo = false;
+            for (DomainEventHandler handler : handlers.getOrDefault(tipo, List.of())) {
+                try {
+                    if (enLlamador) {
+                        transaccionNueva.executeWithoutResult(_ -> handler.handle(grupo));
+                    } else {
+                        handler.handle(grupo);
+                    }
+                } catch (RuntimeException e) {
+                    fallo = true;
+                    log.error("Error al procesar {} eventos {}", grupo.size(), tipo.getSimpleName(), e);
+                }
+            }
+            (fallo ? fallidos : procesados).add(grupo.size());
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("eventos.cola.tamano", cola, BlockingQueue::size)
+                .description("Eventos de dominio pendientes en la cola")
+                .register(registry);
+        Gauge.builder("eventos.cola.disponible", cola, BlockingQueue::remainingCapacity)
+                .description("Espacio libre en la cola de eventos de dominio")
+                .register(registry);
+        FunctionCounter.builder("eventos.procesados", procesados, LongAdder::sum)
+                .description("Eventos de dominio procesados sin errores por todos sus manejadores")
+                .register(registry);
+        FunctionCounter.builder("eventos.fallidos", fallidos, LongAdder::sum)
+                .description("Eventos de dominio con al menos un manejador que falló")
+                .register(registry);
+        FunctionCounter.builder("eventos.procesados.llamador", procesadosEnLlamador, LongAdder::sum)
+                .description("Eventos procesados en el hilo que los publicó por estar la cola llena")
+                .register(registry);
+    }
+}
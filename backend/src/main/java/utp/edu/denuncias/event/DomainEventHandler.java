@@ -0,0 +1,48 @@
+package utp.edu.denuncias.event;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Procesa los eventos de un tipo concreto. {@link DomainEventDispatcher} agrupa los eventos del mismo tipo
+ * que se acumulan en la cola y los entrega juntos, para que el manejador pueda resolverlos con
+ * operaciones en lote (por ejemplo, una sola inserción de varias notificaciones).
+ *
+ * @param <E> tipo de evento que procesa
+ */
+public interface DomainEventHandler<E extends DomainEvent> {
+
+    /**
+     * @return el tipo de evento que procesa este manejador
+     */
+    Class<E> tipo();
+
+    /**
+     * Procesa un lote de eventos del mismo tipo, en el orden en que fueron publicados.
+     *
+     * @param eventos eventos a procesar, nunca vacío
+     */
+    void handle(List<E> eventos);
+
+    /**
+     * Crea un manejador a partir de una función.
+     *
+     * @param tipo    tipo de evento que procesa
+     * @param handler función que procesa cada lote de eventos
+     * @param <E>     tipo de evento
+     * @return el manejador
+     */
+    static <E extends DomainEvent> DomainEventHandler<E> of(Class<E> tipo, Consumer<List<E>> handler) {
+        return new DomainEventHandler<>() {
+            @Override
+            public Class<E> tipo() {
+                return tipo;
+            }
+
+            @Override
+            public void handle(List<E> eventos) {
+                handler.accept(eventos);
+            }
+        };
+    }
+}
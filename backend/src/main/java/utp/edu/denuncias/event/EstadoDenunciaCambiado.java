@@ -0,0 +1,15 @@
+package utp.edu.denuncias.event;
+
+import utp.edu.denuncias.enums.Estado;
+
+/**
+ * Se publica cuando un moderador o administrador cambia el estado de una denuncia.
+ *
+ * @param denunciaId     identificador de la denuncia
+ * @param denunciaTitulo título de la denuncia, para notificar sin volver a consultarla
+ * @param usuarioId  identificador del usuario que registró la denuncia
+ * @param estado     nuevo estado de la denuncia
+ */
+public record EstadoDenunciaCambiado(Long denunciaId, String denunciaTitulo, Long usuarioId,
+                                     Estado estado) implements DomainEvent {
+}
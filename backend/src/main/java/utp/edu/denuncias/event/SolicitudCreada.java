@@ -0,0 +1,20 @@
+package utp.edu.denuncias.event;
+
+import utp.edu.denuncias.enums.Rol;
+import utp.edu.denuncias.enums.TipoSolicitud;
+
+/**
+ * Se publica cuando un moderador o administrador registra una nueva solicitud.
+ *
+ * @param solicitudId     identificador de la solicitud
+ * @param solicitudTitulo título de la solicitud, para notificar sin volver a consultarla
+ * @param denunciaId      identificador de la denuncia asociada
+ * @param denunciaTitulo  título de la denuncia asociada
+ * @param rolAutor    rol del autor de la solicitud
+ * @param revisorId   identificador del revisor asignado, o null si no tiene
+ * @param tipo        tipo de la solicitud
+ */
+public record SolicitudCreada(Long solicitudId, String solicitudTitulo, Long denunciaId, String denunciaTitulo,
+                              Rol rolAutor, Long revisorId,
+                              TipoSolicitud tipo) implements DomainEvent {
+}
@@ -0,0 +1,19 @@
+package utp.edu.denuncias.event;
+
+import utp.edu.denuncias.enums.TipoSolicitud;
+
+/**
+ * Se publica cuando un revisor aprueba o rechaza una solicitud.
+ *
+ * @param solicitudId     identificador de la solicitud
+ * @param solicitudTitulo título de la solicitud, para notificar sin volver a consultarla
+ * @param denunciaId      identificador de la denuncia asociada, o null si no tiene
+ * @param denunciaTitulo  título de la denuncia asociada, o null si no tiene
+ * @param autorId     identificador del autor de la solicitud
+ * @param aprobado    true si la solicitud fue aprobada, false si fue rechazada
+ * @param tipo        tipo de la solicitud
+ */
+public record SolicitudRevisada(Long solicitudId, String solicitudTitulo, Long denunciaId, String denunciaTitulo,
+                                Long autorId, boolean aprobado,
+                                TipoSolicitud tipo) implements DomainEvent {
+}
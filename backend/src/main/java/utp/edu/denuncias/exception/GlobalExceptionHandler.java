@@ -1,7 +1,11 @@
 package utp.edu.denuncias.exception;
 
+import jakarta.persistence.OptimisticLockException;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.annotation.*;
 import utp.edu.denuncias.dto.ErrorResponse;
 
@@ -41,6 +45,43 @@ public class GlobalExceptionHandler {
         );
     }
 
+    /**
+     * Maneja los conflictos de concurrencia, que ocurren cuando otra transacción modificó la misma denuncia,
+     * solicitud o usuario entre su lectura y su escritura (o, en un reintento, cambió el estado sobre el que se
+     * decidió la operación), y retorna una respuesta de error estructurada con un estado HTTP 409 (Conflict).
+     * El cliente debe volver a cargar el recurso antes de repetir la operación.
+     *
+     * @param ex la excepción lanzada al detectar el conflicto; incluye {@code OptimisticLockingFailureException}
+     * @return un {@code ResponseEntity} que contiene un {@code ErrorResponse} con los detalles del error
+     */
+    @ExceptionHandler({ConcurrencyFailureException.class, OptimisticLockException.class})
+    public ResponseEntity<ErrorResponse> handleOptimisticLock(RuntimeException ex) {
+        return new ResponseEntity<>(
+                new ErrorResponse("Conflicto de concurrencia",
+                        "El recurso fue modificado por otro usuario; vuelva a cargarlo e intente de nuevo",
+                        HttpStatus.CONFLICT.value()),
+                HttpStatus.CONFLICT
+        );
+    }
+
+    /**
+     * Maneja la falta de conexiones a la base de datos, que ocurre cuando todas las conexiones del pool están
+     * ocupadas durante más de {@code spring.datasource.hikari.connection-timeout} o la base de datos no responde,
+     * y retorna una respuesta de error estructurada con un estado HTTP 503 (Service Unavailable).
+     * Con hilos virtuales el pool es el límite de concurrencia, así que esta es la respuesta ante una sobrecarga.
+     *
+     * @param ex la excepción lanzada al no poder obtener una conexión para iniciar la transacción
+     * @return un {@code ResponseEntity} que contiene un {@code ErrorResponse} con los detalles del error
+     */
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<ErrorResponse> handleSinConexion(CannotCreateTransactionException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new ErrorResponse("Servicio saturado",
+                        "No hay conexiones disponibles con la base de datos; intente de nuevo en unos segundos",
+                        HttpStatus.SERVICE_UNAVAILABLE.value()));
+    }
+
     /**
      * Maneja excepciones genéricas y retorna una respuesta de error estructurada con un estado HTTP 500 (Internal Server Error).
      *
@@ -19,12 +19,22 @@ public class Denuncia {
 
     /**
      * Identificador único de la denuncia.
-     * Se genera automáticamente (auto incrementable).
+     * Se genera automáticamente a partir de la secuencia "denuncia_seq" (una tabla en MySQL), que reserva
+     * bloques de 50 identificadores: solo se accede a la secuencia una vez cada 50 inserciones.
      */
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "denuncia_seq")
+    @SequenceGenerator(name = "denuncia_seq", sequenceName = "denuncia_seq", allocationSize = 50)
     private Long id;
 
+    /**
+     * Versión de la denuncia para el control de concurrencia optimista.
+     * Hibernate la incrementa en cada actualización y rechaza la escritura si otra transacción
+     * la modificó desde que se leyó, en lugar de sobrescribir sus cambios.
+     */
+    @Version
+    private Long version;
+
     /**
      * Título de la denuncia.
      */
@@ -67,8 +77,9 @@ public class Denuncia {
      * Relación muchos a uno con la entidad Usuario.
      * Indica qué usuario realizó la denuncia.
      * Se une por la columna "usuario_id" en la tabla Denuncia.
+     * Se carga de forma diferida; las consultas que lo necesitan lo traen con un join.
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "usuario_id")
     private Usuario usuario;
 
@@ -77,9 +88,10 @@ public class Denuncia {
      * Representa el moderador asignado a la denuncia.
      * Se une por la columna "usuario_id" en la tabla Denuncia.
      * Por defecto, no hay moderador asignado (valor inicial es null).
+     * Se carga de forma diferida; las consultas que lo necesitan lo traen con un join.
      */
     @Builder.Default
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "mod_id")
     private Usuario modAsignado = null;
 
@@ -17,10 +17,12 @@ public class Notification {
 
     /**
      * Identificador único de la notificación.
-     * Se genera automáticamente.
+     * Se genera automáticamente a partir de la secuencia "notification_seq" (una tabla en MySQL), que reserva
+     * bloques de 50 identificadores: solo se accede a la secuencia una vez cada 50 inserciones.
      */
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_seq")
+    @SequenceGenerator(name = "notification_seq", sequenceName = "notification_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -21,12 +21,22 @@ public class Solicitud {
 
     /**
      * Identificador único de la solicitud.
-     * Se genera automáticamente.
+     * Se genera automáticamente a partir de la secuencia "solicitud_seq" (una tabla en MySQL), que reserva
+     * bloques de 50 identificadores: solo se accede a la secuencia una vez cada 50 inserciones.
      */
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "solicitud_seq")
+    @SequenceGenerator(name = "solicitud_seq", sequenceName = "solicitud_seq", allocationSize = 50)
     private Long id;
 
+    /**
+     * Versión de la solicitud para el control de concurrencia optimista.
+     * Hibernate la incrementa en cada actualización y rechaza la escritura si otra transacción
+     * la modificó desde que se leyó, en lugar de sobrescribir sus cambios.
+     */
+    @Version
+    private Long version;
+
     /**
      * Título de la solicitud.
      * Representa una breve descripción o encabezado
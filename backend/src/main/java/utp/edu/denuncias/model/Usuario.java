@@ -22,12 +22,24 @@ public class Usuario {
 
     /**
      * Identificador único del usuario.
-     * Se genera automáticamente.
+     * Se genera automáticamente a partir de la secuencia "usuario_seq" (una tabla en MySQL), que reserva
+     * bloques de 50 identificadores: solo se accede a la secuencia una vez cada 50 inserciones.
      */
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "usuario_seq")
+    @SequenceGenerator(name = "usuario_seq", sequenceName = "usuario_seq", allocationSize = 50)
     private Long id;
 
+    /**
+     * Versión del usuario para el control de concurrencia optimista.
+     * Hibernate la incrementa en cada actualización; los ETag de los listados que muestran sus datos la incluyen.
+     * Si dos transacciones modifican al mismo usuario, la segunda falla con
+     * {@link org.springframework.dao.OptimisticLockingFailureException}: la activación y la desactivación se
+     * reintentan, y la edición del perfil responde 409 para no sobrescribir el cambio concurrente.
+     */
+    @Version
+    private Long version;
+
     /**
      * Nombres del usuario.
      */
@@ -1,25 +1,127 @@
 package utp.edu.denuncias.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import utp.edu.denuncias.dto.DenunciaResponse;
+import utp.edu.denuncias.dto.VersionContenido;
+import utp.edu.denuncias.enums.Categoria;
 import utp.edu.denuncias.enums.Estado;
 import utp.edu.denuncias.model.Denuncia;
+import utp.edu.denuncias.model.Usuario;
+import utp.edu.denuncias.search.DocumentoDenuncia;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 /**
  * Repositorio JPA para la entidad Denuncia.
  * Proporciona métodos para realizar operaciones CRUD sobre denuncias en la base de datos.
+ * Los listados se paginan por conjunto de claves (keyset) sobre {@code (createdDate, id)} en orden descendente:
+ * cada consulta recibe la posición del último elemento entregado y un {@link Limit}, por lo que su costo
+ * no depende de cuántas páginas se hayan recorrido. La cota {@code d.createdDate <= :fecha} es redundante,
+ * pero permite que el motor recorra el índice por rango en lugar de evaluar la disyunción fila por fila.
+ * Los listados se proyectan directamente a {@link DenunciaResponse} en una sola consulta con los joins
+ * necesarios, sin cargar entidades; las búsquedas que devuelven entidades completas usan entity graphs
+ * para traer el usuario y el moderador en la misma consulta.
  */
 public interface DenunciaRepository extends JpaRepository<Denuncia, Long> {
 
     /**
-     * Busca y devuelve todas las denuncias asociadas a un usuario específico.
+     * Proyección común de los listados: columnas de {@link DenunciaResponse} con su usuario y moderador.
+     */
+    String SELECT_RESPONSE = """
+            SELECT new utp.edu.denuncias.dto.DenunciaResponse(
+                d.id, d.titulo, d.description, d.lugar, d.categoria, d.estado, d.createdDate,
+                u.nombres, u.apellidos, u.username, u.id, m.nombres, m.apellidos, m.id)
+            FROM Denuncia d JOIN d.usuario u LEFT JOIN d.modAsignado m
+            """;
+
+    /**
+     * Huella de un listado para su ETag ({@link VersionContenido}): las versiones incluyen las del usuario y
+     * del moderador, porque sus nombres forman parte de {@link DenunciaResponse}. Usa los mismos joins y filtros
+     * que {@link #SELECT_RESPONSE}, pero solo agrega, sin proyectar las columnas de texto.
+     */
+    String SELECT_VERSION = """
+            SELECT new utp.edu.denuncias.dto.VersionContenido(
+                count(d), coalesce(sum(d.id), 0L), coalesce(sum(d.version + u.version + coalesce(m.version, 0L)), 0L))
+            FROM Denuncia d JOIN d.usuario u LEFT JOIN d.modAsignado m
+            """;
+
+    /**
+     * Cantidad de denuncias de un estado, categoría y moderador asignado.
+     */
+    interface Conteo {
+        Estado getEstado();
+
+        Categoria getCategoria();
+
+        Long getModeradorId();
+
+        long getCantidad();
+    }
+
+    /**
+     * Busca una denuncia por su ID junto con su usuario y moderador asignado.
+     *
+     * @param id Identificador único de la denuncia
+     * @return Un objeto Optional que contiene la denuncia encontrada, o vacío si no existe
+     */
+    @EntityGraph(attributePaths = {"usuario", "modAsignado"})
+    Optional<Denuncia> findWithUsuariosById(Long id);
+
+    /**
+     * Calcula la huella de una denuncia, con su usuario y moderador asignado, sin cargarla.
+     *
+     * @param id Identificador único de la denuncia
+     * @return La huella de la denuncia; la cantidad es cero si no existe
+     */
+    @Query(SELECT_VERSION + "WHERE d.id = :id")
+    VersionContenido versionById(@Param("id") Long id);
+
+    /**
+     * Busca una página de denuncias asociadas a un usuario específico, posteriores a la posición indicada.
+     *
+     * @param userId Identificador único del usuario
+     * @param fecha Fecha de creación del último elemento de la página anterior
+     * @param id Identificador del último elemento de la página anterior
+     * @param limit Cantidad máxima de denuncias a devolver
+     * @return Lista de respuestas de denuncias del usuario ordenadas por fecha de creación e id descendentes
+     */
+    @Query(SELECT_RESPONSE + """
+            WHERE u.id = :userId
+              AND d.createdDate <= :fecha AND (d.createdDate < :fecha OR (d.createdDate = :fecha AND d.id < :id))
+            ORDER BY d.createdDate DESC, d.id DESC""")
+    List<DenunciaResponse> findPageByUsuarioId(@Param("userId") Long userId, @Param("fecha") LocalDateTime fecha,
+                                       @Param("id") Long id, Limit limit);
+
+    /**
+     * Cuenta las denuncias asociadas a un usuario específico.
      *
      * @param userId Identificador único del usuario
-     * @return Lista de denuncias creadas por el usuario con el id dado
+     * @return Cantidad de denuncias creadas por el usuario
      */
-    List<Denuncia> findByUsuarioId(Long userId);
+    long countByUsuarioId(Long userId);
+
+    /**
+     * Calcula la huella de todas las denuncias de un usuario, sin cargarlas.
+     *
+     * @param userId Identificador único del usuario
+     * @return La huella de las denuncias creadas por el usuario
+     */
+    @Query(SELECT_VERSION + "WHERE u.id = :userId")
+    VersionContenido versionByUsuarioId(@Param("userId") Long userId);
 
     /**
      * Busca y devuelve una denuncia específica asociada a un usuario dado.
@@ -28,32 +130,208 @@ public interface DenunciaRepository extends JpaRepository<Denuncia, Long> {
      * @param id Identificador único de la denuncia que se desea buscar
      * @return Un objeto Optional que contiene la denuncia encontrada, o vacío si no existe
      */
+    @EntityGraph(attributePaths = {"usuario", "modAsignado"})
     Optional<Denuncia> findByUsuarioIdAndId(Long userId, Long id);
 
     /**
-     * Busca y devuelve todas las denuncias que no tienen un moderador asignado y cuyo estado no coincide
-     * con el estado proporcionado.
+     * Busca una página de denuncias que no tienen un moderador asignado y cuyo estado no se encuentra
+     * entre los estados proporcionados.
      *
-     * @param estados Estado que será excluido de la búsqueda
-     * @return Lista de denuncias que no tienen un moderador asignado y cuyo estado no es el especificado
+     * @param estados Estados que serán excluidos de la búsqueda
+     * @param fecha Fecha de creación del último elemento de la página anterior
+     * @param id Identificador del último elemento de la página anterior
+     * @param limit Cantidad máxima de denuncias a devolver
+     * @return Lista de respuestas de denuncias sin moderador ordenadas por fecha de creación e id descendentes
      */
-    List<Denuncia> findAllByModAsignadoIsNullAndEstadoNotIn(List<Estado> estados);
+    @Query(SELECT_RESPONSE + """
+            WHERE d.modAsignado IS NULL AND d.estado NOT IN :estados
+              AND d.createdDate <= :fecha AND (d.createdDate < :fecha OR (d.createdDate = :fecha AND d.id < :id))
+            ORDER BY d.createdDate DESC, d.id DESC""")
+    List<DenunciaResponse> findPageByModAsignadoIsNullAndEstadoNotIn(@Param("estados") List<Estado> estados,
+                                                                      @Param("fecha") LocalDateTime fecha,
+                                                                      @Param("id") Long id, Limit limit);
 
     /**
-     * Busca y devuelve todas las denuncias asignadas a un moderador específico cuyo estado
-     * no coincide con el estado proporcionado.
+     * Calcula la huella de las denuncias sin moderador asignado cuyo estado no se encuentra entre los
+     * proporcionados, sin cargarlas.
+     *
+     * @param estados Estados que serán excluidos
+     * @return La huella de las denuncias sin moderador asignado
+     */
+    @Query(SELECT_VERSION + "WHERE d.modAsignado IS NULL AND d.estado NOT IN :estados")
+    VersionContenido versionByModAsignadoIsNullAndEstadoNotIn(@Param("estados") List<Estado> estados);
+
+    /**
+     * Busca una página de denuncias asignadas a un moderador específico cuyo estado no se encuentra
+     * entre los estados proporcionados.
      *
      * @param modId Identificador único del moderador al que están asignadas las denuncias
-     * @param estados Estado que será excluido de la búsqueda
-     * @return Lista de denuncias asignadas al moderador cuyo estado no coincide con el proporcionado
+     * @param estados Estados que serán excluidos de la búsqueda
+     * @param fecha Fecha de creación del último elemento de la página anterior
+     * @param id Identificador del último elemento de la página anterior
+     * @param limit Cantidad máxima de denuncias a devolver
+     * @return Lista de respuestas de denuncias asignadas al moderador ordenadas por fecha de creación e id descendentes
      */
-    List<Denuncia> findAllByModAsignadoIdAndEstadoNotIn(Long modId, List<Estado> estados);
+    @Query(SELECT_RESPONSE + """
+            WHERE m.id = :modId AND d.estado NOT IN :estados
+              AND d.createdDate <= :fecha AND (d.createdDate < :fecha OR (d.createdDate = :fecha AND d.id < :id))
+            ORDER BY d.createdDate DESC, d.id DESC""")
+    List<DenunciaResponse> findPageByModAsignadoIdAndEstadoNotIn(@Param("modId") Long modId,
+                                                                 @Param("estados") List<Estado> estados,
+                                                                 @Param("fecha") LocalDateTime fecha,
+                                                                 @Param("id") Long id, Limit limit);
 
     /**
-     * Busca y devuelve todas las denuncias asignadas a un moderador específico.
+     * Calcula la huella de las denuncias asignadas a un moderador cuyo estado no se encuentra entre los
+     * proporcionados, sin cargarlas.
+     *
+     * @param modId Identificador único del moderador
+     * @param estados Estados que serán excluidos
+     * @return La huella de las denuncias asignadas al moderador
+     */
+    @Query(SELECT_VERSION + "WHERE m.id = :modId AND d.estado NOT IN :estados")
+    VersionContenido versionByModAsignadoIdAndEstadoNotIn(@Param("modId") Long modId,
+                                                          @Param("estados") List<Estado> estados);
+
+    /**
+     * Busca una página de denuncias asignadas a un moderador específico.
      *
      * @param modId Identificador único del moderador al que están asignadas las denuncias
-     * @return Lista de denuncias asignadas al moderador correspondiente
+     * @param fecha Fecha de creación del último elemento de la página anterior
+     * @param id Identificador del último elemento de la página anterior
+     * @param limit Cantidad máxima de denuncias a devolver
+     * @return Lista de respuestas de denuncias asignadas al moderador ordenadas por fecha de creación e id descendentes
+     */
+    @Query(SELECT_RESPONSE + """
+            WHERE m.id = :modId
+              AND d.createdDate <= :fecha AND (d.createdDate < :fecha OR (d.createdDate = :fecha AND d.id < :id))
+            ORDER BY d.createdDate DESC, d.id DESC""")
+    List<DenunciaResponse> findPageByModAsignadoId(@Param("modId") Long modId, @Param("fecha") LocalDateTime fecha,
+                                                   @Param("id") Long id, Limit limit);
+
+    /**
+     * Busca una página con todas las denuncias registradas en el sistema.
+     *
+     * @param fecha Fecha de creación del último elemento de la página anterior
+     * @param id Identificador del último elemento de la página anterior
+     * @param limit Cantidad máxima de denuncias a devolver
+     * @return Lista de respuestas de denuncias ordenadas por fecha de creación e id descendentes
+     */
+    @Query(SELECT_RESPONSE + """
+            WHERE d.createdDate <= :fecha AND (d.createdDate < :fecha OR (d.createdDate = :fecha AND d.id < :id))
+            ORDER BY d.createdDate DESC, d.id DESC""")
+    List<DenunciaResponse> findPage(@Param("fecha") LocalDateTime fecha, @Param("id") Long id, Limit limit);
+
+    /**
+     * Busca las denuncias indicadas, proyectadas a {@link DenunciaResponse}.
+     *
+     * @param ids Identificadores de las denuncias
+     * @return Lista de respuestas de denuncias, sin un orden particular
+     */
+    @Query(SELECT_RESPONSE + "WHERE d.id IN :ids")
+    List<DenunciaResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Obtiene un bloque de campos de texto de denuncias no eliminadas, en orden ascendente por id y a partir
+     * del indicado, para construir el índice de búsqueda.
+     *
+     * @param id Identificador de la última denuncia leída
+     * @param limit Cantidad máxima de denuncias del bloque
+     * @return Campos de texto de las denuncias del bloque
+     */
+    @Query("""
+            SELECT new utp.edu.denuncias.search.DocumentoDenuncia(d.id, d.titulo, d.description, d.lugar)
+            FROM Denuncia d WHERE d.id > :id AND d.estado <> utp.edu.denuncias.enums.Estado.ELIMINADO
+            ORDER BY d.id""")
+    List<DocumentoDenuncia> findDocumentosDesde(@Param("id") Long id, Limit limit);
+
+    /**
+     * Obtiene y bloquea las denuncias más antiguas con el estado indicado y sin moderador asignado, para la
+     * asignación automática y el reclamo de moderadores. Usa {@code FOR UPDATE SKIP LOCKED} (tiempo de espera
+     * de bloqueo -2, {@code LockOptions.SKIP_LOCKED}): las filas bloqueadas por otra transacción se saltan en
+     * lugar de esperarlas, así que consultas concurrentes reciben denuncias distintas. En motores sin
+     * {@code SKIP LOCKED}, como H2, Hibernate emite un {@code FOR UPDATE} simple que espera los bloqueos.
+     * Debe llamarse dentro de una transacción.
+     *
+     * @param estado Estado de las denuncias
+     * @param limit Cantidad máxima de denuncias a devolver
+     * @return Lista de denuncias ordenadas por fecha de creación e id ascendentes
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_LOCK_TIMEOUT, value = "-2"))
+    List<Denuncia> findByModAsignadoIsNullAndEstadoOrderByCreatedDateAscIdAsc(Estado estado, Limit limit);
+
+    /**
+     * Asigna al moderador, en una sola sentencia, las denuncias indicadas que sigan PENDIENTE y sin moderador,
+     * y las pasa a EN_PROCESO. La condición garantiza que una denuncia no se entregue a dos moderadores
+     * aunque el motor no admita {@code SKIP LOCKED}. Incrementa la versión, de modo que una edición concurrente
+     * basada en la versión anterior falle en lugar de sobrescribir la asignación.
+     *
+     * @param ids Identificadores de las denuncias a reclamar
+     * @param moderador Moderador al que se asignan
+     * @return Cantidad de denuncias asignadas
+     */
+    @Modifying
+    @Query("""
+            UPDATE Denuncia d SET d.modAsignado = :moderador, d.estado = utp.edu.denuncias.enums.Estado.EN_PROCESO,
+                d.version = d.version + 1
+            WHERE d.id IN :ids AND d.modAsignado IS NULL AND d.estado = utp.edu.denuncias.enums.Estado.PENDIENTE""")
+    int reclamar(@Param("ids") Collection<Long> ids, @Param("moderador") Usuario moderador);
+
+    /**
+     * Obtiene las denuncias asignadas a un moderador cuyo estado se encuentra entre los proporcionados.
+     *
+     * @param modId Identificador único del moderador
+     * @param estados Estados de las denuncias a buscar
+     * @return Lista de denuncias con su moderador asignado
+     */
+    @EntityGraph(attributePaths = {"modAsignado"})
+    List<Denuncia> findByModAsignadoIdAndEstadoIn(Long modId, Collection<Estado> estados);
+
+    /**
+     * Cuenta las denuncias asignadas a un moderador cuyo estado se encuentra entre los proporcionados.
+     *
+     * @param modId Identificador único del moderador
+     * @param estados Estados de las denuncias a contar
+     * @return Cantidad de denuncias asignadas al moderador
+     */
+    long countByModAsignadoIdAndEstadoIn(Long modId, Collection<Estado> estados);
+
+    /**
+     * Cuenta las denuncias agrupadas por estado, categoría y moderador asignado, en una sola consulta.
+     * Se usa para reconciliar las estadísticas en memoria.
+     *
+     * @return Cantidad de denuncias por cada combinación existente de estado, categoría y moderador
+     */
+    @Query("""
+            SELECT d.estado AS estado, d.categoria AS categoria, d.modAsignado.id AS moderadorId, COUNT(d) AS cantidad
+            FROM Denuncia d GROUP BY d.estado, d.categoria, d.modAsignado.id""")
+    List<Conteo> contarPorEstadoCategoriaYModerador();
+
+    /**
+     * Obtiene un bloque de denuncias para exportación, en orden ascendente por {@code (createdDate, id)}
+     * a partir de la posición indicada. Los filtros nulos no se aplican.
+     * Las entidades se cargan en modo solo lectura junto con su usuario y moderador; el consumo de memoria
+     * queda acotado por el límite del bloque.
+     *
+     * @param estado Estado por el cual filtrar, o null para todos
+     * @param categoria Categoría por la cual filtrar, o null para todas
+     * @param desde Fecha de creación mínima (inclusive)
+     * @param hasta Fecha de creación máxima (exclusive)
+     * @param fecha Fecha de creación del último elemento exportado
+     * @param id Identificador del último elemento exportado
+     * @param limit Cantidad máxima de denuncias del bloque
+     * @return Denuncias del bloque
      */
-    List<Denuncia> findAllByModAsignadoId(Long modId);
-}
\ No newline at end of file
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("""
+            SELECT d FROM Denuncia d JOIN FETCH d.usuario LEFT JOIN FETCH d.modAsignado
+            WHERE (:estado IS NULL OR d.estado = :estado)
+              AND (:categoria IS NULL OR d.categoria = :categoria)
+              AND d.createdDate >= :desde AND d.createdDate < :hasta
+              AND d.createdDate >= :fecha AND (d.createdDate > :fecha OR (d.createdDate = :fecha AND d.id > :id))
+            ORDER BY d.createdDate ASC, d.id ASC""")
+    List<Denuncia> buscarParaExportar(@Param("estado") Estado estado, @Param("categoria") Categoria categoria,
+                                      @Param("desde") LocalDateTime desde, @Param("hasta") LocalDateTime hasta,
+                                      @Param("fecha") LocalDateTime fecha, @Param("id") Long id, Limit limit);
+}
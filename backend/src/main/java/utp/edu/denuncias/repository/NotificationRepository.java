@@ -1,33 +1,213 @@
 package utp.edu.denuncias.repository;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import utp.edu.denuncias.dto.NotificationResponse;
+import utp.edu.denuncias.dto.PageCursor;
 import utp.edu.denuncias.model.Notification;
-import utp.edu.denuncias.model.Solicitud;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repositorio JPA para la entidad Notification.
  * Proporciona métodos para realizar operaciones CRUD y consultas específicas sobre notificaciones.
+ * La bandeja se pagina por conjunto de claves (keyset) sobre {@code (createdDate, id)} en orden descendente
+ * y se proyecta directamente a {@link NotificationResponse}, igual que los listados de denuncias.
  */
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
+
+    /**
+     * Proyección común de la bandeja: columnas de {@link NotificationResponse} con su denuncia y solicitud.
+     */
+    String SELECT_RESPONSE = """
+            SELECT new utp.edu.denuncias.dto.NotificationResponse(
+                n.id, n.titulo, n.message, n.visto, n.createdDate, d.titulo, d.id, s.titulo, s.id)
+            FROM Notification n LEFT JOIN n.denuncia d LEFT JOIN n.solicitud s
+            """;
+
+    /**
+     * Destinatario y estado de lectura de una notificación.
+     */
+    interface Lectura {
+        Long getDestinatarioId();
+
+        boolean isVisto();
+    }
+
+    /**
+     * Busca una página de notificaciones de un destinatario, posteriores a la posición indicada.
+     *
+     * @param userId Identificador único del destinatario
+     * @param fecha Fecha de creación del último elemento de la página anterior
+     * @param id Identificador del último elemento de la página anterior
+     * @param limit Cantidad máxima de notificaciones a devolver
+     * @return Lista de notificaciones ordenadas por fecha de creación e id descendentes
+     */
+    @Query(SELECT_RESPONSE + """
+            WHERE n.destinatario.id = :userId
+              AND n.createdDate <= :fecha AND (n.createdDate < :fecha OR (n.createdDate = :fecha AND n.id < :id))
+            ORDER BY n.createdDate DESC, n.id DESC""")
+    List<NotificationResponse> findPageByDestinatarioId(@Param("userId") Long userId, @Param("fecha") LocalDateTime fecha,
+                                                        @Param("id") Long id, Limit limit);
+
+    /**
+     * Busca una página de notificaciones no leídas de un destinatario, posteriores a la posición indicada.
+     *
+     * @param userId Identificador único del destinatario
+     * @param fecha Fecha de creación del último elemento de la página anterior
+     * @param id Identificador del último elemento de la página anterior
+     * @param limit Cantidad máxima de notificaciones a devolver
+     * @return Lista de notificaciones no leídas ordenadas por fecha de creación e id descendentes
+     */
+    @Query(SELECT_RESPONSE + """
+            WHERE n.destinatario.id = :userId AND n.visto = false
+              AND n.createdDate <= :fecha AND (n.createdDate < :fecha OR (n.createdDate = :fecha AND n.id < :id))
+            ORDER BY n.createdDate DESC, n.id DESC""")
+    List<NotificationResponse> findPageNoLeidasByDestinatarioId(@Param("userId") Long userId,
+                                                                @Param("fecha") LocalDateTime fecha,
+                                                                @Param("id") Long id, Limit limit);
+
+    /**
+     * Cuenta las notificaciones de un usuario.
+     *
+     * @param userId Identificador del usuario destinatario
+     * @return Cantidad de notificaciones
+     */
+    long countByDestinatarioId(Long userId);
+
+    /**
+     * Busca las notificaciones de un usuario posteriores a una dada, junto con su denuncia y solicitud.
+     * Se usa para reenviar las notificaciones perdidas cuando un cliente SSE se reconecta.
+     *
+     * @param userId Identificador del usuario destinatario
+     * @param id Identificador de la última notificación recibida por el cliente
+     * @param limit Cantidad máxima de notificaciones a devolver
+     * @return Lista de notificaciones ordenadas por id ascendente
+     */
+    @EntityGraph(attributePaths = {"denuncia", "solicitud"})
+    List<Notification> findByDestinatarioIdAndIdGreaterThanOrderByIdAsc(Long userId, Long id, Limit limit);
+
+    /**
+     * Obtiene el destinatario y el estado de lectura de una notificación, sin cargar la entidad.
+     *
+     * @param id Identificador único de la notificación.
+     * @return El destinatario y el estado de lectura, o vacío si la notificación no existe.
+     */
+    @Query("SELECT n.destinatario.id AS destinatarioId, n.visto AS visto FROM Notification n WHERE n.id = :id")
+    Optional<Lectura> findLecturaById(@Param("id") Long id);
+
+    /**
+     * Cuenta las notificaciones no leídas de un usuario.
+     *
+     * @param userId Identificador del usuario destinatario
+     * @return Cantidad de notificaciones no leídas
+     */
+    long countByDestinatarioIdAndVistoFalse(Long userId);
+
+    /**
+     * Obtiene los destinatarios con notificaciones no leídas de las solicitudes indicadas.
+     *
+     * @param solicitudIds Identificadores de las solicitudes
+     * @return Identificadores de los destinatarios, sin repetir
+     */
+    @Query("SELECT DISTINCT n.destinatario.id FROM Notification n WHERE n.solicitud.id IN :solicitudIds AND n.visto = false")
+    List<Long> findDestinatariosNoLeidosPorSolicitudes(@Param("solicitudIds") Collection<Long> solicitudIds);
+
+    /**
+     * Marca como leídas, en una sola sentencia, las notificaciones no leídas de las solicitudes indicadas.
+     *
+     * @param solicitudIds Identificadores de las solicitudes a las que están asociadas las notificaciones.
+     * @return Cantidad de notificaciones actualizadas.
+     */
+    @Modifying
+    @Query("UPDATE Notification n SET n.visto = true WHERE n.solicitud.id IN :solicitudIds AND n.visto = false")
+    int marcarVistasPorSolicitudes(@Param("solicitudIds") Collection<Long> solicitudIds);
+
+    /**
+     * Marca como leídas, en una sola sentencia, todas las notificaciones no leídas de un destinatario.
+     *
+     * @param userId Identificador único del destinatario.
+     * @return Cantidad de notificaciones actualizadas.
+     */
+    @Modifying
+    @Query("UPDATE Notification n SET n.visto = true WHERE n.destinatario.id = :userId AND n.visto = false")
+    int marcarTodasVistas(@Param("userId") Long userId);
+
+    /**
+     * Marca como leídas, en una sola sentencia, las notificaciones indicadas.
+     *
+     * @param ids Identificadores de las notificaciones.
+     * @return Cantidad de notificaciones actualizadas.
+     */
+    @Modifying
+    @Query("UPDATE Notification n SET n.visto = true WHERE n.id IN :ids AND n.visto = false")
+    int marcarVistas(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Obtiene un bloque de identificadores de notificaciones leídas anteriores a una fecha, para la retención.
+     *
+     * @param limite Fecha de creación límite (exclusive)
+     * @param limit Cantidad máxima de identificadores a devolver
+     * @return Identificadores de las notificaciones, de la más antigua a la más reciente
+     */
+    @Query("SELECT n.id FROM Notification n WHERE n.visto = true AND n.createdDate < :limite ORDER BY n.createdDate, n.id")
+    List<Long> findIdsLeidasAnterioresA(@Param("limite") LocalDateTime limite, Limit limit);
+
+    /**
+     * Obtiene los destinatarios que tienen más notificaciones que el máximo indicado.
+     *
+     * @param maximo Cantidad máxima de notificaciones por destinatario
+     * @return Identificadores de los destinatarios que superan el máximo
+     */
+    @Query("SELECT n.destinatario.id FROM Notification n GROUP BY n.destinatario.id HAVING COUNT(n) > :maximo")
+    List<Long> findDestinatariosConMasDe(@Param("maximo") long maximo);
+
+    /**
+     * Obtiene posiciones {@code (createdDate, id)} de la bandeja de un destinatario en orden descendente.
+     * Se usa con un desplazamiento para encontrar la primera notificación que excede el máximo por usuario.
+     *
+     * @param userId Identificador del destinatario
+     * @param pageable Desplazamiento y cantidad de posiciones a devolver
+     * @return Posiciones de las notificaciones ordenadas por fecha de creación e id descendentes
+     */
+    @Query("""
+            SELECT new utp.edu.denuncias.dto.PageCursor(n.createdDate, n.id) FROM Notification n
+            WHERE n.destinatario.id = :userId
+            ORDER BY n.createdDate DESC, n.id DESC""")
+    List<PageCursor> findPosicionesByDestinatarioId(@Param("userId") Long userId, Pageable pageable);
+
     /**
-     * Recupera una lista de notificaciones filtradas por el identificador del destinatario,
-     * ordenadas en orden descendente por la fecha de creación.
+     * Obtiene un bloque de identificadores de notificaciones de un destinatario en la posición indicada o
+     * anteriores a ella.
      *
-     * @param userId Identificador único del destinatario para el que se buscan las notificaciones.
-     * @return Lista de notificaciones pertenecientes al destinatario especificado,
-     * ordenadas por fecha de creación en orden descendente.
+     * @param userId Identificador del destinatario
+     * @param fecha Fecha de creación de la posición
+     * @param id Identificador de la posición
+     * @param limit Cantidad máxima de identificadores a devolver
+     * @return Identificadores de las notificaciones
      */
-    List<Notification> findAllByDestinatarioIdOrderByCreatedDateDesc(Long userId);
+    @Query("""
+            SELECT n.id FROM Notification n
+            WHERE n.destinatario.id = :userId
+              AND n.createdDate <= :fecha AND (n.createdDate < :fecha OR (n.createdDate = :fecha AND n.id <= :id))""")
+    List<Long> findIdsHastaPosicion(@Param("userId") Long userId, @Param("fecha") LocalDateTime fecha,
+                                    @Param("id") Long id, Limit limit);
 
     /**
-     * Recupera una lista de notificaciones asociadas a una solicitud específica
-     * que aún no han sido marcadas como leídas.
+     * Elimina, en una sola sentencia, las notificaciones indicadas.
      *
-     * @param solicitud La solicitud a la que están asociadas las notificaciones buscadas.
-     * @return Lista de notificaciones relacionadas con la solicitud proporcionada
-     *         y que no han sido leídas.
+     * @param ids Identificadores de las notificaciones.
+     * @return Cantidad de notificaciones eliminadas.
      */
-    List<Notification> findBySolicitudAndVistoFalse(Solicitud solicitud);
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.id IN :ids")
+    int eliminarPorIds(@Param("ids") Collection<Long> ids);
 }
@@ -3,6 +3,7 @@ package utp.edu.denuncias.repository;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import utp.edu.denuncias.dto.VersionContenido;
 import utp.edu.denuncias.enums.Estado;
 import utp.edu.denuncias.model.Solicitud;
 
@@ -16,6 +17,26 @@ import java.util.List;
  */
 public interface SolicitudRepository extends JpaRepository<Solicitud, Long> {
 
+    /**
+     * Huella de un listado para su ETag ({@link VersionContenido}): las versiones incluyen las del autor y
+     * del revisor, porque sus nombres forman parte de la respuesta.
+     */
+    String SELECT_VERSION = """
+            SELECT new utp.edu.denuncias.dto.VersionContenido(
+                count(s), coalesce(sum(s.id), 0L),
+                coalesce(sum(s.version + coalesce(a.version, 0L) + coalesce(r.version, 0L)), 0L))
+            FROM Solicitud s LEFT JOIN s.autor a LEFT JOIN s.revisor r
+            """;
+
+    /**
+     * Calcula la huella de una solicitud, con su autor y revisor, sin cargarla.
+     *
+     * @param id el identificador único de la solicitud.
+     * @return la huella de la solicitud; la cantidad es cero si no existe.
+     */
+    @Query(SELECT_VERSION + "WHERE s.id = :id")
+    VersionContenido versionById(@Param("id") Long id);
+
     /**
      * Busca y devuelve una lista de solicitudes donde el usuario proporcionado
      * es autor o revisor, ordenadas en orden descendente por la fecha de creación.
@@ -28,6 +49,15 @@ public interface SolicitudRepository extends JpaRepository<Solicitud, Long> {
     @Query("SELECT s FROM Solicitud s WHERE (s.autor.id = :usuarioId OR s.revisor.id = :usuarioId) ORDER BY s.createdDate desc")
     List<Solicitud> findByAutorOrRevisorId(@Param("usuarioId") Long usuarioId);
 
+    /**
+     * Calcula la huella de las solicitudes donde el usuario proporcionado es autor o revisor, sin cargarlas.
+     *
+     * @param usuarioId el identificador único del usuario que puede ser autor o revisor de las solicitudes.
+     * @return la huella de las solicitudes del usuario.
+     */
+    @Query(SELECT_VERSION + "WHERE (a.id = :usuarioId OR r.id = :usuarioId)")
+    VersionContenido versionByAutorOrRevisorId(@Param("usuarioId") Long usuarioId);
+
     /**
      * Busca y devuelve una lista de solicitudes cuyo revisor no está asignado
      * (es nulo), ordenadas en orden descendente por la fecha de creación.
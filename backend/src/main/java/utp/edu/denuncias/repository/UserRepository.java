@@ -1,6 +1,9 @@
 package utp.edu.denuncias.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import utp.edu.denuncias.dto.VersionContenido;
 import utp.edu.denuncias.enums.Rol;
 import utp.edu.denuncias.model.Usuario;
 import java.util.*;
@@ -11,6 +14,14 @@ import java.util.*;
  */
 public interface UserRepository extends JpaRepository<Usuario, Long> {
 
+    /**
+     * Huella de un listado de usuarios para su ETag ({@link VersionContenido}).
+     */
+    String SELECT_VERSION = """
+            SELECT new utp.edu.denuncias.dto.VersionContenido(count(u), coalesce(sum(u.id), 0L), coalesce(sum(u.version), 0L))
+            FROM Usuario u
+            """;
+
     /**
      * Busca un usuario por su nombre de usuario (username).
      *
@@ -26,6 +37,31 @@ public interface UserRepository extends JpaRepository<Usuario, Long> {
      */
     List<Usuario> findByEnabledTrue();
 
+    /**
+     * Calcula la huella de todos los usuarios, sin cargarlos.
+     *
+     * @return Huella de los usuarios registrados
+     */
+    @Query(SELECT_VERSION)
+    VersionContenido version();
+
+    /**
+     * Calcula la huella de los usuarios habilitados, sin cargarlos.
+     *
+     * @return Huella de los usuarios habilitados en el sistema
+     */
+    @Query(SELECT_VERSION + "WHERE u.enabled = true")
+    VersionContenido versionByEnabledTrue();
+
+    /**
+     * Calcula la huella de un usuario, sin cargarlo.
+     *
+     * @param id Identificador único del usuario
+     * @return Huella del usuario; la cantidad es cero si no existe
+     */
+    @Query(SELECT_VERSION + "WHERE u.id = :id")
+    VersionContenido versionById(@Param("id") Long id);
+
     /**
      * Devuelve una lista de usuarios que tienen el rol especificado.
      *
@@ -33,4 +69,13 @@ public interface UserRepository extends JpaRepository<Usuario, Long> {
      * @return Lista de usuarios que poseen el rol especificado
      */
     List<Usuario> findAllByRol(Rol rol);
+
+    /**
+     * Devuelve los identificadores de los usuarios habilitados que tienen el rol especificado.
+     *
+     * @param rol El rol por el cual se filtrarán los usuarios
+     * @return Lista de identificadores de los usuarios habilitados con el rol especificado
+     */
+    @Query("SELECT u.id FROM Usuario u WHERE u.rol = :rol AND u.enabled = true")
+    List<Long> findIdsHabilitadosByRol(@Param("rol") Rol rol);
 }
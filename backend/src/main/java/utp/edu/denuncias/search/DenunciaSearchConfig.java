@@ -0,0 +1,34 @@
+package utp.edu.denuncias.search;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import utp.edu.denuncias.event.DenunciaEliminada;
+import utp.edu.denuncias.event.DenunciaGuardada;
+import utp.edu.denuncias.event.DomainEventHandler;
+
+/**
+ * Registra los manejadores de eventos de dominio que mantienen actualizado el índice de búsqueda.
+ * El índice se actualiza en segundo plano, poco después de confirmarse cada cambio.
+ */
+@Configuration
+public class DenunciaSearchConfig {
+
+    /**
+     * @param index índice de búsqueda de denuncias
+     * @return manejador que indexa las denuncias registradas o editadas
+     */
+    @Bean
+    public DomainEventHandler<DenunciaGuardada> denunciaGuardadaHandler(DenunciaSearchIndex index) {
+        return DomainEventHandler.of(DenunciaGuardada.class, eventos -> eventos.forEach(e ->
+                index.indexar(new DocumentoDenuncia(e.denunciaId(), e.titulo(), e.description(), e.lugar()))));
+    }
+
+    /**
+     * @param index índice de búsqueda de denuncias
+     * @return manejador que quita del índice las denuncias eliminadas
+     */
+    @Bean
+    public DomainEventHandler<DenunciaEliminada> denunciaEliminadaHandler(DenunciaSearchIndex index) {
+        return DomainEventHandler.of(DenunciaEliminada.class, eventos -> eventos.forEach(e -> index.eliminar(e.denunciaId())));
+    }
+}
@@ -0,0 +1,343 @@
+package utp.edu.denuncias.search;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import utp.edu.denuncias.repository.DenunciaRepository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Índice invertido en memoria sobre el título, la descripción y el lugar de las denuncias.
+ * Cada término apunta a las denuncias que lo contienen con su frecuencia; las consultas se puntúan con BM25,
+ * contando cada aparición en el título {@value #PESO_TITULO} veces. Los términos se guardan ordenados,
+ * por lo que un término de prefijo se resuelve recorriendo solo el rango de términos que empiezan por él.
+ * <p>
+ * El índice se reconstruye al iniciar la aplicación, en segundo plano y analizando el texto en paralelo,
+ * y luego se mantiene al crear, editar o eliminar denuncias. La reconstrucción arma un índice nuevo aparte
+ * y lo reemplaza al terminar, de modo que las búsquedas siguen usando el anterior mientras tanto.
+ * Las lecturas comparten un bloqueo de lectura y las modificaciones, que son mucho menos frecuentes,
+ * toman el de escritura por un tiempo muy breve.
+ */
+@Slf4j
+@Component
+public class DenunciaSearchIndex implements MeterBinder {
+
+    /**
+     * Resultado de una búsqueda.
+     *
+     * @param id    identificador de la denuncia
+     * @param score puntuación BM25
+     */
+    public record Resultado(Long id, double score) {
+    }
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int PESO_TITULO = 3;
+
+    // Cantidad máxima de términos del índice en los que se expande un prefijo, los de más denuncias primero
+    private static final int MAXIMO_EXPANSION = 64;
+
+    // Cantidad de denuncias leídas por consulta durante la reconstrucción
+    private static final int TAMANO_BLOQUE = 1000;
+
+    private final DenunciaRepository denunciaRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Los campos siguientes se protegen con lock
+    private Indice indice = new Indice();
+    // Denuncias indexadas (con sus frecuencias) o eliminadas (null) durante la reconstrucción,
+    // para aplicarlas también al índice nuevo antes de reemplazar el actual
+    private Map<Long, Map<String, Integer>> cambiosDuranteReconstruccion;
+
+    public DenunciaSearchIndex(DenunciaRepository denunciaRepository) {
+        this.denunciaRepository = denunciaRepository;
+    }
+
+    /**
+     * Inicia la reconstrucción del índice en segundo plano una vez que la aplicación está lista.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void alIniciar() {
+        Thread.ofPlatform().name("indice-denuncias").daemon().start(this::reconstruir);
+    }
+
+    /**
+     * Vuelve a construir el índice a partir de la base de datos. Las denuncias se leen por bloques
+     * ordenados por id y el texto de cada bloque se analiza en paralelo. El índice nuevo se arma sin bloquear
+     * las búsquedas, que siguen usando el actual; las denuncias indexadas o eliminadas mientras tanto se
+     * aplican también al nuevo justo antes de reemplazar el actual.
+     */
+    public synchronized void reconstruir() {
+        long inicio = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            cambiosDuranteReconstruccion = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        var nuevo = new Indice();
+        try {
+            long ultimoId = 0;
+            List<DocumentoDenuncia> bloque;
+            do {
+                bloque = denunciaRepository.findDocumentosDesde(ultimoId, Limit.of(TAMANO_BLOQUE));
+                bloque.parallelStream()
+                        .map(d -> Map.entry(d.id(), frecuencias(d)))
+                        .toList()
+                        .forEach(analizado -> nuevo.agregar(analizado.getKey(), analizado.getValue()));
+                if (!bloque.isEmpty()) {
+                    ultimoId = bloque.getLast().id();
+                }
+            } while (bloque.size() == TAMANO_BLOQUE);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                cambiosDuranteReconstruccion = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        lock.writeLock().lock();
+        try {
+            cambiosDuranteReconstruccion.forEach((id, frecuencias) -> {
+                nuevo.quitar(id);
+                if (frecuencias != null) {
+                    nuevo.agregar(id, frecuencias);
+                }
+            });
+            cambiosDuranteReconstruccion = null;
+            indice = nuevo;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Índice de búsqueda de denuncias reconstruido: {} denuncias en {} ms",
+                nuevo.documentos.size(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    /**
+     * Agrega una denuncia al índice o reemplaza su versión anterior.
+     *
+     * @param documento campos de texto de la denuncia
+     */
+    public void indexar(DocumentoDenuncia documento) {
+        var frecuencias = frecuencias(documento);
+        lock.writeLock().lock();
+        try {
+            indice.quitar(documento.id());
+            indice.agregar(documento.id(), frecuencias);
+            if (cambiosDuranteReconstruccion != null) {
+                cambiosDuranteReconstruccion.put(documento.id(), frecuencias);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Quita una denuncia del índice.
+     *
+     * @param id identificador de la denuncia
+     */
+    public void eliminar(Long id) {
+        lock.writeLock().lock();
+        try {
+            indice.quitar(id);
+            if (cambiosDuranteReconstruccion != null) {
+                cambiosDuranteReconstruccion.put(id, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca las denuncias que mejor coinciden con la consulta. Una denuncia coincide si contiene al menos
+     * uno de los términos; las que contienen más términos, o términos menos frecuentes, puntúan más alto.
+     *
+     * @param consulta texto de la consulta
+     * @param limite   cantidad máxima de resultados
+     * @return resultados ordenados por puntuación descendente (a igual puntuación, los más recientes primero)
+     */
+    public List<Resultado> buscar(String consulta, int limite) {
+        var terminos = TextAnalyzer.consulta(consulta);
+        if (terminos.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+        Map<Long, Double> puntajes = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            var actual = indice;
+            if (actual.documentos.isEmpty()) {
+                return List.of();
+            }
+            double n = actual.documentos.size();
+            double longitudMedia = (double) actual.longitudTotal / actual.documentos.size();
+            for (var termino : terminos) {
+                // Con prefijos, cada denuncia aporta solo su mejor término expandido
+                Map<Long, Double> delTermino = new HashMap<>();
+                for (var entrada : actual.coincidencias(termino)) {
+                    var docs = entrada.getValue();
+                    double idf = Math.log(1 + (n - docs.size() + 0.5) / (docs.size() + 0.5));
+                    docs.forEach((id, tf) -> {
+                        double norma = K1 * (1 - B + B * actual.longitudes.get(id) / longitudMedia);
+                        delTermino.merge(id, idf * tf * (K1 + 1) / (tf + norma), Math::max);
+                    });
+                }
+                delTermino.forEach((id, puntaje) -> puntajes.merge(id, puntaje, Double::sum));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Comparator<Resultado> orden = Comparator.comparingDouble(Resultado::score).thenComparing(Resultado::id);
+        PriorityQueue<Resultado> mejores = new PriorityQueue<>(limite + 1, orden);
+        puntajes.forEach((id, puntaje) -> {
+            mejores.add(new Resultado(id, puntaje));
+            if (mejores.size() > limite) {
+                mejores.poll();
+            }
+        });
+        List<Resultado> resultados = new ArrayList<>(mejores);
+        resultados.sort(orden.reversed());
+        return resultados;
+    }
+
+    /**
+     * Calcula la frecuencia de cada término de una denuncia; los del título cuentan {@value #PESO_TITULO} veces.
+     *
+     * @param documento campos de texto de la denuncia
+     * @return frecuencia por término
+     */
+    private static Map<String, Integer> frecuencias(DocumentoDenuncia documento) {
+        Map<String, Integer> frecuencias = new HashMap<>();
+        TextAnalyzer.terminos(documento.titulo()).forEach(t -> frecuencias.merge(t, PESO_TITULO, Integer::sum));
+        TextAnalyzer.terminos(documento.description()).forEach(t -> frecuencias.merge(t, 1, Integer::sum));
+        TextAnalyzer.terminos(documento.lugar()).forEach(t -> frecuencias.merge(t, 1, Integer::sum));
+        return frecuencias;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("busqueda.denuncias.documentos", this, i -> i.contar(actual -> actual.documentos))
+                .description("Denuncias en el índice de búsqueda")
+                .register(registry);
+        Gauge.builder("busqueda.denuncias.terminos", this, i -> i.contar(actual -> actual.postings))
+                .description("Términos distintos en el índice de búsqueda")
+                .register(registry);
+    }
+
+    /**
+     * Obtiene el tamaño de una de las estructuras del índice bajo el bloqueo de lectura.
+     *
+     * @param estructura estructura del índice actual que se cuenta
+     * @return cantidad de entradas
+     */
+    private double contar(Function<Indice, Map<?, ?>> estructura) {
+        lock.readLock().lock();
+        try {
+            return estructura.apply(indice).size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Estructuras de un índice: listas de apariciones por término, términos de cada denuncia y longitudes.
+     * Se modifica con el bloqueo de escritura tomado, salvo el que arma la reconstrucción, que solo ve
+     * su hilo hasta que reemplaza al actual.
+     */
+    private static final class Indice {
+
+        // Orden del montículo de la expansión de prefijos: primero el término con menos denuncias
+        private static final Comparator<Map.Entry<String, Map<Long, Integer>>> POR_FRECUENCIA =
+                Comparator.comparingInt((Map.Entry<String, Map<Long, Integer>> e) -> e.getValue().size())
+                        .thenComparing(Map.Entry::getKey, Comparator.reverseOrder());
+
+        private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+        private final Map<Long, Map<String, Integer>> documentos = new HashMap<>();
+        private final Map<Long, Integer> longitudes = new HashMap<>();
+        private long longitudTotal;
+
+        /**
+         * Obtiene las listas de apariciones que corresponden a un término de consulta: la del término exacto,
+         * o, si es un prefijo, las de los términos que empiezan por él. Si son más de {@value DenunciaSearchIndex#MAXIMO_EXPANSION},
+         * se conservan los que aparecen en más denuncias, que son los que más pesan en el resultado (a igual
+         * frecuencia, los primeros en orden alfabético). Se eligen con un montículo acotado en una sola pasada,
+         * sin ordenar toda la expansión, porque se recorre con el bloqueo de lectura tomado y un prefijo corto
+         * puede abarcar buena parte del vocabulario.
+         *
+         * @param termino término de la consulta
+         * @return apariciones por término del índice
+         */
+        private Iterable<Map.Entry<String, Map<Long, Integer>>> coincidencias(TextAnalyzer.Termino termino) {
+            if (!termino.prefijo()) {
+                var docs = postings.get(termino.texto());
+                return docs == null ? List.of() : List.of(Map.entry(termino.texto(), docs));
+            }
+            var expansion = postings.subMap(termino.texto(), true, termino.texto() + Character.MAX_VALUE, false);
+            PriorityQueue<Map.Entry<String, Map<Long, Integer>>> masFrecuentes =
+                    new PriorityQueue<>(MAXIMO_EXPANSION + 1, POR_FRECUENCIA);
+            for (var entrada : expansion.entrySet()) {
+                masFrecuentes.add(entrada);
+                if (masFrecuentes.size() > MAXIMO_EXPANSION) {
+                    masFrecuentes.poll();
+                }
+            }
+            return masFrecuentes;
+        }
+
+        /**
+         * Agrega las apariciones de una denuncia.
+         *
+         * @param id          identificador de la denuncia
+         * @param frecuencias frecuencia por término de la denuncia
+         */
+        private void agregar(Long id, Map<String, Integer> frecuencias) {
+            int longitud = 0;
+            for (var entrada : frecuencias.entrySet()) {
+                postings.computeIfAbsent(entrada.getKey(), _ -> new HashMap<>()).put(id, entrada.getValue());
+                longitud += entrada.getValue();
+            }
+            documentos.put(id, frecuencias);
+            longitudes.put(id, longitud);
+            longitudTotal += longitud;
+        }
+
+        /**
+         * Quita las apariciones de una denuncia, si está indexada.
+         *
+         * @param id identificador de la denuncia
+         */
+        private void quitar(Long id) {
+            var anteriores = documentos.remove(id);
+            if (anteriores == null) {
+                return;
+            }
+            for (String termino : anteriores.keySet()) {
+                var docs = postings.get(termino);
+                docs.remove(id);
+                if (docs.isEmpty()) {
+                    postings.remove(termino);
+                }
+            }
+            longitudTotal -= longitudes.remove(id);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package utp.edu.denuncias.search;
+
+/**
+ * Campos de texto de una denuncia que se indexan para la búsqueda.
+ *
+ * @param id          identificador de la denuncia
+ * @param titulo      título de la denuncia
+ * @param description descripción de la denuncia
+ * @param lugar       lugar de la denuncia
+ */
+public record DocumentoDenuncia(Long id, String titulo, String description, String lugar) {
+}
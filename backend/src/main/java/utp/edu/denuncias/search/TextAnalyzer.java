@@ -0,0 +1,140 @@
+package utp.edu.denuncias.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Análisis de texto en español para el índice de búsqueda: pasa a minúsculas, elimina tildes y diéresis
+ * ("policía" y "policia" son el mismo término), separa en palabras, descarta las palabras vacías más
+ * frecuentes y reduce cada palabra a una raíz ligera que une singular y plural, masculino y femenino.
+ * El mismo análisis se aplica al indexar y al consultar, de modo que ambos producen los mismos términos.
+ */
+public final class TextAnalyzer {
+
+    private static final Locale ES = Locale.forLanguageTag("es");
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}*]+");
+
+    private static final Set<String> PALABRAS_VACIAS = Set.of(
+            "a", "al", "ante", "como", "con", "contra", "de", "del", "desde", "e", "el", "en", "entre", "era",
+            "es", "esa", "ese", "eso", "esta", "este", "esto", "fue", "ha", "hay", "la", "las", "le", "les", "lo",
+            "los", "mas", "me", "mi", "muy", "ni", "no", "o", "para", "pero", "por", "que", "se", "si", "sin",
+            "sobre", "su", "sus", "te", "tu", "u", "un", "una", "unas", "uno", "unos", "y", "ya");
+
+    /**
+     * Término de una consulta.
+     *
+     * @param texto   término analizado
+     * @param prefijo true si debe coincidir con cualquier término que empiece por él
+     */
+    public record Termino(String texto, boolean prefijo) {
+    }
+
+    private TextAnalyzer() {
+    }
+
+    /**
+     * Convierte un texto en la lista de términos que se indexan, en el orden en que aparecen.
+     *
+     * @param texto texto a analizar, puede ser null
+     * @return términos del texto
+     */
+    public static List<String> terminos(String texto) {
+        List<String> terminos = new ArrayList<>();
+        if (texto == null) {
+            return terminos;
+        }
+        for (String palabra : SEPARADORES.split(plegar(texto).replace("*", " "))) {
+            if (!palabra.isEmpty() && !PALABRAS_VACIAS.contains(palabra)) {
+                terminos.add(raiz(palabra));
+            }
+        }
+        return terminos;
+    }
+
+    /**
+     * Analiza una consulta. Las palabras terminadas en {@code *} y la última palabra (para buscar mientras
+     * se escribe) se tratan como prefijos.
+     *
+     * @param consulta texto de la consulta, puede ser null
+     * @return términos de la consulta
+     */
+    public static List<Termino> consulta(String consulta) {
+        List<Termino> terminos = new ArrayList<>();
+        if (consulta == null) {
+            return terminos;
+        }
+        String[] palabras = SEPARADORES.split(plegar(consulta).strip());
+        for (int i = 0; i < palabras.length; i++) {
+            boolean comodin = palabras[i].endsWith("*");
+            String palabra = palabras[i].replace("*", "");
+            boolean ultima = i == palabras.length - 1;
+            if (palabra.isEmpty() || (!comodin && !ultima && PALABRAS_VACIAS.contains(palabra))) {
+                continue;
+            }
+            terminos.add(new Termino(raiz(palabra), comodin || ultima));
+        }
+        return terminos;
+    }
+
+    /**
+     * Pasa a minúsculas y elimina las marcas diacríticas (tildes, diéresis, virgulilla de la ñ).
+     *
+     * @param texto texto a normalizar
+     * @return el texto normalizado
+     */
+    static String plegar(String texto) {
+        return MARCAS.matcher(Normalizer.normalize(texto.toLowerCase(ES), Normalizer.Form.NFD)).replaceAll("");
+    }
+
+    /**
+     * Reduce una palabra a su raíz con las reglas del stemmer ligero para español de J. Savoy.
+     * Primero pasa el plural a singular (-eses a -es, -ces a -z, y -os, -as, -es pierden la s) y luego quita
+     * la vocal final de género. El plural se quita antes de comprobar la longitud, de modo que singular y plural
+     * producen siempre la misma raíz ("robo" y "robos"); la vocal de género solo se quita en palabras de cinco
+     * letras o más.
+     *
+     * @param palabra palabra normalizada
+     * @return la raíz de la palabra
+     */
+    static String raiz(String palabra) {
+        String singular = singular(palabra);
+        int n = singular.length();
+        if (n < 5) {
+            return singular;
+        }
+        char ultima = singular.charAt(n - 1);
+        if (ultima == 'o' || ultima == 'a' || ultima == 'e') {
+            return singular.substring(0, n - 1);
+        }
+        return singular;
+    }
+
+    /**
+     * Pasa una palabra en plural a singular. Las palabras de menos de cuatro letras no se modifican.
+     *
+     * @param palabra palabra normalizada
+     * @return la palabra en singular
+     */
+    private static String singular(String palabra) {
+        int n = palabra.length();
+        if (n < 4 || palabra.charAt(n - 1) != 's') {
+            return palabra;
+        }
+        if (palabra.endsWith("eses")) {
+            return palabra.substring(0, n - 2);
+        }
+        if (palabra.endsWith("ces")) {
+            return palabra.substring(0, n - 3) + "z";
+        }
+        char penultima = palabra.charAt(n - 2);
+        if (penultima == 'o' || penultima == 'a' || penultima == 'e') {
+            return palabra.substring(0, n - 1);
+        }
+        return palabra;
+    }
+}
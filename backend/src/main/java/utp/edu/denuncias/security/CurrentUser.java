@@ -0,0 +1,22 @@
+package utp.edu.denuncias.security;
+
+import utp.edu.denuncias.enums.Rol;
+
+import java.security.Principal;
+
+/**
+ * Usuario autenticado en la solicitud actual, construido por {@link JwtFilter} a partir del JWT y de los
+ * detalles del usuario cargados en cada solicitud. Se establece como principal en el contexto de seguridad,
+ * de modo que los servicios pueden obtener el identificador y rol del usuario sin volver a consultarlo.
+ *
+ * @param id       identificador único del usuario (reclamo "uid")
+ * @param username nombre de usuario (sujeto del token)
+ * @param rol      rol vigente del usuario, tomado de sus permisos y no del reclamo "role" del token
+ */
+public record CurrentUser(Long id, String username, Rol rol) implements Principal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
@@ -1,18 +1,27 @@
 package utp.edu.denuncias.security;
 
-import jakarta.servlet.*;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import utp.edu.denuncias.enums.Rol;
 
 import java.io.IOException;
 
 @Component
 @RequiredArgsConstructor
-public class JwtFilter implements Filter {
+public class JwtFilter extends OncePerRequestFilter {
+
+    // Prefijo que Spring Security agrega a los roles al construir los permisos
+    private static final String PREFIJO_ROL = "ROLE_";
 
     // Utilidad para manejar operaciones con JWT (validar, extraer info, etc.)
     private final JwtUtil jwtUtil;
@@ -22,15 +31,18 @@ public class JwtFilter implements Filter {
 
     /**
      * Método que intercepta cada solicitud HTTP entrante para validar el token JWT.
+     * Al extender {@link OncePerRequestFilter} se ejecuta una sola vez por solicitud, aunque la
+     * solicitud se despache de nuevo internamente (errores, procesamiento asíncrono).
      * Pasos:
      * 1. Obtiene el encabezado "Authorization" de la solicitud HTTP.
      * 2. Verifica que el encabezado no sea nulo y que comience con "Bearer ".
      * 3. Extrae el token JWT (quitando el prefijo "Bearer ").
-     * 4. Consulta en la base de datos para validar que el token no esté expirado ni revocado.
-     * 5. Usa JwtUtil para validar la firma y estructura del token.
-     * 6. Si el token es válido, extrae el nombre de usuario y carga sus detalles.
-     * 7. Crea un objeto de autenticación y lo establece en el contexto de seguridad de Spring.
-     * 8. Finalmente, deja pasar la solicitud al siguiente filtro o controlador.
+     * 4. Usa JwtUtil para verificar la firma y vigencia del token y obtener sus datos en una sola pasada.
+     * 5. Si el token es válido, carga los detalles del usuario indicado en el token (comprueba que siga habilitado).
+     * 6. Crea un {@link CurrentUser} con el identificador del token y el rol vigente del usuario cargado
+     *    (no el del token, que puede haber cambiado desde que se emitió) y lo establece como principal
+     *    de la autenticación en el contexto de seguridad de Spring.
+     * 7. Finalmente, deja pasar la solicitud al siguiente filtro o controlador.
      *
      * @param request  Solicitud entrante
      * @param response Respuesta HTTP
@@ -39,50 +51,54 @@ public class JwtFilter implements Filter {
      * @throws ServletException Excepción de Servlet si falla el procesamiento
      */
     @Override
-    public void doFilter(ServletRequest request, ServletResponse response, FilterChain filterChain)
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws IOException, ServletException {
 
-        // Cast para obtener la solicitud HTTP
-        HttpServletRequest req = (HttpServletRequest) request;
-
         // Obtiene el header "Authorization"
-        String auth = req.getHeader("Authorization");
-
-        // Log para ver el valor del header Authorization (útil para debugging)
-        System.out.println("Header Authorization: " + auth);
+        String auth = request.getHeader("Authorization");
 
         // Verifica que el header exista y comience con "Bearer "
         if (auth != null && auth.startsWith("Bearer ")) {
-            // Extrae el token JWT (sin el prefijo "Bearer ")
-            String token = auth.substring(7);
-
-            // Válida la estructura y firma del token JWT con JwtUtil
-            if (jwtUtil.validateToken(token)) {
-                // Extrae el nombre de usuario del token
-                String username = jwtUtil.extractUsername(token);
-
-                // Log para confirmar usuario y token válido
-                System.out.println("Token válido para usuario: " + username);
-
+            // Extrae el token JWT (sin el prefijo "Bearer ") y lo verifica una sola vez
+            jwtUtil.verify(auth.substring(7)).ifPresent(token -> {
                 // Carga los detalles del usuario para la autenticación
-                var userDetails = userDetailsService.loadUserByUsername(username);
+                var userDetails = userDetailsService.loadUserByUsername(token.username());
 
-                // Crea un objeto Authentication con los detalles del usuario y sus roles
+                // El principal es el usuario del token, con el rol y los permisos vigentes en la base de datos
+                var principal = new CurrentUser(token.userId(), userDetails.getUsername(), rol(userDetails));
+
+                // Crea un objeto Authentication con el usuario autenticado y sus roles
                 var authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
+                        principal,
                         null,
                         userDetails.getAuthorities()
                 );
 
                 // Añade detalles adicionales de la solicitud a la autenticación
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(req));
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                 // Establece la autenticación en el contexto de seguridad de Spring
                 SecurityContextHolder.getContext().setAuthentication(authToken);
-            }
+            });
         }
 
         // Continúa la cadena de filtros, pasando la solicitud y respuesta
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    /**
+     * Obtiene el rol del usuario a partir de sus permisos ({@code ROLE_<rol>}).
+     *
+     * @param userDetails detalles del usuario cargados por {@link UserDetailsServiceImpl}
+     * @return el rol vigente del usuario
+     * @throws IllegalStateException si el usuario no tiene un permiso de rol
+     */
+    private static Rol rol(UserDetails userDetails) {
+        return userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .filter(a -> a.startsWith(PREFIJO_ROL))
+                .map(a -> Rol.valueOf(a.substring(PREFIJO_ROL.length())))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("El usuario " + userDetails.getUsername() + " no tiene rol"));
+    }
+}
@@ -1,5 +1,8 @@
 package utp.edu.denuncias.security;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -8,10 +11,18 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
+import utp.edu.denuncias.cache.LocalCache;
 import utp.edu.denuncias.model.Usuario;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.Optional;
 
 @Component
 public class JwtUtil {
@@ -24,22 +35,40 @@ public class JwtUtil {
     @Value("${jwt.expiration}")
     private long expiration;
 
+    // Cantidad máxima de tokens verificados que se mantienen en caché
+    @Value("${jwt.cache.max-size:10000}")
+    private int cacheMaxSize;
+
+    // Tiempo máximo que un token verificado permanece en caché, aunque no haya expirado
+    @Value("${jwt.cache.ttl:10m}")
+    private Duration cacheTtl;
+
     // Clave secreta para firmar y validar JWT, derivada a partir del valor 'secret'
     private Key secretKey;
 
+    // Parser configurado con la clave secreta; es inmutable y seguro para uso concurrente
+    private JwtParser parser;
+
+    // Tokens ya verificados, indexados por el hash del token
+    private LocalCache<String, VerifiedToken> verifiedTokens;
+
     /**
-     * Inicializa la clave secreta (secretKey) a partir del valor 'secret'.
+     * Inicializa la clave secreta (secretKey) a partir del valor 'secret', junto con el parser
+     * y la caché de tokens verificados que se reutilizan en cada solicitud.
      * Se ejecuta automáticamente tras la construcción del bean para preparar la clave.
      */
     @PostConstruct
     public void init() {
         this.secretKey = Keys.hmacShaKeyFor(secret.getBytes());
+        this.parser = Jwts.parserBuilder().setSigningKey(secretKey).build();
+        this.verifiedTokens = new LocalCache<>(cacheMaxSize, cacheTtl);
     }
 
     /**
      * Genera un token JWT para el usuario dado, incluyendo:
      * - El DNI como sujeto (sub).
-     * - El rol del usuario como reclamo adicional ("rol").
+     * - El identificador del usuario como reclamo adicional ("uid").
+     * - El rol del usuario como reclamo adicional ("role").
      * - La fecha de expiración calculada según el valor de configuración.
      * - Firma el token con la clave secreta usando HS512.
      * <p>
@@ -52,6 +81,7 @@ public class JwtUtil {
     public String generateToken(Usuario user) {
         return Jwts.builder()
                 .setSubject(user.getUsername())
+                .claim("uid", user.getId())
                 .claim("role", user.getRol().name())
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
                 .signWith(secretKey, SignatureAlgorithm.HS512)
@@ -59,37 +89,59 @@ public class JwtUtil {
     }
 
     /**
-     * Extrae el nombre de usuario (en este caso el DNI) contenido en el JWT.
-     * Verifica la firma del token con la clave secreta y retorna el subject.
+     * Verifica la firma y vigencia del token y devuelve sus reclamos en una sola pasada.
+     * Los tokens ya verificados se guardan en una caché acotada, indexada por el hash SHA-256 del token
+     * (nunca por el token en sí), hasta su expiración o hasta el tiempo de vida máximo de la caché,
+     * lo que ocurra primero. Así, las solicitudes sucesivas con el mismo token no vuelven a verificar la firma.
+     *
+     * @param token JWT a verificar
+     * @return los datos del token si es válido, o vacío si su formato, firma o vigencia no lo son,
+     *         o si fue emitido sin el identificador de usuario
+     */
+    public Optional<VerifiedToken> verify(String token) {
+        String key = hash(token);
+        VerifiedToken cached = verifiedTokens.get(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();   // Token mal formado, alterado o expirado
+        }
+        Long userId = claims.get("uid", Long.class);
+        if (userId == null) {
+            return Optional.empty();   // Token emitido antes de incluir el identificador: se exige iniciar sesión de nuevo
+        }
+        Instant expiresAt = claims.getExpiration() == null ? null : claims.getExpiration().toInstant();
+        var verified = new VerifiedToken(userId, claims.getSubject(), claims.get("role", String.class), expiresAt);
+        verifiedTokens.put(key, verified,
+                expiresAt == null ? cacheTtl : Duration.between(Instant.now(), expiresAt));
+        return Optional.of(verified);
+    }
+
+    /**
+     * Devuelve la caché de tokens verificados, para publicar sus métricas.
      *
-     * @param token JWT a analizar
-     * @return DNI o nombre de usuario extraído del token, o null si falla
+     * @return la caché de tokens verificados
      */
-    public String extractUsername(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(secretKey)      // Configura la clave para validar
-                .build()
-                .parseClaimsJws(token)         // Parsea y valida el token JWT
-                .getBody()
-                .getSubject();                 // Extrae el subject (usuario)
+    public LocalCache<String, VerifiedToken> getVerifiedTokenCache() {
+        return verifiedTokens;
     }
 
     /**
-     * Valida que el token JWT sea correcto en formato y firma.
-     * Si el token no es válido o ha sido alterado, atrapa la excepción y retorna false.
+     * Calcula el hash SHA-256 del token, usado como clave de la caché de tokens verificados.
      *
-     * @param token JWT a validar
-     * @return true si el token es válido, false si no
+     * @param token JWT
+     * @return hash del token en hexadecimal
      */
-    public boolean validateToken(String token) {
+    private static String hash(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(secretKey)
-                    .build()
-                    .parseClaimsJws(token);  // Intentar parsear para validar firma
-            return true;
-        } catch (Exception e) {
-            return false;   // Cualquier excepción indica token inválido
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);   // SHA-256 está disponible en toda JVM
         }
     }
 
@@ -108,6 +160,19 @@ public class JwtUtil {
         return null;
     }
 
+    /**
+     * Obtiene el usuario autenticado en la solicitud actual, con su identificador y rol tomados del token.
+     *
+     * @return el usuario autenticado, o vacío si la solicitud no está autenticada con un JWT
+     */
+    public static Optional<CurrentUser> getCurrentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof CurrentUser user) {
+            return Optional.of(user);
+        }
+        return Optional.empty();
+    }
+
     public static String getCurrentUserRole() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication != null && authentication.isAuthenticated()) {
@@ -1,6 +1,8 @@
 package utp.edu.denuncias.security;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpStatus;
@@ -19,6 +21,7 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+import utp.edu.denuncias.cache.LocalCacheMetrics;
 
 import java.util.List;
 
@@ -26,6 +29,11 @@ import java.util.List;
 @RequiredArgsConstructor
 public class SecurityConfig {
 
+    /**
+     * Factor de costo de BCrypt (2^10 rondas). Se comparte con el benchmark de contraseñas.
+     */
+    static final int BCRYPT_STRENGTH = 10;
+
     private final JwtFilter jwtFilter;
     private final UserDetailsServiceImpl userDetailsService;
 
@@ -45,6 +53,41 @@ public class SecurityConfig {
         return authProvider;
     }
 
+    /**
+     * Evita que Spring Boot registre {@link JwtFilter} como filtro de servlet por ser un bean,
+     * ya que se agrega explícitamente a la cadena de seguridad y, de lo contrario, se ejecutaría dos veces.
+     *
+     * @param jwtFilter el filtro JWT de la aplicación
+     * @return un registro deshabilitado para el filtro
+     */
+    @Bean
+    public FilterRegistrationBean<JwtFilter> jwtFilterRegistration(JwtFilter jwtFilter) {
+        FilterRegistrationBean<JwtFilter> registration = new FilterRegistrationBean<>(jwtFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
+    /**
+     * Publica las métricas de aciertos y fallos de la caché de detalles de usuario.
+     *
+     * @return el registrador de métricas de la caché "userDetails"
+     */
+    @Bean
+    public LocalCacheMetrics userDetailsCacheMetrics() {
+        return new LocalCacheMetrics("userDetails", userDetailsService.getCache());
+    }
+
+    /**
+     * Publica las métricas de aciertos y fallos de la caché de tokens verificados.
+     *
+     * @param jwtUtil utilidad JWT propietaria de la caché
+     * @return el registrador de métricas de la caché "verifiedTokens"
+     */
+    @Bean
+    public LocalCacheMetrics verifiedTokenCacheMetrics(JwtUtil jwtUtil) {
+        return new LocalCacheMetrics("verifiedTokens", jwtUtil.getVerifiedTokenCache());
+    }
+
     /**
      * Configura la cadena de filtros de seguridad para manejar las solicitudes HTTP en la aplicación.
      * El método desactiva la protección CSRF, define ciertos patrones de solicitud como accesibles públicamente,
@@ -61,7 +104,10 @@ public class SecurityConfig {
                 .cors(Customizer.withDefaults())
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/registro","/auth/login", "/api/enum/**").permitAll()
+                        // El despacho asíncrono (SSE, exportación) continúa una solicitud ya autorizada
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        .requestMatchers("/registro","/auth/login", "/api/enum/**", "/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .requestMatchers("/api/usuario/**","/api/denuncia/usuario/**","/usuario/**").hasAnyRole("USER", "MOD", "ADMIN")
                         .requestMatchers("/api/usuario/mod/**","/api/denuncia/mod/**","/api/solicitud/**","/mod/**").hasAnyRole("MOD", "ADMIN")
                         .requestMatchers("/api/usuario/admin/**","/api/denuncia/admin/**","/api/solicitud/admin/**","/admin/**").hasRole("ADMIN")
@@ -120,13 +166,14 @@ public class SecurityConfig {
 
     /**
      * Proporciona un bean de {@link PasswordEncoder} para codificar y validar contraseñas de usuario.
-     * Esta implementación utiliza {@link BCryptPasswordEncoder} como mecanismo de codificación.
+     * Esta implementación utiliza {@link BCryptPasswordEncoder} como mecanismo de codificación,
+     * con el factor de costo {@link #BCRYPT_STRENGTH}.
      *
      * @return una instancia de {@link PasswordEncoder} que codifica contraseñas utilizando el algoritmo BCrypt
      */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(BCRYPT_STRENGTH);
     }
 
     /**
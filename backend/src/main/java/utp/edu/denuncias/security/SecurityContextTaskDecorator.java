@@ -0,0 +1,26 @@
+package utp.edu.denuncias.security;
+
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Propaga el contexto de seguridad de la solicitud a las tareas que se ejecutan en otro hilo: los métodos
+ * {@code @Async} y las respuestas asíncronas de Spring MVC ({@code StreamingResponseBody}, {@code DeferredResult}).
+ * Spring Boot aplica este decorador al ejecutor de tareas de la aplicación, tanto con hilos de plataforma como
+ * con hilos virtuales ({@code spring.threads.virtual.enabled}).
+ * <p>
+ * El contexto se copia al enviar la tarea y se restaura el anterior al terminar, así que
+ * {@link JwtUtil#getCurrentUsername()} y {@link JwtUtil#getCurrentUser()} devuelven dentro de la tarea el mismo
+ * usuario que en la solicitud, y el hilo que la ejecutó no conserva la autenticación. No se usa
+ * {@code MODE_INHERITABLETHREADLOCAL}: con hilos reutilizados heredaría el usuario de otra solicitud.
+ */
+@Component
+public class SecurityContextTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        return new DelegatingSecurityContextRunnable(runnable, SecurityContextHolder.getContext());
+    }
+}
@@ -1,24 +1,56 @@
 package utp.edu.denuncias.security;
 
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import utp.edu.denuncias.cache.LocalCache;
 import utp.edu.denuncias.model.Usuario;
 import utp.edu.denuncias.repository.UserRepository;
 
+import java.time.Duration;
+
 @Service
 @RequiredArgsConstructor
 public class UserDetailsServiceImpl implements UserDetailsService {
 
     private final UserRepository userRepository;
 
+    // Cantidad máxima de usuarios que se mantienen en caché
+    @Value("${user-details.cache.max-size:10000}")
+    private int cacheMaxSize;
+
+    // Tiempo máximo que los detalles de un usuario permanecen en caché
+    @Value("${user-details.cache.ttl:5m}")
+    private Duration cacheTtl;
+
+    /**
+     * Detalles de los usuarios habilitados, indexados por nombre de usuario.
+     * Evita consultar la base de datos en cada solicitud autenticada por {@link JwtFilter}.
+     */
+    @Getter
+    private LocalCache<String, UserDetails> cache;
+
+    /**
+     * Inicializa la caché de detalles de usuario con los límites configurados.
+     */
+    @PostConstruct
+    public void init() {
+        this.cache = new LocalCache<>(cacheMaxSize, cacheTtl);
+    }
+
     /**
      * Carga los detalles de un usuario basándose en su nombre de usuario.
-     * Recupera el usuario del repositorio y construye un objeto {@link UserDetails}
+     * Recupera el usuario de la caché o, si no está, del repositorio, y construye un objeto {@link UserDetails}
      * con el nombre de usuario, la contraseña y el rol del usuario.
+     * Siempre se devuelve una copia, ya que Spring Security borra la contraseña del objeto tras autenticar.
      *
      * @param username el nombre de usuario del usuario cuyos detalles se desean cargar
      * @return una instancia de {@link UserDetails} que contiene la información del usuario
@@ -26,6 +58,18 @@ public class UserDetailsServiceImpl implements UserDetailsService {
      */
     @Override
     public UserDetails loadUserByUsername (String username) throws UsernameNotFoundException{
+        UserDetails cached = cache.get(username, this::buscarUsuario);
+        return User.withUserDetails(cached).build();
+    }
+
+    /**
+     * Construye los detalles de un usuario habilitado a partir del repositorio.
+     *
+     * @param username el nombre de usuario a buscar
+     * @return los detalles del usuario
+     * @throws UsernameNotFoundException si no existe un usuario habilitado con ese nombre
+     */
+    private UserDetails buscarUsuario(String username) {
         Usuario user = userRepository.findByUsernameAndEnabledTrue(username)
                 .orElseThrow(()-> new UsernameNotFoundException("No encontrado"));
         return User.builder()
@@ -35,5 +79,22 @@ public class UserDetailsServiceImpl implements UserDetailsService {
                 .build();
     }
 
-
-}
\ No newline at end of file
+    /**
+     * Elimina de la caché los detalles de un usuario cuyos datos cambiaron.
+     * La entrada se elimina de inmediato y, si hay una transacción en curso, nuevamente al finalizarla,
+     * para descartar lo que otra solicitud haya cargado antes de que el cambio fuera visible.
+     *
+     * @param username el nombre de usuario a invalidar
+     */
+    public void evict(String username) {
+        cache.invalidate(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(username);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package utp.edu.denuncias.security;
+
+import java.time.Instant;
+
+/**
+ * Datos extraídos de un JWT cuya firma y vigencia ya fueron verificadas.
+ *
+ * @param userId    identificador del usuario contenido en el reclamo "uid"
+ * @param username  nombre de usuario contenido en el sujeto (sub) del token
+ * @param role      rol del usuario contenido en el reclamo "role"
+ * @param expiresAt instante de expiración del token, o null si no tiene
+ */
+public record VerifiedToken(Long userId, String username, String role, Instant expiresAt) {
+}
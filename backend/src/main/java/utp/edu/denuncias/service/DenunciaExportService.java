@@ -0,0 +1,147 @@
+package utp.edu.denuncias.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import utp.edu.denuncias.dto.DenunciaResponse;
+import utp.edu.denuncias.dto.PageCursor;
+import utp.edu.denuncias.enums.Categoria;
+import utp.edu.denuncias.enums.Estado;
+import utp.edu.denuncias.enums.FormatoExportacion;
+import utp.edu.denuncias.model.Denuncia;
+import utp.edu.denuncias.repository.DenunciaRepository;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Servicio encargado de la exportación masiva de denuncias en formato NDJSON o CSV.
+ * Las denuncias se leen en bloques ordenados por {@code (createdDate, id)}, cada uno dentro de una
+ * transacción corta de solo lectura, y cada bloque se escribe en la respuesta una vez cerrada la transacción.
+ * De esta forma el consumo de memoria queda acotado por el tamaño del bloque, y un cliente lento no mantiene
+ * abierta una transacción ni retiene una conexión del pool mientras descarga.
+ */
+@Service
+public class DenunciaExportService {
+
+    /**
+     * Cantidad de denuncias leídas por bloque (y por transacción).
+     */
+    static final int TAMANO_BLOQUE = 1000;
+
+    /**
+     * Fechas límite usadas cuando no se indica un rango; ambas son representables en MySQL y H2.
+     */
+    private static final LocalDateTime FECHA_MINIMA = LocalDateTime.of(1000, 1, 1, 0, 0);
+    private static final LocalDateTime FECHA_MAXIMA = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private static final String ENCABEZADO_CSV =
+            "id,titulo,description,lugar,categoria,estado,fecha,usuario,username,idUsuario,mod,idMod\n";
+
+    private final DenunciaRepository denunciaRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    public DenunciaExportService(DenunciaRepository denunciaRepository, ObjectMapper objectMapper,
+                                 PlatformTransactionManager transactionManager) {
+        this.denunciaRepository = denunciaRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Escribe en el flujo de salida todas las denuncias que cumplen los filtros indicados.
+     *
+     * @param estado    estado por el cual filtrar, o null para todos
+     * @param categoria categoría por la cual filtrar, o null para todas
+     * @param desde     fecha de creación mínima (inclusive), o null para no acotar
+     * @param hasta     fecha de creación máxima (inclusive), o null para no acotar
+     * @param formato   formato de salida
+     * @param salida    flujo donde se escriben las denuncias; no se cierra al finalizar
+     * @throws IOException si ocurre un error al escribir en el flujo de salida
+     */
+    public void exportar(Estado estado, Categoria categoria, LocalDate desde, LocalDate hasta,
+                         FormatoExportacion formato, OutputStream salida) throws IOException {
+        var inicio = desde == null ? FECHA_MINIMA : desde.atStartOfDay();
+        var fin = hasta == null ? FECHA_MAXIMA : hasta.plusDays(1).atStartOfDay();
+        var out = new BufferedOutputStream(salida, 64 * 1024);
+
+        if (formato == FormatoExportacion.CSV) {
+            out.write(ENCABEZADO_CSV.getBytes(StandardCharsets.UTF_8));
+        }
+
+        var posicion = new PageCursor(FECHA_MINIMA, 0L);
+        boolean hayMas = true;
+        while (hayMas) {
+            var cursor = posicion;
+            // El usuario y el moderador se cargan en la misma consulta, así que las entidades se pueden
+            // convertir después de cerrar la transacción
+            List<Denuncia> bloque = transactionTemplate.execute(_ -> denunciaRepository.buscarParaExportar(
+                    estado, categoria, inicio, fin, cursor.createdDate(), cursor.id(), Limit.of(TAMANO_BLOQUE)));
+            for (var denuncia : bloque) {
+                escribir(DenunciaResponse.from(denuncia), formato, out);
+            }
+            out.flush();
+            if (!bloque.isEmpty()) {
+                var ultima = bloque.getLast();
+                posicion = new PageCursor(ultima.getCreatedDate(), ultima.getId());
+            }
+            hayMas = bloque.size() == TAMANO_BLOQUE;
+        }
+    }
+
+    /**
+     * Escribe una denuncia en el formato indicado.
+     *
+     * @param denuncia denuncia a escribir
+     * @param formato  formato de salida
+     * @param out      flujo de salida
+     * @throws IOException si ocurre un error al escribir en el flujo de salida
+     */
+    private void escribir(DenunciaResponse denuncia, FormatoExportacion formato, OutputStream out) throws IOException {
+        if (formato == FormatoExportacion.NDJSON) {
+            out.write(objectMapper.writeValueAsBytes(denuncia));
+            out.write('\n');
+        } else {
+            out.write(filaCsv(denuncia).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Convierte una denuncia en una fila CSV terminada en salto de línea.
+     *
+     * @param d denuncia a convertir
+     * @return la fila CSV
+     */
+    private static String filaCsv(DenunciaResponse d) {
+        return String.join(",",
+                campo(d.id()), campo(d.titulo()), campo(d.description()), campo(d.lugar()),
+                campo(d.categoria()), campo(d.estado()), campo(d.fecha()), campo(d.usuario()),
+                campo(d.username()), campo(d.idUsuario()), campo(d.mod()), campo(d.idMod())) + "\n";
+    }
+
+    /**
+     * Escapa un valor para CSV: los valores con comas, comillas o saltos de línea se encierran entre comillas.
+     *
+     * @param valor valor a escapar, puede ser null
+     * @return el valor escapado, o vacío si es null
+     */
+    private static String campo(Object valor) {
+        if (valor == null) {
+            return "";
+        }
+        String texto = valor.toString();
+        if (texto.indexOf(',') >= 0 || texto.indexOf('"') >= 0 || texto.indexOf('\n') >= 0 || texto.indexOf('\r') >= 0) {
+            return '"' + texto.replace("\"", "\"\"") + '"';
+        }
+        return texto;
+    }
+}
@@ -2,20 +2,42 @@ package utp.edu.denuncias.service;
 
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import utp.edu.denuncias.dto.CursorPage;
+import utp.edu.denuncias.dto.CursorPageRequest;
 import utp.edu.denuncias.dto.DenunciaRequest;
 import utp.edu.denuncias.dto.DenunciaResponse;
+import utp.edu.denuncias.dto.EstadisticasDenunciasResponse;
+import utp.edu.denuncias.dto.PageCursor;
 import utp.edu.denuncias.enums.Estado;
 import utp.edu.denuncias.enums.Rol;
+import utp.edu.denuncias.event.DenunciaEliminada;
+import utp.edu.denuncias.event.DenunciaGuardada;
+import utp.edu.denuncias.event.EstadoDenunciaCambiado;
 import utp.edu.denuncias.model.Denuncia;
 import utp.edu.denuncias.model.Usuario;
 import utp.edu.denuncias.repository.DenunciaRepository;
 import utp.edu.denuncias.repository.UserRepository;
+import utp.edu.denuncias.search.DenunciaSearchIndex;
 import utp.edu.denuncias.security.JwtUtil;
 
 import org.springframework.security.access.AccessDeniedException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -23,7 +45,18 @@ public class DenunciaService {
 
     private final DenunciaRepository denunciaRepository;
     private final UserRepository userRepository;
-    private final NotificationService notificationService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DenunciaSearchIndex searchIndex;
+    private final DenunciaStatsService statsService;
+    private final ModeratorAssignmentEngine assignmentEngine;
+    private final OptimisticRetry optimisticRetry;
+
+    /** Estados que no se muestran en los listados de moderación. */
+    private static final List<Estado> CERRADOS = List.of(Estado.RESUELTO, Estado.RECHAZADO);
+    private static final Set<Estado> TODOS = EnumSet.allOf(Estado.class);
+    private static final Set<Estado> ABIERTOS = EnumSet.complementOf(EnumSet.copyOf(CERRADOS));
+    // Lecturas de candidatas por reclamo, si otros moderadores se llevan las leídas
+    private static final int INTENTOS_RECLAMO = 3;
 
     /**
      * Crea una nueva denuncia en el sistema basada en los datos proporcionados en la solicitud.
@@ -32,11 +65,13 @@ public class DenunciaService {
      *                incluyendo título, descripción, lugar y categoría.
      * @return una instancia de {@code DenunciaResponse} que representa la denuncia registrada
      *         en el sistema, junto con los datos estructurados resultantes del proceso.
+     *         Si la asignación automática al crear está habilitada, ya incluye el moderador asignado.
      */
+    @Transactional
     public DenunciaResponse nuevaDenuncia(DenunciaRequest request) {
-        String username = JwtUtil.getCurrentUsername();
-        Usuario user = userRepository.findByUsernameAndEnabledTrue(username)
+        var current = JwtUtil.getCurrentUser()
                 .orElseThrow(() -> new UsernameNotFoundException("No se pudo obtener el usuario autenticado"));
+        Usuario user = userRepository.getReferenceById(current.id());
         Denuncia denuncia = Denuncia.builder()
                 .titulo(request.titulo())
                 .description(request.description())
@@ -44,49 +79,127 @@ public class DenunciaService {
                 .categoria(request.categoria())
                 .usuario(user)
                 .build();
-        return DenunciaResponse.from(denunciaRepository.save(denuncia));
+        if (assignmentEngine.asignaAlCrear()) {
+            assignmentEngine.asignar(denuncia);
+        }
+        denuncia = denunciaRepository.save(denuncia);
+        statsService.registrarTrasConfirmar(null, DenunciaStatsService.Foto.de(denuncia));
+        eventPublisher.publishEvent(new DenunciaGuardada(
+                denuncia.getId(), denuncia.getTitulo(), denuncia.getDescription(), denuncia.getLugar()));
+        return DenunciaResponse.from(denuncia);
     }
 
     /**
-     * Recupera una lista de denuncias asociadas a un usuario específico, identificado por su ID,
-     * y las convierte en una lista de objetos {@link DenunciaResponse}.
+     * Recupera una página de denuncias asociadas a un usuario específico, identificado por su ID,
+     * y las convierte en objetos {@link DenunciaResponse}.
+     *
+     * @param id identificador único del usuario cuyas denuncias se desean recuperar
+     * @param page parámetros de paginación por cursor
+     * @return una página de objetos {@code DenunciaResponse} con las denuncias del usuario
+     * @throws RuntimeException si no existe un usuario con el ID proporcionado
      */
-    public List<DenunciaResponse> listarAllDenunciasUsuario(Long id) {
+    public CursorPage<DenunciaResponse> listarAllDenunciasUsuario(Long id, CursorPageRequest page) {
         userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("No se pudo obtener el usuario con ID " + id));
 
-        return DenunciaResponse.from(denunciaRepository.findByUsuarioId(id));
+        var cursor = page.posicion();
+        return paginar(denunciaRepository.findPageByUsuarioId(id, cursor.createdDate(), cursor.id(), page.limiteConsulta()),
+                page, () -> denunciaRepository.countByUsuarioId(id));
     }
 
-    public List<DenunciaResponse> listarAllDenunciasMod(Long id) {
+    /**
+     * Recupera una página de denuncias asignadas a un moderador específico, identificado por su ID.
+     *
+     * @param id identificador único del moderador
+     * @param page parámetros de paginación por cursor
+     * @return una página de objetos {@code DenunciaResponse} con las denuncias asignadas al moderador
+     * @throws RuntimeException si no existe un usuario con el ID proporcionado
+     */
+    public CursorPage<DenunciaResponse> listarAllDenunciasMod(Long id, CursorPageRequest page) {
         var user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("No se pudo obtener el usuario con ID " + id));
 
-        return DenunciaResponse.from(denunciaRepository.findAllByModAsignadoId(user.getId()));
+        var cursor = page.posicion();
+        return paginar(denunciaRepository.findPageByModAsignadoId(user.getId(), cursor.createdDate(), cursor.id(), page.limiteConsulta()),
+                page, () -> statsService.contarAsignadas(user.getId(), TODOS));
     }
 
     /**
-     * Recupera una lista de denuncias asociadas al usuario actualmente autenticado en el sistema.
+     * Recupera una página de denuncias asociadas al usuario actualmente autenticado en el sistema.
      *
-     * @return una lista de objetos {@code DenunciaResponse} que representan las denuncias registradas
+     * @param page parámetros de paginación por cursor
+     * @return una página de objetos {@code DenunciaResponse} que representan las denuncias registradas
      *         por el usuario autenticado, extraídas de la base de datos.
      * @throws UsernameNotFoundException si no es posible obtener los datos del usuario autenticado.
      */
-    public List<DenunciaResponse> listarDenunciasUsuario() {
-        Usuario user = userRepository.findByUsernameAndEnabledTrue(JwtUtil.getCurrentUsername())
+    public CursorPage<DenunciaResponse> listarDenunciasUsuario(CursorPageRequest page) {
+        var user = JwtUtil.getCurrentUser()
                 .orElseThrow(() -> new UsernameNotFoundException("No se pudo obtener el usuario autenticado"));
-        return DenunciaResponse.from(denunciaRepository.findByUsuarioId(user.getId()));
+        var cursor = page.posicion();
+        return paginar(denunciaRepository.findPageByUsuarioId(user.id(), cursor.createdDate(), cursor.id(), page.limiteConsulta()),
+                page, () -> denunciaRepository.countByUsuarioId(user.id()));
     }
 
     /**
-     * Recupera todas las denuncias disponibles en el sistema y las convierte en una lista
-     * de objetos {@code DenunciaResponse}.
+     * Calcula el ETag de la página de denuncias del usuario autenticado a partir de la huella de todas sus
+     * denuncias, sin cargarlas. Cambia con cualquier denuncia del usuario, aunque no esté en esa página.
      *
-     * @return una lista de objetos {@code DenunciaResponse} que representan todas las denuncias
+     * @param page parámetros de paginación por cursor
+     * @return el ETag de la respuesta de {@link #listarDenunciasUsuario(CursorPageRequest)}
+     * @throws UsernameNotFoundException si no es posible obtener los datos del usuario autenticado.
+     */
+    public String etagDenunciasUsuario(CursorPageRequest page) {
+        var user = JwtUtil.getCurrentUser()
+                .orElseThrow(() -> new UsernameNotFoundException("No se pudo obtener el usuario autenticado"));
+        return denunciaRepository.versionByUsuarioId(user.id())
+                .etag("denuncias-usuario", user.id(), page.cursor(), page.limite(), page.conTotal());
+    }
+
+    /**
+     * Recupera una página de todas las denuncias disponibles en el sistema y las convierte
+     * en objetos {@code DenunciaResponse}.
+     *
+     * @param page parámetros de paginación por cursor
+     * @return una página de objetos {@code DenunciaResponse} que representan las denuncias
      *         registradas en el sistema.
      */
-    public List<DenunciaResponse> listarAllDenuncias() {
-        return DenunciaResponse.from(denunciaRepository.findAll());
+    public CursorPage<DenunciaResponse> listarAllDenuncias(CursorPageRequest page) {
+        var cursor = page.posicion();
+        return paginar(denunciaRepository.findPage(cursor.createdDate(), cursor.id(), page.limiteConsulta()),
+                page, () -> statsService.contar(TODOS));
+    }
+
+    /**
+     * Busca denuncias por texto en su título, descripción y lugar usando el índice en memoria,
+     * sin consultar la base de datos más que para cargar los resultados.
+     *
+     * @param consulta texto a buscar; la última palabra y las terminadas en {@code *} se buscan como prefijo
+     * @param size cantidad máxima de resultados, se limita entre 1 y {@link CursorPageRequest#MAX_SIZE}
+     * @return una lista de objetos {@code DenunciaResponse} ordenados por relevancia
+     */
+    public List<DenunciaResponse> buscarDenuncias(String consulta, Integer size) {
+        int limite = size == null ? CursorPageRequest.DEFAULT_SIZE : Math.clamp(size, 1, CursorPageRequest.MAX_SIZE);
+        var resultados = searchIndex.buscar(consulta, limite);
+        if (resultados.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, DenunciaResponse> porId = denunciaRepository.findResponsesByIdIn(
+                        resultados.stream().map(DenunciaSearchIndex.Resultado::id).toList()).stream()
+                .collect(Collectors.toMap(DenunciaResponse::id, Function.identity()));
+        return resultados.stream()
+                .map(r -> porId.get(r.id()))
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Obtiene la cantidad de denuncias por estado, categoría y moderador asignado desde los contadores
+     * en memoria, sin consultar la base de datos.
+     *
+     * @return las estadísticas actuales de las denuncias
+     */
+    public EstadisticasDenunciasResponse obtenerEstadisticas() {
+        return statsService.obtener();
     }
 
     /**
@@ -98,25 +211,106 @@ public class DenunciaService {
      * @throws RuntimeException si no se encuentra una denuncia con el ID proporcionado.
      */
     public DenunciaResponse listarDenuncia(Long id) {
-        return DenunciaResponse.from(denunciaRepository.findById(id)
+        return DenunciaResponse.from(denunciaRepository.findWithUsuariosById(id)
                 .orElseThrow(() -> new RuntimeException("La denuncia con el ID " + id + " no existe")));
     }
 
     /**
-     * Recupera una lista de denuncias asignadas al moderador actualmente autenticado
-     * que no tienen el estado ARCHIVADO.
+     * Calcula el ETag de una denuncia a partir de su huella, sin cargarla.
+     *
+     * @param id el identificador único de la denuncia.
+     * @return el ETag de la respuesta de {@link #listarDenuncia(Long)}
+     */
+    public String etagDenuncia(Long id) {
+        return denunciaRepository.versionById(id).etag("denuncia", id);
+    }
+
+    /**
+     * Recupera una página de denuncias abiertas (distintas de RESUELTO y RECHAZADO) para moderación:
+     * las que no tienen moderador asignado o las asignadas al moderador actualmente autenticado.
+     *
+     * @param all si es true se listan las denuncias sin moderador, si es false las del moderador autenticado
+     * @param page parámetros de paginación por cursor
+     * @return una página de objetos {@code DenunciaResponse} que representan las denuncias encontradas
+     * @throws UsernameNotFoundException si no es posible obtener los datos del usuario autenticado.
+     */
+    public CursorPage<DenunciaResponse> listarDenunciasMod(Boolean all, CursorPageRequest page) {
+        var cursor = page.posicion();
+        if (all) {
+            return paginar(denunciaRepository.findPageByModAsignadoIsNullAndEstadoNotIn(CERRADOS, cursor.createdDate(), cursor.id(), page.limiteConsulta()),
+                    page, () -> statsService.contar(ABIERTOS) - statsService.contarAsignadas(null, ABIERTOS));
+        }
+        var user = JwtUtil.getCurrentUser()
+                .orElseThrow(() -> new UsernameNotFoundException("No se pudo obtener el usuario autenticado"));
+        return paginar(denunciaRepository.findPageByModAsignadoIdAndEstadoNotIn(user.id(), CERRADOS, cursor.createdDate(), cursor.id(), page.limiteConsulta()),
+                page, () -> statsService.contarAsignadas(user.id(), ABIERTOS));
+    }
+
+    /**
+     * Calcula el ETag de la página de denuncias para moderación a partir de la huella de todo el listado,
+     * sin cargarlo.
      *
-     * @return una lista de objetos {@code DenunciaResponse} que representan las denuncias
-     *         asignadas al moderador autenticado y que no han sido archivadas.
+     * @param all si es true corresponde a las denuncias sin moderador, si es false a las del moderador autenticado
+     * @param page parámetros de paginación por cursor
+     * @return el ETag de la respuesta de {@link #listarDenunciasMod(Boolean, CursorPageRequest)}
      * @throws UsernameNotFoundException si no es posible obtener los datos del usuario autenticado.
      */
-    public List<DenunciaResponse> listarDenunciasMod(Boolean all) {
+    public String etagDenunciasMod(Boolean all, CursorPageRequest page) {
         if (all) {
-            return DenunciaResponse.from(denunciaRepository.findAllByModAsignadoIsNullAndEstadoNotIn(List.of(Estado.RESUELTO, Estado.RECHAZADO)));
+            return denunciaRepository.versionByModAsignadoIsNullAndEstadoNotIn(CERRADOS)
+                    .etag("denuncias-sin-moderador", page.cursor(), page.limite(), page.conTotal());
         }
-        var user = userRepository.findByUsernameAndEnabledTrue(JwtUtil.getCurrentUsername())
+        var user = JwtUtil.getCurrentUser()
                 .orElseThrow(() -> new UsernameNotFoundException("No se pudo obtener el usuario autenticado"));
-        return DenunciaResponse.from(denunciaRepository.findAllByModAsignadoIdAndEstadoNotIn(user.getId(), List.of(Estado.RESUELTO, Estado.RECHAZADO)));
+        return denunciaRepository.versionByModAsignadoIdAndEstadoNotIn(user.id(), CERRADOS)
+                .etag("denuncias-moderador", user.id(), page.cursor(), page.limite(), page.conTotal());
+    }
+
+    /**
+     * Asigna al moderador autenticado las siguientes denuncias PENDIENTE sin moderador, de la más antigua a la
+     * más reciente, y las pasa a EN_PROCESO. Las candidatas se leen con {@code FOR UPDATE SKIP LOCKED}, así que
+     * moderadores concurrentes reciben denuncias distintas sin esperarse entre sí, y se asignan con una
+     * actualización condicional que nunca sobrescribe una asignación previa. En motores sin {@code SKIP LOCKED},
+     * como H2, la lectura espera a las transacciones concurrentes y puede devolver denuncias que otro moderador
+     * acaba de reclamar; en ese caso se leen nuevas candidatas para completar la cantidad pedida, hasta
+     * {@value #INTENTOS_RECLAMO} veces.
+     *
+     * @param size cantidad máxima de denuncias a reclamar, se limita entre 1 y {@link CursorPageRequest#MAX_SIZE}
+     * @return las denuncias asignadas al moderador, de la más antigua a la más reciente; puede tener menos
+     *         elementos que los solicitados, o ninguno
+     * @throws UsernameNotFoundException si no es posible obtener los datos del usuario autenticado.
+     */
+    @Transactional
+    public List<DenunciaResponse> reclamarDenuncias(int size) {
+        var user = JwtUtil.getCurrentUser()
+                .orElseThrow(() -> new UsernameNotFoundException("No se pudo obtener el usuario autenticado"));
+        var moderador = userRepository.getReferenceById(user.id());
+        int solicitadas = Math.clamp(size, 1, CursorPageRequest.MAX_SIZE);
+        List<DenunciaResponse> reclamadas = new ArrayList<>(solicitadas);
+        for (int intento = 0; intento < INTENTOS_RECLAMO && reclamadas.size() < solicitadas; intento++) {
+            int faltantes = solicitadas - reclamadas.size();
+            var candidatas = denunciaRepository.findByModAsignadoIsNullAndEstadoOrderByCreatedDateAscIdAsc(
+                    Estado.PENDIENTE, Limit.of(faltantes));
+            if (candidatas.isEmpty()) {
+                break;
+            }
+            var ids = candidatas.stream().map(Denuncia::getId).toList();
+            if (denunciaRepository.reclamar(ids, moderador) > 0) {
+                var asignadas = denunciaRepository.findResponsesByIdIn(ids).stream()
+                        .filter(d -> user.id().equals(d.idMod()))
+                        .collect(Collectors.toMap(DenunciaResponse::id, Function.identity()));
+                candidatas.stream()
+                        .filter(d -> asignadas.containsKey(d.getId()))
+                        .forEach(d -> registrarCambio(DenunciaStatsService.Foto.de(d),
+                                new DenunciaStatsService.Foto(Estado.EN_PROCESO, d.getCategoria(), user.id())));
+                ids.stream().map(asignadas::get).filter(Objects::nonNull).forEach(reclamadas::add);
+            }
+            if (candidatas.size() < faltantes) {
+                // No quedaban más denuncias sin asignar al momento de leerlas
+                break;
+            }
+        }
+        return reclamadas;
     }
 
     /**
@@ -135,63 +329,85 @@ public class DenunciaService {
      * autenticado con el ID proporcionado.
      * @throws AccessDeniedException Si la denuncia no se encuentra en estado
      * PENDIENTE y, por tanto, no puede ser editada.
+     * @throws OptimisticLockingFailureException Si otra transacción modificó la denuncia
+     * mientras se editaba; no se reintenta para no sobrescribir ese cambio.
      */
     @Transactional
     public DenunciaResponse editarDenuncia(Long id, DenunciaRequest request) {
-        var user = userRepository.findByUsernameAndEnabledTrue(JwtUtil.getCurrentUsername())
+        var user = JwtUtil.getCurrentUser()
                 .orElseThrow(() -> new UsernameNotFoundException("No se pudo obtener el usuario autenticado"));
-        var denuncia = denunciaRepository.findByUsuarioIdAndId(user.getId(), id)
+        var denuncia = denunciaRepository.findByUsuarioIdAndId(user.id(), id)
                 .orElseThrow(() -> new RuntimeException("La denuncia con el ID " + id + " no existe"));
         if (!denuncia.getEstado().equals(Estado.PENDIENTE)) {
             throw new AccessDeniedException("Solo se pueden editar denuncias en estado PENDIENTE");
         }
+        var antes = DenunciaStatsService.Foto.de(denuncia);
         denuncia.setTitulo(request.titulo());
         denuncia.setDescription(request.description());
         denuncia.setLugar(request.lugar());
         denuncia.setCategoria(request.categoria());
+        registrarCambio(antes, denuncia);
+        eventPublisher.publishEvent(new DenunciaGuardada(
+                denuncia.getId(), denuncia.getTitulo(), denuncia.getDescription(), denuncia.getLugar()));
         return DenunciaResponse.from(denunciaRepository.save(denuncia));
     }
 
     /**
-     * Actualiza el estado de una denuncia y notifica al usuario asociado sobre el cambio.
+     * Actualiza el estado de una denuncia y publica un evento {@link EstadoDenunciaCambiado};
+     * la notificación al usuario asociado se genera en segundo plano tras confirmar el cambio.
+     * Si otra transacción modifica la denuncia al mismo tiempo, el cambio se reintenta sobre la versión vigente,
+     * siempre que esa transacción no haya cambiado el estado ni el moderador que se leyeron en el primer intento.
      *
      * @param id El identificador único de la denuncia que se desea actualizar.
      * @param estado El nuevo estado de la denuncia, representado como una cadena; debe coincidir con un valor en el enum Estado.
      * @return Una instancia de DenunciaResponse que contiene la información actualizada de la denuncia.
      * @throws RuntimeException Si no se encuentra una denuncia con el ID proporcionado.
+     * @throws OptimisticLockingFailureException Si el conflicto persiste tras agotar los reintentos.
+     * @throws ConcurrencyFailureException Si al reintentar la denuncia ya tiene otro estado o moderador.
      */
-    @Transactional
     public DenunciaResponse cambiarEstadoDenuncia(Long id, String estado) {
-        var denuncia = denunciaRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("La denuncia con el ID " + id + " no existe"));
-        denuncia.setEstado(Estado.valueOf(estado));
-        notificationService.notificar(
-                denuncia.getUsuario(),
-                "Se ha actualizado el estado de su denuncia.",
-                "El estado de su denuncia ha pasado a estado " + denuncia.getEstado().getTitulo() + ".",
-                denuncia,
-                null
-        );
-        return DenunciaResponse.from(denunciaRepository.save(denuncia));
+        var nuevoEstado = Estado.valueOf(estado);
+        var primeraLectura = new AtomicReference<DenunciaStatsService.Foto>();
+        return optimisticRetry.ejecutar(() -> {
+            var denuncia = denunciaRepository.findWithUsuariosById(id)
+                    .orElseThrow(() -> new RuntimeException("La denuncia con el ID " + id + " no existe"));
+            var antes = DenunciaStatsService.Foto.de(denuncia);
+            verificarSinCambios(primeraLectura, antes);
+            denuncia.setEstado(nuevoEstado);
+            registrarCambio(antes, denuncia);
+            eventPublisher.publishEvent(new EstadoDenunciaCambiado(
+                    denuncia.getId(), denuncia.getTitulo(), denuncia.getUsuario().getId(), denuncia.getEstado()));
+            return DenunciaResponse.from(denunciaRepository.save(denuncia));
+        });
     }
 
     /**
      * Asigna un moderador a una denuncia específica.
+     * Si otra transacción modifica la denuncia al mismo tiempo, la asignación se reintenta sobre la versión vigente,
+     * siempre que esa transacción no haya cambiado el estado ni el moderador que se leyeron en el primer intento:
+     * así una reasignación o un cierre concurrentes no se sobrescriben en silencio.
      *
      * @param idDenuncia el identificador único de la denuncia que se desea actualizar
      * @param idModerador el identificador único del moderador que se asignará a la denuncia
      * @return un objeto DenunciaResponse que representa la denuncia actualizada con el moderador asignado
      * @throws RuntimeException si la denuncia o el moderador no existen
+     * @throws OptimisticLockingFailureException si el conflicto persiste tras agotar los reintentos
+     * @throws ConcurrencyFailureException si al reintentar la denuncia ya tiene otro estado o moderador
      */
-    @Transactional
     public DenunciaResponse asignarModerador(Long idDenuncia, Long idModerador) {
-        var denuncia = denunciaRepository.findById(idDenuncia)
-                .orElseThrow(() -> new RuntimeException("La denuncia con el ID " + idDenuncia + " no existe"));
-        var moderador = userRepository.findById(idModerador)
-                .orElseThrow(() -> new RuntimeException("El moderador con el ID " + idModerador + " no existe"));
-        denuncia.setModAsignado(moderador);
-        denuncia.setEstado(Estado.EN_PROCESO);
-        return DenunciaResponse.from(denunciaRepository.save(denuncia));
+        var primeraLectura = new AtomicReference<DenunciaStatsService.Foto>();
+        return optimisticRetry.ejecutar(() -> {
+            var denuncia = denunciaRepository.findWithUsuariosById(idDenuncia)
+                    .orElseThrow(() -> new RuntimeException("La denuncia con el ID " + idDenuncia + " no existe"));
+            var moderador = userRepository.findById(idModerador)
+                    .orElseThrow(() -> new RuntimeException("El moderador con el ID " + idModerador + " no existe"));
+            var antes = DenunciaStatsService.Foto.de(denuncia);
+            verificarSinCambios(primeraLectura, antes);
+            denuncia.setModAsignado(moderador);
+            denuncia.setEstado(Estado.EN_PROCESO);
+            registrarCambio(antes, denuncia);
+            return DenunciaResponse.from(denunciaRepository.save(denuncia));
+        });
     }
 
     /**
@@ -208,7 +424,63 @@ public class DenunciaService {
         if (!denuncia.getEstado().equals(Estado.PENDIENTE) || JwtUtil.getCurrentUserRole().equals(Rol.ADMIN.name())) {
             throw new AccessDeniedException("Solo se pueden eliminar denuncias con estado PENDIENTE");
         }
+        var antes = DenunciaStatsService.Foto.de(denuncia);
         denuncia.setEstado(Estado.ELIMINADO);
+        registrarCambio(antes, denuncia);
         denunciaRepository.save(denuncia);
+        eventPublisher.publishEvent(new DenunciaEliminada(denuncia.getId()));
+    }
+
+    /**
+     * Comprueba, en cada intento de una transición reintentada, que la denuncia conserve el estado y el moderador
+     * leídos en el primer intento, que son los que el usuario tenía a la vista al pedir el cambio. El reintento
+     * solo es seguro si el conflicto se debió a otro campo o a un cambio que deja esos valores iguales.
+     *
+     * @param primeraLectura valores leídos en el primer intento; se guardan en él la primera vez
+     * @param actual valores leídos en el intento actual
+     * @throws ConcurrencyFailureException si el estado o el moderador cambiaron desde el primer intento
+     */
+    private static void verificarSinCambios(AtomicReference<DenunciaStatsService.Foto> primeraLectura,
+                                            DenunciaStatsService.Foto actual) {
+        var primera = primeraLectura.compareAndExchange(null, actual);
+        if (primera != null && (primera.estado() != actual.estado()
+                || !Objects.equals(primera.moderadorId(), actual.moderadorId()))) {
+            throw new ConcurrencyFailureException(
+                    "La denuncia cambió de estado o de moderador mientras se procesaba la solicitud");
+        }
+    }
+
+    /**
+     * Registra el cambio de una denuncia en las estadísticas y en la carga de los moderadores.
+     *
+     * @param antes valores de la denuncia antes del cambio
+     * @param denuncia denuncia ya modificada
+     */
+    private void registrarCambio(DenunciaStatsService.Foto antes, Denuncia denuncia) {
+        registrarCambio(antes, DenunciaStatsService.Foto.de(denuncia));
+    }
+
+    /**
+     * Registra el cambio de una denuncia en las estadísticas y en la carga de los moderadores.
+     *
+     * @param antes valores de la denuncia antes del cambio
+     * @param despues valores de la denuncia después del cambio
+     */
+    private void registrarCambio(DenunciaStatsService.Foto antes, DenunciaStatsService.Foto despues) {
+        statsService.registrarTrasConfirmar(antes, despues);
+        assignmentEngine.registrar(antes, despues);
+    }
+
+    /**
+     * Construye una página de respuesta a partir de las filas recuperadas por una consulta paginada.
+     *
+     * @param rows filas proyectadas recuperadas con {@link CursorPageRequest#limiteConsulta()}
+     * @param page parámetros de paginación de la solicitud
+     * @param total función que calcula el total del listado, solo se invoca si fue solicitado
+     * @return la página de objetos {@code DenunciaResponse}
+     */
+    private CursorPage<DenunciaResponse> paginar(List<DenunciaResponse> rows, CursorPageRequest page, LongSupplier total) {
+        return CursorPage.of(rows, page, Function.identity(),
+                d -> new PageCursor(LocalDateTime.parse(d.fecha()), d.id()), total);
     }
 }
\ No newline at end of file
@@ -0,0 +1,370 @@
+package utp.edu.denuncias.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import utp.edu.denuncias.dto.EstadisticasDenunciasResponse;
+import utp.edu.denuncias.enums.Categoria;
+import utp.edu.denuncias.enums.Estado;
+import utp.edu.denuncias.model.Denuncia;
+import utp.edu.denuncias.repository.DenunciaRepository;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Estadísticas en memoria de las denuncias: cantidad por estado y categoría, y cantidad asignada a cada
+ * moderador por estado. Cada celda es un {@link LongAdder}, que reparte los incrementos concurrentes entre
+ * varias celdas internas, así que registrar un cambio no compite con los demás y consultar no toca la base de datos.
+ * <p>
+ * Los servicios registran cada cambio con el estado de la denuncia antes y después, y se aplica al confirmarse
+ * su transacción. Una reconciliación periódica reemplaza los contadores por el resultado de un GROUP BY para
+ * corregir cualquier desviación (por ejemplo, cambios hechos directamente en la base de datos). Los cambios
+ * confirmados mientras se ejecuta la consulta se registran aparte y se aplican también a la tabla nueva antes
+ * de reemplazar la anterior, así que la reconciliación no se pierde aunque haya escrituras constantes.
+ * Un cambio confirmado justo cuando empieza la consulta puede quedar contado dos veces; la siguiente
+ * reconciliación lo corrige. Solo se ejecuta una carga a la vez: antes de la primera, las consultas que
+ * llegan juntas esperan a la misma en lugar de lanzar cada una su GROUP BY.
+ */
+@Slf4j
+@Service
+public class DenunciaStatsService implements MeterBinder {
+
+    /**
+     * Valores de una denuncia que determinan en qué contadores se cuenta.
+     *
+     * @param estado      estado de la denuncia
+     * @param categoria   categoría de la denuncia, puede ser null
+     * @param moderadorId identificador del moderador asignado, o null si no tiene
+     */
+    public record Foto(Estado estado, Categoria categoria, Long moderadorId) {
+        /**
+         * @param denuncia denuncia con su moderador asignado
+         * @return los valores actuales de la denuncia
+         */
+        public static Foto de(Denuncia denuncia) {
+            var moderador = denuncia.getModAsignado();
+            return new Foto(denuncia.getEstado(), denuncia.getCategoria(), moderador == null ? null : moderador.getId());
+        }
+    }
+
+    /**
+     * Conjunto de contadores. La reconciliación construye uno nuevo y reemplaza el anterior.
+     */
+    private static final class Tabla {
+        private static final int SIN_CATEGORIA = Categoria.values().length;
+
+        // [estado][categoría]; la última columna cuenta las denuncias sin categoría
+        final LongAdder[][] porEstadoYCategoria = new LongAdder[Estado.values().length][SIN_CATEGORIA + 1];
+        // Por moderador, [estado]
+        final Map<Long, LongAdder[]> porModerador = new ConcurrentHashMap<>();
+
+        Tabla() {
+            for (LongAdder[] fila : porEstadoYCategoria) {
+                for (int i = 0; i < fila.length; i++) {
+                    fila[i] = new LongAdder();
+                }
+            }
+        }
+
+        void sumar(Foto foto, long cantidad) {
+            int categoria = foto.categoria() == null ? SIN_CATEGORIA : foto.categoria().ordinal();
+            porEstadoYCategoria[foto.estado().ordinal()][categoria].add(cantidad);
+            if (foto.moderadorId() != null) {
+                porModerador.computeIfAbsent(foto.moderadorId(), _ -> nuevaFila())[foto.estado().ordinal()].add(cantidad);
+            }
+        }
+
+        private static LongAdder[] nuevaFila() {
+            LongAdder[] fila = new LongAdder[Estado.values().length];
+            for (int i = 0; i < fila.length; i++) {
+                fila[i] = new LongAdder();
+            }
+            return fila;
+        }
+
+        /**
+         * @param otra tabla con la que comparar
+         * @return suma de las diferencias absolutas celda por celda
+         */
+        long diferencia(Tabla otra) {
+            long diferencia = 0;
+            for (int e = 0; e < porEstadoYCategoria.length; e++) {
+                for (int c = 0; c < porEstadoYCategoria[e].length; c++) {
+                    diferencia += Math.abs(porEstadoYCategoria[e][c].sum() - otra.porEstadoYCategoria[e][c].sum());
+                }
+            }
+            for (Estado estado : Estado.values()) {
+                Map<Long, Long> moderadores = new HashMap<>();
+                porModerador.forEach((id, fila) -> moderadores.merge(id, fila[estado.ordinal()].sum(), Long::sum));
+                otra.porModerador.forEach((id, fila) -> moderadores.merge(id, -fila[estado.ordinal()].sum(), Long::sum));
+                diferencia += moderadores.values().stream().mapToLong(Math::abs).sum();
+            }
+            return diferencia;
+        }
+
+        EstadisticasDenunciasResponse aRespuesta() {
+            long total = 0;
+            Map<Estado, Long> porEstado = new EnumMap<>(Estado.class);
+            Map<Categoria, Long> porCategoria = new EnumMap<>(Categoria.class);
+            Map<Estado, Map<Categoria, Long>> matriz = new EnumMap<>(Estado.class);
+            for (Estado estado : Estado.values()) {
+                Map<Categoria, Long> fila = new EnumMap<>(Categoria.class);
+                long delEstado = 0;
+                for (int c = 0; c <= SIN_CATEGORIA; c++) {
+                    long cantidad = porEstadoYCategoria[estado.ordinal()][c].sum();
+                    delEstado += cantidad;
+                    if (c < SIN_CATEGORIA) {
+                        Categoria categoria = Categoria.values()[c];
+                        fila.put(categoria, cantidad);
+                        porCategoria.merge(categoria, cantidad, Long::sum);
+                    }
+                }
+                matriz.put(estado, fila);
+                porEstado.put(estado, delEstado);
+                total += delEstado;
+            }
+            Map<Long, Map<Estado, Long>> moderadores = new HashMap<>();
+            porModerador.forEach((id, fila) -> {
+                Map<Estado, Long> delModerador = new EnumMap<>(Estado.class);
+                for (Estado estado : Estado.values()) {
+                    delModerador.put(estado, fila[estado.ordinal()].sum());
+                }
+                if (delModerador.values().stream().anyMatch(c -> c != 0)) {
+                    moderadores.put(id, delModerador);
+                }
+            });
+            return new EstadisticasDenunciasResponse(total, porEstado, porCategoria, matriz, moderadores);
+        }
+    }
+
+    /**
+     * Cambio confirmado durante una carga, para aplicarlo también a la tabla nueva.
+     *
+     * @param antes   valores de la denuncia antes del cambio, o null si es nueva
+     * @param despues valores de la denuncia después del cambio
+     */
+    private record Cambio(Foto antes, Foto despues) {
+        void aplicarA(Tabla tabla) {
+            if (antes != null) {
+                tabla.sumar(antes, -1);
+            }
+            tabla.sumar(despues, 1);
+        }
+    }
+
+    private final DenunciaRepository denunciaRepository;
+
+    // Los cambios se aplican con el bloqueo de lectura (en paralelo entre sí); el reemplazo toma el de escritura
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Null hasta la primera reconciliación exitosa
+    private volatile Tabla tabla;
+    // Cambios confirmados durante la carga en curso, o null si no hay una; se asigna con el bloqueo de escritura
+    private Queue<Cambio> cambiosDuranteCarga;
+
+    // Solo una carga a la vez
+    private final ReentrantLock carga = new ReentrantLock();
+
+    private final LongAdder cambiosReaplicados = new LongAdder();
+    private final AtomicLong ultimaDesviacion = new AtomicLong();
+
+    public DenunciaStatsService(DenunciaRepository denunciaRepository) {
+        this.denunciaRepository = denunciaRepository;
+    }
+
+    /**
+     * Devuelve las estadísticas actuales. Si aún no se cargaron, se calculan con la consulta de reconciliación.
+     *
+     * @return cantidad de denuncias por estado, categoría y moderador
+     */
+    public EstadisticasDenunciasResponse obtener() {
+        return tablaVigente().aRespuesta();
+    }
+
+    /**
+     * Cantidad aproximada de denuncias en los estados indicados, tomada de los contadores en memoria
+     * sin consultar la base de datos.
+     *
+     * @param estados estados a contar
+     * @return cantidad de denuncias en esos estados
+     */
+    public long contar(Set<Estado> estados) {
+        Tabla actual = tablaVigente();
+        long cantidad = 0;
+        for (Estado estado : estados) {
+            for (LongAdder celda : actual.porEstadoYCategoria[estado.ordinal()]) {
+                cantidad += celda.sum();
+            }
+        }
+        return cantidad;
+    }
+
+    /**
+     * Cantidad aproximada de denuncias asignadas en los estados indicados, tomada de los contadores en memoria.
+     *
+     * @param moderadorId moderador a contar, o null para sumar las de todos los moderadores
+     * @param estados     estados a contar
+     * @return cantidad de denuncias asignadas en esos estados
+     */
+    public long contarAsignadas(Long moderadorId, Set<Estado> estados) {
+        Tabla actual = tablaVigente();
+        if (moderadorId != null) {
+            LongAdder[] fila = actual.porModerador.get(moderadorId);
+            return fila == null ? 0 : sumar(fila, estados);
+        }
+        long cantidad = 0;
+        for (LongAdder[] fila : actual.porModerador.values()) {
+            cantidad += sumar(fila, estados);
+        }
+        return cantidad;
+    }
+
+    private static long sumar(LongAdder[] fila, Set<Estado> estados) {
+        long cantidad = 0;
+        for (Estado estado : estados) {
+            cantidad += fila[estado.ordinal()].sum();
+        }
+        return cantidad;
+    }
+
+    private Tabla tablaVigente() {
+        Tabla actual = tabla;
+        if (actual != null) {
+            return actual;
+        }
+        carga.lock();
+        try {
+            // Otra consulta pudo completar la primera carga mientras se esperaba el bloqueo
+            actual = tabla;
+            return actual != null ? actual : cargar();
+        } finally {
+            carga.unlock();
+        }
+    }
+
+    /**
+     * Registra el cambio de una denuncia y lo aplica a los contadores cuando se confirme la transacción actual,
+     * o de inmediato si no hay una. Si la transacción se revierte, los contadores no cambian.
+     *
+     * @param antes   valores de la denuncia antes del cambio, o null si es nueva
+     * @param despues valores de la denuncia después del cambio
+     */
+    public void registrarTrasConfirmar(Foto antes, Foto despues) {
+        if (despues.equals(antes)) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            aplicar(antes, despues);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                aplicar(antes, despues);
+            }
+        });
+    }
+
+    /**
+     * Recalcula los contadores con un GROUP BY y reemplaza los actuales. La primera ejecución ocurre al
+     * iniciar la aplicación.
+     */
+    @Scheduled(fixedDelayString = "${estadisticas.denuncias.reconciliacion:5m}")
+    public void reconciliar() {
+        carga.lock();
+        try {
+            cargar();
+        } finally {
+            carga.unlock();
+        }
+    }
+
+    /**
+     * Construye una tabla nueva con la consulta de reconciliación, le aplica los cambios confirmados durante
+     * la consulta y la guarda en lugar de la actual. Debe llamarse con el bloqueo {@code carga} tomado.
+     *
+     * @return la tabla guardada
+     */
+    private Tabla cargar() {
+        Queue<Cambio> cambios = new ConcurrentLinkedQueue<>();
+        lock.writeLock().lock();
+        try {
+            cambiosDuranteCarga = cambios;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Tabla nueva = new Tabla();
+        try {
+            denunciaRepository.contarPorEstadoCategoriaYModerador().forEach(c ->
+                    nueva.sumar(new Foto(c.getEstado(), c.getCategoria(), c.getModeradorId()), c.getCantidad()));
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                cambiosDuranteCarga = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            cambios.forEach(c -> c.aplicarA(nueva));
+            cambiosReaplicados.add(cambios.size());
+            cambiosDuranteCarga = null;
+            Tabla anterior = tabla;
+            if (anterior != null) {
+                long desviacion = anterior.diferencia(nueva);
+                ultimaDesviacion.set(desviacion);
+                if (desviacion > 0) {
+                    log.warn("Estadísticas de denuncias corregidas: {} denuncias de diferencia", desviacion);
+                }
+            }
+            tabla = nueva;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return nueva;
+    }
+
+    private void aplicar(Foto antes, Foto despues) {
+        var cambio = new Cambio(antes, despues);
+        lock.readLock().lock();
+        try {
+            Tabla actual = tabla;
+            if (actual != null) {
+                cambio.aplicarA(actual);
+            }
+            if (cambiosDuranteCarga != null) {
+                cambiosDuranteCarga.add(cambio);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("estadisticas.denuncias.reconciliaciones.cambios", cambiosReaplicados, LongAdder::sum)
+                .description("Cambios confirmados durante una reconciliación y aplicados sobre su resultado")
+                .register(registry);
+        Gauge.builder("estadisticas.denuncias.desviacion", ultimaDesviacion, AtomicLong::get)
+                .description("Diferencia corregida por la última reconciliación de estadísticas")
+                .register(registry);
+    }
+}
@@ -0,0 +1,593 @@
+package utp.edu.denuncias.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import utp.edu.denuncias.enums.Categoria;
+import utp.edu.denuncias.enums.Estado;
+import utp.edu.denuncias.enums.Rol;
+import utp.edu.denuncias.model.Denuncia;
+import utp.edu.denuncias.repository.DenunciaRepository;
+import utp.edu.denuncias.repository.UserRepository;
+import utp.edu.denuncias.service.DenunciaStatsService.Foto;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Motor de asignación automática de moderadores con balanceo de carga.
+ * <p>
+ * Mantiene en memoria los moderadores habilitados con su carga abierta (denuncias asignadas en estado
+ * PENDIENTE, EN_PROCESO o EN_REVISION) en montículos ordenados por {@code (carga + 1) / (1 + peso * experiencia)},
+ * donde la experiencia es la fracción de las denuncias resueltas por el moderador que pertenecen a la categoría.
+ * Con {@code asignacion.peso-experiencia=0} hay un único montículo; si no, uno por categoría. Los montículos
+ * son {@link TreeSet} (árboles ordenados), que además del mínimo permiten quitar y reinsertar un moderador
+ * cuando cambia su carga, así que cada asignación o cambio cuesta O(log n) por montículo, sin recorrer denuncias.
+ * <p>
+ * Las cargas se actualizan de inmediato al elegir un moderador o al registrar un cambio, para que asignaciones
+ * concurrentes vean la reserva, y se revierten si la transacción se deshace. Cada transacción acumula sus
+ * cambios de carga en un único registro ({@link Reservas}) que se resuelve al terminar, y mientras tanto esos
+ * cambios quedan como pendientes. Una reconstrucción periódica desde la base de datos corrige cualquier
+ * desviación: a la carga confirmada le suma los cambios pendientes y los que se confirman mientras se
+ * reconstruye, así que ni las transacciones en curso ni sus reversiones la desvían. Como la carga solo orienta
+ * el reparto, una diferencia transitoria no afecta la corrección de los datos.
+ */
+@Slf4j
+@Component
+public class ModeratorAssignmentEngine implements MeterBinder {
+
+    /** Estados que cuentan como carga abierta de un moderador */
+    public static final Set<Estado> ABIERTOS = EnumSet.of(Estado.PENDIENTE, Estado.EN_PROCESO, Estado.EN_REVISION);
+
+    /**
+     * Posición de un moderador en un montículo. Es inmutable: al cambiar la carga se quita y se vuelve a insertar.
+     */
+    private record Entrada(double puntaje, long moderadorId) implements Comparable<Entrada> {
+        @Override
+        public int compareTo(Entrada otra) {
+            int c = Double.compare(puntaje, otra.puntaje);
+            return c != 0 ? c : Long.compare(moderadorId, otra.moderadorId);
+        }
+    }
+
+    /**
+     * Estado de un moderador en el motor. Solo se modifica con el bloqueo tomado.
+     */
+    private static final class Moderador {
+        final long id;
+        long carga;
+        // Fracción de sus denuncias resueltas por categoría (la última posición, sin categoría, siempre es 0)
+        final double[] experiencia = new double[Categoria.values().length + 1];
+        // Entrada actual en cada montículo
+        final Entrada[] entradas;
+
+        Moderador(long id, long carga, int monticulos) {
+            this.id = id;
+            this.carga = carga;
+            this.entradas = new Entrada[monticulos];
+        }
+    }
+
+    private final DenunciaRepository denunciaRepository;
+    private final UserRepository userRepository;
+    private final DenunciaStatsService statsService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final double pesoExperiencia;
+    private final boolean alCrear;
+    private final boolean porLotes;
+    private final int lote;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // Los campos siguientes se protegen con lock
+    private final Map<Long, Moderador> moderadores = new HashMap<>();
+    private final TreeSet<Entrada>[] monticulos;
+    // Cambios de carga de las transacciones en curso, por moderador
+    private final Map<Long, Long> pendientes = new HashMap<>();
+    // Cambios de carga confirmados mientras se reconstruye el reparto; null fuera de la reconstrucción
+    private Map<Long, Long> confirmadosDuranteReconstruccion;
+
+    private final LongAdder asignadas = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    public ModeratorAssignmentEngine(DenunciaRepository denunciaRepository,
+                                     UserRepository userRepository,
+                                     DenunciaStatsService statsService,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${asignacion.peso-experiencia:1.0}") double pesoExperiencia,
+                                     @Value("${asignacion.automatica.al-crear:false}") boolean alCrear,
+                                     @Value("${asignacion.automatica.por-lotes:false}") boolean porLotes,
+                                     @Value("${asignacion.automatica.lote:100}") int lote) {
+        this.denunciaRepository = denunciaRepository;
+        this.userRepository = userRepository;
+        this.statsService = statsService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.pesoExperiencia = pesoExperiencia;
+        this.alCrear = alCrear;
+        this.porLotes = porLotes;
+        this.lote = lote;
+        this.monticulos = new TreeSet[pesoExperiencia == 0 ? 1 : Categoria.values().length + 1];
+        for (int i = 0; i < monticulos.length; i++) {
+            monticulos[i] = new TreeSet<>();
+        }
+    }
+
+    /**
+     * Indica si las denuncias nuevas se asignan automáticamente al registrarse.
+     *
+     * @return true si la asignación al crear está habilitada
+     */
+    public boolean asignaAlCrear() {
+        return alCrear;
+    }
+
+    /**
+     * Asigna a una denuncia el moderador con menor carga ponderada para su categoría y cuenta la asignación.
+     * Si la denuncia está PENDIENTE pasa a EN_PROCESO, igual que en la asignación manual. No registra el cambio
+     * en las estadísticas; eso queda a cargo de quien llama.
+     *
+     * @param denuncia denuncia a asignar
+     * @return true si había un moderador disponible
+     */
+    public boolean asignar(Denuncia denuncia) {
+        return asignar(denuncia, null);
+    }
+
+    /**
+     * Asigna a una denuncia el moderador con menor carga ponderada, sin considerar al indicado.
+     *
+     * @param denuncia denuncia a asignar
+     * @param excluido moderador que no debe elegirse, o null
+     * @return true si había un moderador disponible
+     */
+    private boolean asignar(Denuncia denuncia, Long excluido) {
+        Optional<Long> elegido = elegir(denuncia.getCategoria(), excluido);
+        if (elegido.isEmpty()) {
+            return false;
+        }
+        denuncia.setModAsignado(userRepository.getReferenceById(elegido.get()));
+        if (denuncia.getEstado() == Estado.PENDIENTE) {
+            denuncia.setEstado(Estado.EN_PROCESO);
+        }
+        asignadas.increment();
+        return true;
+    }
+
+    /**
+     * Elige el moderador con menor carga ponderada para una categoría y le suma una unidad de carga.
+     * Si la transacción actual se revierte, la carga se resta de nuevo.
+     *
+     * @param categoria categoría de la denuncia, puede ser null
+     * @return el identificador del moderador elegido, o vacío si no hay moderadores habilitados
+     */
+    public Optional<Long> elegir(Categoria categoria) {
+        return elegir(categoria, null);
+    }
+
+    /**
+     * Elige el moderador con menor carga ponderada para una categoría, sin considerar al indicado.
+     *
+     * @param categoria categoría de la denuncia, puede ser null
+     * @param excluido  moderador que no debe elegirse, o null
+     * @return el identificador del moderador elegido, o vacío si no hay otro moderador habilitado
+     */
+    private Optional<Long> elegir(Categoria categoria, Long excluido) {
+        Long elegido;
+        lock.lock();
+        try {
+            // Como mucho se salta una entrada: cada moderador aparece una sola vez por montículo
+            elegido = monticulos[indice(categoria)].stream()
+                    .map(Entrada::moderadorId)
+                    .filter(id -> !id.equals(excluido))
+                    .findFirst()
+                    .orElse(null);
+            if (elegido == null) {
+                return Optional.empty();
+            }
+            reservar(elegido, 1);
+        } finally {
+            lock.unlock();
+        }
+        return Optional.of(elegido);
+    }
+
+    /**
+     * Actualiza la carga de los moderadores afectados por un cambio de estado o de moderador de una denuncia.
+     * Si la transacción actual se revierte, el cambio se deshace.
+     *
+     * @param antes   valores de la denuncia antes del cambio, o null si es nueva
+     * @param despues valores de la denuncia después del cambio
+     */
+    public void registrar(Foto antes, Foto despues) {
+        Long anterior = antes != null && antes.moderadorId() != null && ABIERTOS.contains(antes.estado())
+                ? antes.moderadorId() : null;
+        Long nuevo = despues.moderadorId() != null && ABIERTOS.contains(despues.estado()) ? despues.moderadorId() : null;
+        if (Objects.equals(anterior, nuevo)) {
+            return;
+        }
+        if (anterior != null) {
+            reservar(anterior, -1);
+        }
+        if (nuevo != null) {
+            reservar(nuevo, 1);
+        }
+    }
+
+    /**
+     * Agrega un moderador al reparto (por ejemplo, al activarlo o al darle el rol) con su carga abierta actual,
+     * cuando se confirme la transacción actual o de inmediato si no hay una. Si la transacción se revierte,
+     * el reparto no cambia. Su experiencia por categoría se calcula en la siguiente reconstrucción.
+     *
+     * @param id identificador del moderador
+     */
+    public void agregar(Long id) {
+        despuesDeConfirmar(() -> {
+            long carga = denunciaRepository.countByModAsignadoIdAndEstadoIn(id, ABIERTOS);
+            lock.lock();
+            try {
+                quitar(id);
+                var moderador = new Moderador(id, Math.max(0, carga + pendientes.getOrDefault(id, 0L)),
+                        monticulos.length);
+                moderadores.put(id, moderador);
+                insertar(moderador);
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Reasigna entre los demás moderadores las denuncias abiertas de uno que deja de serlo (al desactivarlo
+     * o al quitarle el rol), dentro de la transacción actual, y lo quita del reparto cuando esta se confirma.
+     * Si la transacción se revierte, sigue participando del reparto. Las denuncias que no se puedan reasignar
+     * por falta de otros moderadores quedan sin asignar y vuelven a PENDIENTE, para que la asignación
+     * automática o un moderador las tomen más adelante.
+     *
+     * @param id identificador del moderador
+     * @return cantidad de denuncias reasignadas
+     */
+    public int retirar(Long id) {
+        int reasignadas = 0;
+        for (Denuncia denuncia : denunciaRepository.findByModAsignadoIdAndEstadoIn(id, ABIERTOS)) {
+            var antes = Foto.de(denuncia);
+            if (asignar(denuncia, id)) {
+                reasignadas++;
+            } else {
+                denuncia.setModAsignado(null);
+                denuncia.setEstado(Estado.PENDIENTE);
+            }
+            statsService.registrarTrasConfirmar(antes, Foto.de(denuncia));
+        }
+        despuesDeConfirmar(() -> {
+            lock.lock();
+            try {
+                quitar(id);
+            } finally {
+                lock.unlock();
+            }
+        });
+        return reasignadas;
+    }
+
+    /**
+     * Asigna periódicamente, por lotes y en orden de antigüedad, las denuncias PENDIENTE sin moderador.
+     * Cada lote se lee con {@code FOR UPDATE SKIP LOCKED} y se procesa en su propia transacción, igual que el
+     * reclamo de moderadores, con el que puede ejecutarse en paralelo; se detiene cuando no quedan denuncias
+     * o moderadores.
+     */
+    @Scheduled(fixedDelayString = "${asignacion.automatica.intervalo:1m}")
+    public void asignarPendientes() {
+        if (!porLotes) {
+            return;
+        }
+        int total = 0;
+        while (true) {
+            Integer asignadasLote = transactionTemplate.execute(_ -> {
+                var denuncias = denunciaRepository.findByModAsignadoIsNullAndEstadoOrderByCreatedDateAscIdAsc(
+                        Estado.PENDIENTE, Limit.of(lote));
+                int cantidad = 0;
+                for (Denuncia denuncia : denuncias) {
+                    var elegido = elegir(denuncia.getCategoria());
+                    if (elegido.isEmpty()) {
+                        break;
+                    }
+                    // Actualización condicional: no pisa una denuncia reclamada por un moderador mientras tanto.
+                    // La reserva se deshace en el registro de la transacción, así que una reversión posterior
+                    // del lote no la resta otra vez
+                    if (denunciaRepository.reclamar(List.of(denuncia.getId()),
+                            userRepository.getReferenceById(elegido.get())) == 0) {
+                        reservar(elegido.get(), -1);
+                        continue;
+                    }
+                    statsService.registrarTrasConfirmar(Foto.de(denuncia),
+                            new Foto(Estado.EN_PROCESO, denuncia.getCategoria(), elegido.get()));
+                    asignadas.increment();
+                    cantidad++;
+                }
+                return cantidad;
+            });
+            total += asignadasLote;
+            if (asignadasLote < lote) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("Asignación automática: {} denuncias asignadas", total);
+        }
+    }
+
+    /**
+     * Reconstruye el reparto desde la base de datos: moderadores habilitados, su carga abierta y su experiencia
+     * por categoría, a partir de la misma consulta agrupada que reconcilia las estadísticas.
+     * La consulta solo ve las transacciones confirmadas; a cada carga se le suman los cambios de las
+     * transacciones aún en curso, que al terminar se confirman o se revierten sobre la carga reconstruida,
+     * y los que se confirmaron durante la consulta, igual que la reconciliación de las estadísticas.
+     * La primera ejecución ocurre al iniciar la aplicación.
+     */
+    @Scheduled(fixedDelayString = "${asignacion.reconstruccion:10m}")
+    public synchronized void reconstruir() {
+        lock.lock();
+        try {
+            confirmadosDuranteReconstruccion = new HashMap<>();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            reemplazar(leer());
+        } finally {
+            lock.lock();
+            try {
+                confirmadosDuranteReconstruccion = null;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Lee de la base de datos los moderadores habilitados con su carga confirmada y su experiencia.
+     */
+    private Map<Long, Moderador> leer() {
+        Map<Long, Moderador> nuevos = new HashMap<>();
+        for (Long id : userRepository.findIdsHabilitadosByRol(Rol.MOD)) {
+            nuevos.put(id, new Moderador(id, 0, monticulos.length));
+        }
+        Map<Long, long[]> resueltas = new HashMap<>();
+        for (var conteo : denunciaRepository.contarPorEstadoCategoriaYModerador()) {
+            var moderador = conteo.getModeradorId() == null ? null : nuevos.get(conteo.getModeradorId());
+            if (moderador == null) {
+                continue;
+            }
+            if (ABIERTOS.contains(conteo.getEstado())) {
+                moderador.carga += conteo.getCantidad();
+            } else if (conteo.getEstado() == Estado.RESUELTO && conteo.getCategoria() != null) {
+                resueltas.computeIfAbsent(moderador.id, _ -> new long[Categoria.values().length + 1])
+                        [conteo.getCategoria().ordinal()] += conteo.getCantidad();
+            }
+        }
+        resueltas.forEach((id, porCategoria) -> {
+            long total = Arrays.stream(porCategoria).sum();
+            for (int c = 0; c < porCategoria.length; c++) {
+                nuevos.get(id).experiencia[c] = (double) porCategoria[c] / total;
+            }
+        });
+        return nuevos;
+    }
+
+    /**
+     * Reemplaza el reparto por el leído de la base de datos, con los cambios pendientes y los confirmados
+     * durante la lectura.
+     */
+    private void reemplazar(Map<Long, Moderador> nuevos) {
+        lock.lock();
+        try {
+            for (var moderador : nuevos.values()) {
+                moderador.carga = Math.max(0, moderador.carga + pendientes.getOrDefault(moderador.id, 0L)
+                        + confirmadosDuranteReconstruccion.getOrDefault(moderador.id, 0L));
+            }
+            moderadores.clear();
+            for (var monticulo : monticulos) {
+                monticulo.clear();
+            }
+            nuevos.values().forEach(m -> {
+                moderadores.put(m.id, m);
+                insertar(m);
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Obtiene la carga abierta actual de un moderador según el motor.
+     *
+     * @param id identificador del moderador
+     * @return la carga, o vacío si el moderador no participa del reparto
+     */
+    public Optional<Long> carga(Long id) {
+        lock.lock();
+        try {
+            return Optional.ofNullable(moderadores.get(id)).map(m -> m.carga);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Suma carga a un moderador como parte de la transacción actual: queda pendiente hasta que la transacción
+     * termine y se resta de nuevo si se revierte. Sin transacción el cambio se considera confirmado.
+     */
+    private void reservar(Long id, long delta) {
+        var reservas = TransactionSynchronizationManager.isSynchronizationActive() ? reservasDeLaTransaccion() : null;
+        lock.lock();
+        try {
+            sumar(id, delta);
+            if (reservas == null) {
+                confirmar(id, delta);
+            } else {
+                reservas.cambios.merge(id, delta, Long::sum);
+                pendientes.merge(id, delta, Long::sum);
+                pendientes.remove(id, 0L);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Obtiene el registro de cambios de carga de la transacción actual y lo crea si aún no existe.
+     * Se busca entre las sincronizaciones de la transacción, que se suspenden con ella, para que una
+     * transacción anidada independiente tenga su propio registro.
+     */
+    private Reservas reservasDeLaTransaccion() {
+        for (var sincronizacion : TransactionSynchronizationManager.getSynchronizations()) {
+            if (sincronizacion instanceof Reservas reservas && reservas.motor() == this) {
+                return reservas;
+            }
+        }
+        var reservas = new Reservas();
+        TransactionSynchronizationManager.registerSynchronization(reservas);
+        return reservas;
+    }
+
+    /**
+     * Anota un cambio de carga confirmado si hay una reconstrucción en curso. Debe llamarse con el bloqueo tomado.
+     */
+    private void confirmar(Long id, long delta) {
+        if (confirmadosDuranteReconstruccion != null) {
+            confirmadosDuranteReconstruccion.merge(id, delta, Long::sum);
+        }
+    }
+
+    /**
+     * Cambios de carga de una transacción, por moderador. Al terminar la transacción dejan de estar pendientes:
+     * si se confirmó, la carga ya los incluye; si se revirtió, se restan.
+     */
+    private final class Reservas implements TransactionSynchronization {
+
+        private final Map<Long, Long> cambios = new HashMap<>();
+
+        ModeratorAssignmentEngine motor() {
+            return ModeratorAssignmentEngine.this;
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            lock.lock();
+            try {
+                cambios.forEach((id, delta) -> {
+                    if (delta == 0) {
+                        return;
+                    }
+                    pendientes.merge(id, -delta, Long::sum);
+                    pendientes.remove(id, 0L);
+                    if (status == STATUS_COMMITTED) {
+                        confirmar(id, delta);
+                    } else {
+                        sumar(id, -delta);
+                    }
+                });
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Suma carga a un moderador y lo reubica en cada montículo. Debe llamarse con el bloqueo tomado.
+     */
+    private void sumar(Long id, long delta) {
+        var moderador = moderadores.get(id);
+        if (moderador == null) {
+            return;
+        }
+        quitarEntradas(moderador);
+        moderador.carga = Math.max(0, moderador.carga + delta);
+        insertar(moderador);
+    }
+
+    /**
+     * Quita un moderador del reparto. Debe llamarse con el bloqueo tomado.
+     */
+    private void quitar(Long id) {
+        var moderador = moderadores.remove(id);
+        if (moderador != null) {
+            quitarEntradas(moderador);
+        }
+    }
+
+    private void quitarEntradas(Moderador moderador) {
+        for (int i = 0; i < monticulos.length; i++) {
+            monticulos[i].remove(moderador.entradas[i]);
+        }
+    }
+
+    private void insertar(Moderador moderador) {
+        for (int i = 0; i < monticulos.length; i++) {
+            double peso = 1 + pesoExperiencia * moderador.experiencia[i];
+            moderador.entradas[i] = new Entrada((moderador.carga + 1) / peso, moderador.id);
+            monticulos[i].add(moderador.entradas[i]);
+        }
+    }
+
+    private int indice(Categoria categoria) {
+        if (monticulos.length == 1) {
+            return 0;
+        }
+        return categoria == null ? Categoria.values().length : categoria.ordinal();
+    }
+
+    /**
+     * Ejecuta la acción cuando se confirme la transacción actual; sin transacción la ejecuta de inmediato.
+     */
+    private static void despuesDeConfirmar(Runnable accion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            accion.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                accion.run();
+            }
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("asignacion.automatica.asignadas", asignadas, LongAdder::sum)
+                .description("Denuncias asignadas automáticamente a un moderador")
+                .register(registry);
+        Gauge.builder("asignacion.moderadores", this, e -> e.contar())
+                .description("Moderadores habilitados que participan del reparto automático")
+                .register(registry);
+    }
+
+    private double contar() {
+        lock.lock();
+        try {
+            return moderadores.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
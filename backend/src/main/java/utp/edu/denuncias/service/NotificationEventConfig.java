@@ -0,0 +1,44 @@
+package utp.edu.denuncias.service;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import utp.edu.denuncias.event.DomainEventHandler;
+import utp.edu.denuncias.event.EstadoDenunciaCambiado;
+import utp.edu.denuncias.event.SolicitudCreada;
+import utp.edu.denuncias.event.SolicitudRevisada;
+
+/**
+ * Registra los manejadores de eventos de dominio que generan notificaciones.
+ * Se ejecutan en segundo plano, fuera de la transacción de la solicitud que originó cada evento,
+ * y reciben los eventos del mismo tipo agrupados en lotes.
+ */
+@Configuration
+public class NotificationEventConfig {
+
+    /**
+     * @param notificationService servicio de notificaciones
+     * @return manejador que notifica los cambios de estado de las denuncias
+     */
+    @Bean
+    public DomainEventHandler<EstadoDenunciaCambiado> estadoDenunciaCambiadoHandler(NotificationService notificationService) {
+        return DomainEventHandler.of(EstadoDenunciaCambiado.class, notificationService::notificarCambiosDeEstado);
+    }
+
+    /**
+     * @param notificationService servicio de notificaciones
+     * @return manejador que notifica las solicitudes registradas
+     */
+    @Bean
+    public DomainEventHandler<SolicitudCreada> solicitudCreadaHandler(NotificationService notificationService) {
+        return DomainEventHandler.of(SolicitudCreada.class, notificationService::notificarSolicitudesCreadas);
+    }
+
+    /**
+     * @param notificationService servicio de notificaciones
+     * @return manejador que notifica la revisión de las solicitudes
+     */
+    @Bean
+    public DomainEventHandler<SolicitudRevisada> solicitudRevisadaHandler(NotificationService notificationService) {
+        return DomainEventHandler.of(SolicitudRevisada.class, notificationService::notificarSolicitudesRevisadas);
+    }
+}
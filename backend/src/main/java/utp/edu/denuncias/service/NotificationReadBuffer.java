@@ -0,0 +1,152 @@
+package utp.edu.denuncias.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import utp.edu.denuncias.repository.NotificationRepository;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Acumula las marcas de lectura individuales de notificaciones y las escribe en lotes.
+ * En lugar de un UPDATE por cada notificación marcada, los identificadores pendientes se escriben
+ * con un único {@code UPDATE ... WHERE id IN (...)} cada cierto intervalo, o antes si se alcanza
+ * el tamaño máximo del lote. Mientras una marca está pendiente, {@link #pendiente(Long)} permite
+ * que los listados la muestren como leída.
+ * <p>
+ * El contador de no leídas del destinatario se descuenta al registrar la marca, y la marca queda
+ * "en vuelo" en {@link UnreadNotificationCounter} hasta que se escribe, para que un recálculo del
+ * contador no cuente la fila que todavía figura como no leída. La marca sigue pendiente hasta que se confirma
+ * su UPDATE: mientras tanto la fila figura como no leída en la base de datos, y es la marca pendiente la que
+ * evita que una segunda lectura de la misma notificación vuelva a descontarla.
+ * <p>
+ * Las marcas pendientes solo existen en memoria. Al detener la aplicación de forma ordenada (redespliegue,
+ * SIGTERM) se escriben de manera síncrona antes de cerrar las conexiones, y las marcas que lleguen durante
+ * el cierre se escriben de inmediato. Ante una caída abrupta (SIGKILL, falta de memoria) se pierden las
+ * marcas de a lo sumo un intervalo de escritura ({@code notificaciones.lectura.intervalo}, 500 ms por
+ * defecto): esas notificaciones vuelven a figurar como no leídas, sin otra consecuencia.
+ */
+@Slf4j
+@Component
+public class NotificationReadBuffer {
+
+    private final NotificationRepository notificationRepository;
+    private final UnreadNotificationCounter unreadCounter;
+    private final TransactionTemplate transactionTemplate;
+
+    // Cantidad de marcas pendientes a partir de la cual se escriben sin esperar al intervalo
+    private final int tamanoLote;
+
+    // Notificaciones marcadas como leídas y aún no escritas, con el identificador de su destinatario
+    private final Map<Long, Long> pendientes = new ConcurrentHashMap<>();
+
+    // Solo una escritura a la vez, para que dos lotes simultáneos no incluyan las mismas marcas
+    private final ReentrantLock escritura = new ReentrantLock();
+
+    // Se activa al detener la aplicación; desde entonces cada marca se escribe sin esperar al lote
+    private volatile boolean cerrado;
+
+    public NotificationReadBuffer(NotificationRepository notificationRepository,
+                                  UnreadNotificationCounter unreadCounter,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${notificaciones.lectura.tamano-lote:500}") int tamanoLote) {
+        this.notificationRepository = notificationRepository;
+        this.unreadCounter = unreadCounter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tamanoLote = tamanoLote;
+    }
+
+    /**
+     * Registra una notificación no leída como leída; la escritura se realiza en el siguiente lote.
+     * Si la notificación ya tenía una marca pendiente, no se hace nada. Durante el cierre de la aplicación
+     * la marca se escribe de inmediato.
+     *
+     * @param idNotificacion identificador de la notificación
+     * @param idDestinatario identificador del destinatario de la notificación
+     */
+    public void marcar(Long idNotificacion, Long idDestinatario) {
+        if (pendientes.putIfAbsent(idNotificacion, idDestinatario) != null) {
+            return;
+        }
+        unreadCounter.iniciar(idDestinatario);
+        unreadCounter.ajustar(idDestinatario, -1);
+        // Si otro hilo ya está escribiendo, ese hilo también escribirá esta marca
+        if ((cerrado || pendientes.size() >= tamanoLote) && escritura.tryLock()) {
+            try {
+                escribirPendientes();
+            } finally {
+                escritura.unlock();
+            }
+        }
+    }
+
+    /**
+     * Indica si la notificación tiene una marca de lectura pendiente de escribir.
+     *
+     * @param idNotificacion identificador de la notificación
+     * @return true si la notificación fue marcada como leída y aún no se escribió
+     */
+    public boolean pendiente(Long idNotificacion) {
+        return pendientes.containsKey(idNotificacion);
+    }
+
+    /**
+     * Escribe las marcas pendientes en lotes de a lo sumo {@code tamanoLote} identificadores,
+     * cada uno con una sola sentencia UPDATE. Si la escritura falla, las marcas siguen pendientes
+     * para el siguiente intento.
+     */
+    @Scheduled(fixedDelayString = "${notificaciones.lectura.intervalo:500ms}")
+    public void flush() {
+        escritura.lock();
+        try {
+            escribirPendientes();
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+    /**
+     * Escribe las marcas pendientes; las de cada lote se quitan de las pendientes recién después de
+     * confirmar su UPDATE. Debe llamarse con {@code escritura} tomado.
+     */
+    private void escribirPendientes() {
+        while (!pendientes.isEmpty()) {
+            Map<Long, Long> lote = new HashMap<>(tamanoLote);
+            for (var it = pendientes.entrySet().iterator(); it.hasNext() && lote.size() < tamanoLote; ) {
+                var marca = it.next();
+                lote.put(marca.getKey(), marca.getValue());
+            }
+            try {
+                transactionTemplate.executeWithoutResult(_ -> notificationRepository.marcarVistas(lote.keySet()));
+            } catch (RuntimeException e) {
+                log.warn("No se pudieron escribir {} marcas de lectura; se reintentará", lote.size(), e);
+                return;
+            }
+            lote.keySet().forEach(pendientes::remove);
+            lote.values().forEach(unreadCounter::terminar);
+        }
+    }
+
+    /**
+     * Escribe de forma síncrona las marcas pendientes antes de detener la aplicación, con un reintento si la
+     * primera escritura falla. Las marcas que no se logren escribir se informan en el registro como perdidas.
+     */
+    @PreDestroy
+    public void cerrar() {
+        cerrado = true;
+        flush();
+        if (!pendientes.isEmpty()) {
+            flush();
+        }
+        if (!pendientes.isEmpty()) {
+            log.error("Se perdieron {} marcas de lectura al detener la aplicación", pendientes.size());
+        }
+    }
+}
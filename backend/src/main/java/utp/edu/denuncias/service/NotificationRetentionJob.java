@@ -0,0 +1,178 @@
+package utp.edu.denuncias.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import utp.edu.denuncias.repository.NotificationRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Tarea programada de retención de notificaciones. Aplica dos políticas:
+ * <ul>
+ *     <li>elimina las notificaciones leídas con más de {@code notificaciones.retencion.dias} días;</li>
+ *     <li>conserva solo las {@code notificaciones.retencion.maximo-por-usuario} más recientes de cada usuario.</li>
+ * </ul>
+ * Las filas se eliminan en bloques de {@code notificaciones.retencion.lote}, cada uno en una transacción corta,
+ * con una pausa de {@code notificaciones.retencion.pausa} entre bloques para no retener bloqueos ni saturar
+ * la base de datos mientras atiende solicitudes.
+ */
+@Slf4j
+@Component
+public class NotificationRetentionJob implements MeterBinder {
+
+    private final NotificationRepository notificationRepository;
+    private final UnreadNotificationCounter unreadCounter;
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean habilitada;
+    private final int dias;
+    private final int maximoPorUsuario;
+    private final int lote;
+    private final Duration pausa;
+
+    private final LongAdder eliminadasPorAntiguedad = new LongAdder();
+    private final LongAdder eliminadasPorLimite = new LongAdder();
+    private final AtomicLong ultimaEliminadas = new AtomicLong();
+    private final AtomicLong ultimaDuracionMs = new AtomicLong();
+
+    public NotificationRetentionJob(NotificationRepository notificationRepository,
+                                    UnreadNotificationCounter unreadCounter,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${notificaciones.retencion.habilitada:true}") boolean habilitada,
+                                    @Value("${notificaciones.retencion.dias:90}") int dias,
+                                    @Value("${notificaciones.retencion.maximo-por-usuario:1000}") int maximoPorUsuario,
+                                    @Value("${notificaciones.retencion.lote:500}") int lote,
+                                    @Value("${notificaciones.retencion.pausa:200ms}") Duration pausa) {
+        this.notificationRepository = notificationRepository;
+        this.unreadCounter = unreadCounter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.habilitada = habilitada;
+        this.dias = dias;
+        this.maximoPorUsuario = maximoPorUsuario;
+        this.lote = lote;
+        this.pausa = pausa;
+    }
+
+    /**
+     * Ejecuta ambas políticas de retención y registra la cantidad de filas eliminadas y la duración.
+     */
+    @Scheduled(cron = "${notificaciones.retencion.cron:0 30 3 * * *}")
+    public void ejecutar() {
+        if (!habilitada) {
+            return;
+        }
+        long inicio = System.nanoTime();
+        long eliminadas = 0;
+        try {
+            eliminadas += eliminarLeidasAntiguas();
+            eliminadas += limitarBandejas();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Retención de notificaciones interrumpida");
+        } finally {
+            long duracionMs = Duration.ofNanos(System.nanoTime() - inicio).toMillis();
+            ultimaEliminadas.set(eliminadas);
+            ultimaDuracionMs.set(duracionMs);
+            log.info("Retención de notificaciones: {} eliminadas en {} ms", eliminadas, duracionMs);
+        }
+    }
+
+    /**
+     * Elimina, por bloques, las notificaciones leídas anteriores a la fecha límite.
+     *
+     * @return cantidad de notificaciones eliminadas
+     * @throws InterruptedException si se interrumpe la pausa entre bloques
+     */
+    private long eliminarLeidasAntiguas() throws InterruptedException {
+        var limite = LocalDateTime.now().minusDays(dias);
+        long total = eliminarPorBloques(() -> notificationRepository.findIdsLeidasAnterioresA(limite, Limit.of(lote)), null);
+        eliminadasPorAntiguedad.add(total);
+        return total;
+    }
+
+    /**
+     * Recorta la bandeja de cada usuario que supera el máximo, eliminando por bloques las notificaciones
+     * posteriores a la posición {@code maximoPorUsuario} en orden descendente por {@code (createdDate, id)}.
+     *
+     * @return cantidad de notificaciones eliminadas
+     * @throws InterruptedException si se interrumpe la pausa entre bloques
+     */
+    private long limitarBandejas() throws InterruptedException {
+        long total = 0;
+        for (Long idUsuario : notificationRepository.findDestinatariosConMasDe(maximoPorUsuario)) {
+            var corte = notificationRepository.findPosicionesByDestinatarioId(idUsuario, PageRequest.of(maximoPorUsuario, 1));
+            if (corte.isEmpty()) {
+                continue;
+            }
+            var posicion = corte.getFirst();
+            total += eliminarPorBloques(() -> notificationRepository.findIdsHastaPosicion(
+                    idUsuario, posicion.createdDate(), posicion.id(), Limit.of(lote)), idUsuario);
+        }
+        eliminadasPorLimite.add(total);
+        return total;
+    }
+
+    /**
+     * Repite la consulta de identificadores y los elimina, cada bloque en su propia transacción,
+     * hasta que la consulta devuelva menos de un bloque completo.
+     *
+     * @param siguienteBloque consulta que obtiene el siguiente bloque de identificadores a eliminar
+     * @param idUsuario       usuario cuyo contador de no leídas se debe recalcular, o null si no aplica
+     * @return cantidad de notificaciones eliminadas
+     * @throws InterruptedException si se interrumpe la pausa entre bloques
+     */
+    private long eliminarPorBloques(Supplier<List<Long>> siguienteBloque, Long idUsuario) throws InterruptedException {
+        long total = 0;
+        while (true) {
+            Integer eliminadas = transactionTemplate.execute(_ -> {
+                var ids = siguienteBloque.get();
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                if (idUsuario != null) {
+                    unreadCounter.invalidarTrasConfirmar(idUsuario);
+                }
+                notificationRepository.eliminarPorIds(ids);
+                return ids.size();
+            });
+            total += eliminadas;
+            if (eliminadas < lote) {
+                return total;
+            }
+            Thread.sleep(pausa);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("notificaciones.retencion.eliminadas", eliminadasPorAntiguedad, LongAdder::sum)
+                .tag("politica", "antiguedad")
+                .description("Notificaciones eliminadas por la tarea de retención")
+                .register(registry);
+        FunctionCounter.builder("notificaciones.retencion.eliminadas", eliminadasPorLimite, LongAdder::sum)
+                .tag("politica", "limite")
+                .description("Notificaciones eliminadas por la tarea de retención")
+                .register(registry);
+        Gauge.builder("notificaciones.retencion.ultima.eliminadas", ultimaEliminadas, AtomicLong::get)
+                .description("Notificaciones eliminadas en la última ejecución de la tarea de retención")
+                .register(registry);
+        Gauge.builder("notificaciones.retencion.ultima.duracion", ultimaDuracionMs, v -> v.get() / 1000.0)
+                .description("Duración en segundos de la última ejecución de la tarea de retención")
+                .register(registry);
+    }
+}
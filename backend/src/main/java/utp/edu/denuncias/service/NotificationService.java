@@ -4,14 +4,28 @@ import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
+import utp.edu.denuncias.dto.CursorPage;
+import utp.edu.denuncias.dto.CursorPageRequest;
 import utp.edu.denuncias.dto.NotificationResponse;
+import utp.edu.denuncias.dto.PageCursor;
+import utp.edu.denuncias.enums.Rol;
+import utp.edu.denuncias.event.EstadoDenunciaCambiado;
+import utp.edu.denuncias.event.SolicitudCreada;
+import utp.edu.denuncias.event.SolicitudRevisada;
 import utp.edu.denuncias.model.Denuncia;
 import utp.edu.denuncias.model.Notification;
 import utp.edu.denuncias.model.Solicitud;
 import utp.edu.denuncias.model.Usuario;
+import utp.edu.denuncias.repository.DenunciaRepository;
 import utp.edu.denuncias.repository.NotificationRepository;
+import utp.edu.denuncias.repository.SolicitudRepository;
+import utp.edu.denuncias.repository.UserRepository;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Servicio encargado de gestionar las notificaciones en el sistema.
@@ -28,6 +42,28 @@ public class NotificationService {
      */
     private final NotificationRepository notificationRepository;
 
+    /**
+     * Repositorios usados para asociar usuarios, denuncias y solicitudes a las notificaciones por referencia.
+     */
+    private final UserRepository userRepository;
+    private final DenunciaRepository denunciaRepository;
+    private final SolicitudRepository solicitudRepository;
+
+    /**
+     * Acumula las marcas de lectura individuales para escribirlas en lotes.
+     */
+    private final NotificationReadBuffer notificationReadBuffer;
+
+    /**
+     * Envía las notificaciones nuevas a los usuarios conectados por Server-Sent Events.
+     */
+    private final NotificationStreamService notificationStreamService;
+
+    /**
+     * Mantiene la cantidad de notificaciones no leídas por usuario sin consultar las filas.
+     */
+    private final UnreadNotificationCounter unreadCounter;
+
     /**
      * Notifica a un usuario enviando una notificación con un título y mensaje,
      * asociada opcionalmente a una denuncia y/o solicitud específica.
@@ -38,6 +74,7 @@ public class NotificationService {
      * @param denuncia Denuncia asociada a la notificación, puede ser null si no aplica.
      * @param solicitud Solicitud asociada a la notificación, puede ser null si no aplica.
      */
+    @Transactional
     public void notificar(Usuario destinatario, String titulo, String mensaje, Denuncia denuncia, Solicitud solicitud) {
         Notification notification = Notification.builder()
                 .titulo(titulo)
@@ -47,44 +84,230 @@ public class NotificationService {
                 .destinatario(destinatario)
                 .build();
         notificationRepository.save(notification);
+        if (notificationStreamService.conectado(destinatario.getId())) {
+            notificationStreamService.enviarTrasConfirmar(List.of(
+                    new NotificationStreamService.Envio(destinatario.getId(), NotificationResponse.from(notification))));
+        }
+        unreadCounter.ajustarTrasConfirmar(destinatario.getId(), 1);
+    }
+
+    /**
+     * Notifica a los autores de las denuncias cuyo estado cambió. Todas las notificaciones del lote
+     * se insertan juntas en una transacción.
+     *
+     * @param eventos cambios de estado a notificar
+     */
+    @Transactional
+    public void notificarCambiosDeEstado(List<EstadoDenunciaCambiado> eventos) {
+        guardarYEnviar(eventos.stream()
+                .map(e -> nueva(
+                        userRepository.getReferenceById(e.usuarioId()),
+                        "Se ha actualizado el estado de su denuncia.",
+                        "El estado de su denuncia ha pasado a estado " + e.estado().getTitulo() + ".",
+                        e.denunciaId(), e.denunciaTitulo(),
+                        null, null))
+                .toList());
+    }
+
+    /**
+     * Notifica las solicitudes registradas: al revisor asignado si la creó un administrador,
+     * o a todos los administradores si la creó un moderador. Los administradores se consultan
+     * una sola vez por lote y todas las notificaciones se insertan juntas.
+     *
+     * @param eventos solicitudes registradas a notificar
+     */
+    @Transactional
+    public void notificarSolicitudesCreadas(List<SolicitudCreada> eventos) {
+        List<Usuario> admins = null;
+        List<Nueva> nuevas = new ArrayList<>();
+        for (var e : eventos) {
+            if (e.rolAutor().equals(Rol.ADMIN) && e.revisorId() != null) {
+                nuevas.add(nueva(userRepository.getReferenceById(e.revisorId()), e.tipo().getTitulo(),
+                        e.tipo().getDescription(), e.denunciaId(), e.denunciaTitulo(), e.solicitudId(), e.solicitudTitulo()));
+            } else if (e.rolAutor().equals(Rol.MOD)) {
+                if (admins == null) {
+                    admins = userRepository.findAllByRol(Rol.ADMIN);
+                }
+                admins.forEach(admin -> nuevas.add(nueva(admin, e.tipo().getTitulo(),
+                        e.tipo().getDescription(), e.denunciaId(), e.denunciaTitulo(), e.solicitudId(), e.solicitudTitulo())));
+            }
+        }
+        guardarYEnviar(nuevas);
+    }
+
+    /**
+     * Notifica a los autores el resultado de la revisión de sus solicitudes y marca como leídas
+     * las notificaciones previas de esas solicitudes, con una sola sentencia para todo el lote.
+     *
+     * @param eventos solicitudes revisadas a notificar
+     */
+    @Transactional
+    public void notificarSolicitudesRevisadas(List<SolicitudRevisada> eventos) {
+        var solicitudIds = eventos.stream().map(SolicitudRevisada::solicitudId).toList();
+        notificationRepository.findDestinatariosNoLeidosPorSolicitudes(solicitudIds)
+                .forEach(unreadCounter::invalidarTrasConfirmar);
+        notificationRepository.marcarVistasPorSolicitudes(solicitudIds);
+        guardarYEnviar(eventos.stream()
+                .map(e -> nueva(
+                        userRepository.getReferenceById(e.autorId()),
+                        "Su solicitud ha sido " + (e.aprobado() ? "APROBADA." : "RECHAZADA."),
+                        e.tipo().getDescription(),
+                        e.denunciaId(), e.denunciaTitulo(),
+                        e.solicitudId(), e.solicitudTitulo()))
+                .toList());
+    }
+
+    /**
+     * Notificación por guardar, junto con los títulos de su denuncia y solicitud tomados del evento,
+     * para enviarla a los usuarios conectados sin consultar las entidades asociadas por referencia.
+     */
+    private record Nueva(Notification notificacion, String denunciaTitulo, String solicitudTitulo) {
+    }
+
+    /**
+     * Inserta las notificaciones en lote y, una vez confirmada la transacción, las envía a los destinatarios
+     * conectados y suma cada una al contador de no leídas de su destinatario.
+     *
+     * @param nuevas notificaciones a guardar
+     */
+    private void guardarYEnviar(List<Nueva> nuevas) {
+        notificationRepository.saveAll(nuevas.stream().map(Nueva::notificacion).toList());
+        notificationStreamService.enviarTrasConfirmar(nuevas.stream()
+                .filter(n -> notificationStreamService.conectado(n.notificacion().getDestinatario().getId()))
+                .map(n -> new NotificationStreamService.Envio(n.notificacion().getDestinatario().getId(),
+                        NotificationResponse.from(n.notificacion(), n.denunciaTitulo(), n.solicitudTitulo())))
+                .toList());
+        nuevas.stream()
+                .collect(Collectors.groupingBy(n -> n.notificacion().getDestinatario().getId(), Collectors.counting()))
+                .forEach(unreadCounter::ajustarTrasConfirmar);
+    }
+
+    /**
+     * Construye una notificación asociando la denuncia y la solicitud por referencia, sin consultarlas.
+     *
+     * @param destinatario Usuario que recibirá la notificación.
+     * @param titulo Título del mensaje de la notificación.
+     * @param mensaje Contenido del mensaje de la notificación.
+     * @param denunciaId Identificador de la denuncia asociada, puede ser null.
+     * @param denunciaTitulo Título de la denuncia asociada, puede ser null.
+     * @param solicitudId Identificador de la solicitud asociada, puede ser null.
+     * @param solicitudTitulo Título de la solicitud asociada, puede ser null.
+     * @return la notificación sin guardar, con los títulos para enviarla
+     */
+    private Nueva nueva(Usuario destinatario, String titulo, String mensaje, Long denunciaId, String denunciaTitulo,
+                        Long solicitudId, String solicitudTitulo) {
+        var notificacion = Notification.builder()
+                .titulo(titulo)
+                .message(mensaje)
+                .denuncia(denunciaId == null ? null : denunciaRepository.getReferenceById(denunciaId))
+                .solicitud(solicitudId == null ? null : solicitudRepository.getReferenceById(solicitudId))
+                .destinatario(destinatario)
+                .build();
+        return new Nueva(notificacion, denunciaTitulo, solicitudTitulo);
     }
 
     /**
      * Marca una notificación específica como leída para un usuario dado.
+     * Solo se consulta el destinatario de la notificación; la escritura se acumula en
+     * {@link NotificationReadBuffer} y se realiza en lote junto con otras marcas recientes.
      * Si el usuario no es el destinatario de la notificación, se lanza una excepción de acceso denegado.
      *
      * @param idNotificacion el identificador único de la notificación a marcar como leída
-     * @param usuario el usuario que realiza la acción de marcar la notificación como leída
+     * @param idUsuario el identificador del usuario que realiza la acción de marcar la notificación como leída
      * @throws RuntimeException si no se encuentra la notificación con el ID proporcionado
      * @throws AccessDeniedException si el usuario no es el destinatario de la notificación
      */
-    @Transactional
-    public void marcarComoLeida(Long idNotificacion, Usuario usuario) {
-        var notification = notificationRepository.findById(idNotificacion)
+    public void marcarComoLeida(Long idNotificacion, Long idUsuario) {
+        var lectura = notificationRepository.findLecturaById(idNotificacion)
                 .orElseThrow(() -> new RuntimeException("Notificación no encontrada"));
 
-        if (!notification.getDestinatario().getId().equals(usuario.getId())) {
+        if (!lectura.getDestinatarioId().equals(idUsuario)) {
             throw new AccessDeniedException("No puedes marcar como leída esta notificación");
         }
-        notification.setVisto(true);
-        notificationRepository.save(notification);
+        if (!lectura.isVisto()) {
+            notificationReadBuffer.marcar(idNotificacion, idUsuario);
+        }
+    }
+
+    /**
+     * Marca como leídas todas las notificaciones no leídas de un usuario con una sola sentencia.
+     *
+     * @param idUsuario el identificador del usuario destinatario
+     * @return la cantidad de notificaciones marcadas como leídas
+     */
+    @Transactional
+    public int marcarTodasComoLeidas(Long idUsuario) {
+        unreadCounter.invalidarTrasConfirmar(idUsuario);
+        return notificationRepository.marcarTodasVistas(idUsuario);
+    }
+
+    /**
+     * Devuelve la cantidad de notificaciones no leídas de un usuario desde el contador en memoria;
+     * solo la primera consulta (o la primera tras cruzarse con una escritura) ejecuta un COUNT.
+     *
+     * @param idUsuario el identificador del usuario destinatario
+     * @return la cantidad de notificaciones no leídas
+     */
+    public long contarNoLeidas(Long idUsuario) {
+        return unreadCounter.obtener(idUsuario);
     }
 
     /**
-     * Recupera una lista de notificaciones asociadas a un destinatario específico, ordenadas
-     * por fecha de creación de manera descendente.
+     * Recupera una página de notificaciones de un destinatario, ordenadas por fecha de creación de manera
+     * descendente. El costo de cada página depende solo de su tamaño, no de la cantidad total de notificaciones.
      *
      * @param id el identificador único del destinatario cuyas notificaciones se desean recuperar
-     * @return una lista de objetos {@link NotificationResponse} que representan las notificaciones ordenadas
+     * @param soloNoLeidas si es true solo se incluyen las notificaciones no leídas
+     * @param page parámetros de paginación por cursor
+     * @return una página de objetos {@link NotificationResponse}; las que tienen una marca de lectura pendiente
+     *         de escribir se devuelven como leídas, o se omiten (sin acortar la página) si solo se piden las no leídas
      */
-    public List<NotificationResponse> obtenerNotificaciones(Long id) {
-        return NotificationResponse.from(notificationRepository.findAllByDestinatarioIdOrderByCreatedDateDesc(id));
+    public CursorPage<NotificationResponse> obtenerNotificaciones(Long id, boolean soloNoLeidas, CursorPageRequest page) {
+        if (soloNoLeidas) {
+            return obtenerNoLeidas(id, page);
+        }
+        var cursor = page.posicion();
+        return CursorPage.of(
+                notificationRepository.findPageByDestinatarioId(id, cursor.createdDate(), cursor.id(), page.limiteConsulta()),
+                page,
+                n -> !n.read() && notificationReadBuffer.pendiente(n.id()) ? n.toBuilder().read(true).build() : n,
+                NotificationService::posicion,
+                () -> notificationRepository.countByDestinatarioId(id));
     }
 
-    public void marcarNotificacionesRelacionadasComoVistas(Solicitud solicitud) {
-        var relacionadas = notificationRepository.findBySolicitudAndVistoFalse(solicitud);
-        relacionadas.forEach(n -> n.setVisto(true));
-        notificationRepository.saveAll(relacionadas);
+    /**
+     * Recupera una página de notificaciones no leídas, omitiendo las que tienen una marca de lectura pendiente.
+     * Como esas filas todavía figuran como no leídas en la base de datos, se siguen consultando bloques a partir
+     * del último recuperado hasta completar la página (más la fila adicional que indica si hay otra) o agotar
+     * el listado. Las marcas pendientes de un usuario son pocas, así que casi siempre basta una consulta.
+     *
+     * @param id   el identificador del destinatario
+     * @param page parámetros de paginación por cursor
+     * @return una página completa de notificaciones no leídas, salvo que sea la última
+     */
+    private CursorPage<NotificationResponse> obtenerNoLeidas(Long id, CursorPageRequest page) {
+        var limite = page.limiteConsulta();
+        List<NotificationResponse> visibles = new ArrayList<>(limite.max());
+        var cursor = page.posicion();
+        boolean agotado = false;
+        while (visibles.size() < limite.max() && !agotado) {
+            var filas = notificationRepository.findPageNoLeidasByDestinatarioId(id, cursor.createdDate(), cursor.id(), limite);
+            filas.stream().filter(n -> !notificationReadBuffer.pendiente(n.id())).forEach(visibles::add);
+            agotado = filas.size() < limite.max();
+            if (!filas.isEmpty()) {
+                cursor = posicion(filas.getLast());
+            }
+        }
+        return CursorPage.of(visibles, page, Function.identity(), NotificationService::posicion,
+                () -> unreadCounter.obtener(id));
+    }
+
+    /**
+     * @param n notificación de un listado
+     * @return su posición para la paginación por cursor
+     */
+    private static PageCursor posicion(NotificationResponse n) {
+        return new PageCursor(LocalDateTime.parse(n.fecha()), n.id());
     }
 
 }
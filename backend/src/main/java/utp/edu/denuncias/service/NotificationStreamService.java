@@ -0,0 +1,243 @@
+package utp.edu.denuncias.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import utp.edu.denuncias.dto.NotificationResponse;
+import utp.edu.denuncias.repository.NotificationRepository;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Canal de notificaciones en tiempo real mediante Server-Sent Events.
+ * Mantiene un registro de conexiones abiertas por usuario y les envía cada notificación nueva una vez
+ * confirmada la transacción que la creó, de modo que el cliente no necesita volver a consultar el listado.
+ * <p>
+ * Las conexiones usan el procesamiento asíncrono del servlet: mientras están inactivas no ocupan ningún
+ * hilo, solo el socket, por lo que su número queda limitado por {@code server.tomcat.max-connections}
+ * y no por el pool de hilos. Cada evento lleva como id el de la notificación; al reconectarse, el cliente
+ * envía {@code Last-Event-ID} y recibe las notificaciones posteriores que se perdió. El reenvío se hace en el
+ * ejecutor de tareas de la aplicación, de modo que la solicitud de suscripción no espera la consulta.
+ * Un latido periódico mantiene abiertas las conexiones a través de proxies y detecta los clientes desconectados.
+ */
+@Slf4j
+@Service
+public class NotificationStreamService implements MeterBinder {
+
+    /**
+     * Notificación por enviar a un destinatario.
+     *
+     * @param idDestinatario identificador del usuario destinatario
+     * @param notificacion   notificación ya convertida a su respuesta
+     */
+    public record Envio(Long idDestinatario, NotificationResponse notificacion) {
+    }
+
+    private final NotificationRepository notificationRepository;
+
+    // Ejecuta el reenvío de las notificaciones perdidas fuera del hilo de la solicitud
+    private final TaskExecutor taskExecutor;
+
+    // Duración máxima de una conexión; al vencer, el cliente se reconecta con Last-Event-ID
+    private final Duration timeout;
+
+    // Cantidad máxima de conexiones simultáneas por usuario; al superarla se cierra la más antigua
+    private final int maximoPorUsuario;
+
+    // Cantidad máxima de notificaciones reenviadas al reconectarse
+    private final int maximoReenvio;
+
+    // Conexiones abiertas por identificador de usuario
+    private final Map<Long, Set<SseEmitter>> emisores = new ConcurrentHashMap<>();
+    private final AtomicInteger conexiones = new AtomicInteger();
+
+    public NotificationStreamService(NotificationRepository notificationRepository,
+                                     @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                                     @Value("${notificaciones.sse.timeout:30m}") Duration timeout,
+                                     @Value("${notificaciones.sse.maximo-por-usuario:5}") int maximoPorUsuario,
+                                     @Value("${notificaciones.sse.maximo-reenvio:100}") int maximoReenvio) {
+        this.notificationRepository = notificationRepository;
+        this.taskExecutor = taskExecutor;
+        this.timeout = timeout;
+        this.maximoPorUsuario = maximoPorUsuario;
+        this.maximoReenvio = maximoReenvio;
+    }
+
+    /**
+     * Abre una conexión de notificaciones para un usuario. Si se indica el id del último evento recibido,
+     * se reenvían en segundo plano las notificaciones posteriores a él. La conexión se registra antes del
+     * reenvío para no perder las que se creen mientras tanto, por lo que una notificación nueva puede llegar
+     * antes que las reenviadas; el cliente descarta los ids repetidos.
+     *
+     * @param idUsuario identificador del usuario
+     * @param ultimoId  valor de {@code Last-Event-ID}, o null si es la primera conexión
+     * @return el emisor asociado a la respuesta
+     */
+    public SseEmitter suscribir(Long idUsuario, Long ultimoId) {
+        SseEmitter emitter = nuevoEmisor();
+        Set<SseEmitter> delUsuario = emisores.compute(idUsuario, (_, actuales) -> {
+            var conjunto = actuales == null ? new CopyOnWriteArraySet<SseEmitter>() : actuales;
+            conjunto.add(emitter);
+            return conjunto;
+        });
+        conexiones.incrementAndGet();
+        emitter.onCompletion(() -> quitar(idUsuario, emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(_ -> emitter.complete());
+
+        if (delUsuario.size() > maximoPorUsuario) {
+            delUsuario.iterator().next().complete();
+        }
+
+        if (ultimoId != null) {
+            taskExecutor.execute(() -> reenviar(emitter, idUsuario, ultimoId));
+        }
+        return emitter;
+    }
+
+    /**
+     * Reenvía por una conexión las notificaciones del usuario posteriores a la última recibida.
+     *
+     * @param emitter   conexión destino
+     * @param idUsuario identificador del usuario
+     * @param ultimoId  id de la última notificación recibida por el cliente
+     */
+    private void reenviar(SseEmitter emitter, Long idUsuario, Long ultimoId) {
+        try {
+            notificationRepository.findByDestinatarioIdAndIdGreaterThanOrderByIdAsc(idUsuario, ultimoId, Limit.of(maximoReenvio))
+                    .forEach(n -> enviar(emitter, NotificationResponse.from(n)));
+        } catch (RuntimeException e) {
+            log.warn("No se pudieron reenviar las notificaciones del usuario {}", idUsuario, e);
+            emitter.completeWithError(e);
+        }
+    }
+
+    /**
+     * Crea el emisor de una conexión nueva.
+     *
+     * @return el emisor, con la duración máxima configurada
+     */
+    SseEmitter nuevoEmisor() {
+        return new SseEmitter(timeout.toMillis());
+    }
+
+    /**
+     * Indica si el usuario tiene al menos una conexión abierta.
+     *
+     * @param idUsuario identificador del usuario
+     * @return true si hay conexiones abiertas para el usuario
+     */
+    public boolean conectado(Long idUsuario) {
+        return emisores.containsKey(idUsuario);
+    }
+
+    /**
+     * Envía las notificaciones recién creadas a sus destinatarios conectados cuando se confirme la
+     * transacción actual, o de inmediato si no hay una. Quien llama construye las respuestas con los datos
+     * que ya tiene cargados, y conviene que solo incluya las de usuarios {@link #conectado(Long) conectados}.
+     *
+     * @param envios notificaciones guardadas en la transacción actual, con su destinatario
+     */
+    public void enviarTrasConfirmar(Collection<Envio> envios) {
+        if (envios.isEmpty()) {
+            return;
+        }
+        Runnable envio = () -> envios.forEach(e ->
+                emisores.getOrDefault(e.idDestinatario(), Set.of()).forEach(emitter -> enviar(emitter, e.notificacion())));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    envio.run();
+                }
+            });
+        } else {
+            envio.run();
+        }
+    }
+
+    /**
+     * Envía un comentario a todas las conexiones abiertas para mantenerlas vivas a través de proxies
+     * y balanceadores, y para descartar las de clientes que ya se desconectaron.
+     */
+    @Scheduled(fixedRateString = "${notificaciones.sse.latido:25s}")
+    public void latido() {
+        emisores.values().forEach(delUsuario -> delUsuario.forEach(emitter -> {
+            try {
+                emitter.send(SseEmitter.event().comment("latido"));
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e);
+            }
+        }));
+    }
+
+    /**
+     * Cierra todas las conexiones al detener la aplicación; los clientes se reconectarán con Last-Event-ID.
+     */
+    @PreDestroy
+    public void cerrar() {
+        emisores.values().forEach(delUsuario -> delUsuario.forEach(SseEmitter::complete));
+    }
+
+    /**
+     * Envía una notificación por una conexión. Si el envío falla, la conexión se cierra.
+     *
+     * @param emitter      conexión destino
+     * @param notificacion notificación a enviar
+     */
+    private void enviar(SseEmitter emitter, NotificationResponse notificacion) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .id(String.valueOf(notificacion.id()))
+                    .name("notificacion")
+                    .data(notificacion, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            log.debug("No se pudo enviar la notificación {}: {}", notificacion.id(), e.getMessage());
+            emitter.completeWithError(e);
+        }
+    }
+
+    /**
+     * Quita una conexión del registro cuando se completa, vence o falla.
+     *
+     * @param idUsuario identificador del usuario
+     * @param emitter   conexión a quitar
+     */
+    private void quitar(Long idUsuario, SseEmitter emitter) {
+        emisores.computeIfPresent(idUsuario, (_, delUsuario) -> {
+            if (delUsuario.remove(emitter)) {
+                conexiones.decrementAndGet();
+            }
+            return delUsuario.isEmpty() ? null : delUsuario;
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("notificaciones.sse.conexiones", conexiones, AtomicInteger::get)
+                .description("Conexiones SSE de notificaciones abiertas")
+                .register(registry);
+        Gauge.builder("notificaciones.sse.usuarios", emisores, Map::size)
+                .description("Usuarios con al menos una conexión SSE de notificaciones abierta")
+                .register(registry);
+    }
+}
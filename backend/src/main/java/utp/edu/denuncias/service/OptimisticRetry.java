@@ -0,0 +1,122 @@
+package utp.edu.denuncias.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.OptimisticLockException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Ejecuta transiciones idempotentes del servidor (como "pasar la denuncia a estado X") en una transacción
+ * y la repite si falla por un conflicto de concurrencia optimista, es decir, si otra transacción modificó
+ * la misma fila entre la lectura y la escritura. Cada intento vuelve a leer los datos, así que el cambio se
+ * aplica sobre la versión vigente y ninguna actualización se pierde. La operación debe comprobar en cada
+ * intento que siguen valiendo las condiciones sobre las que se decidió (por ejemplo, el estado que se leyó la
+ * primera vez) y lanzar {@code ConcurrencyFailureException}, que no se reintenta, si ya no valen.
+ * <p>
+ * Los reintentos están acotados por {@code concurrencia.reintentos.maximo} y esperan un tiempo aleatorio entre
+ * cero y {@code concurrencia.reintentos.espera-base * 2^intento} ("full jitter"), para que las transacciones
+ * que chocaron no vuelvan a chocar en el mismo instante. Si se agotan, el conflicto se propaga y
+ * {@code GlobalExceptionHandler} responde 409. Las operaciones que no son idempotentes, como editar el texto
+ * de una denuncia, no deben pasar por aquí: ante un conflicto se responde 409 directamente.
+ */
+@Slf4j
+@Component
+public class OptimisticRetry implements MeterBinder {
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maximo;
+    private final Duration esperaBase;
+
+    private final LongAdder reintentos = new LongAdder();
+    private final LongAdder agotados = new LongAdder();
+
+    public OptimisticRetry(PlatformTransactionManager transactionManager,
+                           @Value("${concurrencia.reintentos.maximo:3}") int maximo,
+                           @Value("${concurrencia.reintentos.espera-base:10ms}") Duration esperaBase) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maximo = maximo;
+        this.esperaBase = esperaBase;
+    }
+
+    /**
+     * Ejecuta la operación en una transacción nueva y la reintenta ante conflictos de concurrencia optimista.
+     * Si ya hay una transacción activa, la operación se ejecuta una sola vez dentro de ella: un reintento no
+     * serviría, porque la transacción externa ya quedó marcada para revertirse.
+     *
+     * @param operacion operación que lee y modifica las entidades
+     * @param <T>       tipo del resultado
+     * @return el resultado del primer intento confirmado
+     * @throws OptimisticLockingFailureException si el conflicto persiste tras el último reintento
+     */
+    public <T> T ejecutar(Supplier<T> operacion) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return operacion.get();
+        }
+        for (int intento = 0; ; intento++) {
+            try {
+                return transactionTemplate.execute(_ -> operacion.get());
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                if (intento >= maximo) {
+                    agotados.increment();
+                    throw e instanceof OptimisticLockingFailureException o ? o
+                            : new OptimisticLockingFailureException(e.getMessage(), e);
+                }
+                reintentos.increment();
+                log.debug("Conflicto de concurrencia, reintento {} de {}", intento + 1, maximo);
+                esperar(intento);
+            }
+        }
+    }
+
+    /**
+     * Ejecuta una operación sin resultado en una transacción nueva y la reintenta ante conflictos de
+     * concurrencia optimista, igual que {@link #ejecutar(Supplier)}.
+     *
+     * @param operacion operación que lee y modifica las entidades
+     * @throws OptimisticLockingFailureException si el conflicto persiste tras el último reintento
+     */
+    public void ejecutarSinResultado(Runnable operacion) {
+        ejecutar(() -> {
+            operacion.run();
+            return null;
+        });
+    }
+
+    /**
+     * Espera un tiempo aleatorio entre cero y la espera base multiplicada por {@code 2^intento}.
+     *
+     * @param intento número de intento fallido, empezando en cero
+     */
+    private void esperar(int intento) {
+        long tope = esperaBase.toNanos() << Math.min(intento, 16);
+        long nanos = ThreadLocalRandom.current().nextLong(tope + 1);
+        try {
+            Thread.sleep(Duration.ofNanos(nanos));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Reintento interrumpido", e);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("concurrencia.reintentos", reintentos, LongAdder::sum)
+                .description("Reintentos por conflictos de concurrencia optimista")
+                .register(registry);
+        FunctionCounter.builder("concurrencia.conflictos.agotados", agotados, LongAdder::sum)
+                .description("Conflictos de concurrencia optimista que agotaron los reintentos")
+                .register(registry);
+    }
+}
@@ -2,12 +2,15 @@ package utp.edu.denuncias.service;
 
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import utp.edu.denuncias.dto.SolicitudRequest;
 import utp.edu.denuncias.dto.SolicitudResponse;
 import utp.edu.denuncias.dto.SolicitudRevisionRequest;
 import utp.edu.denuncias.enums.Estado;
 import utp.edu.denuncias.enums.Rol;
+import utp.edu.denuncias.event.SolicitudCreada;
+import utp.edu.denuncias.event.SolicitudRevisada;
 import utp.edu.denuncias.model.Solicitud;
 import utp.edu.denuncias.model.Usuario;
 import utp.edu.denuncias.repository.DenunciaRepository;
@@ -47,12 +50,10 @@ public class SolicitudService {
     private final DenunciaRepository denunciaRepository;
 
     /**
-     * Servicio de notificaciones utilizado para enviar alertas o mensajes
-     * relacionados con las operaciones realizadas en el sistema.
-     * Este servicio permite informar a los usuarios sobre eventos importantes
-     * como cambios en el estado de las solicitudes o resultados de revisiones.
+     * Publicador de eventos de dominio. Las notificaciones sobre solicitudes creadas y revisadas
+     * se generan en segundo plano a partir de estos eventos, una vez confirmada la transacción.
      */
-    private final NotificationService notificationService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Recupera una solicitud específica a partir de su identificador único.
@@ -68,6 +69,16 @@ public class SolicitudService {
         return SolicitudResponse.from(solicitud);
     }
 
+    /**
+     * Calcula el ETag de una solicitud a partir de su huella, sin cargarla.
+     *
+     * @param id Identificador único de la solicitud.
+     * @return el ETag de la respuesta de {@link #listarSolicitud(Long)}.
+     */
+    public String etagSolicitud(Long id) {
+        return solicitudRepository.versionById(id).etag("solicitud", id);
+    }
+
     /**
      * Recupera todas las solicitudes relacionadas con el usuario autenticado cuya
      * propiedad como autor o revisor tiene un estado distinto a RESUELTO o RECHAZADO.
@@ -78,9 +89,21 @@ public class SolicitudService {
      * @throws RuntimeException si no se puede obtener el usuario autenticado.
      */
     public List<SolicitudResponse> listarSolicitudes() {
-        var user = userRepository.findByUsernameAndEnabledTrue(JwtUtil.getCurrentUsername())
+        var user = JwtUtil.getCurrentUser()
                 .orElseThrow(() -> new RuntimeException("No se pudo obtener el usuario autenticado"));
-        return SolicitudResponse.from(solicitudRepository.findByAutorOrRevisorId(user.getId()));
+        return SolicitudResponse.from(solicitudRepository.findByAutorOrRevisorId(user.id()));
+    }
+
+    /**
+     * Calcula el ETag del listado de solicitudes del usuario autenticado a partir de su huella, sin cargarlas.
+     *
+     * @return el ETag de la respuesta de {@link #listarSolicitudes()}.
+     * @throws RuntimeException si no se puede obtener el usuario autenticado.
+     */
+    public String etagSolicitudes() {
+        var user = JwtUtil.getCurrentUser()
+                .orElseThrow(() -> new RuntimeException("No se pudo obtener el usuario autenticado"));
+        return solicitudRepository.versionByAutorOrRevisorId(user.id()).etag("solicitudes", user.id());
     }
 
     /**
@@ -115,13 +138,15 @@ public class SolicitudService {
      * @param request Objeto {@link SolicitudRequest} que contiene la información necesaria para crear la solicitud,
      *                incluyendo título, mensaje, ID de la denuncia, ID del revisor opcional y el tipo de solicitud.
      */
+    @Transactional
     public void realizarSolicitud(SolicitudRequest request) {
-        var autor = userRepository.findByUsernameAndEnabledTrue(JwtUtil.getCurrentUsername())
+        var current = JwtUtil.getCurrentUser()
                 .orElseThrow(() -> new RuntimeException("No se pudo obtener el usuario autenticado"));
+        var autor = userRepository.getReferenceById(current.id());
         var denuncia = denunciaRepository.findById(request.idDenuncia())
                 .orElseThrow(() -> new RuntimeException("No se pudo obtener la denuncia con ID " + request.idDenuncia()));
         Usuario revisor = null;
-        if (autor.getRol().equals(Rol.ADMIN) && request.idRevisor() != null) {
+        if (current.rol().equals(Rol.ADMIN) && request.idRevisor() != null) {
             revisor = userRepository.findById(request.idRevisor())
                     .orElseThrow(() -> new RuntimeException("No se pudo obtener el usuario con ID " + request.idRevisor()));
         }
@@ -135,25 +160,15 @@ public class SolicitudService {
                 .build();
         solicitud = solicitudRepository.save(solicitud);
 
-        if (autor.getRol().equals(Rol.ADMIN) && request.idRevisor() != null) {
-            notificationService.notificar(
-                    revisor,
-                    solicitud.getTipoSolicitud().getTitulo(),
-                    solicitud.getTipoSolicitud().getDescription(),
-                    denuncia,
-                    solicitud
-            );
-        } else if (autor.getRol().equals(Rol.MOD)) {
-            var admins = userRepository.findAllByRol(Rol.ADMIN);
-            Solicitud finalSolicitud = solicitud;
-            admins.forEach(admin -> notificationService.notificar(
-                    admin,
-                    finalSolicitud.getTipoSolicitud().getTitulo(),
-                    finalSolicitud.getTipoSolicitud().getDescription(),
-                    denuncia,
-                    finalSolicitud
-            ));
-        }
+        eventPublisher.publishEvent(new SolicitudCreada(
+                solicitud.getId(),
+                solicitud.getTitulo(),
+                denuncia.getId(),
+                denuncia.getTitulo(),
+                current.rol(),
+                revisor == null ? null : revisor.getId(),
+                solicitud.getTipoSolicitud()
+        ));
     }
 
     /**
@@ -165,25 +180,29 @@ public class SolicitudService {
      * @return una instancia de {@link SolicitudResponse} que representa el estado actualizado
      *         de la solicitud tras haber sido procesada.
      * @throws RuntimeException si no se encuentra el usuario autenticado o la solicitud con el ID proporcionado.
+     * @throws org.springframework.dao.OptimisticLockingFailureException si otro revisor modificó la solicitud
+     *         al mismo tiempo; no se reintenta, para no sobrescribir su decisión.
      */
     @Transactional
     public SolicitudResponse revisarSolicitud(SolicitudRevisionRequest request) {
-        var revisor = userRepository.findByUsernameAndEnabledTrue(JwtUtil.getCurrentUsername())
+        var current = JwtUtil.getCurrentUser()
                 .orElseThrow(() -> new RuntimeException("No se pudo obtener el usuario autenticado"));
+        var revisor = userRepository.getReferenceById(current.id());
         var solicitud = solicitudRepository.findById(request.id())
                 .orElseThrow(() -> new RuntimeException("No se pudo obtener la solicitud con ID " + request.id()));
         solicitud.setEstado(request.aprobado() ? Estado.RESUELTO : Estado.RECHAZADO);
         solicitud.setMsg(request.mensajeRespuesta());
         solicitud.setRevisor(revisor);
         solicitud.setEndDate(LocalDateTime.now());
-        notificationService.notificar(
-                solicitud.getAutor(),
-                "Su solicitud ha sido " + (request.aprobado() ? "APROBADA." : "RECHAZADA."),
-                solicitud.getTipoSolicitud().getDescription(),
-                solicitud.getDenuncia(),
-                solicitud
-        );
-        notificationService.marcarNotificacionesRelacionadasComoVistas(solicitud);
+        eventPublisher.publishEvent(new SolicitudRevisada(
+                solicitud.getId(),
+                solicitud.getTitulo(),
+                solicitud.getDenuncia() == null ? null : solicitud.getDenuncia().getId(),
+                solicitud.getDenuncia() == null ? null : solicitud.getDenuncia().getTitulo(),
+                solicitud.getAutor().getId(),
+                request.aprobado(),
+                solicitud.getTipoSolicitud()
+        ));
         return SolicitudResponse.from(solicitudRepository.save(solicitud));
     }
 
@@ -0,0 +1,229 @@
+package utp.edu.denuncias.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import utp.edu.denuncias.repository.NotificationRepository;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Contador en memoria de notificaciones no leídas por usuario.
+ * La cantidad se calcula con un único COUNT la primera vez que se consulta y luego se mantiene con
+ * incrementos y decrementos al crear o marcar notificaciones, por lo que consultarla no toca las filas.
+ * <p>
+ * Los contadores viven en un {@link ConcurrentHashMap} y toda modificación de un usuario se hace con
+ * {@code compute}, que bloquea solo la entrada de ese usuario. Para que un COUNT no se mezcle con una
+ * escritura en curso, cada escritura se registra como "en vuelo" desde que se hace hasta que su transacción
+ * termina: mientras haya alguna, o si alguna terminó durante el COUNT, el resultado del COUNT se devuelve
+ * pero no se guarda, y la siguiente consulta vuelve a contar.
+ * <p>
+ * Para que la memoria no crezca con cada usuario que alguna vez consultó su contador, una tarea periódica
+ * descarta los contadores sin uso durante {@code notificaciones.contador.ttl} y, si aun así quedan más de
+ * {@code notificaciones.contador.maximo}, los de uso más antiguo. Nunca se descarta un contador con
+ * escrituras en vuelo; un contador descartado se vuelve a calcular con un COUNT en la siguiente consulta.
+ */
+@Component
+public class UnreadNotificationCounter {
+
+    /**
+     * Estado del contador de un usuario. Solo se modifica dentro de {@code compute} sobre su entrada.
+     */
+    private static final class Contador {
+        // Cantidad de notificaciones no leídas; solo es válida si cargado es true
+        volatile long noLeidas;
+        volatile boolean cargado;
+        // Escrituras iniciadas cuya transacción aún no terminó
+        int enVuelo;
+        // Se incrementa cada vez que termina una escritura
+        long generacion;
+        // Momento del último uso (System.nanoTime), para descartar los contadores inactivos
+        volatile long ultimoUso = System.nanoTime();
+    }
+
+    private final NotificationRepository notificationRepository;
+    private final Map<Long, Contador> contadores = new ConcurrentHashMap<>();
+
+    // Tiempo sin uso tras el cual se descarta un contador
+    private final Duration ttl;
+
+    // Cantidad máxima de contadores que se conservan
+    private final int maximo;
+
+    public UnreadNotificationCounter(NotificationRepository notificationRepository,
+                                     @Value("${notificaciones.contador.ttl:30m}") Duration ttl,
+                                     @Value("${notificaciones.contador.maximo:100000}") int maximo) {
+        this.notificationRepository = notificationRepository;
+        this.ttl = ttl;
+        this.maximo = maximo;
+    }
+
+    /**
+     * Devuelve la cantidad de notificaciones no leídas de un usuario. Si aún no se conoce, se calcula
+     * con un COUNT y se guarda solo si ninguna escritura se cruzó con la consulta.
+     *
+     * @param idUsuario identificador del usuario
+     * @return cantidad de notificaciones no leídas
+     */
+    public long obtener(Long idUsuario) {
+        Contador actual = contadores.get(idUsuario);
+        if (actual != null && actual.cargado) {
+            actual.ultimoUso = System.nanoTime();
+            return actual.noLeidas;
+        }
+        long[] generacion = new long[1];
+        boolean[] libre = new boolean[1];
+        contadores.compute(idUsuario, (_, c) -> {
+            c = c == null ? new Contador() : c;
+            generacion[0] = c.generacion;
+            libre[0] = c.enVuelo == 0;
+            return c;
+        });
+        long cantidad = notificationRepository.countByDestinatarioIdAndVistoFalse(idUsuario);
+        if (libre[0]) {
+            contadores.computeIfPresent(idUsuario, (_, c) -> {
+                if (!c.cargado && c.enVuelo == 0 && c.generacion == generacion[0]) {
+                    c.noLeidas = cantidad;
+                    c.cargado = true;
+                }
+                return c;
+            });
+        }
+        return cantidad;
+    }
+
+    /**
+     * Suma (o resta, si es negativo) una cantidad al contador del usuario cuando se confirme la
+     * transacción actual, o de inmediato si no hay una.
+     *
+     * @param idUsuario identificador del usuario
+     * @param delta     cantidad a sumar
+     */
+    public void ajustarTrasConfirmar(Long idUsuario, long delta) {
+        trasConfirmar(idUsuario, () -> ajustar(idUsuario, delta));
+    }
+
+    /**
+     * Descarta el contador del usuario cuando se confirme la transacción actual, o de inmediato si no hay una,
+     * para que la siguiente consulta lo recalcule. Se usa en las actualizaciones masivas, donde la cantidad
+     * de filas afectadas puede incluir marcas individuales que ya se descontaron.
+     *
+     * @param idUsuario identificador del usuario
+     */
+    public void invalidarTrasConfirmar(Long idUsuario) {
+        trasConfirmar(idUsuario, () -> contadores.computeIfPresent(idUsuario, (_, c) -> {
+            c.cargado = false;
+            return c;
+        }));
+    }
+
+    /**
+     * Registra una escritura en vuelo para el usuario. Debe cerrarse con {@link #terminar(Long)}
+     * cuando la escritura quede confirmada o descartada.
+     *
+     * @param idUsuario identificador del usuario
+     */
+    public void iniciar(Long idUsuario) {
+        contadores.compute(idUsuario, (_, c) -> {
+            c = c == null ? new Contador() : c;
+            c.enVuelo++;
+            c.ultimoUso = System.nanoTime();
+            return c;
+        });
+    }
+
+    /**
+     * Suma una cantidad al contador del usuario si ya está cargado; nunca baja de cero.
+     *
+     * @param idUsuario identificador del usuario
+     * @param delta     cantidad a sumar
+     */
+    public void ajustar(Long idUsuario, long delta) {
+        contadores.computeIfPresent(idUsuario, (_, c) -> {
+            if (c.cargado) {
+                c.noLeidas = Math.max(0, c.noLeidas + delta);
+            }
+            return c;
+        });
+    }
+
+    /**
+     * Cierra una escritura iniciada con {@link #iniciar(Long)}.
+     *
+     * @param idUsuario identificador del usuario
+     */
+    public void terminar(Long idUsuario) {
+        contadores.computeIfPresent(idUsuario, (_, c) -> {
+            c.generacion++;
+            c.enVuelo--;
+            return c;
+        });
+    }
+
+    /**
+     * @return cantidad de usuarios con contador en memoria
+     */
+    int tamano() {
+        return contadores.size();
+    }
+
+    /**
+     * Descarta los contadores sin uso durante más que el tiempo configurado y, si siguen siendo más que el
+     * máximo, los de uso más antiguo. Los contadores con escrituras en vuelo se conservan.
+     */
+    @Scheduled(fixedDelayString = "${notificaciones.contador.limpieza:1m}")
+    public void limpiar() {
+        long limite = System.nanoTime() - ttl.toNanos();
+        contadores.keySet().forEach(idUsuario -> descartarSiInactivo(idUsuario, limite));
+        int exceso = contadores.size() - maximo;
+        if (exceso > 0) {
+            // Se ordena una copia de los momentos de uso, que pueden cambiar mientras se ordena
+            contadores.entrySet().stream()
+                    .map(e -> Map.entry(e.getKey(), e.getValue().ultimoUso))
+                    .sorted(Map.Entry.comparingByValue())
+                    .limit(exceso)
+                    .forEach(e -> descartarSiInactivo(e.getKey(), Long.MAX_VALUE));
+        }
+    }
+
+    /**
+     * Quita el contador del usuario si no tiene escrituras en vuelo y no se usó después del límite indicado.
+     *
+     * @param idUsuario identificador del usuario
+     * @param limite    momento ({@code System.nanoTime}) a partir del cual el contador se considera en uso
+     */
+    private void descartarSiInactivo(Long idUsuario, long limite) {
+        contadores.computeIfPresent(idUsuario, (_, c) -> c.enVuelo == 0 && c.ultimoUso <= limite ? null : c);
+    }
+
+    /**
+     * Registra una escritura en vuelo y aplica el cambio al confirmarse la transacción actual.
+     * Si la transacción se revierte, el contador no cambia.
+     *
+     * @param idUsuario identificador del usuario
+     * @param cambio    cambio a aplicar sobre el contador
+     */
+    private void trasConfirmar(Long idUsuario, Runnable cambio) {
+        iniciar(idUsuario);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cambio.run();
+            terminar(idUsuario);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cambio.run();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                terminar(idUsuario);
+            }
+        });
+    }
+}
@@ -2,14 +2,20 @@ package utp.edu.denuncias.service;
 
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import utp.edu.denuncias.dto.CursorPage;
+import utp.edu.denuncias.dto.CursorPageRequest;
 import utp.edu.denuncias.dto.NotificationResponse;
 import utp.edu.denuncias.dto.UsuarioResponse;
 import utp.edu.denuncias.dto.UsuarioUpdateRequest;
+import utp.edu.denuncias.enums.Rol;
 import utp.edu.denuncias.model.Usuario;
 import utp.edu.denuncias.repository.UserRepository;
 import utp.edu.denuncias.security.JwtUtil;
+import utp.edu.denuncias.security.UserDetailsServiceImpl;
 
 import java.util.List;
 
@@ -26,6 +32,10 @@ public class UsuarioService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final NotificationService notificationService;
+    private final NotificationStreamService notificationStreamService;
+    private final UserDetailsServiceImpl userDetailsService;
+    private final ModeratorAssignmentEngine assignmentEngine;
+    private final OptimisticRetry optimisticRetry;
 
     /**
      * Obtiene una lista de usuarios en el sistema y los representa como objetos {@code UsuarioResponse}.
@@ -36,6 +46,15 @@ public class UsuarioService {
         return UsuarioResponse.from(userRepository.findAll());
     }
 
+    /**
+     * Calcula el ETag del listado de todos los usuarios a partir de su huella, sin cargarlos.
+     *
+     * @return El ETag de la respuesta de {@link #listarUsuarios()}.
+     */
+    public String etagUsuarios() {
+        return userRepository.version().etag("usuarios");
+    }
+
     /**
      * Obtiene una lista de usuarios activos en el sistema y los representa como objetos {@code UsuarioResponse}.
      *
@@ -45,6 +64,15 @@ public class UsuarioService {
         return UsuarioResponse.from(userRepository.findByEnabledTrue());
     }
 
+    /**
+     * Calcula el ETag del listado de usuarios activos a partir de su huella, sin cargarlos.
+     *
+     * @return El ETag de la respuesta de {@link #listarUsuariosActivos()}.
+     */
+    public String etagUsuariosActivos() {
+        return userRepository.versionByEnabledTrue().etag("usuarios-activos");
+    }
+
     /**
      * Recupera un usuario a partir de su identificador único.
      *
@@ -57,33 +85,55 @@ public class UsuarioService {
         return UsuarioResponse.from(usuario);
     }
 
+    /**
+     * Obtiene los datos del usuario actualmente autenticado.
+     *
+     * @return Un objeto {@link UsuarioResponse} con la información del usuario autenticado.
+     * @throws RuntimeException Si no se puede obtener el usuario autenticado.
+     */
     public UsuarioResponse findByCurrentUser() {
-        String username = JwtUtil.getCurrentUsername();
-        Usuario usuario = userRepository.findByUsernameAndEnabledTrue(username).orElseThrow(() -> new RuntimeException("No se pudo obtener el usuario autenticado"));
+        var current = JwtUtil.getCurrentUser()
+                .orElseThrow(() -> new RuntimeException("No se pudo obtener el usuario autenticado"));
+        Usuario usuario = userRepository.findById(current.id()).orElseThrow(() -> new RuntimeException("No se pudo obtener el usuario autenticado"));
         return UsuarioResponse.from(usuario);
     }
 
+    /**
+     * Calcula el ETag de los datos del usuario autenticado a partir de su huella, sin cargarlo.
+     *
+     * @return El ETag de la respuesta de {@link #findByCurrentUser()}.
+     * @throws RuntimeException Si no se puede obtener el usuario autenticado.
+     */
+    public String etagUsuarioActual() {
+        var current = JwtUtil.getCurrentUser()
+                .orElseThrow(() -> new RuntimeException("No se pudo obtener el usuario autenticado"));
+        return userRepository.versionById(current.id()).etag("usuario", current.id());
+    }
+
     /**
      * Actualiza la información de un usuario en el sistema.
      * Este método permite modificar el nombre de usuario, contraseña, correo electrónico y el rol
      * de un usuario existente, si se proporcionan nuevos valores en la solicitud.
+     * Si un usuario habilitado deja de ser moderador, sus denuncias abiertas se reasignan entre los demás;
+     * si pasa a serlo, entra en el reparto automático.
      *
      * @param request Objeto {@link UsuarioUpdateRequest} que contiene los nuevos datos para actualizar el usuario.
      *                Los valores nulos en la solicitud no actualizarán las propiedades correspondientes.
      * @return Un objeto {@link UsuarioResponse} que representa el usuario actualizado, incluyendo su información
      * básica excepto la contraseña, la cual es manipulada de forma segura.
      * @throws RuntimeException Si el usuario no es encontrado en el sistema.
+     * @throws OptimisticLockingFailureException Si otra transacción modificó el usuario (por ejemplo, un
+     * administrador lo desactivó) mientras se actualizaba. No se reintenta, para no sobrescribir ese cambio con
+     * datos leídos antes; se responde 409 y el cliente debe volver a cargar el perfil.
      */
     @Transactional
     public UsuarioResponse updateUser(UsuarioUpdateRequest request) {
-        String username = JwtUtil.getCurrentUsername();
-
-        if (username == null || username.equals("anonymousUser")) {
-            throw new RuntimeException("No se pudo obtener el usuario autenticado");
-        }
+        var current = JwtUtil.getCurrentUser()
+                .orElseThrow(() -> new RuntimeException("No se pudo obtener el usuario autenticado"));
 
-        Usuario usuario = userRepository.findByUsernameAndEnabledTrue(username).orElseThrow(() ->
-                new RuntimeException("Usuario con " + username + ", no encontrado"));
+        Usuario usuario = userRepository.findById(current.id()).orElseThrow(() ->
+                new RuntimeException("Usuario con " + current.username() + ", no encontrado"));
+        userDetailsService.evict(usuario.getUsername());
 
         if (request.username() != null) {
             usuario.setUsername(request.username());
@@ -94,69 +144,104 @@ public class UsuarioService {
         if (request.email() != null) {
             usuario.setEmail(request.email());
         }
+        Rol rolAnterior = usuario.getRol();
         if (request.rol() != null) {
             usuario.setRol(request.rol());
         }
 
-        return UsuarioResponse.from(userRepository.save(usuario));
+        var response = UsuarioResponse.from(userRepository.save(usuario));
+        if (usuario.isEnabled() && rolAnterior != usuario.getRol()) {
+            if (rolAnterior == Rol.MOD) {
+                assignmentEngine.retirar(usuario.getId());
+            } else if (usuario.getRol() == Rol.MOD) {
+                assignmentEngine.agregar(usuario.getId());
+            }
+        }
+        return response;
     }
 
     /**
      * Activa un usuario en el sistema, marcándolo como habilitado.
      * El ID proporcionado se utiliza para identificar al usuario que debe ser activado.
      *
+     * Si otra transacción modifica el usuario al mismo tiempo, la activación se reintenta sobre la versión vigente.
+     *
      * @param id Identificador único del usuario que se desea activar.
      * @throws RuntimeException Si no se encuentra un usuario con el ID proporcionado.
+     * @throws OptimisticLockingFailureException Si el conflicto persiste tras agotar los reintentos.
      */
-    @Transactional
     public void activarUsuario(Long id) {
-        Usuario usuario = userRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Usuario con ID" + id + " no encontrado"));
-        usuario.setEnabled(true);
-        userRepository.save(usuario);
+        optimisticRetry.ejecutarSinResultado(() -> {
+            Usuario usuario = userRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Usuario con ID" + id + " no encontrado"));
+            usuario.setEnabled(true);
+            userRepository.save(usuario);
+            userDetailsService.evict(usuario.getUsername());
+            if (usuario.getRol() == Rol.MOD) {
+                assignmentEngine.agregar(usuario.getId());
+            }
+        });
     }
 
     /**
      * Desactiva un usuario en el sistema, marcándolo como no habilitado.
      * El ID proporcionado se utiliza para identificar al usuario que debe ser desactivado.
+     * Si es un moderador, sus denuncias abiertas se reasignan entre los demás moderadores.
+     * Si otra transacción modifica el usuario al mismo tiempo, la desactivación se reintenta sobre la versión vigente.
      *
      * @param id Identificador único del usuario que se desea desactivar.
      * @throws RuntimeException Si no se encuentra un usuario con el ID proporcionado.
+     * @throws OptimisticLockingFailureException Si el conflicto persiste tras agotar los reintentos.
      */
-    @Transactional
     public void desactivarUsuario(Long id) {
-        Usuario usuario = userRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Usuario con ID" + id + " no encontrado"));
-        usuario.setEnabled(false);
-        userRepository.save(usuario);
+        optimisticRetry.ejecutarSinResultado(() -> desactivar(userRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Usuario con ID" + id + " no encontrado"))));
     }
 
     /**
      * Desactiva al usuario actualmente autenticado en el sistema, marcándolo como no habilitado.
      * El usuario autenticado es identificado a partir del token proporcionado.
+     * Si es un moderador, sus denuncias abiertas se reasignan entre los demás moderadores.
+     * Si otra transacción modifica el usuario al mismo tiempo, la desactivación se reintenta sobre la versión vigente.
      *
      * @throws RuntimeException Si no se puede obtener al usuario autenticado o el usuario no se encuentra en el sistema.
+     * @throws OptimisticLockingFailureException Si el conflicto persiste tras agotar los reintentos.
      */
-    @Transactional
     public void desactivarUsuario() {
-        String username = JwtUtil.getCurrentUsername();
-        Usuario usuario = userRepository.findByUsernameAndEnabledTrue(username)
+        var current = JwtUtil.getCurrentUser()
                 .orElseThrow(() -> new RuntimeException("No se pudo obtener el usuario autenticado"));
+        optimisticRetry.ejecutarSinResultado(() -> desactivar(userRepository.findById(current.id())
+                .orElseThrow(() -> new RuntimeException("No se pudo obtener el usuario autenticado"))));
+    }
+
+    /**
+     * Marca un usuario como no habilitado y, si es un moderador, reasigna sus denuncias abiertas.
+     * Debe llamarse dentro de una transacción.
+     *
+     * @param usuario usuario a desactivar
+     */
+    private void desactivar(Usuario usuario) {
         usuario.setEnabled(false);
         userRepository.save(usuario);
+        userDetailsService.evict(usuario.getUsername());
+        if (usuario.getRol() == Rol.MOD) {
+            assignmentEngine.retirar(usuario.getId());
+        }
     }
 
     /**
-     * Obtiene la lista de notificaciones del usuario actualmente autenticado.
+     * Obtiene una página de notificaciones del usuario actualmente autenticado.
      *
-     * @return Una lista de objetos {@code NotificationResponse} que representan las notificaciones asociadas
+     * @param soloNoLeidas si es true solo se incluyen las notificaciones no leídas
+     * @param page parámetros de paginación por cursor
+     * @return Una página de objetos {@code NotificationResponse} que representan las notificaciones asociadas
      * al usuario autenticado.
      * @throws RuntimeException Si no se puede obtener el usuario autenticado.
      */
-    public List<NotificationResponse> obtenerNotificaciones() {
-        var user = userRepository.findByUsernameAndEnabledTrue(JwtUtil.getCurrentUsername())
+    public CursorPage<NotificationResponse> obtenerNotificaciones(boolean soloNoLeidas, CursorPageRequest page) {
+        var user = JwtUtil.getCurrentUser()
                 .orElseThrow(() -> new RuntimeException("No se pudo obtener el usuario autenticado"));
-        return notificationService.obtenerNotificaciones(user.getId());
+        return notificationService.obtenerNotificaciones(user.id(), soloNoLeidas, page);
     }
 
     /**
@@ -166,8 +251,44 @@ public class UsuarioService {
      * @throws RuntimeException Si no se puede obtener el usuario autenticado.
      */
     public void marcarNotificationLeida(Long id) {
-        var user = userRepository.findByUsernameAndEnabledTrue(JwtUtil.getCurrentUsername())
+        var user = JwtUtil.getCurrentUser()
+                .orElseThrow(() -> new RuntimeException("No se pudo obtener el usuario autenticado"));
+        notificationService.marcarComoLeida(id, user.id());
+    }
+
+    /**
+     * Marca como leídas todas las notificaciones del usuario actualmente autenticado.
+     *
+     * @throws RuntimeException Si no se puede obtener el usuario autenticado.
+     */
+    public void marcarNotificacionesLeidas() {
+        var user = JwtUtil.getCurrentUser()
+                .orElseThrow(() -> new RuntimeException("No se pudo obtener el usuario autenticado"));
+        notificationService.marcarTodasComoLeidas(user.id());
+    }
+
+    /**
+     * Obtiene la cantidad de notificaciones no leídas del usuario autenticado.
+     *
+     * @return la cantidad de notificaciones no leídas
+     * @throws RuntimeException si no se puede obtener el usuario autenticado
+     */
+    public long contarNotificacionesNoLeidas() {
+        var user = JwtUtil.getCurrentUser()
+                .orElseThrow(() -> new RuntimeException("No se pudo obtener el usuario autenticado"));
+        return notificationService.contarNoLeidas(user.id());
+    }
+
+    /**
+     * Abre el canal de notificaciones en tiempo real del usuario autenticado.
+     *
+     * @param ultimoId identificador de la última notificación recibida por el cliente, o null
+     * @return el emisor de eventos asociado a la conexión
+     * @throws RuntimeException si no se puede obtener el usuario autenticado
+     */
+    public SseEmitter suscribirNotificaciones(Long ultimoId) {
+        var user = JwtUtil.getCurrentUser()
                 .orElseThrow(() -> new RuntimeException("No se pudo obtener el usuario autenticado"));
-        notificationService.marcarComoLeida(id, user);
+        return notificationStreamService.suscribir(user.id(), ultimoId);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,67 @@
+-- Esquema inicial, equivalente al generado por Hibernate (ddl-auto=update) antes de usar migraciones.
+-- En bases existentes no se ejecuta: Flyway registra la versión 1 como línea base (baseline-on-migrate).
+-- Los generadores de identificadores dependen del motor y se crean en {vendor}/V1_1__secuencias.sql.
+
+create table usuario (
+    enabled bit not null,
+    id bigint not null,
+    apellidos varchar(255),
+    dni varchar(255) not null,
+    email varchar(255) not null,
+    nombres varchar(255),
+    password varchar(255),
+    rol enum ('ADMIN','MOD','USER'),
+    username varchar(255) not null,
+    primary key (id),
+    constraint uk_usuario_dni unique (dni),
+    constraint uk_usuario_email unique (email),
+    constraint uk_usuario_username unique (username)
+);
+
+create table denuncia (
+    created_date datetime(6),
+    id bigint not null,
+    mod_id bigint,
+    usuario_id bigint,
+    categoria enum ('VIOLENCIA','ROBO','CORRUPTION','DROGAS','ACOSO','CONTAMINATION','VANDALISMO','NEGLIGENCIA','DISCRIMINATION','ESTAFAS','RUIDOS_MOLESTOS','TRATA_DE_PERSONAS','EXTORTION'),
+    description varchar(255),
+    estado enum ('PENDIENTE','EN_PROCESO','EN_REVISION','RESUELTO','RECHAZADO','ELIMINADO'),
+    lugar varchar(255),
+    titulo varchar(255),
+    primary key (id),
+    constraint fk_denuncia_mod foreign key (mod_id) references usuario (id),
+    constraint fk_denuncia_usuario foreign key (usuario_id) references usuario (id)
+);
+
+create table solicitud (
+    autor_id bigint,
+    created_date datetime(6),
+    denuncia_id bigint,
+    end_date datetime(6),
+    id bigint not null,
+    revisor_id bigint,
+    estado enum ('PENDIENTE','EN_PROCESO','EN_REVISION','RESUELTO','RECHAZADO','ELIMINADO'),
+    msg varchar(255),
+    respuesta varchar(255),
+    tipo_solicitud enum ('ASIGNAR_MODERADOR','CAMBIO_ESTADO','ELIMINAR_DENUNCIA','REABRIR_DENUNCIA','INTERN_COMMUNICATION'),
+    titulo varchar(255),
+    primary key (id),
+    constraint fk_solicitud_autor foreign key (autor_id) references usuario (id),
+    constraint fk_solicitud_denuncia foreign key (denuncia_id) references denuncia (id),
+    constraint fk_solicitud_revisor foreign key (revisor_id) references usuario (id)
+);
+
+create table notification (
+    visto bit not null,
+    created_date datetime(6),
+    denuncia_id bigint,
+    id bigint not null,
+    solicitud_id bigint,
+    usuario_id bigint,
+    message varchar(255),
+    titulo varchar(255),
+    primary key (id),
+    constraint fk_notification_denuncia foreign key (denuncia_id) references denuncia (id),
+    constraint fk_notification_solicitud foreign key (solicitud_id) references solicitud (id),
+    constraint fk_notification_usuario foreign key (usuario_id) references usuario (id)
+);
@@ -0,0 +1,28 @@
+-- Índices compuestos para las consultas frecuentes. Las columnas de igualdad van primero y luego las de
+-- orden, de modo que cada listado se resuelve recorriendo el índice en orden, sin ordenar en memoria.
+-- El id se incluye al final para que la paginación por (created_date, id) no requiera leer la tabla.
+
+-- Denuncias de un usuario: usuario_id = ? ORDER BY created_date DESC, id DESC
+create index idx_denuncia_usuario_fecha on denuncia (usuario_id, created_date, id);
+
+-- Denuncias por moderador (o sin moderador: mod_id IS NULL) excluyendo estados cerrados.
+-- Incluye estado para filtrar NOT IN (...) y contar sin leer la tabla.
+create index idx_denuncia_mod_fecha on denuncia (mod_id, created_date, id, estado);
+
+-- Listado general y exportación: ORDER BY created_date, id con rango de fechas
+create index idx_denuncia_fecha on denuncia (created_date, id);
+
+-- Bandeja de notificaciones: usuario_id = ? ORDER BY created_date DESC
+create index idx_notification_destinatario_fecha on notification (usuario_id, created_date, id);
+
+-- Notificaciones pendientes de una solicitud: solicitud_id = ? AND visto = false
+create index idx_notification_solicitud_visto on notification (solicitud_id, visto);
+
+-- Solicitudes sin revisor (revisor_id IS NULL) o de un revisor, ORDER BY created_date DESC
+create index idx_solicitud_revisor_fecha on solicitud (revisor_id, created_date);
+
+-- Solicitudes de un autor, ORDER BY created_date DESC (junto con el anterior resuelve autor OR revisor)
+create index idx_solicitud_autor_fecha on solicitud (autor_id, created_date);
+
+-- Solicitudes de una denuncia, ORDER BY created_date DESC
+create index idx_solicitud_denuncia_fecha on solicitud (denuncia_id, created_date);
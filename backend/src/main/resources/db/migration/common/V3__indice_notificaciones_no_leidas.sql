@@ -0,0 +1,3 @@
+-- Bandeja de notificaciones no leídas y contador de no leídas:
+-- usuario_id = ? AND visto = false ORDER BY created_date DESC, id DESC
+create index idx_notification_destinatario_visto_fecha on notification (usuario_id, visto, created_date, id);
@@ -0,0 +1,2 @@
+-- Retención de notificaciones leídas antiguas: visto = true AND created_date < ? ORDER BY created_date, id
+create index idx_notification_visto_fecha on notification (visto, created_date, id);
@@ -0,0 +1,4 @@
+-- Cola de denuncias sin asignar para la asignación automática y el reclamo de moderadores:
+-- mod_id IS NULL AND estado = 'PENDIENTE' ORDER BY created_date, id ... FOR UPDATE SKIP LOCKED.
+-- Con ambas igualdades al inicio, el recorrido y los bloqueos se limitan a las filas que se entregan.
+create index idx_denuncia_mod_estado_fecha on denuncia (mod_id, estado, created_date, id);
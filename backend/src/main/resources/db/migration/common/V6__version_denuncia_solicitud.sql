@@ -0,0 +1,4 @@
+-- Control de concurrencia optimista: cada actualización de una denuncia o solicitud incrementa su versión
+-- y falla si otra transacción la modificó desde que se leyó (UPDATE ... WHERE id = ? AND version = ?).
+alter table denuncia add column version bigint not null default 0;
+alter table solicitud add column version bigint not null default 0;
@@ -0,0 +1,3 @@
+-- Versión del usuario: además del control de concurrencia optimista, forma parte de la huella con la que
+-- se calculan los ETag de los listados que muestran el nombre del usuario o del moderador.
+alter table usuario add column version bigint not null default 0;
@@ -0,0 +1,5 @@
+-- Secuencias nativas usadas por @GeneratedValue; el incremento coincide con el allocationSize de las entidades.
+create sequence usuario_seq start with 1 increment by 50;
+create sequence denuncia_seq start with 1 increment by 50;
+create sequence solicitud_seq start with 1 increment by 50;
+create sequence notification_seq start with 1 increment by 50;
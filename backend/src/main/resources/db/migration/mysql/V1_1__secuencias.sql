@@ -0,0 +1,13 @@
+-- Tablas de secuencia usadas por @GeneratedValue (MySQL no tiene secuencias nativas).
+-- En bases creadas antes de usar migraciones ya existen (las creó Hibernate), por eso no se recrean.
+create table if not exists usuario_seq (next_val bigint);
+insert into usuario_seq select 1 from dual where not exists (select * from usuario_seq);
+
+create table if not exists denuncia_seq (next_val bigint);
+insert into denuncia_seq select 1 from dual where not exists (select * from denuncia_seq);
+
+create table if not exists solicitud_seq (next_val bigint);
+insert into solicitud_seq select 1 from dual where not exists (select * from solicitud_seq);
+
+create table if not exists notification_seq (next_val bigint);
+insert into notification_seq select 1 from dual where not exists (select * from notification_seq);
@@ -0,0 +1,180 @@
+package utp.edu.denuncias;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import utp.edu.denuncias.enums.Categoria;
+import utp.edu.denuncias.enums.Rol;
+import utp.edu.denuncias.model.Denuncia;
+import utp.edu.denuncias.model.Usuario;
+import utp.edu.denuncias.repository.DenunciaRepository;
+import utp.edu.denuncias.repository.UserRepository;
+import utp.edu.denuncias.security.JwtUtil;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prueba de carga que compara la aplicación con hilos de plataforma (Tomcat por defecto, 200 hilos) y con
+ * hilos virtuales (perfil {@code virtual}). En cada modo levanta la aplicación completa en un puerto libre,
+ * con una base H2 en memoria propia y el mismo tamaño de pool de conexiones, y lanza {@link #CONCURRENCIA}
+ * clientes simultáneos contra el listado de denuncias del usuario ({@code GET /api/denuncia/usuario}), que pasa
+ * por el filtro JWT y consulta la base de datos. Informa el rendimiento (solicitudes/s) y la latencia p50 y p99.
+ * <p>
+ * H2 en memoria responde sin esperar la red, así que la diferencia entre los modos es menor que con MySQL, donde
+ * cada consulta deja el hilo bloqueado. Se ejecuta solo con el perfil de Maven {@code benchmark}:
+ * {@code mvn test -Pbenchmark}; los resultados se informan en el registro de la prueba.
+ */
+@Slf4j
+@Tag("benchmark")
+class VirtualThreadLoadBenchmarkTest {
+
+    private static final int CONCURRENCIA = 1_000;
+    private static final int WARMUP = 5_000;
+    private static final int SOLICITUDES = 50_000;
+    private static final int POOL_CONEXIONES = 20;
+    private static final int DENUNCIAS = 50;
+
+    /**
+     * Resultado de una ronda de carga.
+     *
+     * @param exitosas   solicitudes respondidas con 200
+     * @param fallidas   solicitudes con otro estado o con error de conexión
+     * @param segundos   duración de la ronda
+     * @param latenciasNs latencia de cada solicitud, ordenada de menor a mayor
+     */
+    private record Resultado(int exitosas, int fallidas, double segundos, long[] latenciasNs) {
+
+        double percentilMs(double percentil) {
+            int i = (int) Math.ceil(percentil / 100 * latenciasNs.length) - 1;
+            return latenciasNs[Math.max(i, 0)] / 1e6;
+        }
+    }
+
+    @Test
+    void hilosDePlataformaContraHilosVirtuales() throws Exception {
+        var plataforma = medir("plataforma", "test");
+        var virtuales = medir("virtual", "test,virtual");
+
+        registrar("hilos de plataforma", plataforma);
+        registrar("hilos virtuales", virtuales);
+
+        assertEquals(SOLICITUDES, plataforma.exitosas(), "todas las solicitudes deben responder 200 con hilos de plataforma");
+        assertEquals(SOLICITUDES, virtuales.exitosas(), "todas las solicitudes deben responder 200 con hilos virtuales");
+    }
+
+    /**
+     * Levanta la aplicación con los perfiles indicados, crea un usuario con sus denuncias y mide una ronda de
+     * carga tras el calentamiento.
+     *
+     * @param modo     nombre del modo, usado también para la base de datos en memoria
+     * @param perfiles perfiles de Spring activos
+     * @return el resultado de la ronda medida
+     */
+    private Resultado medir(String modo, String perfiles) throws Exception {
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(DenunciasApplication.class).run(
+                "--spring.profiles.active=" + perfiles,
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:carga-" + modo + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.hikari.maximum-pool-size=" + POOL_CONEXIONES,
+                "--spring.datasource.hikari.minimum-idle=" + POOL_CONEXIONES)) {
+            assertEquals(perfiles.contains("virtual"),
+                    contexto.getEnvironment().getProperty("spring.threads.virtual.enabled", Boolean.class, false));
+
+            var usuario = contexto.getBean(UserRepository.class).save(Usuario.builder()
+                    .nombres("Carga")
+                    .apellidos("Benchmark")
+                    .username("carga")
+                    .password("{noop}carga")
+                    .dni("00000001")
+                    .email("carga@benchmark.local")
+                    .rol(Rol.USER)
+                    .build());
+            var denuncias = new ArrayList<Denuncia>(DENUNCIAS);
+            for (int i = 0; i < DENUNCIAS; i++) {
+                denuncias.add(Denuncia.builder()
+                        .titulo("Denuncia " + i)
+                        .description("Prueba de carga")
+                        .lugar("Lugar " + i)
+                        .categoria(Categoria.ROBO)
+                        .usuario(usuario)
+                        .build());
+            }
+            contexto.getBean(DenunciaRepository.class).saveAll(denuncias);
+
+            int puerto = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+            var solicitud = HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + "/api/denuncia/usuario?size=20"))
+                    .header("Authorization", "Bearer " + contexto.getBean(JwtUtil.class).generateToken(usuario))
+                    .GET()
+                    .build();
+
+            try (HttpClient cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build()) {
+                cargar(cliente, solicitud, WARMUP);
+                return cargar(cliente, solicitud, SOLICITUDES);
+            }
+        }
+    }
+
+    /**
+     * Envía la cantidad indicada de solicitudes desde {@link #CONCURRENCIA} clientes simultáneos, cada uno en su
+     * propio hilo virtual para que el generador de carga no limite la concurrencia.
+     *
+     * @param cliente     cliente HTTP compartido (mantiene una conexión abierta por cliente)
+     * @param solicitud   solicitud a repetir
+     * @param solicitudes total de solicitudes de la ronda
+     * @return solicitudes exitosas y fallidas, duración y latencias
+     */
+    private Resultado cargar(HttpClient cliente, HttpRequest solicitud, int solicitudes) throws Exception {
+        var siguiente = new AtomicInteger();
+        var fallidas = new AtomicInteger();
+        long[] latencias = new long[solicitudes];
+        List<Runnable> clientes = new ArrayList<>(CONCURRENCIA);
+        for (int c = 0; c < CONCURRENCIA; c++) {
+            clientes.add(() -> {
+                for (int i = siguiente.getAndIncrement(); i < solicitudes; i = siguiente.getAndIncrement()) {
+                    long inicio = System.nanoTime();
+                    try {
+                        var respuesta = cliente.send(solicitud, HttpResponse.BodyHandlers.discarding());
+                        if (respuesta.statusCode() != 200) {
+                            fallidas.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        fallidas.incrementAndGet();
+                    }
+                    latencias[i] = System.nanoTime() - inicio;
+                }
+            });
+        }
+
+        long inicio = System.nanoTime();
+        try (ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor()) {
+            clientes.forEach(hilos::execute);
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+
+        Arrays.sort(latencias);
+        return new Resultado(solicitudes - fallidas.get(), fallidas.get(), segundos, latencias);
+    }
+
+    private void registrar(String modo, Resultado resultado) {
+        log.info("{} ({} clientes simultáneos, {} solicitudes, pool de {} conexiones): {} solicitudes/s, "
+                        + "p50 {} ms, p99 {} ms, {} fallidas", modo, CONCURRENCIA, SOLICITUDES, POOL_CONEXIONES,
+                Math.round(resultado.exitosas() / resultado.segundos()), String.format("%.1f", resultado.percentilMs(50)),
+                String.format("%.1f", resultado.percentilMs(99)), resultado.fallidas());
+        assertTrue(resultado.segundos() > 0);
+    }
+}
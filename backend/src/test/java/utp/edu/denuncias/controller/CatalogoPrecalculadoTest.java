@@ -0,0 +1,70 @@
+package utp.edu.denuncias.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import utp.edu.denuncias.dto.RolDTO;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas de las respuestas precalculadas de los catálogos: variante gzip, respuesta 304 con el ETag
+ * vigente y reutilización de las mismas respuestas en cada solicitud.
+ */
+class CatalogoPrecalculadoTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private CatalogoPrecalculado catalogo;
+
+    @BeforeEach
+    void setUp() {
+        catalogo = new CatalogoPrecalculado(objectMapper, RolDTO.all(), CacheControl.maxAge(Duration.ofDays(1)).cachePublic());
+    }
+
+    @Test
+    void respondeElJsonSinComprimirOComprimido() throws IOException {
+        var plano = catalogo.responder(null, null);
+        assertEquals(HttpStatus.OK, plano.getStatusCode());
+        assertEquals(objectMapper.writeValueAsString(RolDTO.all()), new String(plano.getBody()));
+        assertEquals("max-age=86400, public", plano.getHeaders().getCacheControl());
+
+        var gzip = catalogo.responder(null, "gzip, deflate, br");
+        assertEquals("gzip", gzip.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        try (var entrada = new GZIPInputStream(new ByteArrayInputStream(gzip.getBody()))) {
+            assertEquals(new String(plano.getBody()), new String(entrada.readAllBytes()));
+        }
+        assertFalse(plano.getHeaders().getETag().equals(gzip.getHeaders().getETag()));
+    }
+
+    @Test
+    void respondeNoModificadoConElEtagVigente() {
+        var plano = catalogo.responder(null, null);
+        var noModificado = catalogo.responder(plano.getHeaders().getETag(), null);
+        assertEquals(HttpStatus.NOT_MODIFIED, noModificado.getStatusCode());
+        assertEquals(null, noModificado.getBody());
+        // El ETag de la variante sin comprimir no sirve para la variante gzip
+        assertEquals(HttpStatus.OK, catalogo.responder(plano.getHeaders().getETag(), "gzip").getStatusCode());
+        // Cada solicitud recibe la misma respuesta ya construida
+        assertTrue(plano == catalogo.responder(null, null));
+    }
+
+    @Test
+    void interpretaLaCalidadDeGzip() {
+        assertTrue(CatalogoPrecalculado.aceptaGzip("gzip"));
+        assertTrue(CatalogoPrecalculado.aceptaGzip("br;q=1.0, gzip;q=0.8, *;q=0.1"));
+        assertFalse(CatalogoPrecalculado.aceptaGzip("gzip;q=0"));
+        assertFalse(CatalogoPrecalculado.aceptaGzip("gzip; q=0.000, identity"));
+        assertFalse(CatalogoPrecalculado.aceptaGzip("identity"));
+        assertFalse(CatalogoPrecalculado.aceptaGzip(null));
+    }
+}
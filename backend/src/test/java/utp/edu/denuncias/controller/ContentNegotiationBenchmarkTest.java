@@ -0,0 +1,144 @@
+package utp.edu.denuncias.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import utp.edu.denuncias.dto.DenunciaResponse;
+import utp.edu.denuncias.dto.SolicitudResponse;
+import utp.edu.denuncias.enums.Categoria;
+import utp.edu.denuncias.enums.Estado;
+import utp.edu.denuncias.enums.TipoSolicitud;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Microbenchmark de los formatos de respuesta: compara JSON con Smile y CBOR
+ * ({@link ContentNegotiationConfig}) al codificar y decodificar listados representativos de denuncias y
+ * solicitudes, e informa el tamaño del cuerpo y el tiempo promedio de cada operación.
+ * Se ejecuta solo con el perfil de Maven {@code benchmark}: {@code mvn test -Pbenchmark}; los resultados
+ * se informan en el registro de la prueba.
+ */
+@Slf4j
+@Tag("benchmark")
+class ContentNegotiationBenchmarkTest {
+
+    private static final int ELEMENTOS = 1_000;
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 1_000;
+
+    private final ContentNegotiationConfig config = new ContentNegotiationConfig();
+    private ObjectMapper json;
+    private ObjectMapper smile;
+    private ObjectMapper cbor;
+
+    @BeforeEach
+    void setUp() {
+        json = Jackson2ObjectMapperBuilder.json().build();
+        smile = config.smileHttpMessageConverter(Jackson2ObjectMapperBuilder.json()).getObjectMapper();
+        cbor = config.cborHttpMessageConverter(Jackson2ObjectMapperBuilder.json()).getObjectMapper();
+    }
+
+    @Test
+    void listadoDeDenuncias() throws IOException {
+        comparar("denuncias", denuncias(), new TypeReference<List<DenunciaResponse>>() {
+        });
+    }
+
+    @Test
+    void listadoDeSolicitudes() throws IOException {
+        comparar("solicitudes", solicitudes(), new TypeReference<List<SolicitudResponse>>() {
+        });
+    }
+
+    private <T> void comparar(String listado, List<T> datos, TypeReference<List<T>> tipo) throws IOException {
+        int bytesJson = medir(listado, "JSON", json, datos, tipo);
+        int bytesSmile = medir(listado, "Smile", smile, datos, tipo);
+        int bytesCbor = medir(listado, "CBOR", cbor, datos, tipo);
+        assertTrue(bytesSmile < bytesJson, "Smile debe ocupar menos que JSON");
+        assertTrue(bytesCbor < bytesJson, "CBOR debe ocupar menos que JSON");
+    }
+
+    /**
+     * Codifica y decodifica el listado tras un calentamiento, verifica que se recupera igual
+     * e informa el tamaño y el costo promedio de cada operación.
+     *
+     * @return tamaño del listado codificado, en bytes
+     */
+    private <T> int medir(String listado, String formato, ObjectMapper mapper, List<T> datos, TypeReference<List<T>> tipo)
+            throws IOException {
+        byte[] cuerpo = mapper.writeValueAsBytes(datos);
+        assertEquals(datos, mapper.readValue(cuerpo, tipo));
+        for (int i = 0; i < WARMUP; i++) {
+            mapper.readValue(mapper.writeValueAsBytes(datos), tipo);
+        }
+
+        long inicio = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            cuerpo = mapper.writeValueAsBytes(datos);
+        }
+        double usCodificar = (System.nanoTime() - inicio) / 1e3 / ITERATIONS;
+
+        inicio = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            assertEquals(datos.size(), mapper.readValue(cuerpo, tipo).size());
+        }
+        double usDecodificar = (System.nanoTime() - inicio) / 1e3 / ITERATIONS;
+
+        log.info("{} {} en {}: {} bytes, {} us codificar, {} us decodificar", datos.size(), listado, formato,
+                cuerpo.length, String.format("%.1f", usCodificar), String.format("%.1f", usDecodificar));
+        return cuerpo.length;
+    }
+
+    private static List<DenunciaResponse> denuncias() {
+        var fecha = LocalDateTime.of(2025, 5, 1, 9, 30);
+        var categorias = Categoria.values();
+        var estados = Estado.values();
+        List<DenunciaResponse> lista = new ArrayList<>(ELEMENTOS);
+        for (int i = 0; i < ELEMENTOS; i++) {
+            boolean asignada = i % 3 != 0;
+            lista.add(new DenunciaResponse((long) i + 1, "Denuncia número " + i + " en el distrito",
+                    "Se reporta un incidente ocurrido cerca del paradero principal; los vecinos indican que se repite "
+                            + "con frecuencia durante la noche. Caso " + i + ".",
+                    "Av. Principal " + (100 + i % 900) + ", Lima", categorias[i % categorias.length],
+                    estados[i % estados.length], fecha.plusMinutes(i), "Nombre" + i % 50, "Apellido" + i % 50,
+                    "usuario" + i % 50, (long) i % 50 + 1, asignada ? "Moderador" + i % 5 : null,
+                    asignada ? "Apellido" + i % 5 : null, asignada ? (long) i % 5 + 100 : null));
+        }
+        return lista;
+    }
+
+    private static List<SolicitudResponse> solicitudes() {
+        var fecha = LocalDateTime.of(2025, 5, 1, 9, 30);
+        var tipos = TipoSolicitud.values();
+        List<SolicitudResponse> lista = new ArrayList<>(ELEMENTOS);
+        for (int i = 0; i < ELEMENTOS; i++) {
+            boolean revisada = i % 2 == 0;
+            lista.add(SolicitudResponse.builder()
+                    .id((long) i + 1)
+                    .titulo("Solicitud de revisión " + i)
+                    .msg("Se solicita revisar la denuncia por información incompleta en la descripción del hecho.")
+                    .respuesta(revisada ? "Revisada y aprobada por el administrador." : null)
+                    .estado(revisada ? Estado.RESUELTO.name() : Estado.PENDIENTE.name())
+                    .tipoSolicitud(tipos[i % tipos.length].name())
+                    .createdDate(fecha.plusMinutes(i).toString())
+                    .endDate(revisada ? fecha.plusMinutes(i + 60).toString() : null)
+                    .autor("Moderador" + i % 5 + " Apellido" + i % 5)
+                    .idDenuncia((long) i % 300 + 1)
+                    .idAutor((long) i % 5 + 100)
+                    .revisor(revisada ? "Administrador Principal" : null)
+                    .idRevisor(revisada ? 1L : null)
+                    .build());
+        }
+        return lista;
+    }
+}
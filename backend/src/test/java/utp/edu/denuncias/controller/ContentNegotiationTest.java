@@ -0,0 +1,117 @@
+package utp.edu.denuncias.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import utp.edu.denuncias.dto.UsuarioResponse;
+import utp.edu.denuncias.service.UsuarioService;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pruebas de la negociación de contenido ({@link ContentNegotiationConfig}) en un listado con respuesta
+ * condicional ({@link RespuestaCondicional}): cada formato pedido en {@code Accept} se responde en ese formato,
+ * con su propio ETag, y un ETag solo sirve para revalidar el formato con el que se obtuvo.
+ */
+class ContentNegotiationTest {
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+    private static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+    private static final TypeReference<List<UsuarioResponse>> LISTADO = new TypeReference<>() {
+    };
+    private static final List<UsuarioResponse> USUARIOS = List.of(
+            new UsuarioResponse(1L, "Ana", "Pérez", "ana", "ana@example.com", "12345678", "USER", true),
+            new UsuarioResponse(2L, "Luis", "Soto", "luis", "luis@example.com", "87654321", "MOD", false));
+
+    private final ContentNegotiationConfig config = new ContentNegotiationConfig();
+    private ObjectMapper json;
+    private ObjectMapper smile;
+    private ObjectMapper cbor;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        UsuarioService usuarioService = mock(UsuarioService.class);
+        when(usuarioService.etagUsuarios()).thenReturn("W/\"usuarios-1\"");
+        when(usuarioService.listarUsuarios()).thenReturn(USUARIOS);
+
+        var convertidorJson = new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json().build());
+        var convertidorSmile = config.smileHttpMessageConverter(Jackson2ObjectMapperBuilder.json());
+        var convertidorCbor = config.cborHttpMessageConverter(Jackson2ObjectMapperBuilder.json());
+        json = convertidorJson.getObjectMapper();
+        smile = convertidorSmile.getObjectMapper();
+        cbor = convertidorCbor.getObjectMapper();
+        // Mismo orden que Spring Boot: JSON primero, así que sigue siendo el formato por defecto
+        mockMvc = MockMvcBuilders.standaloneSetup(new UsuarioController(usuarioService))
+                .setMessageConverters(convertidorJson, convertidorSmile, convertidorCbor)
+                .build();
+    }
+
+    @Test
+    void sinAcceptRespondeJson() throws Exception {
+        var respuesta = listar(null);
+
+        assertEquals(USUARIOS, json.readValue(respuesta.getResponse().getContentAsByteArray(), LISTADO));
+        assertEquals("W/\"usuarios-1\"", respuesta.getResponse().getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void respondeEnElFormatoBinarioPedido() throws Exception {
+        assertEquals(USUARIOS, smile.readValue(listar(SMILE).getResponse().getContentAsByteArray(), LISTADO));
+        assertEquals(USUARIOS, cbor.readValue(listar(CBOR).getResponse().getContentAsByteArray(), LISTADO));
+    }
+
+    @Test
+    void cadaFormatoTieneSuPropioEtag() throws Exception {
+        String etagJson = listar(MediaType.APPLICATION_JSON).getResponse().getHeader(HttpHeaders.ETAG);
+        String etagSmile = listar(SMILE).getResponse().getHeader(HttpHeaders.ETAG);
+        String etagCbor = listar(CBOR).getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertEquals(3, Set.of(etagJson, etagSmile, etagCbor).size());
+
+        // El ETag de Smile revalida la copia en Smile, pero no sirve para pedir JSON
+        mockMvc.perform(get("/api/usuario/admin").accept(SMILE).header(HttpHeaders.IF_NONE_MATCH, etagSmile))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etagSmile));
+        mockMvc.perform(get("/api/usuario/admin").accept(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_NONE_MATCH, etagSmile))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    /**
+     * Pide el listado de usuarios en el formato indicado y comprueba que se responde en ese formato,
+     * variando según {@code Accept}.
+     *
+     * @param formato formato pedido en {@code Accept}, o null para no enviar el encabezado
+     */
+    private MvcResult listar(MediaType formato) throws Exception {
+        var solicitud = get("/api/usuario/admin");
+        if (formato != null) {
+            solicitud.accept(formato);
+        }
+        return mockMvc.perform(solicitud)
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(formato != null ? formato : MediaType.APPLICATION_JSON))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn();
+    }
+}
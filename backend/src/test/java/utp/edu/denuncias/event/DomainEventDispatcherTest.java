@@ -0,0 +1,194 @@
+package utp.edu.denuncias.event;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Pruebas del bus de eventos de dominio: orden de entrega, aislamiento de los fallos de un manejador,
+ * métricas y entrega solo después de confirmar la transacción que publicó el evento.
+ */
+class DomainEventDispatcherTest {
+
+    @Test
+    void entregaCadaTipoEnElOrdenDePublicacion() throws InterruptedException {
+        List<Long> guardadas = new CopyOnWriteArrayList<>();
+        List<Long> eliminadas = new CopyOnWriteArrayList<>();
+        // Con un solo hilo y lotes pequeños, los tipos se intercalan dentro de cada lote y entre lotes
+        var dispatcher = dispatcher(List.of(
+                DomainEventHandler.of(DenunciaGuardada.class, eventos -> eventos.forEach(e -> guardadas.add(e.denunciaId()))),
+                DomainEventHandler.of(DenunciaEliminada.class, eventos -> eventos.forEach(e -> eliminadas.add(e.denunciaId())))),
+                new TransaccionesEnMemoria(), 7);
+
+        for (long id = 1; id <= 100; id++) {
+            dispatcher.publicar(new DenunciaGuardada(id, "Título", "Detalle", "Lima"));
+            dispatcher.publicar(new DenunciaEliminada(id));
+        }
+        dispatcher.detener();
+
+        List<Long> esperado = LongStream.rangeClosed(1, 100).boxed().toList();
+        assertEquals(esperado, guardadas);
+        assertEquals(esperado, eliminadas);
+    }
+
+    @Test
+    void elFalloDeUnManejadorNoAfectaALosDemas() throws InterruptedException {
+        List<Long> eliminadas = new CopyOnWriteArrayList<>();
+        List<Long> guardadas = new CopyOnWriteArrayList<>();
+        var registry = new SimpleMeterRegistry();
+        var dispatcher = dispatcher(List.of(
+                DomainEventHandler.of(DenunciaEliminada.class, _ -> {
+                    throw new IllegalStateException("fallo de prueba");
+                }),
+                DomainEventHandler.of(DenunciaEliminada.class, eventos -> eventos.forEach(e -> eliminadas.add(e.denunciaId()))),
+                DomainEventHandler.of(DenunciaGuardada.class, eventos -> eventos.forEach(e -> guardadas.add(e.denunciaId())))),
+                new TransaccionesEnMemoria(), 100);
+        dispatcher.bindTo(registry);
+
+        for (long id = 1; id <= 10; id++) {
+            dispatcher.publicar(new DenunciaEliminada(id));
+            dispatcher.publicar(new DenunciaGuardada(id, "Título", "Detalle", "Lima"));
+        }
+        dispatcher.detener();
+
+        assertEquals(10, eliminadas.size());
+        assertEquals(10, guardadas.size());
+        assertEquals(10.0, registry.get("eventos.fallidos").functionCounter().count());
+        assertEquals(10.0, registry.get("eventos.procesados").functionCounter().count());
+    }
+
+    @Test
+    void enElHiloQuePublicaCadaManejadorUsaSuPropiaTransaccion() throws InterruptedException {
+        List<Long> eliminadas = new CopyOnWriteArrayList<>();
+        var transacciones = new TransaccionesEnMemoria();
+        var dispatcher = dispatcher(List.of(
+                DomainEventHandler.of(DenunciaEliminada.class, _ -> {
+                    throw new IllegalStateException("fallo de prueba");
+                }),
+                DomainEventHandler.of(DenunciaEliminada.class, eventos -> eventos.forEach(e -> eliminadas.add(e.denunciaId())))),
+                transacciones, 100);
+        // Detenido, el bus ya no encola: procesa cada evento en el hilo que lo publica
+        dispatcher.detener();
+
+        dispatcher.publicar(new DenunciaEliminada(1L));
+
+        assertEquals(List.of(1L), eliminadas);
+        assertEquals(1, transacciones.confirmadas.get());
+        assertEquals(1, transacciones.revertidas.get());
+    }
+
+    @Test
+    void entregaLosEventosSoloDespuesDeConfirmarLaTransaccion() throws InterruptedException {
+        try (var contexto = new AnnotationConfigApplicationContext(ConfiguracionBus.class)) {
+            var recibidos = contexto.getBean(ConfiguracionBus.class).recibidos;
+            var transaccion = new TransactionTemplate(contexto.getBean(PlatformTransactionManager.class));
+
+            transaccion.executeWithoutResult(_ -> {
+                contexto.publishEvent(new DenunciaEliminada(1L));
+                assertNull(esperar(recibidos, 300), "el evento se entregó antes de confirmar la transacción");
+            });
+            assertEquals(1L, esperar(recibidos, 5000));
+
+            transaccion.executeWithoutResult(estado -> {
+                contexto.publishEvent(new DenunciaEliminada(2L));
+                estado.setRollbackOnly();
+            });
+            assertNull(esperar(recibidos, 300), "se entregó el evento de una transacción revertida");
+
+            // Sin transacción, el evento se entrega de inmediato
+            contexto.publishEvent(new DenunciaEliminada(3L));
+            assertEquals(3L, esperar(recibidos, 5000));
+        }
+    }
+
+    private static DomainEventDispatcher dispatcher(List<DomainEventHandler<?>> handlers,
+                                                    PlatformTransactionManager transactionManager, int tamanoLote) {
+        var dispatcher = new DomainEventDispatcher(handlers, transactionManager, 1000, Duration.ofMillis(200),
+                tamanoLote, 1, false);
+        dispatcher.iniciar();
+        return dispatcher;
+    }
+
+    private static Long esperar(BlockingQueue<Long> recibidos, long milisegundos) {
+        try {
+            return recibidos.poll(milisegundos, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Contexto mínimo con el bus, un manejador que registra los eventos recibidos y un administrador de
+     * transacciones en memoria, para que {@code @TransactionalEventListener} se comporte como en la aplicación.
+     */
+    @Configuration
+    @EnableTransactionManagement
+    static class ConfiguracionBus {
+
+        final BlockingQueue<Long> recibidos = new LinkedBlockingQueue<>();
+
+        @Bean
+        PlatformTransactionManager transactionManager() {
+            return new TransaccionesEnMemoria();
+        }
+
+        @Bean
+        DomainEventDispatcher domainEventDispatcher(PlatformTransactionManager transactionManager) {
+            return new DomainEventDispatcher(
+                    List.of(DomainEventHandler.of(DenunciaEliminada.class,
+                            eventos -> eventos.forEach(e -> recibidos.add(e.denunciaId())))),
+                    transactionManager, 1000, Duration.ofMillis(200), 100, 1, false);
+        }
+    }
+
+    /**
+     * Administrador de transacciones sin recursos que cuenta las confirmadas y las revertidas.
+     * Las sincronizaciones de transacción funcionan igual que con una base de datos.
+     */
+    static final class TransaccionesEnMemoria extends AbstractPlatformTransactionManager {
+
+        final AtomicInteger confirmadas = new AtomicInteger();
+        final AtomicInteger revertidas = new AtomicInteger();
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            confirmadas.incrementAndGet();
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+            revertidas.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package utp.edu.denuncias.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import utp.edu.denuncias.enums.Estado;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica, con el plan de ejecución de H2, que las consultas frecuentes de los repositorios
+ * usan los índices creados por las migraciones en lugar de recorrer la tabla completa.
+ * Se analiza el SQL que Hibernate genera realmente para cada método del repositorio, capturado con un
+ * {@link StatementInspector}. El esquema lo crea Flyway con las mismas migraciones que en producción.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "utp.edu.denuncias.repository.IndexUsageTest$ConsultasCapturadas")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class IndexUsageTest {
+
+    private static final LocalDateTime FECHA = LocalDateTime.of(2030, 1, 1, 0, 0);
+    private static final List<Estado> CERRADOS = List.of(Estado.RESUELTO, Estado.RECHAZADO);
+    private static final Limit PAGINA = Limit.of(21);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private DenunciaRepository denunciaRepository;
+    @Autowired
+    private NotificationRepository notificationRepository;
+    @Autowired
+    private SolicitudRepository solicitudRepository;
+
+    @BeforeEach
+    void setUp() {
+        ConsultasCapturadas.CONSULTAS.clear();
+    }
+
+    @Test
+    void denunciasPorUsuarioUsanIndice() {
+        denunciaRepository.findPageByUsuarioId(1L, FECHA, 1000L, PAGINA);
+        assertUsaIndice("idx_denuncia_usuario_fecha");
+    }
+
+    @Test
+    void denunciasPorModeradorUsanIndice() {
+        denunciaRepository.findPageByModAsignadoIdAndEstadoNotIn(1L, CERRADOS, FECHA, 1000L, PAGINA);
+        assertUsaIndice("idx_denuncia_mod_");
+    }
+
+    @Test
+    void denunciasSinModeradorUsanIndice() {
+        // Sirven tanto idx_denuncia_mod_fecha como idx_denuncia_mod_estado_fecha: ambos empiezan por mod_id
+        denunciaRepository.findPageByModAsignadoIsNullAndEstadoNotIn(CERRADOS, FECHA, 1000L, PAGINA);
+        assertUsaIndice("idx_denuncia_mod_");
+    }
+
+    @Test
+    void colaDeDenunciasSinAsignarUsaIndice() {
+        denunciaRepository.findByModAsignadoIsNullAndEstadoOrderByCreatedDateAscIdAsc(Estado.PENDIENTE, Limit.of(10));
+        assertUsaIndice("idx_denuncia_mod_estado_fecha");
+    }
+
+    @Test
+    void listadoGeneralDeDenunciasUsaIndice() {
+        denunciaRepository.findPage(FECHA, 1000L, PAGINA);
+        assertUsaIndice("idx_denuncia_fecha");
+    }
+
+    @Test
+    void exportacionDeDenunciasUsaIndice() {
+        denunciaRepository.buscarParaExportar(null, null, FECHA.minusYears(10), FECHA, FECHA.minusYears(10), 0L,
+                Limit.of(1000));
+        assertUsaIndice("idx_denuncia_fecha");
+    }
+
+    @Test
+    void bandejaDeNotificacionesUsaIndice() {
+        notificationRepository.findPageByDestinatarioId(1L, FECHA, 1000L, PAGINA);
+        assertUsaIndice("idx_notification_destinatario_");
+    }
+
+    @Test
+    void bandejaDeNotificacionesNoLeidasUsaIndice() {
+        notificationRepository.findPageNoLeidasByDestinatarioId(1L, FECHA, 1000L, PAGINA);
+        assertUsaIndice("idx_notification_destinatario_visto_fecha");
+    }
+
+    @Test
+    void notificacionesNoVistasDeSolicitudUsanIndice() {
+        notificationRepository.findDestinatariosNoLeidosPorSolicitudes(List.of(1L));
+        assertUsaIndice("idx_notification_solicitud_visto");
+    }
+
+    @Test
+    void retencionDeNotificacionesLeidasUsaIndice() {
+        notificationRepository.findIdsLeidasAnterioresA(FECHA, Limit.of(500));
+        assertUsaIndice("idx_notification_visto_fecha");
+    }
+
+    @Test
+    void solicitudesSinRevisorUsanIndice() {
+        solicitudRepository.findByRevisorIsNullOrderByCreatedDateDesc();
+        assertUsaIndice("idx_solicitud_revisor_fecha");
+    }
+
+    @Test
+    void solicitudesDeDenunciaUsanIndice() {
+        solicitudRepository.findByDenunciaIdOrderByCreatedDateDesc(1L);
+        assertUsaIndice("idx_solicitud_denuncia_fecha");
+    }
+
+    /**
+     * Obtiene el plan de la primera consulta generada por el método del repositorio y comprueba que use el
+     * índice indicado y ningún recorrido completo. Los parámetros se enlazan en null: H2 elige el plan al
+     * preparar la sentencia, sin conocer sus valores.
+     *
+     * @param indice nombre (o prefijo del nombre) del índice esperado
+     */
+    private void assertUsaIndice(String indice) {
+        String sql = ConsultasCapturadas.CONSULTAS.stream()
+                .filter(s -> s.stripLeading().toLowerCase().startsWith("select"))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("El repositorio no ejecutó ninguna consulta"));
+        String plan = jdbcTemplate.execute("explain " + sql, (PreparedStatement ps) -> {
+            int parametros = ps.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parametros; i++) {
+                ps.setObject(i, null);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getString(1);
+            }
+        }).toLowerCase();
+        assertTrue(plan.contains(indice), () -> "La consulta no usa " + indice + ":\n" + sql + "\n" + plan);
+        assertFalse(plan.contains("tablescan"), () -> "La consulta recorre la tabla completa:\n" + sql + "\n" + plan);
+    }
+
+    /**
+     * Registra el SQL que Hibernate envía a la base de datos, sin modificarlo.
+     */
+    public static class ConsultasCapturadas implements StatementInspector {
+
+        static final List<String> CONSULTAS = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            CONSULTAS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package utp.edu.denuncias.repository;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import utp.edu.denuncias.enums.Rol;
+import utp.edu.denuncias.model.Notification;
+import utp.edu.denuncias.model.Usuario;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Benchmark del rendimiento de inserción de notificaciones, el camino de mayor volumen
+ * (una notificación por administrador en cada solicitud de un moderador).
+ * Compara el esquema anterior (una transacción y una sentencia por notificación) con la inserción
+ * en una sola transacción, en lotes JDBC y con identificadores reservados en bloques.
+ * Se ejecuta solo con el perfil de Maven {@code benchmark}: {@code mvn test -Pbenchmark}; los resultados
+ * se informan en el registro de la prueba.
+ */
+@Slf4j
+@Tag("benchmark")
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class NotificationInsertBenchmarkTest {
+
+    private static final int FILAS = 5_000;
+    private static final int RONDAS = 3;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private Usuario destinatario;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        destinatario = userRepository.findAll().stream().findFirst().orElseGet(() -> userRepository.save(
+                Usuario.builder()
+                        .nombres("Admin").apellidos("Benchmark")
+                        .username("admin-benchmark").password("x")
+                        .dni("00000000").email("admin@benchmark.test")
+                        .rol(Rol.ADMIN)
+                        .build()));
+    }
+
+    @Test
+    void rendimientoDeInsercion() {
+        long filasIniciales = notificationRepository.count();
+        double antes = 0;
+        double despues = 0;
+        for (int ronda = 0; ronda <= RONDAS; ronda++) {
+            double filaPorFila = medir(() -> notificaciones().forEach(n -> transactionTemplate.executeWithoutResult(_ -> {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(1);
+                notificationRepository.save(n);
+            })));
+            double enLotes = medir(() -> transactionTemplate.executeWithoutResult(_ ->
+                    notificationRepository.saveAll(notificaciones())));
+            if (ronda > 0) {   // La primera ronda es de calentamiento
+                antes += filaPorFila / RONDAS;
+                despues += enLotes / RONDAS;
+            }
+        }
+        log.info("Inserción de notificaciones: fila por fila {} filas/s, en lotes {} filas/s (x{})",
+                Math.round(antes), Math.round(despues), String.format("%.1f", despues / antes));
+
+        assertEquals(filasIniciales + 2L * FILAS * (RONDAS + 1), notificationRepository.count(),
+                "ambas estrategias deben insertar todas las filas");
+        assertTrue(despues > antes, "la inserción en lotes debe superar a la inserción fila por fila");
+    }
+
+    /**
+     * Ejecuta la inserción y calcula su rendimiento.
+     *
+     * @param insercion operación que inserta {@link #FILAS} notificaciones
+     * @return filas insertadas por segundo
+     */
+    private double medir(Runnable insercion) {
+        long inicio = System.nanoTime();
+        insercion.run();
+        return FILAS / ((System.nanoTime() - inicio) / 1e9);
+    }
+
+    private List<Notification> notificaciones() {
+        return IntStream.range(0, FILAS)
+                .mapToObj(i -> Notification.builder()
+                        .titulo("Notificación " + i)
+                        .message("Mensaje de prueba")
+                        .destinatario(destinatario)
+                        .build())
+                .toList();
+    }
+}
@@ -0,0 +1,159 @@
+package utp.edu.denuncias.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import utp.edu.denuncias.enums.Categoria;
+import utp.edu.denuncias.enums.Estado;
+import utp.edu.denuncias.enums.Rol;
+import utp.edu.denuncias.model.Denuncia;
+import utp.edu.denuncias.model.Usuario;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica que la huella con la que se calculan los ETag cambia con cada modificación visible en la respuesta:
+ * editar una denuncia o cambiar su estado, renombrar al autor o al moderador que aparecen en ella, reasignarla,
+ * crear otra o sacarla del listado.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class VersionContenidoTest {
+
+    private static final List<Estado> CERRADOS = List.of(Estado.RESUELTO, Estado.RECHAZADO);
+
+    @Autowired
+    private DenunciaRepository denunciaRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Usuario autor;
+    private Usuario moderador;
+    private Denuncia denuncia;
+
+    @BeforeEach
+    void setUp() {
+        autor = userRepository.save(usuario("autor", Rol.USER));
+        moderador = userRepository.save(usuario("moderador", Rol.MOD));
+        denuncia = denunciaRepository.save(Denuncia.builder()
+                .titulo("Robo en el paradero")
+                .description("Descripción")
+                .lugar("Av. Principal")
+                .categoria(Categoria.ROBO)
+                .usuario(autor)
+                .modAsignado(moderador)
+                .estado(Estado.EN_PROCESO)
+                .build());
+    }
+
+    @Test
+    void laHuellaSePublicaComoEtagDebil() {
+        assertTrue(etagDelAutor().startsWith("W/\""));
+        assertTrue(etagDelModerador().endsWith("\""));
+    }
+
+    @Test
+    void editarLaDenunciaCambiaLaHuella() {
+        String antes = etagDelAutor();
+        denuncia.setTitulo("Robo en el paradero (editado)");
+        denunciaRepository.save(denuncia);
+        assertNotEquals(antes, etagDelAutor());
+    }
+
+    @Test
+    void renombrarAlModeradorCambiaLaHuella() {
+        String delAutor = etagDelAutor();
+        String delModerador = etagDelModerador();
+        moderador.setNombres("Otro nombre");
+        userRepository.save(moderador);
+        assertNotEquals(delAutor, etagDelAutor());
+        assertNotEquals(delModerador, etagDelModerador());
+    }
+
+    @Test
+    void salirDelListadoCambiaLaHuella() {
+        String antes = etagDelModerador();
+        denuncia.setEstado(Estado.RESUELTO);
+        denunciaRepository.save(denuncia);
+        assertEquals(0, denunciaRepository.versionByModAsignadoIdAndEstadoNotIn(moderador.getId(), CERRADOS).cantidad());
+        assertNotEquals(antes, etagDelModerador());
+    }
+
+    @Test
+    void cambiarElEstadoDentroDelListadoCambiaLaHuella() {
+        String antes = etagDelModerador();
+        denuncia.setEstado(Estado.EN_REVISION);
+        denunciaRepository.save(denuncia);
+        assertEquals(1, denunciaRepository.versionByModAsignadoIdAndEstadoNotIn(moderador.getId(), CERRADOS).cantidad());
+        assertNotEquals(antes, etagDelModerador());
+    }
+
+    @Test
+    void reasignarLaDenunciaCambiaLaHuellaDeAmbosModeradores() {
+        Usuario otro = userRepository.save(usuario("otro-moderador", Rol.MOD));
+        String delModerador = etagDelModerador();
+        String delOtro = etagDe(otro);
+        denuncia.setModAsignado(otro);
+        denunciaRepository.save(denuncia);
+        assertNotEquals(delModerador, etagDelModerador());
+        assertNotEquals(delOtro, etagDe(otro));
+    }
+
+    @Test
+    void unaDenunciaNuevaCambiaLaHuella() {
+        String antes = etagDelAutor();
+        denunciaRepository.save(Denuncia.builder()
+                .titulo("Otra denuncia")
+                .description("Descripción")
+                .lugar("Jr. Secundario")
+                .categoria(Categoria.ACOSO)
+                .usuario(autor)
+                .build());
+        assertEquals(2, denunciaRepository.versionByUsuarioId(autor.getId()).cantidad());
+        assertNotEquals(antes, etagDelAutor());
+    }
+
+    @Test
+    void renombrarAlAutorCambiaLaHuella() {
+        String delAutor = etagDelAutor();
+        String delModerador = etagDelModerador();
+        autor.setApellidos("Apellido corregido");
+        userRepository.save(autor);
+        assertNotEquals(delAutor, etagDelAutor());
+        assertNotEquals(delModerador, etagDelModerador());
+    }
+
+    private String etagDelAutor() {
+        return denunciaRepository.versionByUsuarioId(autor.getId()).etag("denuncias-usuario", autor.getId());
+    }
+
+    private String etagDelModerador() {
+        return etagDe(moderador);
+    }
+
+    private String etagDe(Usuario mod) {
+        return denunciaRepository.versionByModAsignadoIdAndEstadoNotIn(mod.getId(), CERRADOS)
+                .etag("denuncias-moderador", mod.getId());
+    }
+
+    private static Usuario usuario(String username, Rol rol) {
+        return Usuario.builder()
+                .nombres(username)
+                .apellidos("Prueba")
+                .username(username)
+                .password("secreto")
+                .dni(username + "-dni")
+                .email(username + "@example.com")
+                .rol(rol)
+                .build();
+    }
+}
@@ -0,0 +1,126 @@
+package utp.edu.denuncias.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import utp.edu.denuncias.repository.DenunciaRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pruebas del índice de búsqueda de denuncias: análisis en español, prefijos, ranking, actualización
+ * y reconstrucción.
+ */
+class DenunciaSearchIndexTest {
+
+    private DenunciaSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new DenunciaSearchIndex(null);
+        index.indexar(new DocumentoDenuncia(1L, "Robo de celular", "Me robaron el celular en el paradero", "Av. Arequipa"));
+        index.indexar(new DocumentoDenuncia(2L, "Ruido excesivo", "Fiestas con música alta todas las noches", "Miraflores"));
+        index.indexar(new DocumentoDenuncia(3L, "Basura en la calle", "Acumulación de basura junto al parque", "Jesús María"));
+        index.indexar(new DocumentoDenuncia(4L, "Calles sin iluminación", "Robos frecuentes por falta de luces", "Lince"));
+    }
+
+    @Test
+    void ignoraMayusculasYTildes() {
+        assertEquals(List.of(3L), ids("JESUS maria"));
+        assertEquals(List.of(3L), ids("acumulacion"));
+    }
+
+    @Test
+    void uneSingularYPlural() {
+        assertEquals(List.of(4L), ids("luz iluminacion"));
+        assertTrue(ids("calle").containsAll(List.of(3L, 4L)));
+    }
+
+    @Test
+    void singularYPluralCortosTienenLaMismaRaiz() {
+        assertEquals(TextAnalyzer.raiz("robo"), TextAnalyzer.raiz("robos"));
+        assertEquals(TextAnalyzer.raiz("casa"), TextAnalyzer.raiz("casas"));
+        assertEquals(TextAnalyzer.raiz("luz"), TextAnalyzer.raiz("luces"));
+        assertEquals(TextAnalyzer.raiz("ciudad"), TextAnalyzer.raiz("ciudades"));
+
+        index.indexar(new DocumentoDenuncia(5L, "Robos", "Varios robos", "Surco"));
+        assertTrue(ids("robo ruido").containsAll(List.of(1L, 4L, 5L)));
+    }
+
+    @Test
+    void laUltimaPalabraSeBuscaComoPrefijo() {
+        assertEquals(List.of(2L), ids("mus"));
+        assertEquals(List.of(2L), ids("fiest* alta"));
+    }
+
+    @Test
+    void elTituloPesaMasQueLaDescripcion() {
+        assertEquals(1L, ids("robo").getFirst());
+    }
+
+    @Test
+    void editarYEliminarActualizanElIndice() {
+        index.indexar(new DocumentoDenuncia(2L, "Perros sueltos", "Perros sin correa en el parque", "Miraflores"));
+        assertTrue(ids("ruido").isEmpty());
+        assertTrue(ids("perros").contains(2L));
+
+        index.eliminar(3L);
+        assertEquals(List.of(2L), ids("parque"));
+    }
+
+    @Test
+    void elPrefijoSeExpandeEnLosTerminosMasFrecuentes() {
+        // Cien términos raros que empiezan por "zona" y ordenan antes que el frecuente
+        for (long id = 10; id < 110; id++) {
+            index.indexar(new DocumentoDenuncia(id, "Aviso", "zonaa" + Long.toString(id, 26), "Lince"));
+        }
+        for (long id = 200; id < 205; id++) {
+            index.indexar(new DocumentoDenuncia(id, "Aviso", "zonaz", "Lince"));
+        }
+
+        List<Long> resultados = index.buscar("zona", 200).stream().map(DenunciaSearchIndex.Resultado::id).toList();
+
+        assertTrue(resultados.containsAll(LongStream.range(200, 205).boxed().toList()),
+                "el término más frecuente quedó fuera de la expansión");
+    }
+
+    @Test
+    void laReconstruccionReemplazaElIndiceSinVaciarloNiPerderCambios() {
+        DenunciaRepository repository = mock(DenunciaRepository.class);
+        List<List<Long>> vistasDuranteReconstruccion = new ArrayList<>();
+        var reconstruido = new DenunciaSearchIndex(repository);
+        reconstruido.indexar(new DocumentoDenuncia(1L, "Robo de celular", "Detalle", "Lima"));
+        when(repository.findDocumentosDesde(any(), any())).thenAnswer(inv -> {
+            Long desde = inv.getArgument(0);
+            Limit limit = inv.getArgument(1);
+            // Mientras se reconstruye, las búsquedas usan el índice anterior y los cambios llegan normalmente
+            vistasDuranteReconstruccion.add(reconstruido.buscar("robo", 10).stream()
+                    .map(DenunciaSearchIndex.Resultado::id).toList());
+            if (desde == 0) {
+                reconstruido.indexar(new DocumentoDenuncia(9L, "Robo en mercado", "Detalle", "Lima"));
+                reconstruido.eliminar(2L);
+            }
+            return LongStream.rangeClosed(1, 3).filter(id -> id > desde).limit(limit.max())
+                    .mapToObj(id -> new DocumentoDenuncia(id, "Robo " + id, "Detalle", "Lima"))
+                    .toList();
+        });
+
+        reconstruido.reconstruir();
+
+        assertEquals(List.of(1L), vistasDuranteReconstruccion.getFirst());
+        assertEquals(List.of(1L, 3L, 9L), reconstruido.buscar("robo", 10).stream()
+                .map(DenunciaSearchIndex.Resultado::id).sorted().toList());
+    }
+
+    private List<Long> ids(String consulta) {
+        return index.buscar(consulta, 10).stream().map(DenunciaSearchIndex.Resultado::id).toList();
+    }
+}
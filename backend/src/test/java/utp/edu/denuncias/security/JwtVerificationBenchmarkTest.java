@@ -0,0 +1,102 @@
+package utp.edu.denuncias.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import utp.edu.denuncias.enums.Rol;
+import utp.edu.denuncias.model.Usuario;
+
+import java.security.Key;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Microbenchmark del costo de autenticación por solicitud en {@link JwtFilter}.
+ * Compara la verificación anterior (dos parsers nuevos por solicitud: validar y luego extraer el usuario)
+ * con {@link JwtUtil#verify(String)} sin caché (una sola verificación) y con el token ya en caché.
+ * Se ejecuta solo con el perfil de Maven {@code benchmark}: {@code mvn test -Pbenchmark}; los resultados
+ * se informan en el registro de la prueba.
+ */
+@Slf4j
+@Tag("benchmark")
+class JwtVerificationBenchmarkTest {
+
+    private static final String SECRET = "clave-de-prueba-para-el-benchmark-de-jwt-con-longitud-suficiente-para-hs512-0123456789";
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 100_000;
+
+    private JwtUtil jwtUtil;
+    private JwtUtil jwtUtilSinCache;
+    private Key key;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = crearJwtUtil(Duration.ofMinutes(10));
+        jwtUtilSinCache = crearJwtUtil(Duration.ZERO);
+        key = Keys.hmacShaKeyFor(SECRET.getBytes());
+
+        Usuario usuario = new Usuario();
+        usuario.setUsername("benchmark");
+        usuario.setId(1L);
+        usuario.setRol(Rol.USER);
+        token = jwtUtil.generateToken(usuario);
+    }
+
+    @Test
+    void costoDeAutenticacionPorSolicitud() {
+        double antes = medir("anterior (2 parsers por solicitud)", () -> {
+            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+            return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody().getSubject();
+        });
+        double sinCache = medir("verify sin caché (1 parser compartido)",
+                () -> jwtUtilSinCache.verify(token).orElseThrow().username());
+        double conCache = medir("verify con caché", () -> jwtUtil.verify(token).orElseThrow().username());
+
+        assertTrue(sinCache < antes, "una sola verificación debe costar menos que dos");
+        assertTrue(conCache < sinCache, "un acierto de caché debe costar menos que verificar la firma");
+    }
+
+    /**
+     * Crea una instancia de JwtUtil con la configuración indicada; un tiempo de vida cero desactiva la caché.
+     *
+     * @param cacheTtl tiempo de vida de los tokens en caché
+     * @return la instancia inicializada
+     */
+    private static JwtUtil crearJwtUtil(Duration cacheTtl) {
+        JwtUtil util = new JwtUtil();
+        ReflectionTestUtils.setField(util, "secret", SECRET);
+        ReflectionTestUtils.setField(util, "expiration", 86_400_000L);
+        ReflectionTestUtils.setField(util, "cacheMaxSize", 10_000);
+        ReflectionTestUtils.setField(util, "cacheTtl", cacheTtl);
+        util.init();
+        return util;
+    }
+
+    /**
+     * Ejecuta la operación tras un calentamiento e informa el costo promedio por operación.
+     *
+     * @param nombre    nombre de la variante medida
+     * @param operacion operación que devuelve el usuario autenticado
+     * @return nanosegundos promedio por operación
+     */
+    private static double medir(String nombre, Supplier<String> operacion) {
+        for (int i = 0; i < WARMUP; i++) {
+            assertEquals("benchmark", operacion.get());
+        }
+        long inicio = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            assertEquals("benchmark", operacion.get());
+        }
+        double nsPorOperacion = (System.nanoTime() - inicio) / (double) ITERATIONS;
+        log.info("{}: {} ns/op", nombre, Math.round(nsPorOperacion));
+        return nsPorOperacion;
+    }
+}
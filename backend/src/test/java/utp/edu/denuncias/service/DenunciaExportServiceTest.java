@@ -0,0 +1,165 @@
+package utp.edu.denuncias.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import utp.edu.denuncias.enums.Categoria;
+import utp.edu.denuncias.enums.Estado;
+import utp.edu.denuncias.enums.FormatoExportacion;
+import utp.edu.denuncias.model.Denuncia;
+import utp.edu.denuncias.model.Usuario;
+import utp.edu.denuncias.repository.DenunciaRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pruebas de la exportación de denuncias: escape de valores CSV, recorrido por bloques sin repetir ni omitir
+ * filas, y escritura en la respuesta solo con la transacción del bloque ya cerrada.
+ */
+class DenunciaExportServiceTest {
+
+    private static final LocalDateTime FECHA = LocalDateTime.of(2024, 5, 1, 10, 0);
+
+    private final List<Denuncia> denuncias = new ArrayList<>();
+    private final TransaccionesRegistradas transacciones = new TransaccionesRegistradas();
+    private DenunciaExportService service;
+
+    @BeforeEach
+    void setUp() {
+        DenunciaRepository repository = mock(DenunciaRepository.class);
+        when(repository.buscarParaExportar(any(), any(), any(), any(), any(), any(), any())).thenAnswer(inv -> {
+            LocalDateTime fecha = inv.getArgument(4);
+            Long id = inv.getArgument(5);
+            Limit limit = inv.getArgument(6);
+            transacciones.consultas++;
+            return denuncias.stream()
+                    .sorted(Comparator.comparing(Denuncia::getCreatedDate).thenComparing(Denuncia::getId))
+                    .filter(d -> d.getCreatedDate().isAfter(fecha)
+                            || d.getCreatedDate().isEqual(fecha) && d.getId() > id)
+                    .limit(limit.max())
+                    .toList();
+        });
+        service = new DenunciaExportService(repository, new ObjectMapper(), transacciones);
+    }
+
+    @Test
+    void escapaComillasComasYSaltosDeLineaEnCsv() throws IOException {
+        var denuncia = denuncia(1L, FECHA);
+        denuncia.setTitulo("Robo, con \"arma\"");
+        denuncia.setDescription("Primera línea\nsegunda línea");
+        denuncia.setLugar("Av. Principal");
+        denuncias.add(denuncia);
+
+        String[] lineas = exportar(FormatoExportacion.CSV).split("\n", 2);
+
+        assertEquals("1,\"Robo, con \"\"arma\"\"\",\"Primera línea\nsegunda línea\",Av. Principal,ROBO,PENDIENTE,"
+                + FECHA + ",Ana Pérez,ana,10,,\n", lineas[1]);
+    }
+
+    @Test
+    void unBloqueExactamenteLlenoTerminaConUnaConsultaVacia() throws IOException {
+        agregar(DenunciaExportService.TAMANO_BLOQUE);
+
+        String csv = exportar(FormatoExportacion.CSV);
+
+        assertEquals(DenunciaExportService.TAMANO_BLOQUE, filas(csv).size());
+        assertEquals(2, transacciones.consultas);
+    }
+
+    @Test
+    void continuaDesdeElUltimoElementoDelBloqueSinRepetirNiOmitir() throws IOException {
+        // Todas con la misma fecha: el bloque siguiente se decide solo por el id
+        agregar(DenunciaExportService.TAMANO_BLOQUE + 1);
+
+        List<String> filas = filas(exportar(FormatoExportacion.NDJSON));
+
+        assertEquals(DenunciaExportService.TAMANO_BLOQUE + 1, filas.size());
+        assertEquals(filas.size(), new HashSet<>(filas).size());
+        assertEquals(2, transacciones.consultas);
+        assertEquals(2, transacciones.confirmadas);
+    }
+
+    @Test
+    void escribeSoloConLaTransaccionCerrada() throws IOException {
+        agregar(3);
+        var salida = new ByteArrayOutputStream() {
+            @Override
+            public void write(byte[] b, int off, int len) {
+                assertFalse(transacciones.abierta, "se escribió con una transacción abierta");
+                super.write(b, off, len);
+            }
+        };
+
+        service.exportar(null, null, null, null, FormatoExportacion.NDJSON, salida);
+
+        assertEquals(3, filas(salida.toString(StandardCharsets.UTF_8)).size());
+    }
+
+    private String exportar(FormatoExportacion formato) throws IOException {
+        var salida = new ByteArrayOutputStream();
+        service.exportar(null, null, null, null, formato, salida);
+        return salida.toString(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> filas(String contenido) {
+        var lineas = List.of(contenido.split("\n"));
+        return lineas.getFirst().startsWith("id,") ? lineas.subList(1, lineas.size()) : lineas;
+    }
+
+    private void agregar(int cantidad) {
+        for (long id = 1; id <= cantidad; id++) {
+            denuncias.add(denuncia(id, FECHA));
+        }
+    }
+
+    private static Denuncia denuncia(Long id, LocalDateTime fecha) {
+        var usuario = Usuario.builder().id(10L).nombres("Ana").apellidos("Pérez").username("ana").build();
+        return Denuncia.builder().id(id).titulo("Denuncia " + id).description("Detalle").lugar("Lima")
+                .categoria(Categoria.ROBO).estado(Estado.PENDIENTE).createdDate(fecha).usuario(usuario).build();
+    }
+
+    /**
+     * Administrador de transacciones que solo registra si hay una transacción abierta.
+     */
+    private static final class TransaccionesRegistradas implements PlatformTransactionManager {
+
+        private boolean abierta;
+        private int consultas;
+        private int confirmadas;
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            abierta = true;
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            abierta = false;
+            confirmadas++;
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+            abierta = false;
+        }
+    }
+}
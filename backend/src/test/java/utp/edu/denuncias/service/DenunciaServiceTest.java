@@ -0,0 +1,214 @@
+package utp.edu.denuncias.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import utp.edu.denuncias.dto.DenunciaResponse;
+import utp.edu.denuncias.enums.Categoria;
+import utp.edu.denuncias.enums.Estado;
+import utp.edu.denuncias.enums.Rol;
+import utp.edu.denuncias.model.Denuncia;
+import utp.edu.denuncias.model.Usuario;
+import utp.edu.denuncias.repository.DenunciaRepository;
+import utp.edu.denuncias.repository.UserRepository;
+import utp.edu.denuncias.security.CurrentUser;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pruebas de las operaciones concurrentes sobre denuncias: el reclamo por moderadores cuando otro moderador se
+ * lleva parte de las candidatas entre la lectura y la actualización condicional, como ocurre en motores sin
+ * {@code SKIP LOCKED}, y las transiciones reintentadas cuando otra transacción modifica la denuncia.
+ */
+class DenunciaServiceTest {
+
+    private static final LocalDateTime FECHA = LocalDateTime.of(2024, 5, 1, 10, 0);
+    private static final Usuario MODERADOR = Usuario.builder().id(7L).nombres("Luis").apellidos("Soto")
+            .username("luis").rol(Rol.MOD).build();
+    private static final Usuario OTRO_MODERADOR = Usuario.builder().id(8L).nombres("Eva").apellidos("Ríos")
+            .username("eva").rol(Rol.MOD).build();
+
+    private final List<Denuncia> denuncias = new ArrayList<>();
+    // Cantidad de candidatas que otro moderador reclama justo después de cada lectura, en las primeras lecturas
+    private int robadasPorLectura;
+    private int lecturasConRobo = Integer.MAX_VALUE;
+    private int lecturas;
+    // Cambio que otra transacción confirma sobre la denuncia antes del primer guardado, que falla por conflicto
+    private Consumer<Denuncia> cambioConcurrente;
+    private int guardados;
+    private DenunciaService service;
+
+    @BeforeEach
+    void setUp() {
+        DenunciaRepository denunciaRepository = mock(DenunciaRepository.class);
+        when(denunciaRepository.findByModAsignadoIsNullAndEstadoOrderByCreatedDateAscIdAsc(any(), any()))
+                .thenAnswer(inv -> {
+                    Limit limit = inv.getArgument(1);
+                    lecturas++;
+                    var candidatas = sinAsignar().stream().limit(limit.max()).toList();
+                    if (lecturas <= lecturasConRobo) {
+                        candidatas.stream().limit(robadasPorLectura).forEach(d -> asignar(d, OTRO_MODERADOR));
+                    }
+                    return candidatas;
+                });
+        when(denunciaRepository.reclamar(any(), any())).thenAnswer(inv -> {
+            Collection<Long> ids = inv.getArgument(0);
+            Usuario moderador = inv.getArgument(1);
+            var libres = sinAsignar().stream().filter(d -> ids.contains(d.getId())).toList();
+            libres.forEach(d -> asignar(d, moderador));
+            return libres.size();
+        });
+        when(denunciaRepository.findWithUsuariosById(any())).thenAnswer(inv -> denuncias.stream()
+                .filter(d -> d.getId().equals(inv.getArgument(0)))
+                .findFirst()
+                .map(DenunciaServiceTest::copia));
+        when(denunciaRepository.save(any())).thenAnswer(inv -> {
+            Denuncia guardada = inv.getArgument(0);
+            if (guardados++ == 0 && cambioConcurrente != null) {
+                cambioConcurrente.accept(denuncias.getFirst());
+                throw new OptimisticLockingFailureException("La denuncia cambió de versión");
+            }
+            denuncias.set(0, guardada);
+            return guardada;
+        });
+        when(denunciaRepository.findResponsesByIdIn(any())).thenAnswer(inv -> {
+            Collection<Long> ids = inv.getArgument(0);
+            return denuncias.stream().filter(d -> ids.contains(d.getId())).map(DenunciaResponse::from).toList();
+        });
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.getReferenceById(any())).thenReturn(MODERADOR);
+        when(userRepository.findById(any())).thenReturn(Optional.of(OTRO_MODERADOR));
+        var stats = new DenunciaStatsService(null);
+        var engine = new ModeratorAssignmentEngine(denunciaRepository, userRepository, stats, null, 0, false, false, 100);
+        service = new DenunciaService(denunciaRepository, userRepository, mock(ApplicationEventPublisher.class),
+                null, stats, engine, new OptimisticRetry(mock(PlatformTransactionManager.class), 3, Duration.ZERO));
+
+        var usuario = new CurrentUser(MODERADOR.getId(), MODERADOR.getUsername(), Rol.MOD);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(usuario, null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void completaElReclamoSiOtroModeradorSeLlevaCandidatas() {
+        agregar(10);
+        robadasPorLectura = 2;
+        lecturasConRobo = 1;
+
+        var reclamadas = service.reclamarDenuncias(4);
+
+        assertEquals(4, reclamadas.size());
+        reclamadas.forEach(d -> assertEquals(MODERADOR.getId(), d.idMod()));
+        // Las más antiguas que quedaron libres, en orden
+        assertEquals(List.of(3L, 4L, 5L, 6L), reclamadas.stream().map(DenunciaResponse::id).toList());
+        assertEquals(2, lecturas);
+    }
+
+    @Test
+    void noRepiteLaLecturaSiNoQuedanDenuncias() {
+        agregar(3);
+
+        var reclamadas = service.reclamarDenuncias(5);
+
+        assertEquals(List.of(1L, 2L, 3L), reclamadas.stream().map(DenunciaResponse::id).toList());
+        assertEquals(1, lecturas);
+    }
+
+    @Test
+    void dejaDeReintentarTrasLasLecturasPermitidas() {
+        agregar(20);
+        // Otro moderador se lleva todas las candidatas de cada lectura
+        robadasPorLectura = Integer.MAX_VALUE;
+
+        var reclamadas = service.reclamarDenuncias(2);
+
+        assertEquals(0, reclamadas.size());
+        assertEquals(3, lecturas);
+    }
+
+    @Test
+    void reintentaSiElConflictoNoCambioElEstadoNiElModerador() {
+        agregar(1);
+        asignar(denuncias.getFirst(), MODERADOR);
+        cambioConcurrente = d -> d.setTitulo("Título corregido");
+
+        var respuesta = service.cambiarEstadoDenuncia(1L, Estado.RESUELTO.name());
+
+        assertEquals(Estado.RESUELTO.name(), respuesta.estado());
+        assertEquals(2, guardados);
+    }
+
+    @Test
+    void noReintentaUnCambioDeEstadoSiOtroCambioElEstado() {
+        agregar(1);
+        asignar(denuncias.getFirst(), MODERADOR);
+        cambioConcurrente = d -> d.setEstado(Estado.RECHAZADO);
+
+        assertThrows(ConcurrencyFailureException.class,
+                () -> service.cambiarEstadoDenuncia(1L, Estado.RESUELTO.name()));
+        assertEquals(Estado.RECHAZADO, denuncias.getFirst().getEstado());
+        assertEquals(1, guardados);
+    }
+
+    @Test
+    void noReintentaUnaAsignacionSiOtroCambioElModerador() {
+        agregar(1);
+        cambioConcurrente = d -> asignar(d, MODERADOR);
+
+        assertThrows(ConcurrencyFailureException.class, () -> service.asignarModerador(1L, OTRO_MODERADOR.getId()));
+        assertEquals(MODERADOR.getId(), denuncias.getFirst().getModAsignado().getId());
+        assertEquals(1, guardados);
+    }
+
+    private List<Denuncia> sinAsignar() {
+        return denuncias.stream()
+                .filter(d -> d.getModAsignado() == null && d.getEstado() == Estado.PENDIENTE)
+                .toList();
+    }
+
+    private static void asignar(Denuncia denuncia, Usuario moderador) {
+        denuncia.setModAsignado(moderador);
+        denuncia.setEstado(Estado.EN_PROCESO);
+    }
+
+    /**
+     * @return una copia de la denuncia, como la que devuelve cada lectura de la base de datos
+     */
+    private static Denuncia copia(Denuncia d) {
+        return Denuncia.builder().id(d.getId()).titulo(d.getTitulo()).description(d.getDescription())
+                .lugar(d.getLugar()).categoria(d.getCategoria()).estado(d.getEstado())
+                .createdDate(d.getCreatedDate()).usuario(d.getUsuario()).modAsignado(d.getModAsignado()).build();
+    }
+
+    private void agregar(int cantidad) {
+        var autor = Usuario.builder().id(1L).nombres("Ana").apellidos("Pérez").username("ana").build();
+        for (long id = 1; id <= cantidad; id++) {
+            denuncias.add(Denuncia.builder().id(id).titulo("Denuncia " + id).description("Detalle").lugar("Lima")
+                    .categoria(Categoria.ROBO).estado(Estado.PENDIENTE).createdDate(FECHA.plusMinutes(id))
+                    .usuario(autor).build());
+        }
+    }
+}
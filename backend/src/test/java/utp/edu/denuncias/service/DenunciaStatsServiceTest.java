@@ -0,0 +1,166 @@
+package utp.edu.denuncias.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import utp.edu.denuncias.enums.Categoria;
+import utp.edu.denuncias.enums.Estado;
+import utp.edu.denuncias.repository.DenunciaRepository;
+import utp.edu.denuncias.service.DenunciaStatsService.Foto;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pruebas de las estadísticas en memoria de denuncias: carga inicial, cambios de estado y asignación,
+ * corrección de la desviación en la reconciliación y cambios confirmados durante ella.
+ */
+class DenunciaStatsServiceTest {
+
+    private DenunciaRepository repository;
+    private DenunciaStatsService stats;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(DenunciaRepository.class);
+        when(repository.contarPorEstadoCategoriaYModerador()).thenReturn(List.of(
+                conteo(Estado.PENDIENTE, Categoria.ROBO, null, 3),
+                conteo(Estado.EN_PROCESO, Categoria.ROBO, 7L, 2)));
+        stats = new DenunciaStatsService(repository);
+        stats.reconciliar();
+    }
+
+    @Test
+    void cargaLosConteosDeLaBaseDeDatos() {
+        var respuesta = stats.obtener();
+        assertEquals(5, respuesta.total());
+        assertEquals(3, respuesta.porEstadoYCategoria().get(Estado.PENDIENTE).get(Categoria.ROBO));
+        assertEquals(5, respuesta.porCategoria().get(Categoria.ROBO));
+        assertEquals(2, respuesta.porModerador().get(7L).get(Estado.EN_PROCESO));
+    }
+
+    @Test
+    void aplicaCreacionAsignacionYCambioDeEstado() {
+        var nueva = new Foto(Estado.PENDIENTE, Categoria.ACOSO, null);
+        stats.registrarTrasConfirmar(null, nueva);
+        var asignada = new Foto(Estado.EN_PROCESO, Categoria.ACOSO, 8L);
+        stats.registrarTrasConfirmar(nueva, asignada);
+        stats.registrarTrasConfirmar(asignada, new Foto(Estado.RESUELTO, Categoria.ACOSO, 8L));
+
+        var respuesta = stats.obtener();
+        assertEquals(6, respuesta.total());
+        assertEquals(0, respuesta.porEstadoYCategoria().get(Estado.PENDIENTE).get(Categoria.ACOSO));
+        assertEquals(1, respuesta.porEstado().get(Estado.RESUELTO));
+        assertEquals(0, respuesta.porModerador().get(8L).get(Estado.EN_PROCESO));
+        assertEquals(1, respuesta.porModerador().get(8L).get(Estado.RESUELTO));
+    }
+
+    @Test
+    void cuentaLosTotalesDeLosListados() {
+        var abiertos = EnumSet.of(Estado.PENDIENTE, Estado.EN_PROCESO, Estado.EN_REVISION, Estado.ELIMINADO);
+        stats.registrarTrasConfirmar(null, new Foto(Estado.RESUELTO, Categoria.ACOSO, 7L));
+
+        assertEquals(6, stats.contar(EnumSet.allOf(Estado.class)));
+        assertEquals(5, stats.contar(abiertos));
+        assertEquals(3, stats.contarAsignadas(7L, EnumSet.allOf(Estado.class)));
+        assertEquals(2, stats.contarAsignadas(7L, abiertos));
+        assertEquals(0, stats.contarAsignadas(8L, abiertos));
+        // Sin moderador y abiertas: las abiertas menos las asignadas a algún moderador
+        assertEquals(3, stats.contar(abiertos) - stats.contarAsignadas(null, abiertos));
+    }
+
+    @Test
+    void laReconciliacionCorrigeLaDesviacion() {
+        stats.registrarTrasConfirmar(new Foto(Estado.PENDIENTE, Categoria.ROBO, null),
+                new Foto(Estado.ELIMINADO, Categoria.ROBO, null));
+        assertEquals(1, stats.obtener().porEstado().get(Estado.ELIMINADO));
+
+        // La base de datos no registra el cambio (por ejemplo, la transacción se hizo fuera de la aplicación)
+        stats.reconciliar();
+        var respuesta = stats.obtener();
+        assertEquals(0, respuesta.porEstado().get(Estado.ELIMINADO));
+        assertEquals(3, respuesta.porEstado().get(Estado.PENDIENTE));
+        assertFalse(respuesta.porModerador().containsKey(8L));
+    }
+
+    @Test
+    void aplicaLosCambiosConfirmadosDuranteLaReconciliacion() {
+        // El GROUP BY ya no ve la denuncia nueva ni el cambio de estado, que se confirman mientras se ejecuta
+        when(repository.contarPorEstadoCategoriaYModerador()).thenAnswer(_ -> {
+            stats.registrarTrasConfirmar(null, new Foto(Estado.PENDIENTE, Categoria.ACOSO, null));
+            stats.registrarTrasConfirmar(new Foto(Estado.PENDIENTE, Categoria.ROBO, null),
+                    new Foto(Estado.EN_PROCESO, Categoria.ROBO, 7L));
+            return List.of(
+                    conteo(Estado.PENDIENTE, Categoria.ROBO, null, 3),
+                    conteo(Estado.EN_PROCESO, Categoria.ROBO, 7L, 2));
+        });
+
+        stats.reconciliar();
+
+        var respuesta = stats.obtener();
+        assertEquals(6, respuesta.total());
+        assertEquals(1, respuesta.porEstadoYCategoria().get(Estado.PENDIENTE).get(Categoria.ACOSO));
+        assertEquals(2, respuesta.porEstadoYCategoria().get(Estado.PENDIENTE).get(Categoria.ROBO));
+        assertEquals(3, respuesta.porModerador().get(7L).get(Estado.EN_PROCESO));
+    }
+
+    @Test
+    void laPrimeraCargaSeEjecutaUnaSolaVez() throws InterruptedException {
+        var consultas = new AtomicInteger();
+        var enConsulta = new CountDownLatch(1);
+        var continuar = new CountDownLatch(1);
+        when(repository.contarPorEstadoCategoriaYModerador()).thenAnswer(_ -> {
+            consultas.incrementAndGet();
+            enConsulta.countDown();
+            continuar.await(5, TimeUnit.SECONDS);
+            return List.of(conteo(Estado.PENDIENTE, Categoria.ROBO, null, 4));
+        });
+        var sinCargar = new DenunciaStatsService(repository);
+
+        List<Thread> hilos = new ArrayList<>();
+        var totales = new AtomicInteger();
+        for (int i = 0; i < 8; i++) {
+            hilos.add(Thread.ofPlatform().start(() -> totales.addAndGet((int) sinCargar.obtener().total())));
+        }
+        enConsulta.await(5, TimeUnit.SECONDS);
+        continuar.countDown();
+        for (Thread hilo : hilos) {
+            hilo.join();
+        }
+
+        assertEquals(1, consultas.get());
+        assertEquals(8 * 4, totales.get());
+    }
+
+    private static DenunciaRepository.Conteo conteo(Estado estado, Categoria categoria, Long moderadorId, long cantidad) {
+        return new DenunciaRepository.Conteo() {
+            @Override
+            public Estado getEstado() {
+                return estado;
+            }
+
+            @Override
+            public Categoria getCategoria() {
+                return categoria;
+            }
+
+            @Override
+            public Long getModeradorId() {
+                return moderadorId;
+            }
+
+            @Override
+            public long getCantidad() {
+                return cantidad;
+            }
+        };
+    }
+}
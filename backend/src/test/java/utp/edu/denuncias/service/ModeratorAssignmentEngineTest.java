@@ -0,0 +1,296 @@
+package utp.edu.denuncias.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import utp.edu.denuncias.enums.Categoria;
+import utp.edu.denuncias.enums.Estado;
+import utp.edu.denuncias.enums.Rol;
+import utp.edu.denuncias.model.Denuncia;
+import utp.edu.denuncias.model.Usuario;
+import utp.edu.denuncias.repository.DenunciaRepository;
+import utp.edu.denuncias.repository.UserRepository;
+import utp.edu.denuncias.service.DenunciaStatsService.Foto;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pruebas del motor de asignación de moderadores: reparto por carga, experiencia por categoría,
+ * cambios de carga, retiro de moderadores y reconstrucción con transacciones en curso
+ * y reversión de la asignación por lotes.
+ */
+class ModeratorAssignmentEngineTest {
+
+    private record Conteo(Estado getEstado, Categoria getCategoria, Long getModeradorId, long getCantidad)
+            implements DenunciaRepository.Conteo {
+    }
+
+    private DenunciaRepository denunciaRepository;
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        denunciaRepository = mock(DenunciaRepository.class);
+        userRepository = mock(UserRepository.class);
+        when(userRepository.findIdsHabilitadosByRol(Rol.MOD)).thenReturn(List.of(1L, 2L, 3L));
+        when(userRepository.getReferenceById(any())).thenAnswer(inv ->
+                Usuario.builder().id(inv.getArgument(0)).build());
+    }
+
+    @Test
+    void eligeAlModeradorConMenorCarga() {
+        when(denunciaRepository.contarPorEstadoCategoriaYModerador()).thenReturn(List.of(
+                new Conteo(Estado.EN_PROCESO, Categoria.ROBO, 1L, 3),
+                new Conteo(Estado.EN_PROCESO, Categoria.ROBO, 3L, 1),
+                // Las cerradas no cuentan como carga
+                new Conteo(Estado.RECHAZADO, Categoria.ROBO, 2L, 50)));
+        var engine = motor(0);
+
+        assertEquals(Optional.of(2L), engine.elegir(Categoria.ROBO));
+        // Empate entre 2 y 3 con carga 1: se desempata por id
+        assertEquals(Optional.of(2L), engine.elegir(Categoria.ACOSO));
+        assertEquals(Optional.of(3L), engine.elegir(null));
+        assertEquals(Optional.of(2L), engine.elegir(Categoria.ROBO));
+        assertEquals(Optional.of(3L), engine.carga(1L));
+        assertEquals(Optional.of(3L), engine.carga(2L));
+    }
+
+    @Test
+    void priorizaLaExperienciaEnLaCategoria() {
+        when(denunciaRepository.contarPorEstadoCategoriaYModerador()).thenReturn(List.of(
+                new Conteo(Estado.RESUELTO, Categoria.ROBO, 1L, 10),
+                new Conteo(Estado.RESUELTO, Categoria.ACOSO, 2L, 10)));
+        var engine = motor(1.0);
+
+        assertEquals(Optional.of(1L), engine.elegir(Categoria.ROBO));
+        assertEquals(Optional.of(2L), engine.elegir(Categoria.ACOSO));
+        assertEquals(Optional.of(3L), engine.elegir(Categoria.DROGAS));
+    }
+
+    @Test
+    void actualizaLaCargaAlCerrarYAlRetirar() {
+        when(denunciaRepository.contarPorEstadoCategoriaYModerador()).thenReturn(List.of(
+                new Conteo(Estado.EN_PROCESO, Categoria.ROBO, 1L, 1),
+                new Conteo(Estado.EN_PROCESO, Categoria.ROBO, 2L, 1),
+                new Conteo(Estado.EN_PROCESO, Categoria.ROBO, 3L, 2)));
+        when(denunciaRepository.findByModAsignadoIdAndEstadoIn(2L, ModeratorAssignmentEngine.ABIERTOS)).thenReturn(List.of());
+        var engine = motor(0);
+
+        engine.registrar(new Foto(Estado.EN_PROCESO, Categoria.ROBO, 3L), new Foto(Estado.RESUELTO, Categoria.ROBO, 3L));
+        engine.registrar(new Foto(Estado.EN_PROCESO, Categoria.ROBO, 3L), new Foto(Estado.RESUELTO, Categoria.ROBO, 3L));
+        assertEquals(Optional.of(0L), engine.carga(3L));
+        assertEquals(Optional.of(3L), engine.elegir(Categoria.ROBO));
+
+        engine.retirar(2L);
+        assertEquals(Optional.empty(), engine.carga(2L));
+        assertEquals(Optional.of(1L), engine.elegir(Categoria.ROBO));
+    }
+
+    @Test
+    void alRetirarReasignaEntreLosDemasYLoQuitaAlConfirmar() {
+        when(denunciaRepository.contarPorEstadoCategoriaYModerador()).thenReturn(List.of(
+                new Conteo(Estado.EN_PROCESO, Categoria.ROBO, 1L, 2)));
+        var primera = denuncia(10L, 1L);
+        var segunda = denuncia(11L, 1L);
+        when(denunciaRepository.findByModAsignadoIdAndEstadoIn(any(), any())).thenReturn(List.of(primera, segunda));
+        var engine = motor(0);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertEquals(2, engine.retirar(1L));
+            // Hasta confirmar, el moderador sigue en el reparto, pero no recibe sus propias denuncias
+            assertEquals(Optional.of(2L), engine.carga(1L));
+            assertEquals(List.of(2L, 3L), List.of(primera.getModAsignado().getId(), segunda.getModAsignado().getId()));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(Optional.empty(), engine.carga(1L));
+    }
+
+    @Test
+    void siLaTransaccionSeRevierteElModeradorSigueEnElReparto() {
+        when(denunciaRepository.contarPorEstadoCategoriaYModerador()).thenReturn(List.of());
+        when(denunciaRepository.findByModAsignadoIdAndEstadoIn(any(), any())).thenReturn(List.of());
+        var engine = motor(0);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            engine.retirar(1L);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(Optional.of(0L), engine.carga(1L));
+    }
+
+    @Test
+    void sinOtrosModeradoresLasDenunciasVuelvenAPendiente() {
+        when(userRepository.findIdsHabilitadosByRol(Rol.MOD)).thenReturn(List.of(1L));
+        when(denunciaRepository.contarPorEstadoCategoriaYModerador()).thenReturn(List.of(
+                new Conteo(Estado.EN_PROCESO, Categoria.ROBO, 1L, 1)));
+        var denuncia = denuncia(10L, 1L);
+        when(denunciaRepository.findByModAsignadoIdAndEstadoIn(any(), any())).thenReturn(List.of(denuncia));
+        var engine = motor(0);
+
+        assertEquals(0, engine.retirar(1L));
+
+        assertNull(denuncia.getModAsignado());
+        assertEquals(Estado.PENDIENTE, denuncia.getEstado());
+        assertEquals(Optional.empty(), engine.elegir(Categoria.ROBO));
+    }
+
+    @Test
+    void laReconstruccionConservaLasReservasDeTransaccionesEnCurso() {
+        when(denunciaRepository.contarPorEstadoCategoriaYModerador()).thenReturn(List.of(
+                new Conteo(Estado.EN_PROCESO, Categoria.ROBO, 1L, 5),
+                new Conteo(Estado.EN_PROCESO, Categoria.ROBO, 2L, 5),
+                new Conteo(Estado.EN_PROCESO, Categoria.ROBO, 3L, 5)));
+        var engine = motor(0);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertEquals(Optional.of(1L), engine.elegir(Categoria.ROBO));
+            // La base de datos todavía no ve la asignación, pero la reserva se mantiene
+            engine.reconstruir();
+            assertEquals(Optional.of(6L), engine.carga(1L));
+
+            completar(TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(Optional.of(6L), engine.carga(1L));
+    }
+
+    @Test
+    void revertirDespuesDeReconstruirNoRestaDeMas() {
+        when(denunciaRepository.contarPorEstadoCategoriaYModerador()).thenReturn(List.of(
+                new Conteo(Estado.EN_PROCESO, Categoria.ROBO, 1L, 5),
+                new Conteo(Estado.EN_PROCESO, Categoria.ROBO, 2L, 5),
+                new Conteo(Estado.EN_PROCESO, Categoria.ROBO, 3L, 5)));
+        var engine = motor(0);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            engine.registrar(new Foto(Estado.EN_PROCESO, Categoria.ROBO, 2L), new Foto(Estado.EN_PROCESO, Categoria.ROBO, 3L));
+            engine.reconstruir();
+            assertEquals(Optional.of(4L), engine.carga(2L));
+            assertEquals(Optional.of(6L), engine.carga(3L));
+
+            completar(TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(Optional.of(5L), engine.carga(2L));
+        assertEquals(Optional.of(5L), engine.carga(3L));
+    }
+
+    @Test
+    void unaConfirmacionDuranteLaReconstruccionNoSePierde() {
+        when(denunciaRepository.contarPorEstadoCategoriaYModerador()).thenReturn(List.of(
+                new Conteo(Estado.EN_PROCESO, Categoria.ROBO, 1L, 5),
+                new Conteo(Estado.EN_PROCESO, Categoria.ROBO, 2L, 5),
+                new Conteo(Estado.EN_PROCESO, Categoria.ROBO, 3L, 5)));
+        var engine = motor(0);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertEquals(Optional.of(1L), engine.elegir(Categoria.ROBO));
+            // La transacción se confirma después de que la consulta de la reconstrucción leyó las cargas
+            when(denunciaRepository.contarPorEstadoCategoriaYModerador()).thenAnswer(inv -> {
+                completar(TransactionSynchronization.STATUS_COMMITTED);
+                return List.of(
+                        new Conteo(Estado.EN_PROCESO, Categoria.ROBO, 1L, 5),
+                        new Conteo(Estado.EN_PROCESO, Categoria.ROBO, 2L, 5),
+                        new Conteo(Estado.EN_PROCESO, Categoria.ROBO, 3L, 5));
+            });
+            engine.reconstruir();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(Optional.of(6L), engine.carga(1L));
+    }
+
+    @Test
+    void siElLoteSeRevierteLaReservaPerdidaSeDeshaceUnaSolaVez() {
+        when(denunciaRepository.contarPorEstadoCategoriaYModerador()).thenReturn(List.of(
+                new Conteo(Estado.EN_PROCESO, Categoria.ROBO, 1L, 5),
+                new Conteo(Estado.EN_PROCESO, Categoria.ROBO, 2L, 5),
+                new Conteo(Estado.EN_PROCESO, Categoria.ROBO, 3L, 5)));
+        var reclamada = Denuncia.builder().id(10L).categoria(Categoria.ROBO).build();
+        var libre = Denuncia.builder().id(11L).categoria(Categoria.ROBO).build();
+        when(denunciaRepository.findByModAsignadoIsNullAndEstadoOrderByCreatedDateAscIdAsc(any(), any()))
+                .thenReturn(List.of(reclamada, libre));
+        // Otro moderador reclamó la primera entre la lectura y la actualización
+        when(denunciaRepository.reclamar(any(), any())).thenAnswer(inv ->
+                inv.<List<Long>>getArgument(0).contains(reclamada.getId()) ? 0 : 1);
+        var engine = new ModeratorAssignmentEngine(denunciaRepository, userRepository, new DenunciaStatsService(null),
+                new LoteQueSeRevierte(), 0, false, true, 100);
+        engine.reconstruir();
+
+        assertThrows(TransactionSystemException.class, engine::asignarPendientes);
+
+        assertEquals(Optional.of(5L), engine.carga(1L));
+        assertEquals(Optional.of(5L), engine.carga(2L));
+        assertEquals(Optional.of(5L), engine.carga(3L));
+    }
+
+    private static void completar(int estado) {
+        TransactionSynchronizationManager.getSynchronizations().forEach(s -> s.afterCompletion(estado));
+    }
+
+    private static Denuncia denuncia(Long id, Long moderadorId) {
+        return Denuncia.builder().id(id).categoria(Categoria.ROBO).estado(Estado.EN_PROCESO)
+                .modAsignado(Usuario.builder().id(moderadorId).build()).build();
+    }
+
+    /**
+     * Administrador de transacciones cuya confirmación falla y revierte la transacción.
+     */
+    private static final class LoteQueSeRevierte implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            TransactionSynchronizationManager.initSynchronization();
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            rollback(status);
+            throw new TransactionSystemException("La confirmación del lote falló");
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+            try {
+                completar(TransactionSynchronization.STATUS_ROLLED_BACK);
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        }
+    }
+
+    private ModeratorAssignmentEngine motor(double pesoExperiencia) {
+        var engine = new ModeratorAssignmentEngine(denunciaRepository, userRepository, new DenunciaStatsService(null), null,
+                pesoExperiencia, false, false, 100);
+        engine.reconstruir();
+        return engine;
+    }
+}
@@ -0,0 +1,117 @@
+package utp.edu.denuncias.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import utp.edu.denuncias.dto.CursorPage;
+import utp.edu.denuncias.dto.CursorPageRequest;
+import utp.edu.denuncias.dto.NotificationResponse;
+import utp.edu.denuncias.repository.DenunciaRepository;
+import utp.edu.denuncias.repository.NotificationRepository;
+import utp.edu.denuncias.repository.SolicitudRepository;
+import utp.edu.denuncias.repository.UserRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pruebas del listado de notificaciones no leídas cuando algunas tienen una marca de lectura pendiente:
+ * la página debe llegar completa y el cursor no debe saltarse ninguna notificación.
+ */
+class NotificationServiceTest {
+
+    private static final Long USUARIO = 1L;
+    private static final LocalDateTime FECHA = LocalDateTime.of(2024, 5, 1, 10, 0);
+
+    private final List<NotificationResponse> noLeidas = new ArrayList<>();
+    private int consultas;
+    private NotificationReadBuffer readBuffer;
+    private NotificationService service;
+
+    @BeforeEach
+    void setUp() {
+        NotificationRepository repository = mock(NotificationRepository.class);
+        when(repository.findPageNoLeidasByDestinatarioId(any(), any(), any(), any())).thenAnswer(inv -> {
+            LocalDateTime fecha = inv.getArgument(1);
+            Long id = inv.getArgument(2);
+            Limit limit = inv.getArgument(3);
+            consultas++;
+            return noLeidas.stream()
+                    .filter(n -> LocalDateTime.parse(n.fecha()).isBefore(fecha)
+                            || LocalDateTime.parse(n.fecha()).isEqual(fecha) && n.id() < id)
+                    .sorted(Comparator.comparing(NotificationResponse::fecha).thenComparing(NotificationResponse::id)
+                            .reversed())
+                    .limit(limit.max())
+                    .toList();
+        });
+        var contador = new UnreadNotificationCounter(repository, Duration.ofMinutes(30), 1000);
+        readBuffer = new NotificationReadBuffer(repository, contador, mock(PlatformTransactionManager.class), 500);
+        service = new NotificationService(repository, mock(UserRepository.class), mock(DenunciaRepository.class),
+                mock(SolicitudRepository.class), readBuffer, null, contador);
+    }
+
+    @Test
+    void completaLaPaginaAunqueHayaMarcasPendientes() {
+        agregar(30);
+        // Las más recientes, que ocuparían casi toda la primera consulta, ya se marcaron como leídas
+        LongStream.rangeClosed(12, 30).forEach(id -> readBuffer.marcar(id, USUARIO));
+
+        CursorPage<NotificationResponse> pagina = service.obtenerNotificaciones(USUARIO, true,
+                new CursorPageRequest(null, 5, false));
+
+        assertEquals(List.of(11L, 10L, 9L, 8L, 7L), ids(pagina));
+        assertTrue(pagina.next() != null, "quedan notificaciones no leídas");
+        assertTrue(consultas > 1);
+    }
+
+    @Test
+    void elCursorContinuaSinSaltarseNotificaciones() {
+        agregar(12);
+        LongStream.of(11, 8, 7, 6, 2).forEach(id -> readBuffer.marcar(id, USUARIO));
+
+        List<Long> recorridas = new ArrayList<>();
+        String cursor = null;
+        do {
+            var pagina = service.obtenerNotificaciones(USUARIO, true, new CursorPageRequest(cursor, 3, false));
+            assertTrue(pagina.items().size() == 3 || pagina.next() == null, "página incompleta antes de la última");
+            recorridas.addAll(ids(pagina));
+            cursor = pagina.next();
+        } while (cursor != null);
+
+        assertEquals(List.of(12L, 10L, 9L, 5L, 4L, 3L, 1L), recorridas);
+    }
+
+    @Test
+    void sinMarcasPendientesBastaUnaConsulta() {
+        agregar(4);
+
+        var pagina = service.obtenerNotificaciones(USUARIO, true, new CursorPageRequest(null, 10, false));
+
+        assertEquals(List.of(4L, 3L, 2L, 1L), ids(pagina));
+        assertNull(pagina.next());
+        assertEquals(1, consultas);
+    }
+
+    private void agregar(int cantidad) {
+        for (long id = 1; id <= cantidad; id++) {
+            noLeidas.add(new NotificationResponse(id, "Notificación " + id, "Mensaje", false,
+                    FECHA.plusMinutes(id / 2), null, null, null, null));
+        }
+    }
+
+    private static List<Long> ids(CursorPage<NotificationResponse> pagina) {
+        return pagina.items().stream().map(NotificationResponse::id).toList();
+    }
+}
@@ -0,0 +1,132 @@
+package utp.edu.denuncias.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import utp.edu.denuncias.dto.NotificationResponse;
+import utp.edu.denuncias.model.Notification;
+import utp.edu.denuncias.repository.NotificationRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pruebas del canal SSE de notificaciones: registro de conexiones, reenvío de las notificaciones perdidas
+ * fuera del hilo de la solicitud y envío de las nuevas solo después de confirmar la transacción.
+ */
+class NotificationStreamServiceTest {
+
+    private final List<Runnable> tareas = new ArrayList<>();
+    private final List<EmisorRegistrado> emisores = new ArrayList<>();
+    private final AtomicInteger consultasReenvio = new AtomicInteger();
+    private NotificationStreamService service;
+
+    @BeforeEach
+    void setUp() {
+        NotificationRepository repository = mock(NotificationRepository.class);
+        when(repository.findByDestinatarioIdAndIdGreaterThanOrderByIdAsc(any(), any(), any())).thenAnswer(inv -> {
+            consultasReenvio.incrementAndGet();
+            Long ultimoId = inv.getArgument(1);
+            return List.of(notificacion(ultimoId + 1), notificacion(ultimoId + 2));
+        });
+        TaskExecutor ejecutor = tareas::add;
+        service = new NotificationStreamService(repository, ejecutor, Duration.ofMinutes(30), 5, 100) {
+            @Override
+            SseEmitter nuevoEmisor() {
+                var emisor = new EmisorRegistrado();
+                emisores.add(emisor);
+                return emisor;
+            }
+        };
+    }
+
+    @Test
+    void registraLaConexionDelUsuario() {
+        assertFalse(service.conectado(1L));
+
+        service.suscribir(1L, null);
+
+        assertTrue(service.conectado(1L));
+        assertFalse(service.conectado(2L));
+        assertTrue(tareas.isEmpty(), "sin Last-Event-ID no hay nada que reenviar");
+    }
+
+    @Test
+    void reenviaLasPerdidasFueraDelHiloDeLaSolicitud() {
+        service.suscribir(1L, 40L);
+
+        // La suscripción responde sin consultar; el reenvío queda en el ejecutor
+        assertEquals(0, consultasReenvio.get());
+        assertEquals(1, tareas.size());
+
+        tareas.forEach(Runnable::run);
+
+        assertEquals(1, consultasReenvio.get());
+        assertEquals(List.of(41L, 42L), emisores.getFirst().enviadas);
+    }
+
+    @Test
+    void enviaLasNuevasSoloDespuesDeConfirmar() {
+        service.suscribir(1L, null);
+        service.suscribir(2L, null);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.enviarTrasConfirmar(List.of(
+                    new NotificationStreamService.Envio(1L, NotificationResponse.from(notificacion(7L))),
+                    new NotificationStreamService.Envio(3L, NotificationResponse.from(notificacion(8L)))));
+
+            assertTrue(emisores.getFirst().enviadas.isEmpty(), "se envió antes de confirmar la transacción");
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(List.of(7L), emisores.get(0).enviadas);
+        assertTrue(emisores.get(1).enviadas.isEmpty(), "se envió a un usuario que no es el destinatario");
+    }
+
+    @Test
+    void sinTransaccionEnviaDeInmediato() {
+        service.suscribir(1L, null);
+
+        service.enviarTrasConfirmar(List.of(
+                new NotificationStreamService.Envio(1L, NotificationResponse.from(notificacion(9L)))));
+
+        assertEquals(List.of(9L), emisores.getFirst().enviadas);
+    }
+
+    private static Notification notificacion(Long id) {
+        return Notification.builder().id(id).titulo("Notificación " + id).message("Mensaje")
+                .createdDate(LocalDateTime.of(2024, 5, 1, 10, 0)).build();
+    }
+
+    /**
+     * Emisor que registra los ids de las notificaciones enviadas en lugar de escribirlas en una respuesta.
+     */
+    private static final class EmisorRegistrado extends SseEmitter {
+
+        private final List<Long> enviadas = new ArrayList<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            builder.build().stream()
+                    .filter(d -> d.getData() instanceof NotificationResponse)
+                    .forEach(d -> enviadas.add(((NotificationResponse) d.getData()).id()));
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package utp.edu.denuncias.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import utp.edu.denuncias.enums.Categoria;
+import utp.edu.denuncias.enums.Estado;
+import utp.edu.denuncias.enums.Rol;
+import utp.edu.denuncias.model.Denuncia;
+import utp.edu.denuncias.model.Usuario;
+import utp.edu.denuncias.repository.DenunciaRepository;
+import utp.edu.denuncias.repository.UserRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prueba de estrés del control de concurrencia optimista sobre las transiciones reintentadas de
+ * {@link DenunciaService}: varios hilos cambian a la vez el estado y el moderador de unas pocas denuncias.
+ * <p>
+ * Las estadísticas y la carga de los moderadores se mantienen en memoria aplicando el cambio de cada transición
+ * confirmada (valores antes y después), así que una transición perdida o aplicada sobre datos desactualizados
+ * las desviaría de la base de datos. Al terminar cada ronda se comparan con un recuento desde la base de datos,
+ * y cada operación debe haberse confirmado o terminado en conflicto (409), sin otros errores.
+ * Compara la ejecución sin reintentos con la ejecución con reintentos, e informa el rendimiento de ambas.
+ * Se ejecuta solo con el perfil de Maven {@code benchmark}: {@code mvn test -Pbenchmark}.
+ */
+@Slf4j
+@Tag("benchmark")
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OptimisticConcurrencyStressTest {
+
+    private static final int HILOS = 8;
+    private static final int OPERACIONES_POR_HILO = 25;
+    private static final int DENUNCIAS = 3;
+    private static final List<Estado> ESTADOS = List.of(
+            Estado.PENDIENTE, Estado.EN_PROCESO, Estado.EN_REVISION, Estado.RESUELTO);
+
+    @Autowired
+    private DenunciaRepository denunciaRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final List<Long> denuncias = new ArrayList<>();
+    private final List<Long> moderadores = new ArrayList<>();
+
+    /**
+     * Resultado de una ronda de la prueba.
+     *
+     * @param confirmadas operaciones confirmadas
+     * @param conflictos  operaciones que terminaron en conflicto
+     * @param segundos    duración de la ronda
+     */
+    private record Resultado(int confirmadas, int conflictos, double segundos) {
+    }
+
+    @BeforeEach
+    void setUp() {
+        long sufijo = System.nanoTime();
+        var autor = userRepository.save(usuario("autor" + sufijo, Rol.USER));
+        for (int i = 0; i < 3; i++) {
+            moderadores.add(userRepository.save(usuario("mod" + i + "-" + sufijo, Rol.MOD)).getId());
+        }
+        for (int i = 0; i < DENUNCIAS; i++) {
+            denuncias.add(denunciaRepository.save(Denuncia.builder()
+                    .titulo("Denuncia disputada " + i)
+                    .description("Prueba de concurrencia")
+                    .lugar("Lima")
+                    .categoria(Categoria.values()[i % Categoria.values().length])
+                    .usuario(autor)
+                    .build()).getId());
+        }
+    }
+
+    @Test
+    void sinTransicionesPerdidas() throws Exception {
+        var sinReintentos = ejecutar(new OptimisticRetry(transactionManager, 0, Duration.ZERO));
+        var conReintentos = ejecutar(new OptimisticRetry(transactionManager, 10, Duration.ofMillis(2)));
+
+        registrar("sin reintentos (409 al cliente)", sinReintentos);
+        registrar("con reintentos y jitter        ", conReintentos);
+        assertTrue(conReintentos.confirmadas() >= sinReintentos.confirmadas(),
+                "los reintentos deben confirmar al menos tantas operaciones como la ejecución sin reintentos");
+    }
+
+    /**
+     * Lanza {@link #HILOS} hilos que, a la vez, asignan moderadores y cambian el estado de las mismas denuncias
+     * mediante un {@link DenunciaService} con la política de reintentos indicada, y comprueba que las
+     * estadísticas y la carga de los moderadores en memoria coincidan después con la base de datos.
+     *
+     * @param retry política de reintentos del servicio
+     * @return operaciones confirmadas, conflictos y duración
+     */
+    private Resultado ejecutar(OptimisticRetry retry) throws Exception {
+        var stats = new DenunciaStatsService(denunciaRepository);
+        stats.reconciliar();
+        var engine = new ModeratorAssignmentEngine(denunciaRepository, userRepository, stats, transactionManager,
+                0, false, false, 100);
+        engine.reconstruir();
+        var service = new DenunciaService(denunciaRepository, userRepository, eventPublisher, null, stats, engine, retry);
+
+        var confirmadas = new AtomicInteger();
+        var conflictos = new AtomicInteger();
+        var salida = new CountDownLatch(1);
+        List<Future<?>> tareas = new ArrayList<>();
+        Resultado resultado;
+        try (ExecutorService pool = Executors.newFixedThreadPool(HILOS)) {
+            for (int h = 0; h < HILOS; h++) {
+                var aleatorio = new Random(h);
+                tareas.add(pool.submit(() -> {
+                    salida.await();
+                    for (int i = 0; i < OPERACIONES_POR_HILO; i++) {
+                        Long denuncia = denuncias.get(aleatorio.nextInt(denuncias.size()));
+                        try {
+                            if (aleatorio.nextBoolean()) {
+                                service.asignarModerador(denuncia, moderadores.get(aleatorio.nextInt(moderadores.size())));
+                            } else {
+                                service.cambiarEstadoDenuncia(denuncia, ESTADOS.get(aleatorio.nextInt(ESTADOS.size())).name());
+                            }
+                            confirmadas.incrementAndGet();
+                        } catch (ConcurrencyFailureException e) {
+                            // Incluye OptimisticLockingFailureException: el cliente recibe 409
+                            conflictos.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            long inicio = System.nanoTime();
+            salida.countDown();
+            for (Future<?> tarea : tareas) {
+                tarea.get();
+            }
+            resultado = new Resultado(confirmadas.get(), conflictos.get(), (System.nanoTime() - inicio) / 1e9);
+        }
+
+        assertEquals(HILOS * OPERACIONES_POR_HILO, resultado.confirmadas() + resultado.conflictos());
+        assertEquals(new DenunciaStatsService(denunciaRepository).obtener(), stats.obtener(),
+                "las estadísticas en memoria deben coincidir con la base de datos");
+        for (Long moderador : moderadores) {
+            assertEquals(Optional.of(denunciaRepository.countByModAsignadoIdAndEstadoIn(moderador,
+                            ModeratorAssignmentEngine.ABIERTOS)), engine.carga(moderador),
+                    "la carga en memoria del moderador " + moderador + " debe coincidir con la base de datos");
+        }
+        return resultado;
+    }
+
+    private void registrar(String modo, Resultado resultado) {
+        log.info("{}: {} confirmadas, {} conflictos, {} operaciones confirmadas/s", modo, resultado.confirmadas(),
+                resultado.conflictos(), Math.round(resultado.confirmadas() / resultado.segundos()));
+    }
+
+    private static Usuario usuario(String username, Rol rol) {
+        return Usuario.builder()
+                .nombres(username)
+                .apellidos("Prueba")
+                .username(username)
+                .password("secreto")
+                .dni(username + "-dni")
+                .email(username + "@example.com")
+                .rol(rol)
+                .build();
+    }
+}
@@ -0,0 +1,183 @@
+package utp.edu.denuncias.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import utp.edu.denuncias.repository.NotificationRepository;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pruebas del contador de notificaciones no leídas: incremento al crear notificaciones, descuento de las
+ * marcas individuales (una sola vez aunque la misma notificación se marque mientras se escribe), recálculo
+ * tras marcar todas como leídas y descarte de los contadores inactivos.
+ */
+class UnreadNotificationCounterTest {
+
+    private static final Long USUARIO = 1L;
+
+    private final AtomicLong noLeidasEnBase = new AtomicLong(3);
+    private final AtomicLong consultas = new AtomicLong();
+    private NotificationRepository repository;
+    private UnreadNotificationCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(NotificationRepository.class);
+        when(repository.countByDestinatarioIdAndVistoFalse(any())).thenAnswer(_ -> {
+            consultas.incrementAndGet();
+            return noLeidasEnBase.get();
+        });
+        counter = new UnreadNotificationCounter(repository, Duration.ofMinutes(30), 1000);
+    }
+
+    @Test
+    void cuentaUnaSolaVezYLuegoUsaLaMemoria() {
+        assertEquals(3, counter.obtener(USUARIO));
+        noLeidasEnBase.set(99);
+        assertEquals(3, counter.obtener(USUARIO));
+        assertEquals(1, consultas.get());
+    }
+
+    @Test
+    void incrementaSoloAlConfirmarLaTransaccion() {
+        counter.obtener(USUARIO);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            counter.ajustarTrasConfirmar(USUARIO, 2);
+            assertEquals(3, counter.obtener(USUARIO));
+            TransactionSynchronizationManager.getSynchronizations().forEach(s -> {
+                s.afterCommit();
+                s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            });
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(5, counter.obtener(USUARIO));
+    }
+
+    @Test
+    void noCambiaSiLaTransaccionSeRevierte() {
+        counter.obtener(USUARIO);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            counter.ajustarTrasConfirmar(USUARIO, 1);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(3, counter.obtener(USUARIO));
+    }
+
+    @Test
+    void descuentaCadaMarcaIndividualUnaSolaVez() {
+        var buffer = new NotificationReadBuffer(repository, counter, new TransaccionesSinRecursos(), 500);
+        counter.obtener(USUARIO);
+        // Mientras se escribe el lote, la fila aún figura como no leída: una segunda lectura de la misma
+        // notificación debe encontrar la marca pendiente y no volver a descontarla
+        when(repository.marcarVistas(any())).thenAnswer(inv -> {
+            Collection<Long> ids = inv.getArgument(0);
+            assertTrue(buffer.pendiente(10L), "la marca dejó de estar pendiente antes de confirmar el UPDATE");
+            buffer.marcar(10L, USUARIO);
+            noLeidasEnBase.addAndGet(-ids.size());
+            return ids.size();
+        });
+
+        buffer.marcar(10L, USUARIO);
+        buffer.marcar(10L, USUARIO);
+        assertEquals(2, counter.obtener(USUARIO));
+
+        buffer.flush();
+
+        assertFalse(buffer.pendiente(10L));
+        assertEquals(2, counter.obtener(USUARIO));
+        assertEquals(2, noLeidasEnBase.get());
+    }
+
+    @Test
+    void marcarTodasRecalculaElContador() {
+        counter.obtener(USUARIO);
+        noLeidasEnBase.set(0);
+
+        counter.invalidarTrasConfirmar(USUARIO);
+
+        assertEquals(0, counter.obtener(USUARIO));
+        assertEquals(2, consultas.get());
+    }
+
+    @Test
+    void unCountCruzadoConUnaEscrituraNoSeGuarda() {
+        counter.iniciar(USUARIO);
+        assertEquals(3, counter.obtener(USUARIO));
+        counter.terminar(USUARIO);
+
+        counter.obtener(USUARIO);
+
+        assertEquals(2, consultas.get());
+    }
+
+    @Test
+    void descartaLosContadoresInactivosSalvoLosQueTienenEscriturasEnVuelo() {
+        counter = new UnreadNotificationCounter(repository, Duration.ZERO, 1000);
+        counter.obtener(1L);
+        counter.obtener(2L);
+        counter.iniciar(3L);
+
+        counter.limpiar();
+
+        assertEquals(1, counter.tamano());
+        counter.terminar(3L);
+        counter.limpiar();
+        assertEquals(0, counter.tamano());
+    }
+
+    @Test
+    void conservaComoMaximoLaCantidadConfigurada() {
+        counter = new UnreadNotificationCounter(repository, Duration.ofMinutes(30), 2);
+        for (long id = 1; id <= 5; id++) {
+            counter.obtener(id);
+        }
+
+        counter.limpiar();
+
+        assertEquals(2, counter.tamano());
+    }
+
+    /**
+     * Administrador de transacciones sin recursos, para ejecutar el UPDATE simulado del lote.
+     */
+    private static final class TransaccionesSinRecursos implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
@@ -2,4 +2,11 @@ export interface Enum {
   id: string;
   nombre: string;
   description: string;
-};
\ No newline at end of file
+};
+
+export interface Catalogos {
+  roles: Enum[];
+  categorias: Enum[];
+  estados: Enum[];
+  tiposSolicitud: Enum[];
+};
@@ -0,0 +1,5 @@
+export interface Pagina<T> {
+  items: T[];
+  next?: string;
+  total?: number;
+}
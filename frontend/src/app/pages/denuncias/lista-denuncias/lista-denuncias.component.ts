@@ -2,10 +2,12 @@ import { Component, QueryList, ViewChildren, ElementRef } from '@angular/core';
 
 import { DenunciaService } from '../../../servicios/denuncia.service';
 import { Denuncia } from '../../../model/denuncia';
+import { Pagina } from '../../../model/pagina';
 import { CommonModule } from '@angular/common';
 import { EnumService } from '../../../servicios/enum.service';
 import { ActivatedRoute, Router } from '@angular/router';
 import gsap from 'gsap';
+import { Observable } from 'rxjs';
 
 @Component({
   selector: 'app-lista-denuncias.component',
@@ -15,6 +17,7 @@ import gsap from 'gsap';
 })
 export class ListaDenunciasComponent {
   denuncias: Denuncia[] = [];
+  next?: string;
   categoriasMap = new Map<string, string>();
   estadosMap = new Map<string, string>();
   tipo: string = '';
@@ -71,27 +74,50 @@ export class ListaDenunciasComponent {
     this.router.navigate(['/app/perfil', nombreUsuario]);
   }
 
+  tomarSiguiente() {
+    this.service.reclamarDenuncias().subscribe((asignadas) => {
+      if (asignadas.length > 0) {
+        this.verDetalle((asignadas[0].id ?? '').toString());
+      } else {
+        this.setDenuncias();
+      }
+    });
+  }
+
   setDenuncias() {
+    this.denuncias = [];
+    this.next = undefined;
+    this.cargarPagina();
+  }
+
+  cargarMas() {
+    if (this.next) {
+      this.cargarPagina(this.next);
+    }
+  }
+
+  private cargarPagina(cursor?: string) {
+    let pagina$: Observable<Pagina<Denuncia>>;
     switch (this.tipo) {
       case '':
-        this.service.getDenuncias().subscribe((d) => (this.denuncias = d));
+        pagina$ = this.service.getDenuncias(cursor);
         break;
       case 'no-asignadas':
-        this.service
-          .getDenunciasMod(true)
-          .subscribe((d) => (this.denuncias = d));
+        pagina$ = this.service.getDenunciasMod(true, cursor);
         break;
       case 'pendientes':
-        this.service
-          .getDenunciasMod(false)
-          .subscribe((d) => (this.denuncias = d));
+        pagina$ = this.service.getDenunciasMod(false, cursor);
         break;
       case 'todas':
-        this.service.getAllDenuncias().subscribe((d) => (this.denuncias = d));
+        pagina$ = this.service.getAllDenuncias(cursor);
         break;
       default:
-        this.denuncias = [];
+        return;
     }
+    pagina$.subscribe((p) => {
+      this.denuncias = [...this.denuncias, ...p.items];
+      this.next = p.next;
+    });
   }
 
   loadEnums(): void {
@@ -19,6 +19,7 @@ import gsap from 'gsap';
 })
 export class NotificacionesComponent {
   notificaciones: Notification[] = [];
+  next?: string;
   @ViewChildren('cardRef') cards!: QueryList<ElementRef>;
 
   constructor(private service: UsuarioService, private router: Router) {}
@@ -42,14 +43,19 @@ export class NotificacionesComponent {
     });
   }
 
-  private cargarNotificaciones() {
-    this.service.getNotificaciones().subscribe((notificaciones) => {
-      this.notificaciones = notificaciones;
-      notificaciones.forEach((noti) => {
-        if (!noti.read && noti.id !== undefined) {
-          this.service.markNotificationAsRead(noti.id).subscribe();
-        }
-      });
+  cargarMas() {
+    if (this.next) {
+      this.cargarNotificaciones(this.next);
+    }
+  }
+
+  private cargarNotificaciones(cursor?: string) {
+    this.service.getNotificaciones(cursor).subscribe((p) => {
+      this.notificaciones = cursor ? [...this.notificaciones, ...p.items] : p.items;
+      this.next = p.next;
+      if (!cursor && p.items.some((noti) => !noti.read)) {
+        this.service.markAllNotificationsAsRead().subscribe();
+      }
     });
   }
 
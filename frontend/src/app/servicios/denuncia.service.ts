@@ -1,7 +1,8 @@
 import { Injectable } from '@angular/core';
 import { environment } from '../../environments/environment';
-import { HttpClient } from '@angular/common/http';
+import { HttpClient, HttpParams } from '@angular/common/http';
 import { Denuncia } from '../model/denuncia';
+import { Pagina } from '../model/pagina';
 
 @Injectable({
   providedIn: 'root'
@@ -12,28 +13,35 @@ export class DenunciaService {
 
   constructor(private http: HttpClient) { }
 
-  getDenuncias() {
-    return this.http.get<Denuncia[]>(`${this.baseUrl}/usuario`);
+  private pageParams(cursor?: string, size?: number) {
+    let params = new HttpParams();
+    if (cursor) params = params.set('cursor', cursor);
+    if (size) params = params.set('size', size);
+    return params;
+  }
+
+  getDenuncias(cursor?: string, size?: number) {
+    return this.http.get<Pagina<Denuncia>>(`${this.baseUrl}/usuario`, { params: this.pageParams(cursor, size) });
   }
 
   getDenunciaById(id: number) {
     return this.http.get<Denuncia>(`${this.baseUrl}/usuario/${id}`);
   }
 
-  getDenunciasMod(all: boolean) {
-    return this.http.get<Denuncia[]>(`${this.baseUrl}/mod/${all}`);
+  getDenunciasMod(all: boolean, cursor?: string, size?: number) {
+    return this.http.get<Pagina<Denuncia>>(`${this.baseUrl}/mod/${all}`, { params: this.pageParams(cursor, size) });
   }
 
-  getAllDenuncias() {
-    return this.http.get<Denuncia[]>(`${this.baseUrl}/admin`);
+  getAllDenuncias(cursor?: string, size?: number) {
+    return this.http.get<Pagina<Denuncia>>(`${this.baseUrl}/admin`, { params: this.pageParams(cursor, size) });
   }
 
-  getDenunciaByUsuario(id: number) {
-    return this.http.get<Denuncia[]>(`${this.baseUrl}/admin/usuario/${id}`);
+  getDenunciaByUsuario(id: number, cursor?: string, size?: number) {
+    return this.http.get<Pagina<Denuncia>>(`${this.baseUrl}/admin/usuario/${id}`, { params: this.pageParams(cursor, size) });
   }
 
-  getDenunciaByMod(id: number) {
-    return this.http.get<Denuncia[]>(`${this.baseUrl}/admin/mod/${id}`);
+  getDenunciaByMod(id: number, cursor?: string, size?: number) {
+    return this.http.get<Pagina<Denuncia>>(`${this.baseUrl}/admin/mod/${id}`, { params: this.pageParams(cursor, size) });
   }
 
   createDenuncia(data: Partial<Denuncia>) {
@@ -48,6 +56,10 @@ export class DenunciaService {
     return this.http.put<Denuncia>(`${this.baseUrl}/admin/${id}/estado/${id}/${estado}`, {});
   }
 
+  reclamarDenuncias(size = 1) {
+    return this.http.post<Denuncia[]>(`${this.baseUrl}/mod/claim`, {}, { params: new HttpParams().set('size', size) });
+  }
+
   asignarModDenuncia(id: number, idMod: number) {
     return this.http.put<Denuncia>(`${this.baseUrl}/admin/asignar/${id}/${idMod}`, {});
   }
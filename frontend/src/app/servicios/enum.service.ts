@@ -1,7 +1,8 @@
 import { HttpClient } from '@angular/common/http';
 import { Injectable } from '@angular/core';
+import { Observable, map, shareReplay } from 'rxjs';
 import { environment } from '../../environments/environment';
-import { Enum } from '../model/enum';
+import { Catalogos } from '../model/enum';
 
 @Injectable({
   providedIn: 'root',
@@ -9,22 +10,27 @@ import { Enum } from '../model/enum';
 export class EnumService {
   private baseUrl = `${environment.apiUrl}/api/enum`;
 
-  constructor(private http: HttpClient) {}
+  // Los catálogos no cambian mientras la aplicación está abierta: se piden una sola vez, todos juntos
+  private catalogos$: Observable<Catalogos>;
+
+  constructor(private http: HttpClient) {
+    this.catalogos$ = this.http.get<Catalogos>(`${this.baseUrl}/all`).pipe(shareReplay(1));
+  }
 
   getRoles() {
-    return this.http.get<Enum[]>(`${this.baseUrl}/roles`);
+    return this.catalogos$.pipe(map((c) => c.roles));
   }
 
   getCategorias() {
-    return this.http.get<Enum[]>(`${this.baseUrl}/categorias`);
+    return this.catalogos$.pipe(map((c) => c.categorias));
   }
 
   getEstados() {
-    return this.http.get<Enum[]>(`${this.baseUrl}/estados`);
+    return this.catalogos$.pipe(map((c) => c.estados));
   }
 
   getTiposSolicitud() {
-    return this.http.get<Enum[]>(`${this.baseUrl}/tiposSolicitud`);
+    return this.catalogos$.pipe(map((c) => c.tiposSolicitud));
   }
 
 }
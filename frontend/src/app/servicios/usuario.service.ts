@@ -1,8 +1,9 @@
-import { HttpClient } from '@angular/common/http';
+import { HttpClient, HttpParams } from '@angular/common/http';
 import { Injectable } from '@angular/core';
 import { environment } from '../../environments/environment';
 import { Usuario } from '../model/usuario';
 import { Notification } from '../model/notification';
+import { Pagina } from '../model/pagina';
 import { Observable } from 'rxjs';
 
 @Injectable({
@@ -56,12 +57,23 @@ export class UsuarioService {
     return this.http.delete(`${this.baseUrl}/admin/${id}`);
   }
 
-  getNotificaciones() {
-    return this.http.get<Notification[]>(`${this.baseUrl}/notificaciones`);
+  getNotificaciones(cursor?: string, unread = false) {
+    let params = new HttpParams();
+    if (cursor) params = params.set('cursor', cursor);
+    if (unread) params = params.set('unread', true);
+    return this.http.get<Pagina<Notification>>(`${this.baseUrl}/notificaciones`, { params });
+  }
+
+  getUnreadNotificationCount() {
+    return this.http.get<number>(`${this.baseUrl}/notificaciones/unread-count`);
   }
 
   markNotificationAsRead(id: number) {
     return this.http.put(`${this.baseUrl}/notificaciones/${id}`, {});
   }
 
+  markAllNotificationsAsRead() {
+    return this.http.put(`${this.baseUrl}/notificaciones`, {});
+  }
+
 }